@@ -32,7 +32,13 @@ public enum Attribute {
 
     UNKNOWN(null),
     DATA_SOURCE("data-source"),
+    MAX_EXECUTION_AGE("max-execution-age"),
+    MAX_EXECUTIONS("max-executions"),
     NAME("name"),
+    PURGE_BATCH_SIZE("purge-batch-size"),
+    PURGE_INTERVAL("purge-interval"),
+    TABLE_PREFIX("table-prefix"),
+    TABLE_SUFFIX("table-suffix"),
     VALUE("value");
 
     private final String name;
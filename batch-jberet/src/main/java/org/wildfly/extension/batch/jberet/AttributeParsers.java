@@ -110,4 +110,37 @@ class AttributeParsers {
         }
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads the required and optional attributes from an XML configuration.
+     *
+     * @param reader   the reader for the attributes
+     * @param required the required attributes
+     * @param optional the optional attributes
+     *
+     * @return a map of the attributes read with the key being the attribute and the value being the value of the
+     * attribute
+     *
+     * @throws XMLStreamException if an XML processing error occurs
+     */
+    static Map<Attribute, String> readAttributes(final XMLExtendedStreamReader reader, final Set<Attribute> required, final Set<Attribute> optional) throws XMLStreamException {
+        final Set<Attribute> attributes = EnumSet.copyOf(required);
+        attributes.addAll(optional);
+        final int attributeCount = reader.getAttributeCount();
+        final Map<Attribute, String> result = new EnumMap<>(Attribute.class);
+        for (int i = 0; i < attributeCount; i++) {
+            final Attribute current = Attribute.forName(reader.getAttributeLocalName(i));
+            if (attributes.contains(current)) {
+                if (result.put(current, reader.getAttributeValue(i)) != null) {
+                    throw ParseUtils.duplicateAttribute(reader, current.getLocalName());
+                }
+            } else {
+                throw ParseUtils.unexpectedAttribute(reader, i, attributes.stream().map(Attribute::getLocalName).collect(Collectors.toSet()));
+            }
+        }
+        if (!result.keySet().containsAll(required)) {
+            throw ParseUtils.missingRequired(reader, required.stream().filter(attribute -> !result.containsKey(attribute)).map(Attribute::getLocalName).collect(Collectors.toSet()));
+        }
+        return result;
+    }
+}
@@ -127,9 +127,8 @@ public class BatchSubsystemParser_1_0 implements XMLStreamConstants, XMLElementR
                 ops.add(Util.createAddOperation(subsystemAddress.append(InMemoryJobRepositoryDefinition.NAME, name)));
                 ParseUtils.requireNoContent(reader);
             } else if (element == Element.JDBC) {
-                final Map<Attribute, String> attributes = AttributeParsers.readRequiredAttributes(reader, EnumSet.of(Attribute.DATA_SOURCE));
                 final ModelNode op = Util.createAddOperation(subsystemAddress.append(JdbcJobRepositoryDefinition.NAME, name));
-                JdbcJobRepositoryDefinition.DATA_SOURCE.parseAndSetParameter(attributes.get(Attribute.DATA_SOURCE), op, reader);
+                parseJdbcJobRepository(reader, op);
                 ops.add(op);
                 ParseUtils.requireNoContent(reader);
             } else {
@@ -137,4 +136,9 @@ public class BatchSubsystemParser_1_0 implements XMLStreamConstants, XMLElementR
             }
         }
     }
+
+    void parseJdbcJobRepository(final XMLExtendedStreamReader reader, final ModelNode op) throws XMLStreamException {
+        final Map<Attribute, String> attributes = AttributeParsers.readRequiredAttributes(reader, EnumSet.of(Attribute.DATA_SOURCE));
+        JdbcJobRepositoryDefinition.DATA_SOURCE.parseAndSetParameter(attributes.get(Attribute.DATA_SOURCE), op, reader);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.batch.jberet;
+
+import java.util.EnumSet;
+import java.util.Map;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+import org.wildfly.extension.batch.jberet.job.repository.JdbcJobRepositoryDefinition;
+
+/**
+ * Parses version 3.0 of the subsystem, which adds the purge settings and table name affixes of a JDBC job repository.
+ */
+class BatchSubsystemParser_3_0 extends BatchSubsystemParser_2_0 {
+
+    @Override
+    void parseJdbcJobRepository(final XMLExtendedStreamReader reader, final ModelNode op) throws XMLStreamException {
+        final Map<Attribute, String> attributes = AttributeParsers.readAttributes(reader, EnumSet.of(Attribute.DATA_SOURCE),
+                EnumSet.of(Attribute.MAX_EXECUTION_AGE, Attribute.MAX_EXECUTIONS, Attribute.PURGE_INTERVAL, Attribute.PURGE_BATCH_SIZE,
+                        Attribute.TABLE_PREFIX, Attribute.TABLE_SUFFIX));
+        JdbcJobRepositoryDefinition.DATA_SOURCE.parseAndSetParameter(attributes.get(Attribute.DATA_SOURCE), op, reader);
+        parseOptionalAttribute(attributes.get(Attribute.MAX_EXECUTION_AGE), JdbcJobRepositoryDefinition.MAX_EXECUTION_AGE, op, reader);
+        parseOptionalAttribute(attributes.get(Attribute.MAX_EXECUTIONS), JdbcJobRepositoryDefinition.MAX_EXECUTIONS, op, reader);
+        parseOptionalAttribute(attributes.get(Attribute.PURGE_INTERVAL), JdbcJobRepositoryDefinition.PURGE_INTERVAL, op, reader);
+        parseOptionalAttribute(attributes.get(Attribute.PURGE_BATCH_SIZE), JdbcJobRepositoryDefinition.PURGE_BATCH_SIZE, op, reader);
+        parseOptionalAttribute(attributes.get(Attribute.TABLE_PREFIX), JdbcJobRepositoryDefinition.TABLE_PREFIX, op, reader);
+        parseOptionalAttribute(attributes.get(Attribute.TABLE_SUFFIX), JdbcJobRepositoryDefinition.TABLE_SUFFIX, op, reader);
+    }
+
+    private static void parseOptionalAttribute(final String value, final SimpleAttributeDefinition attribute, final ModelNode op, final XMLExtendedStreamReader reader) throws XMLStreamException {
+        if (value != null) {
+            attribute.parseAndSetParameter(value, op, reader);
+        }
+    }
+}
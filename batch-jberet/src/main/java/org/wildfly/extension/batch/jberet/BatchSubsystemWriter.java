@@ -69,6 +69,12 @@ public class BatchSubsystemWriter implements XMLElementWriter<SubsystemMarshalli
                 writeNameAttribute(writer, property.getName());
                 writer.writeStartElement(Element.JDBC.getLocalName());
                 JdbcJobRepositoryDefinition.DATA_SOURCE.marshallAsAttribute(property.getValue(), writer);
+                JdbcJobRepositoryDefinition.MAX_EXECUTION_AGE.marshallAsAttribute(property.getValue(), writer);
+                JdbcJobRepositoryDefinition.MAX_EXECUTIONS.marshallAsAttribute(property.getValue(), writer);
+                JdbcJobRepositoryDefinition.PURGE_INTERVAL.marshallAsAttribute(property.getValue(), writer);
+                JdbcJobRepositoryDefinition.PURGE_BATCH_SIZE.marshallAsAttribute(property.getValue(), writer);
+                JdbcJobRepositoryDefinition.TABLE_PREFIX.marshallAsAttribute(property.getValue(), writer);
+                JdbcJobRepositoryDefinition.TABLE_SUFFIX.marshallAsAttribute(property.getValue(), writer);
                 writer.writeEndElement();
                 writer.writeEndElement(); // end job-repository
             }
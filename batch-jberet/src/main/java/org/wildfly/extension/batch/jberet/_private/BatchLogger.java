@@ -28,6 +28,7 @@ import javax.batch.operations.JobSecurityException;
 import javax.batch.operations.JobStartException;
 import javax.batch.operations.NoSuchJobException;
 
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.logging.BasicLogger;
@@ -215,4 +216,46 @@ public interface BatchLogger extends BasicLogger {
      */
     @Message(id = 20, value = "Permission denied. User %s does not have %s permissions.")
     JobSecurityException unauthorized(String user, Permission permission);
+
+    /**
+     * Creates an exception indicating the executions of a job could not be read from the job repository.
+     *
+     * @param cause   the cause of the error
+     * @param jobName the name of the job
+     *
+     * @return a {@link BatchRuntimeException} for the error
+     */
+    @Message(id = 21, value = "Failed to read the executions of job %s from the job repository")
+    BatchRuntimeException failedToReadJobExecutions(@Cause Throwable cause, String jobName);
+
+    /**
+     * Logs a warning message indicating the expired job executions could not be purged from a job repository.
+     *
+     * @param cause          the cause of the error
+     * @param repositoryName the name of the job repository
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id = 22, value = "Failed to purge expired job executions from job repository %s")
+    void failedToPurgeJobRepository(@Cause Throwable cause, String repositoryName);
+
+    /**
+     * Creates an exception indicating the size of a job repository could not be read.
+     *
+     * @param cause          the cause of the error
+     * @param repositoryName the name of the job repository
+     *
+     * @return an {@link OperationFailedException} for the error
+     */
+    @Message(id = 23, value = "Failed to read the size of job repository %s")
+    OperationFailedException failedToReadJobRepositorySize(@Cause Throwable cause, String repositoryName);
+
+    /**
+     * Logs an informational message indicating that only the most recent executions of a job are listed.
+     *
+     * @param jobName the name of the job
+     * @param max     the maximum number of listed executions
+     */
+    @LogMessage(level = Level.INFO)
+    @Message(id = 24, value = "Only the %2$d most recent executions of job %1$s are listed as resources. Use the list-executions operation of the job to list older executions.")
+    void executionsTruncated(String jobName, int max);
 }
@@ -22,14 +22,12 @@
 
 package org.wildfly.extension.batch.jberet.deployment;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Supplier;
-import javax.batch.runtime.JobExecution;
-import javax.batch.runtime.JobInstance;
+import javax.batch.operations.NoSuchJobExecutionException;
 
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
@@ -38,6 +36,7 @@ import org.jboss.as.controller.registry.PlaceholderResource.PlaceholderResourceE
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
 import org.wildfly.extension.batch.jberet._private.BatchLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Represents a dynamic resource for batch {@link javax.batch.runtime.JobExecution job executions}.
@@ -46,11 +45,19 @@ import org.wildfly.extension.batch.jberet._private.BatchLogger;
  */
 public class BatchJobExecutionResource implements Resource {
 
+    /**
+     * The maximum number of most recent executions listed as children of a job. Older executions are still
+     * addressable by their execution id, and are listed by the {@code list-executions} operation of the job.
+     */
+    static final int MAX_LISTED_EXECUTIONS = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged("org.wildfly.batch.jberet.max-listed-executions", "1000"));
+
     private final Resource delegate;
     private final WildFlyJobOperator jobOperator;
     private final String jobName;
     // Should be guarded by it's instance
     private final Set<String> children = new LinkedHashSet<>();
+    // Guarded by children
+    private boolean truncationLogged = false;
 
     BatchJobExecutionResource(final WildFlyJobOperator jobOperator, final String jobName) {
         this(Factory.create(true), jobOperator, jobName);
@@ -205,10 +212,28 @@ public class BatchJobExecutionResource implements Resource {
             if (children.contains(executionName)) {
                 return true;
             }
-            // Load a cache of the names
-            refreshChildren();
-            return children.contains(executionName);
         }
+        // Executions beyond the listed ones are looked up individually rather than reloading all executions
+        final long executionId;
+        try {
+            executionId = Long.parseLong(executionName);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        // Casting to (Supplier<Boolean>) is done here on purpose as a workaround for a bug in 1.8.0_45
+        final boolean found = jobOperator.allowMissingJob((Supplier<Boolean>) () -> {
+            try {
+                return jobName.equals(jobOperator.getJobExecution(executionId).getJobName());
+            } catch (NoSuchJobExecutionException e) {
+                return false;
+            }
+        }, false);
+        if (found) {
+            synchronized (children) {
+                children.add(executionName);
+            }
+        }
+        return found;
     }
 
     /**
@@ -216,17 +241,18 @@ public class BatchJobExecutionResource implements Resource {
      * guarded.
      */
     private void refreshChildren() {
-        final List<JobExecution> executions = new ArrayList<>();
-        // Casting to (Supplier<List<JobInstance>>) is done here on purpose as a workaround for a bug in 1.8.0_45
-        final List<JobInstance> instances = jobOperator.allowMissingJob((Supplier<List<JobInstance>>)() -> jobOperator.getJobInstances(jobName, 0, jobOperator.getJobInstanceCount(jobName))
-                , Collections.emptyList());
-        for (JobInstance instance : instances) {
-            executions.addAll(jobOperator.getJobExecutions(instance));
-        }
+        // Only the most recent executions are listed, read with a single query for repositories which support it
+        // Casting to (Supplier<List<Long>>) is done here on purpose as a workaround for a bug in 1.8.0_45
+        // One more than listed is read to detect truncation
+        final List<Long> executionIds = jobOperator.allowMissingJob((Supplier<List<Long>>) () -> jobOperator.getJobExecutionIds(jobName, 0, MAX_LISTED_EXECUTIONS + 1),
+                Collections.emptyList());
         children.clear();
-        for (JobExecution execution : executions) {
-            final String name = Long.toString(execution.getExecutionId());
-            children.add(name);
+        for (Long executionId : executionIds.subList(0, Math.min(MAX_LISTED_EXECUTIONS, executionIds.size()))) {
+            children.add(Long.toString(executionId));
+        }
+        if (executionIds.size() > MAX_LISTED_EXECUTIONS && !truncationLogged) {
+            BatchLogger.LOGGER.executionsTruncated(jobName, MAX_LISTED_EXECUTIONS);
+            truncationLogged = true;
         }
     }
 }
@@ -22,13 +22,21 @@
 
 package org.wildfly.extension.batch.jberet.deployment;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleListAttributeDefinition;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -58,10 +66,39 @@ public class BatchJobResourceDefinition extends SimpleResourceDefinition {
             .setStorageRuntime()
             .build();
 
+    private static final SimpleAttributeDefinition OFFSET = SimpleAttributeDefinitionBuilder.create("offset", ModelType.INT, true)
+            .setDefaultValue(new ModelNode(0))
+            .setValidator(new IntRangeValidator(0, true))
+            .build();
+
+    private static final SimpleAttributeDefinition LIMIT = SimpleAttributeDefinitionBuilder.create("limit", ModelType.INT, true)
+            .setDefaultValue(new ModelNode(BatchJobExecutionResource.MAX_LISTED_EXECUTIONS))
+            .setValidator(new IntRangeValidator(1, true))
+            .build();
+
+    private static final SimpleAttributeDefinition EXECUTION_ID = SimpleAttributeDefinitionBuilder.create("execution-id", ModelType.LONG)
+            .build();
+
+    private static final SimpleListAttributeDefinition EXECUTIONS = SimpleListAttributeDefinition.Builder.of("executions", EXECUTION_ID)
+            .build();
+
+    private static final SimpleAttributeDefinition TRUNCATED = SimpleAttributeDefinitionBuilder.create("truncated", ModelType.BOOLEAN)
+            .build();
+
+    private static final ResourceDescriptionResolver DEFAULT_RESOLVER = BatchResourceDescriptionResolver.getResourceDescriptionResolver("deployment", "job");
+
+    private static final SimpleOperationDefinition LIST_EXECUTIONS = new SimpleOperationDefinitionBuilder("list-executions", DEFAULT_RESOLVER)
+            .setParameters(OFFSET, LIMIT)
+            .setReplyType(ModelType.OBJECT)
+            .setReplyParameters(EXECUTIONS, TRUNCATED)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .build();
+
     public static final BatchJobResourceDefinition INSTANCE = new BatchJobResourceDefinition();
 
     private BatchJobResourceDefinition() {
-        super(new Parameters(PathElement.pathElement(JOB), BatchResourceDescriptionResolver.getResourceDescriptionResolver("deployment", "job")).setRuntime());
+        super(new Parameters(PathElement.pathElement(JOB), DEFAULT_RESOLVER).setRuntime());
     }
 
     @Override
@@ -89,4 +126,28 @@ public class BatchJobResourceDefinition extends SimpleResourceDefinition {
         });
     }
 
+    @Override
+    public void registerOperations(final ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        resourceRegistration.registerOperationHandler(LIST_EXECUTIONS, new JobOperationStepHandler(false) {
+            @Override
+            protected void execute(final OperationContext context, final ModelNode operation, final WildFlyJobOperator jobOperator) throws OperationFailedException {
+                final String jobName = context.getCurrentAddressValue();
+                final int offset = resolveValue(context, operation, OFFSET).asInt();
+                final int limit = resolveValue(context, operation, LIMIT).asInt();
+                // Read one more than requested to detect whether further executions exist
+                final int count = (int) Math.min((long) limit + 1, Integer.MAX_VALUE);
+                // Casting to (Supplier<List<Long>>) is done here on purpose as a workaround for a bug in 1.8.0_45
+                final List<Long> executionIds = jobOperator.allowMissingJob((Supplier<List<Long>>) () -> jobOperator.getJobExecutionIds(jobName, offset, count),
+                        Collections.emptyList());
+                final ModelNode result = context.getResult();
+                final ModelNode executions = result.get(EXECUTIONS.getName()).setEmptyList();
+                for (Long executionId : executionIds.subList(0, Math.min(limit, executionIds.size()))) {
+                    executions.add(executionId);
+                }
+                result.get(TRUNCATED.getName()).set(executionIds.size() > limit);
+            }
+        });
+    }
+
 }
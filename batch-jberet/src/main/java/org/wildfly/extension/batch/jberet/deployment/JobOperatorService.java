@@ -53,6 +53,7 @@ import javax.batch.runtime.JobInstance;
 import javax.batch.runtime.StepExecution;
 
 import org.jberet.operations.AbstractJobOperator;
+import org.jberet.repository.JobRepository;
 import org.jberet.runtime.JobExecutionImpl;
 import org.jberet.spi.BatchEnvironment;
 import org.jboss.as.server.suspend.ServerActivity;
@@ -66,6 +67,7 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.batch.jberet.BatchConfiguration;
 import org.wildfly.extension.batch.jberet._private.BatchLogger;
+import org.wildfly.extension.batch.jberet.job.repository.PagedJobRepository;
 import org.wildfly.security.auth.server.SecurityDomain;
 import org.wildfly.security.auth.server.SecurityIdentity;
 import org.wildfly.security.manager.WildFlySecurityManager;
@@ -188,6 +190,22 @@ public class JobOperatorService extends AbstractJobOperator implements WildFlyJo
         }
     }
 
+    @Override
+    public List<Long> getJobExecutionIds(final String jobName, final int start, final int count) throws NoSuchJobException, JobSecurityException {
+        checkState(jobName);
+        final ClassLoader current = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+        try {
+            WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(classLoader);
+            final JobRepository repository = getJobRepository();
+            if (repository instanceof PagedJobRepository) {
+                return ((PagedJobRepository) repository).getJobExecutionIds(jobName, start, count);
+            }
+            return PagedJobRepository.getJobExecutionIds(repository, jobName, start, count);
+        } finally {
+            WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(current);
+        }
+    }
+
     @Override
     public List<Long> getRunningExecutions(final String jobName) throws NoSuchJobException, JobSecurityException {
         checkState(jobName);
@@ -17,9 +17,11 @@
 package org.wildfly.extension.batch.jberet.deployment;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Supplier;
 import javax.batch.operations.JobOperator;
+import javax.batch.operations.JobSecurityException;
 import javax.batch.operations.NoSuchJobException;
 
 /**
@@ -53,6 +55,20 @@ interface WildFlyJobOperator extends JobOperator {
      */
     Set<String> getAllJobNames();
 
+    /**
+     * Returns the ids of the executions of a job, most recent first, a page at a time.
+     *
+     * @param jobName the name of the job
+     * @param start   the number of most recent executions to skip
+     * @param count   the maximum number of ids to return
+     *
+     * @return the ids of the job executions
+     *
+     * @throws NoSuchJobException   if the job is not valid for this deployment
+     * @throws JobSecurityException if the current user is not allowed to read job executions
+     */
+    List<Long> getJobExecutionIds(String jobName, int start, int count) throws NoSuchJobException, JobSecurityException;
+
     /**
      * Allows safe execution of a method catching any {@link NoSuchJobException} thrown. If the exception is thrown the
      * default value is returned, otherwise the value from the supplier is returned.
@@ -22,10 +22,15 @@
 
 package org.wildfly.extension.batch.jberet.job.repository;
 
+import java.sql.SQLException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import javax.sql.DataSource;
 
 import org.jberet.repository.JobRepository;
 import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
@@ -34,12 +39,19 @@ import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.server.ServerService;
 import org.jboss.as.server.Services;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceTarget;
 import org.wildfly.extension.batch.jberet.BatchResourceDescriptionResolver;
+import org.wildfly.extension.batch.jberet._private.BatchLogger;
 import org.wildfly.extension.batch.jberet._private.Capabilities;
 
 /**
@@ -60,6 +72,80 @@ public class JdbcJobRepositoryDefinition extends SimpleResourceDefinition {
             .setRestartAllServices()
             .build();
 
+    /**
+     * The maximum age, in minutes, of a finished job execution before it is purged.
+     */
+    public static final SimpleAttributeDefinition MAX_EXECUTION_AGE = SimpleAttributeDefinitionBuilder.create("max-execution-age", ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setMeasurementUnit(MeasurementUnit.MINUTES)
+            .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+            .setRestartAllServices()
+            .build();
+
+    /**
+     * The number of most recent executions retained per job, older finished executions are purged.
+     */
+    public static final SimpleAttributeDefinition MAX_EXECUTIONS = SimpleAttributeDefinitionBuilder.create("max-executions", ModelType.INT, true)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+            .setRestartAllServices()
+            .build();
+
+    /**
+     * The interval, in minutes, between purges of expired job executions.
+     */
+    public static final SimpleAttributeDefinition PURGE_INTERVAL = SimpleAttributeDefinitionBuilder.create("purge-interval", ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(60L))
+            .setMeasurementUnit(MeasurementUnit.MINUTES)
+            .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+            .setRestartAllServices()
+            .build();
+
+    /**
+     * The maximum number of job executions deleted per transaction during a purge.
+     */
+    public static final SimpleAttributeDefinition PURGE_BATCH_SIZE = SimpleAttributeDefinitionBuilder.create("purge-batch-size", ModelType.INT, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(100))
+            .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+            .setRestartAllServices()
+            .build();
+
+    /**
+     * The prefix of the names of the repository tables.
+     */
+    public static final SimpleAttributeDefinition TABLE_PREFIX = SimpleAttributeDefinitionBuilder.create("table-prefix", ModelType.STRING, true)
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    /**
+     * The suffix of the names of the repository tables.
+     */
+    public static final SimpleAttributeDefinition TABLE_SUFFIX = SimpleAttributeDefinitionBuilder.create("table-suffix", ModelType.STRING, true)
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    static final AttributeDefinition[] ATTRIBUTES = { DATA_SOURCE, MAX_EXECUTION_AGE, MAX_EXECUTIONS, PURGE_INTERVAL, PURGE_BATCH_SIZE, TABLE_PREFIX, TABLE_SUFFIX };
+
+    static final SimpleAttributeDefinition PURGED_JOB_EXECUTIONS = SimpleAttributeDefinitionBuilder.create("purged-job-executions", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition PURGED_ROWS = SimpleAttributeDefinitionBuilder.create("purged-rows", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition JOB_EXECUTION_COUNT = SimpleAttributeDefinitionBuilder.create("job-execution-count", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition STEP_EXECUTION_COUNT = SimpleAttributeDefinitionBuilder.create("step-execution-count", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
     public JdbcJobRepositoryDefinition() {
         super(
                 new Parameters(PATH, BatchResourceDescriptionResolver.getResourceDescriptionResolver(NAME))
@@ -72,13 +158,22 @@ public class JdbcJobRepositoryDefinition extends SimpleResourceDefinition {
     @Override
     public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
         super.registerAttributes(resourceRegistration);
-        resourceRegistration.registerReadWriteAttribute(DATA_SOURCE, null, new ReloadRequiredWriteAttributeHandler(DATA_SOURCE));
+        final ReloadRequiredWriteAttributeHandler writeHandler = new ReloadRequiredWriteAttributeHandler(ATTRIBUTES);
+        for (AttributeDefinition attribute : ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attribute, null, writeHandler);
+        }
+        if (resourceRegistration.getProcessType().isServer()) {
+            resourceRegistration.registerMetric(PURGED_JOB_EXECUTIONS, JdbcJobRepositoryMetricHandler.INSTANCE);
+            resourceRegistration.registerMetric(PURGED_ROWS, JdbcJobRepositoryMetricHandler.INSTANCE);
+            resourceRegistration.registerMetric(JOB_EXECUTION_COUNT, JdbcJobRepositoryMetricHandler.INSTANCE);
+            resourceRegistration.registerMetric(STEP_EXECUTION_COUNT, JdbcJobRepositoryMetricHandler.INSTANCE);
+        }
     }
 
     private static class JdbcRepositoryAddHandler extends AbstractAddStepHandler {
 
         JdbcRepositoryAddHandler() {
-            super(Capabilities.JOB_REPOSITORY_CAPABILITY, DATA_SOURCE);
+            super(Capabilities.JOB_REPOSITORY_CAPABILITY, ATTRIBUTES);
         }
 
         @Override
@@ -86,13 +181,54 @@ public class JdbcJobRepositoryDefinition extends SimpleResourceDefinition {
             super.performRuntime(context, operation, model);
             final String name = context.getCurrentAddressValue();
             final String dsName = DATA_SOURCE.resolveModelAttribute(context, model).asString();
+            final ModelNode maxExecutionAge = MAX_EXECUTION_AGE.resolveModelAttribute(context, model);
+            final ModelNode maxExecutions = MAX_EXECUTIONS.resolveModelAttribute(context, model);
+            final JobExecutionRetention retention = new JobExecutionRetention(maxExecutionAge.isDefined() ? maxExecutionAge.asLong() : 0L,
+                    TimeUnit.MINUTES, maxExecutions.isDefined() ? maxExecutions.asInt() : 0);
+            final long purgeInterval = PURGE_INTERVAL.resolveModelAttribute(context, model).asLong();
+            final int purgeBatchSize = PURGE_BATCH_SIZE.resolveModelAttribute(context, model).asInt();
+            final ModelNode tablePrefix = TABLE_PREFIX.resolveModelAttribute(context, model);
+            final ModelNode tableSuffix = TABLE_SUFFIX.resolveModelAttribute(context, model);
             final ServiceTarget target = context.getServiceTarget();
-            final JdbcJobRepositoryService service = new JdbcJobRepositoryService();
+            final JdbcJobRepositoryService service = new JdbcJobRepositoryService(name, retention, purgeInterval, purgeBatchSize,
+                    tablePrefix.isDefined() ? tablePrefix.asString() : null, tableSuffix.isDefined() ? tableSuffix.asString() : null);
             Services.addServerExecutorDependency(
                     target.addService(context.getCapabilityServiceName(Capabilities.JOB_REPOSITORY_CAPABILITY.getName(), name, JobRepository.class), service),
                     service.getExecutorServiceInjector())
+                    .addDependency(ServerService.JBOSS_SERVER_SCHEDULED_EXECUTOR, ScheduledExecutorService.class, service.getScheduledExecutorServiceInjector())
                     .addDependency(context.getCapabilityServiceName(Capabilities.DATA_SOURCE_CAPABILITY, dsName, DataSource.class), DataSource.class, service.getDataSourceInjector())
                     .install();
         }
     }
+
+    private static class JdbcJobRepositoryMetricHandler extends AbstractRuntimeOnlyHandler {
+        static final JdbcJobRepositoryMetricHandler INSTANCE = new JdbcJobRepositoryMetricHandler();
+
+        @Override
+        protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final String name = context.getCurrentAddressValue();
+            final ServiceController<?> controller = context.getServiceRegistry(false)
+                    .getService(context.getCapabilityServiceName(Capabilities.JOB_REPOSITORY_CAPABILITY.getName(), name, JobRepository.class));
+            if (controller == null || controller.getState() != ServiceController.State.UP) {
+                // The repository is not started, so there is nothing to report
+                return;
+            }
+            final JdbcJobRepositoryService service = (JdbcJobRepositoryService) controller.getService();
+            final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+            final ModelNode result = context.getResult();
+            try {
+                if (PURGED_JOB_EXECUTIONS.getName().equals(attributeName)) {
+                    result.set(service.getPurgedJobExecutions());
+                } else if (PURGED_ROWS.getName().equals(attributeName)) {
+                    result.set(service.getPurgedRows());
+                } else if (JOB_EXECUTION_COUNT.getName().equals(attributeName)) {
+                    result.set(service.getJobExecutionCount());
+                } else if (STEP_EXECUTION_COUNT.getName().equals(attributeName)) {
+                    result.set(service.getStepExecutionCount());
+                }
+            } catch (SQLException e) {
+                throw BatchLogger.LOGGER.failedToReadJobRepositorySize(e, name);
+            }
+        }
+    }
 }
@@ -22,11 +22,34 @@
 
 package org.wildfly.extension.batch.jberet.job.repository;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
 import javax.sql.DataSource;
 
 import org.jberet.repository.JdbcRepository;
+import org.jberet.repository.JobExecutionSelector;
 import org.jberet.repository.JobRepository;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.Service;
@@ -43,9 +66,90 @@ import org.wildfly.extension.batch.jberet._private.BatchLogger;
  */
 public class JdbcJobRepositoryService extends JobRepositoryService implements Service<JobRepository> {
 
+    // Statements use the default table names, which are qualified by the configured table prefix and suffix
+    private static final Pattern TABLE_NAME = Pattern.compile("\\b(JOB_INSTANCE|JOB_EXECUTION|STEP_EXECUTION|PARTITION_EXECUTION)\\b");
+    // Counts are expensive for large repositories, so metrics reuse a count for this long
+    private static final long COUNT_TIME_TO_LIVE = TimeUnit.SECONDS.toNanos(30);
+    private static final String SELECT_JOB_EXECUTION_IDS_BY_JOB_NAME = "SELECT JOB_EXECUTION.JOBEXECUTIONID FROM JOB_EXECUTION "
+            + "INNER JOIN JOB_INSTANCE ON JOB_EXECUTION.JOBINSTANCEID=JOB_INSTANCE.JOBINSTANCEID "
+            + "WHERE JOB_INSTANCE.JOBNAME=? ORDER BY JOB_EXECUTION.JOBEXECUTIONID DESC";
+    private static final int MAX_FETCH_SIZE = 500;
+    // Most recent executions first, so that the rank of an execution within its job is its position in the job's rows
+    private static final String SELECT_JOB_EXECUTIONS_FOR_PURGE = "SELECT JOB_INSTANCE.JOBNAME, JOB_EXECUTION.JOBEXECUTIONID, "
+            + "JOB_EXECUTION.JOBINSTANCEID, JOB_EXECUTION.ENDTIME FROM JOB_EXECUTION "
+            + "INNER JOIN JOB_INSTANCE ON JOB_EXECUTION.JOBINSTANCEID=JOB_INSTANCE.JOBINSTANCEID "
+            + "%s ORDER BY JOB_INSTANCE.JOBNAME, JOB_EXECUTION.JOBEXECUTIONID DESC";
+    // Resumes the above query following the last row read by the previous page
+    private static final String AFTER_JOB_EXECUTION = "WHERE JOB_INSTANCE.JOBNAME>? OR (JOB_INSTANCE.JOBNAME=? AND JOB_EXECUTION.JOBEXECUTIONID<?)";
+    // The foreign keys of the default schemas cascade deletes, but not every schema may do so
+    private static final String DELETE_PARTITION_EXECUTIONS = "DELETE FROM PARTITION_EXECUTION WHERE STEPEXECUTIONID IN "
+            + "(SELECT STEPEXECUTIONID FROM STEP_EXECUTION WHERE JOBEXECUTIONID IN (%s))";
+    private static final String DELETE_STEP_EXECUTIONS = "DELETE FROM STEP_EXECUTION WHERE JOBEXECUTIONID IN (%s)";
+    private static final String DELETE_JOB_EXECUTIONS = "DELETE FROM JOB_EXECUTION WHERE JOBEXECUTIONID IN (%s)";
+    private static final String DELETE_JOB_INSTANCES = "DELETE FROM JOB_INSTANCE WHERE JOBINSTANCEID IN (%s) AND NOT EXISTS "
+            + "(SELECT 1 FROM JOB_EXECUTION WHERE JOB_EXECUTION.JOBINSTANCEID=JOB_INSTANCE.JOBINSTANCEID)";
+    private static final String COUNT_JOB_EXECUTIONS = "SELECT COUNT(*) FROM JOB_EXECUTION";
+    private static final String COUNT_STEP_EXECUTIONS = "SELECT COUNT(*) FROM STEP_EXECUTION";
+
     private final InjectedValue<DataSource> dataSourceValue = new InjectedValue<>();
     private final InjectedValue<ExecutorService> executor = new InjectedValue<>();
+    private final InjectedValue<ScheduledExecutorService> scheduledExecutor = new InjectedValue<>();
+    private final String name;
+    private final JobExecutionRetention retention;
+    private final long purgeInterval;
+    private final int purgeBatchSize;
+    private final String tablePrefix;
+    private final String tableSuffix;
+    private final String selectJobExecutionIdsByJobName;
+    private final String selectJobExecutionsForPurge;
+    private final String afterJobExecution;
+    private final String deletePartitionExecutions;
+    private final String deleteStepExecutions;
+    private final String deleteJobExecutions;
+    private final String deleteJobInstances;
+    private final CachedCount jobExecutionCount;
+    private final CachedCount stepExecutionCount;
+    private final AtomicBoolean purging = new AtomicBoolean();
+    private final LongAdder purgedJobExecutions = new LongAdder();
+    private final LongAdder purgedRows = new LongAdder();
     private volatile JdbcRepository jobRepository;
+    private volatile ScheduledFuture<?> purgeFuture;
+
+    /**
+     * Creates a JDBC job repository which periodically purges expired job executions.
+     *
+     * @param name           the name of the job repository
+     * @param retention      determines which job executions have expired
+     * @param purgeInterval  the interval, in minutes, between purges
+     * @param purgeBatchSize the maximum number of job executions deleted per transaction
+     * @param tablePrefix    the prefix of the repository table names, or {@code null} for none
+     * @param tableSuffix    the suffix of the repository table names, or {@code null} for none
+     */
+    JdbcJobRepositoryService(final String name, final JobExecutionRetention retention, final long purgeInterval, final int purgeBatchSize,
+                             final String tablePrefix, final String tableSuffix) {
+        this.name = name;
+        this.retention = retention;
+        this.purgeInterval = purgeInterval;
+        this.purgeBatchSize = purgeBatchSize;
+        this.tablePrefix = (tablePrefix != null) ? tablePrefix : "";
+        this.tableSuffix = (tableSuffix != null) ? tableSuffix : "";
+        selectJobExecutionIdsByJobName = qualify(SELECT_JOB_EXECUTION_IDS_BY_JOB_NAME);
+        selectJobExecutionsForPurge = qualify(SELECT_JOB_EXECUTIONS_FOR_PURGE);
+        afterJobExecution = qualify(AFTER_JOB_EXECUTION);
+        deletePartitionExecutions = qualify(DELETE_PARTITION_EXECUTIONS);
+        deleteStepExecutions = qualify(DELETE_STEP_EXECUTIONS);
+        deleteJobExecutions = qualify(DELETE_JOB_EXECUTIONS);
+        deleteJobInstances = qualify(DELETE_JOB_INSTANCES);
+        jobExecutionCount = new CachedCount(qualify(COUNT_JOB_EXECUTIONS));
+        stepExecutionCount = new CachedCount(qualify(COUNT_STEP_EXECUTIONS));
+    }
+
+    /**
+     * Qualifies the default table names of the specified statement with the table prefix and suffix of this repository.
+     */
+    private String qualify(final String sql) {
+        return TABLE_NAME.matcher(sql).replaceAll(Matcher.quoteReplacement(tablePrefix) + "$1" + Matcher.quoteReplacement(tableSuffix));
+    }
 
     @Override
     public void startJobRepository(final StartContext context) throws StartException {
@@ -53,7 +157,11 @@ public class JdbcJobRepositoryService extends JobRepositoryService implements Se
         final Runnable task = () -> {
             try {
                 // Currently in jBeret tables are created in the constructor which is why this is done asynchronously
-                jobRepository = new JdbcRepository(dataSourceValue.getValue());
+                final Properties properties = new Properties();
+                properties.setProperty(JdbcRepository.DB_TABLE_PREFIX_KEY, tablePrefix);
+                properties.setProperty(JdbcRepository.DB_TABLE_SUFFIX_KEY, tableSuffix);
+                jobRepository = new JdbcRepository(dataSourceValue.getValue(), properties);
+                schedulePurge();
                 context.complete();
             } catch (Exception e) {
                 context.failed(BatchLogger.LOGGER.failedToCreateJobRepository(e, "JDBC"));
@@ -70,7 +178,240 @@ public class JdbcJobRepositoryService extends JobRepositoryService implements Se
 
     @Override
     public void stopJobRepository(final StopContext context) {
+        final ScheduledFuture<?> future = purgeFuture;
+        if (future != null) {
+            future.cancel(false);
+            purgeFuture = null;
+        }
         jobRepository = null;
+        jobExecutionCount.invalidate();
+        stepExecutionCount.invalidate();
+    }
+
+    private void schedulePurge() {
+        if (retention.isEnabled() && purgeInterval > 0) {
+            // The scheduled executor only triggers the purge, which runs on the server executor
+            purgeFuture = scheduledExecutor.getValue().scheduleWithFixedDelay(() -> {
+                try {
+                    executor.getValue().execute(this::purge);
+                } catch (RejectedExecutionException e) {
+                    BatchLogger.LOGGER.failedToPurgeJobRepository(e, name);
+                }
+            }, purgeInterval, purgeInterval, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Deletes the expired job executions, along with their step and partition executions, in transactions of at most
+     * {@code purgeBatchSize} job executions, so that no purge holds locks on the repository tables for long. Job
+     * instances whose executions were all deleted are deleted as well.
+     */
+    void purge() {
+        // Never run concurrent purges, e.g. if a purge takes longer than the purge interval
+        if (!purging.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final JdbcRepository repository = jobRepository;
+            if (repository == null) {
+                return;
+            }
+            final long start = System.currentTimeMillis();
+            final PurgeCursor cursor = new PurgeCursor();
+            long executions = 0L;
+            long rows = 0L;
+            while (!cursor.exhausted) {
+                final List<long[]> batch = findExpiredJobExecutions(start, cursor);
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                rows += deleteJobExecutions(batch);
+                executions += batch.size();
+                // Evict the deleted executions from the repository's cache
+                final Set<Long> ids = new HashSet<>();
+                for (long[] execution : batch) {
+                    ids.add(execution[0]);
+                }
+                repository.removeJobExecutions(new JobExecutionIdSelector(ids));
+                purgedJobExecutions.add(batch.size());
+            }
+            if (executions > 0) {
+                jobExecutionCount.invalidate();
+                stepExecutionCount.invalidate();
+            }
+            BatchLogger.LOGGER.debugf("Purged %d job executions (%d rows) from job repository %s in %d ms", executions, rows, name, System.currentTimeMillis() - start);
+        } catch (SQLException e) {
+            BatchLogger.LOGGER.failedToPurgeJobRepository(e, name);
+        } finally {
+            purging.set(false);
+        }
+    }
+
+    /**
+     * Finds the next page of expired job executions, containing at most {@code purgeBatchSize} job executions.
+     * Each page resumes reading from the last row read by the previous page, so that the rank of an execution within its
+     * job is unaffected by the deletion of the previous pages.
+     *
+     * @param now    the current time in milliseconds
+     * @param cursor the position following the previous page, which is advanced past this page
+     *
+     * @return the execution id and instance id of each expired job execution of this page
+     */
+    private List<long[]> findExpiredJobExecutions(final long now, final PurgeCursor cursor) throws SQLException {
+        final List<long[]> expired = new ArrayList<>(purgeBatchSize);
+        final String sql = String.format(selectJobExecutionsForPurge, (cursor.jobName != null) ? afterJobExecution : "");
+        try (Connection connection = dataSourceValue.getValue().getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            if (cursor.jobName != null) {
+                statement.setString(1, cursor.jobName);
+                statement.setString(2, cursor.jobName);
+                statement.setLong(3, cursor.executionId);
+            }
+            statement.setFetchSize(Math.min(purgeBatchSize, MAX_FETCH_SIZE));
+            try (ResultSet results = statement.executeQuery()) {
+                while (expired.size() < purgeBatchSize) {
+                    if (!results.next()) {
+                        cursor.exhausted = true;
+                        break;
+                    }
+                    final String jobName = results.getString(1);
+                    if (!jobName.equals(cursor.jobName)) {
+                        cursor.jobName = jobName;
+                        cursor.rank = 0;
+                    }
+                    cursor.executionId = results.getLong(2);
+                    final Timestamp endTime = results.getTimestamp(4);
+                    if (retention.isExpired(cursor.rank++, (endTime != null) ? endTime.getTime() : null, now)) {
+                        expired.add(new long[] { cursor.executionId, results.getLong(3) });
+                    }
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Deletes a batch of job executions in a single transaction.
+     *
+     * @param batch the execution id and instance id of each job execution to delete
+     *
+     * @return the number of deleted rows
+     */
+    private long deleteJobExecutions(final List<long[]> batch) throws SQLException {
+        final String parameters = String.join(",", Collections.nCopies(batch.size(), "?"));
+        final Set<Long> instanceIds = new HashSet<>();
+        for (long[] execution : batch) {
+            instanceIds.add(execution[1]);
+        }
+        try (Connection connection = dataSourceValue.getValue().getConnection()) {
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                long rows = 0L;
+                final List<Long> executionIds = new ArrayList<>(batch.size());
+                for (long[] execution : batch) {
+                    executionIds.add(execution[0]);
+                }
+                rows += executeUpdate(connection, String.format(deletePartitionExecutions, parameters), executionIds);
+                rows += executeUpdate(connection, String.format(deleteStepExecutions, parameters), executionIds);
+                rows += executeUpdate(connection, String.format(deleteJobExecutions, parameters), executionIds);
+                rows += executeUpdate(connection, String.format(deleteJobInstances, String.join(",", Collections.nCopies(instanceIds.size(), "?"))), instanceIds);
+                connection.commit();
+                purgedRows.add(rows);
+                return rows;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static int executeUpdate(final Connection connection, final String sql, final Collection<Long> ids) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Long id : ids) {
+                statement.setLong(index++, id);
+            }
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Returns the number of job executions deleted by purges since this repository was started.
+     *
+     * @return the number of purged job executions
+     */
+    public long getPurgedJobExecutions() {
+        return purgedJobExecutions.sum();
+    }
+
+    /**
+     * Returns the number of rows, of any repository table, deleted by purges since this repository was started.
+     *
+     * @return the number of purged rows
+     */
+    public long getPurgedRows() {
+        return purgedRows.sum();
+    }
+
+    /**
+     * Returns the number of job executions stored in this repository, as counted at most 30 seconds ago, or since the
+     * last purge.
+     *
+     * @return the number of job executions
+     *
+     * @throws SQLException if the repository could not be queried
+     */
+    public long getJobExecutionCount() throws SQLException {
+        return jobExecutionCount.get();
+    }
+
+    /**
+     * Returns the number of step executions stored in this repository, as counted at most 30 seconds ago, or since the
+     * last purge.
+     *
+     * @return the number of step executions
+     *
+     * @throws SQLException if the repository could not be queried
+     */
+    public long getStepExecutionCount() throws SQLException {
+        return stepExecutionCount.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Reads the requested page of execution ids with a single query, rather than a query per job instance.
+     * </p>
+     */
+    @Override
+    public List<Long> getJobExecutionIds(final String jobName, final int start, final int count) {
+        // Fail if this repository is stopped
+        getAndCheckDelegate();
+        final List<Long> ids = new ArrayList<>(Math.min(count, MAX_FETCH_SIZE));
+        if (count <= 0) {
+            return ids;
+        }
+        try (Connection connection = dataSourceValue.getValue().getConnection();
+             PreparedStatement statement = connection.prepareStatement(selectJobExecutionIdsByJobName)) {
+            statement.setString(1, jobName);
+            // Portable alternative to LIMIT/OFFSET, whose syntax differs between databases
+            statement.setMaxRows((int) Math.min((long) start + count, Integer.MAX_VALUE));
+            statement.setFetchSize(Math.min(count, MAX_FETCH_SIZE));
+            try (ResultSet results = statement.executeQuery()) {
+                int row = 0;
+                while (results.next()) {
+                    if (row++ >= start) {
+                        ids.add(results.getLong(1));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw BatchLogger.LOGGER.failedToReadJobExecutions(e, jobName);
+        }
+        return ids;
     }
 
     @Override
@@ -85,4 +426,88 @@ public class JdbcJobRepositoryService extends JobRepositoryService implements Se
     protected Injector<ExecutorService> getExecutorServiceInjector() {
         return executor;
     }
+
+    protected Injector<ScheduledExecutorService> getScheduledExecutorServiceInjector() {
+        return scheduledExecutor;
+    }
+
+    /**
+     * The row count of a repository table, which is reused until it expires, so that frequent reads of a metric do not
+     * each scan the table.
+     */
+    private class CachedCount {
+        private final String sql;
+        private long count;
+        private long expiration;
+        private boolean valid;
+
+        CachedCount(final String sql) {
+            this.sql = sql;
+        }
+
+        synchronized long get() throws SQLException {
+            // Fail if this repository is stopped
+            getAndCheckDelegate();
+            final long now = System.nanoTime();
+            if (!valid || now - expiration >= 0) {
+                try (Connection connection = dataSourceValue.getValue().getConnection();
+                     PreparedStatement statement = connection.prepareStatement(sql);
+                     ResultSet results = statement.executeQuery()) {
+                    count = results.next() ? results.getLong(1) : 0L;
+                }
+                expiration = now + COUNT_TIME_TO_LIVE;
+                valid = true;
+            }
+            return count;
+        }
+
+        synchronized void invalidate() {
+            valid = false;
+        }
+    }
+
+    private static class JobExecutionIdSelector implements JobExecutionSelector {
+        private final Set<Long> ids;
+        private volatile JobContext jobContext;
+        private volatile StepContext stepContext;
+
+        JobExecutionIdSelector(final Set<Long> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public boolean select(final JobExecution jobExecution, final Collection<Long> allJobExecutionIds) {
+            return ids.contains(jobExecution.getExecutionId());
+        }
+
+        @Override
+        public JobContext getJobContext() {
+            return jobContext;
+        }
+
+        @Override
+        public void setJobContext(final JobContext jobContext) {
+            this.jobContext = jobContext;
+        }
+
+        @Override
+        public StepContext getStepContext() {
+            return stepContext;
+        }
+
+        @Override
+        public void setStepContext(final StepContext stepContext) {
+            this.stepContext = stepContext;
+        }
+    }
+
+    /**
+     * The position of a purge within the job executions, ordered by job name and most recent execution first.
+     */
+    private static class PurgeCursor {
+        String jobName;
+        long executionId;
+        int rank;
+        boolean exhausted;
+    }
 }
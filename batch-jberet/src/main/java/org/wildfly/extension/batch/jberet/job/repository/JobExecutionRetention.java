@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.batch.jberet.job.repository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Determines which finished job executions have expired, by age and by the number of more recent executions of the same
+ * job.
+ */
+class JobExecutionRetention {
+
+    private final long maxAge;
+    private final int maxExecutions;
+
+    /**
+     * Creates a new retention policy.
+     *
+     * @param maxAge        the maximum age of a finished execution, or {@code 0} if executions do not expire by age
+     * @param unit          the unit of the maximum age
+     * @param maxExecutions the number of most recent executions to retain per job, or {@code 0} if executions do not
+     *                      expire by count
+     */
+    JobExecutionRetention(final long maxAge, final TimeUnit unit, final int maxExecutions) {
+        this.maxAge = unit.toMillis(maxAge);
+        this.maxExecutions = maxExecutions;
+    }
+
+    /**
+     * Indicates whether any execution can expire.
+     *
+     * @return {@code true} if executions expire by age or count, otherwise {@code false}
+     */
+    boolean isEnabled() {
+        return maxAge > 0 || maxExecutions > 0;
+    }
+
+    /**
+     * Indicates whether an execution has expired.
+     *
+     * @param rank    the number of more recent executions of the same job
+     * @param endTime the time in milliseconds at which the execution ended, or {@code null} if it has not ended
+     * @param now     the current time in milliseconds
+     *
+     * @return {@code true} if the execution has ended and is either too old or superseded by too many executions
+     */
+    boolean isExpired(final int rank, final Long endTime, final long now) {
+        // Executions which have not ended are never purged, but still count towards the retained executions
+        if (endTime == null) {
+            return false;
+        }
+        return (maxExecutions > 0 && rank >= maxExecutions) || (maxAge > 0 && now - endTime > maxAge);
+    }
+}
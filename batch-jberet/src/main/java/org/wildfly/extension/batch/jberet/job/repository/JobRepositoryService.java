@@ -44,7 +44,7 @@ import org.wildfly.extension.batch.jberet._private.BatchLogger;
  *
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
  */
-abstract class JobRepositoryService implements JobRepository, Service<JobRepository> {
+abstract class JobRepositoryService implements PagedJobRepository, Service<JobRepository> {
     private volatile boolean started;
 
     @Override
@@ -114,6 +114,11 @@ abstract class JobRepositoryService implements JobRepository, Service<JobReposit
         return getAndCheckDelegate().getJobInstanceCount(jobName);
     }
 
+    @Override
+    public List<Long> getJobExecutionIds(final String jobName, final int start, final int count) {
+        return PagedJobRepository.getJobExecutionIds(getAndCheckDelegate(), jobName, start, count);
+    }
+
     @Override
     public JobExecutionImpl createJobExecution(final JobInstanceImpl jobInstance, final Properties jobParameters) {
         return getAndCheckDelegate().createJobExecution(jobInstance, jobParameters);
@@ -195,7 +200,7 @@ abstract class JobRepositoryService implements JobRepository, Service<JobReposit
 
     protected abstract JobRepository getDelegate();
 
-    private JobRepository getAndCheckDelegate() {
+    JobRepository getAndCheckDelegate() {
         final JobRepository delegate = getDelegate();
         if (started && delegate != null) {
             return delegate;
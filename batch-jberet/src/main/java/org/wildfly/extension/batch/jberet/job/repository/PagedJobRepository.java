@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.batch.jberet.job.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.JobInstance;
+
+import org.jberet.repository.JobRepository;
+
+/**
+ * A {@linkplain JobRepository job repository} which can list the executions of a job a page at a time, without loading
+ * every job instance and job execution of the job.
+ */
+public interface PagedJobRepository extends JobRepository {
+
+    /**
+     * Returns the ids of the executions of a job, most recent first.
+     *
+     * @param jobName the name of the job
+     * @param start   the number of most recent executions to skip
+     * @param count   the maximum number of ids to return
+     *
+     * @return the ids of the job executions
+     */
+    List<Long> getJobExecutionIds(String jobName, int start, int count);
+
+    /**
+     * Lists the executions of a job a page at a time using only the methods of a {@link JobRepository}. Note that this
+     * loads every execution of the job, which is only appropriate for repositories that are not persistent.
+     *
+     * @param repository the repository to query
+     * @param jobName    the name of the job
+     * @param start      the number of most recent executions to skip
+     * @param count      the maximum number of ids to return
+     *
+     * @return the ids of the job executions
+     */
+    static List<Long> getJobExecutionIds(final JobRepository repository, final String jobName, final int start, final int count) {
+        final List<Long> ids = new ArrayList<>();
+        for (JobInstance instance : repository.getJobInstances(jobName)) {
+            for (JobExecution execution : repository.getJobExecutions(instance)) {
+                ids.add(execution.getExecutionId());
+            }
+        }
+        ids.sort(Collections.reverseOrder());
+        if (start >= ids.size()) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(ids.subList(start, Math.min(ids.size(), start + count)));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.batch.jberet.job.repository;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the selection of expired job executions by {@link JobExecutionRetention}.
+ */
+public class JobExecutionRetentionTestCase {
+
+    private static final long NOW = TimeUnit.DAYS.toMillis(100);
+
+    @Test
+    public void disabled() {
+        final JobExecutionRetention retention = new JobExecutionRetention(0, TimeUnit.MINUTES, 0);
+        Assert.assertFalse(retention.isEnabled());
+        Assert.assertFalse(retention.isExpired(1000, 0L, NOW));
+    }
+
+    @Test
+    public void maxAge() {
+        final JobExecutionRetention retention = new JobExecutionRetention(60, TimeUnit.MINUTES, 0);
+        Assert.assertTrue(retention.isEnabled());
+        Assert.assertFalse(retention.isExpired(0, NOW - TimeUnit.MINUTES.toMillis(59), NOW));
+        Assert.assertTrue(retention.isExpired(0, NOW - TimeUnit.MINUTES.toMillis(61), NOW));
+        // Executions which have not ended never expire
+        Assert.assertFalse(retention.isExpired(0, null, NOW));
+    }
+
+    @Test
+    public void maxExecutions() {
+        final JobExecutionRetention retention = new JobExecutionRetention(0, TimeUnit.MINUTES, 3);
+        Assert.assertTrue(retention.isEnabled());
+        Assert.assertFalse(retention.isExpired(0, 0L, NOW));
+        Assert.assertFalse(retention.isExpired(2, 0L, NOW));
+        Assert.assertTrue(retention.isExpired(3, NOW, NOW));
+        Assert.assertFalse(retention.isExpired(3, null, NOW));
+    }
+
+    @Test
+    public void maxAgeAndMaxExecutions() {
+        final JobExecutionRetention retention = new JobExecutionRetention(60, TimeUnit.MINUTES, 3);
+        Assert.assertFalse(retention.isExpired(0, NOW, NOW));
+        // Either limit expires an execution
+        Assert.assertTrue(retention.isExpired(0, NOW - TimeUnit.HOURS.toMillis(2), NOW));
+        Assert.assertTrue(retention.isExpired(5, NOW, NOW));
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wildfly.extension.batch.jberet.job.repository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.jberet.job.model.JobBuilder;
+import org.jberet.repository.InMemoryRepository;
+import org.jberet.runtime.JobInstanceImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the paging of job executions by {@link PagedJobRepository#getJobExecutionIds(org.jberet.repository.JobRepository, String, int, int)}.
+ */
+public class PagedJobRepositoryTestCase {
+
+    @Test
+    public void getJobExecutionIds() {
+        final InMemoryRepository repository = new InMemoryRepository();
+        final ClassLoader classLoader = PagedJobRepositoryTestCase.class.getClassLoader();
+        final JobInstanceImpl first = repository.createJobInstance(new JobBuilder("test-job").build(), "test", classLoader);
+        final JobInstanceImpl other = repository.createJobInstance(new JobBuilder("other-job").build(), "test", classLoader);
+        final JobInstanceImpl second = repository.createJobInstance(new JobBuilder("test-job").build(), "test", classLoader);
+        final long id1 = repository.createJobExecution(first, new Properties()).getExecutionId();
+        repository.createJobExecution(other, new Properties());
+        final long id2 = repository.createJobExecution(second, new Properties()).getExecutionId();
+        final long id3 = repository.createJobExecution(first, new Properties()).getExecutionId();
+
+        // Most recent first
+        Assert.assertEquals(Arrays.asList(id3, id2, id1), PagedJobRepository.getJobExecutionIds(repository, "test-job", 0, 10));
+        Assert.assertEquals(Arrays.asList(id3, id2), PagedJobRepository.getJobExecutionIds(repository, "test-job", 0, 2));
+        Assert.assertEquals(Arrays.asList(id2, id1), PagedJobRepository.getJobExecutionIds(repository, "test-job", 1, 2));
+        final List<Long> empty = Collections.emptyList();
+        Assert.assertEquals(empty, PagedJobRepository.getJobExecutionIds(repository, "test-job", 3, 2));
+        Assert.assertEquals(empty, PagedJobRepository.getJobExecutionIds(repository, "unknown-job", 0, 2));
+    }
+}
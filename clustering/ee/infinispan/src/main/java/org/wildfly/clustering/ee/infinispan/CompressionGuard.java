@@ -0,0 +1,129 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee.infinispan;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.infinispan.Cache;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.TopologyChanged;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Address;
+import org.wildfly.clustering.dispatcher.CommandDispatcher;
+import org.wildfly.clustering.dispatcher.CommandDispatcherException;
+import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
+import org.wildfly.clustering.group.Node;
+import org.wildfly.clustering.marshalling.spi.Compressible;
+
+/**
+ * Suspends the compression of marshalled values while the members of a cache include a member that cannot read compressed values,
+ * e.g. during a rolling upgrade from a release that predates compression.
+ * A member is deemed able to read compressed values once it has responded to, or sent, a {@link CompressionGuardCommand}.
+ * A member running an earlier release never registers the corresponding command dispatcher, and thus never responds.
+ * N.B. Values compressed before such a member joins the cache remain unreadable by that member.
+ */
+@Listener
+public class CompressionGuard implements AutoCloseable {
+
+    private final Cache<?, ?> cache;
+    private final Function<Address, Node> memberFactory;
+    private final Compressible compressible;
+    private final Node localMember;
+    private final Set<Node> compatibleMembers = ConcurrentHashMap.newKeySet();
+    private final CommandDispatcher<CompressionGuard> dispatcher;
+
+    private volatile Set<Node> members = Collections.emptySet();
+
+    /**
+     * Creates a compression guard for the specified cache.
+     * @param name a name, unique within the group, identifying the values to be compressed
+     * @param cache a clustered cache
+     * @param memberFactory a factory for creating a group member from a cache member
+     * @param dispatcherFactory a command dispatcher factory
+     * @param compressible the object whose compression is suspended while an incompatible member is present
+     */
+    public CompressionGuard(String name, Cache<?, ?> cache, Function<Address, Node> memberFactory, CommandDispatcherFactory dispatcherFactory, Compressible compressible) {
+        this.cache = cache;
+        this.memberFactory = memberFactory;
+        this.compressible = compressible;
+        this.localMember = dispatcherFactory.getGroup().getLocalMember();
+        this.dispatcher = dispatcherFactory.createCommandDispatcher(String.join("/", name, "compression"), this);
+        this.cache.addListener(this);
+        RpcManager manager = this.cache.getAdvancedCache().getRpcManager();
+        this.verify((manager != null) ? manager.getMembers() : Collections.emptyList());
+    }
+
+    @Override
+    public void close() {
+        this.cache.removeListener(this);
+        this.dispatcher.close();
+    }
+
+    @TopologyChanged
+    public void topologyChanged(TopologyChangedEvent<?, ?> event) {
+        if (event.isPre()) return;
+
+        this.verify(event.getWriteConsistentHashAtEnd().getMembers());
+    }
+
+    /**
+     * Records the specified member as able to read compressed values.
+     * @param member a group member
+     */
+    void accept(Node member) {
+        this.compatibleMembers.add(member);
+        this.update();
+    }
+
+    private void verify(List<Address> addresses) {
+        Set<Node> members = new HashSet<>();
+        for (Address address : addresses) {
+            members.add(this.memberFactory.apply(address));
+        }
+        members.remove(this.localMember);
+        this.members = members;
+        this.compatibleMembers.retainAll(members);
+        this.update();
+
+        for (Node member : members) {
+            if (!this.compatibleMembers.contains(member)) {
+                try {
+                    // A member running an earlier release responds with a cancellation
+                    this.dispatcher.executeOnMember(new CompressionGuardCommand(this.localMember), member).thenAccept(compatible -> this.accept(member));
+                } catch (CommandDispatcherException e) {
+                    // Member remains incompatible until the next topology change
+                }
+            }
+        }
+    }
+
+    private void update() {
+        this.compressible.setCompressionSuspended(!this.compatibleMembers.containsAll(this.members));
+    }
+}
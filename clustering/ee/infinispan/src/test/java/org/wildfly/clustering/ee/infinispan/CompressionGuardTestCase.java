@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee.infinispan;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Address;
+import org.junit.Test;
+import org.wildfly.clustering.dispatcher.CommandDispatcher;
+import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
+import org.wildfly.clustering.group.Group;
+import org.wildfly.clustering.group.Node;
+import org.wildfly.clustering.marshalling.spi.Compressible;
+
+/**
+ * Unit test for {@link CompressionGuard}.
+ */
+public class CompressionGuardTestCase {
+
+    @Test
+    public void test() throws Exception {
+        AdvancedCache<Object, Object> cache = mock(AdvancedCache.class);
+        RpcManager manager = mock(RpcManager.class);
+        CommandDispatcherFactory dispatcherFactory = mock(CommandDispatcherFactory.class);
+        Group group = mock(Group.class);
+        CommandDispatcher<CompressionGuard> dispatcher = mock(CommandDispatcher.class);
+        Address localAddress = mock(Address.class);
+        Address compatibleAddress = mock(Address.class);
+        Address legacyAddress = mock(Address.class);
+        Address joiningAddress = mock(Address.class);
+        Node localMember = mock(Node.class);
+        Node compatibleMember = mock(Node.class);
+        Node legacyMember = mock(Node.class);
+        Node joiningMember = mock(Node.class);
+        Map<Address, Node> members = new HashMap<>();
+        members.put(localAddress, localMember);
+        members.put(compatibleAddress, compatibleMember);
+        members.put(legacyAddress, legacyMember);
+        members.put(joiningAddress, joiningMember);
+        TestCompressible compressible = new TestCompressible();
+
+        CompletableFuture<Boolean> legacyResponse = new CompletableFuture<>();
+        legacyResponse.cancel(false);
+        CompletableFuture<Boolean> joiningResponse = new CompletableFuture<>();
+
+        when(cache.getAdvancedCache()).thenReturn(cache);
+        when(cache.getRpcManager()).thenReturn(manager);
+        when(manager.getMembers()).thenReturn(Arrays.asList(localAddress, compatibleAddress, legacyAddress));
+        when(dispatcherFactory.getGroup()).thenReturn(group);
+        when(group.getLocalMember()).thenReturn(localMember);
+        when(dispatcherFactory.<CompressionGuard>createCommandDispatcher(eq("foo/compression"), any(CompressionGuard.class))).thenReturn(dispatcher);
+        when(dispatcher.executeOnMember(any(CompressionGuardCommand.class), same(compatibleMember))).thenReturn(CompletableFuture.completedFuture(Boolean.TRUE));
+        when(dispatcher.executeOnMember(any(CompressionGuardCommand.class), same(legacyMember))).thenReturn(legacyResponse);
+        when(dispatcher.executeOnMember(any(CompressionGuardCommand.class), same(joiningMember))).thenReturn(joiningResponse);
+
+        try (CompressionGuard guard = new CompressionGuard("foo", cache, members::get, dispatcherFactory, compressible)) {
+            verify(cache).addListener(guard);
+
+            // A member that never responds suspends compression
+            assertTrue(compressible.suspended);
+
+            // Legacy member leaves
+            guard.topologyChanged(topologyChangedEvent(localAddress, compatibleAddress));
+            assertFalse(compressible.suspended);
+
+            // Compression is suspended until a joining member responds
+            guard.topologyChanged(topologyChangedEvent(localAddress, compatibleAddress, joiningAddress));
+            assertTrue(compressible.suspended);
+
+            joiningResponse.complete(Boolean.TRUE);
+            assertFalse(compressible.suspended);
+
+            // Legacy member rejoins
+            guard.topologyChanged(topologyChangedEvent(localAddress, compatibleAddress, joiningAddress, legacyAddress));
+            assertTrue(compressible.suspended);
+
+            // Command sent by a member that was not yet listening when verified
+            guard.accept(legacyMember);
+            assertFalse(compressible.suspended);
+
+        }
+
+        verify(cache).removeListener(any());
+        verify(dispatcher).close();
+    }
+
+    private static TopologyChangedEvent<Object, Object> topologyChangedEvent(Address... addresses) {
+        TopologyChangedEvent<Object, Object> event = mock(TopologyChangedEvent.class);
+        ConsistentHash hash = mock(ConsistentHash.class);
+        when(event.isPre()).thenReturn(false);
+        when(event.getWriteConsistentHashAtEnd()).thenReturn(hash);
+        when(hash.getMembers()).thenReturn(Arrays.asList(addresses));
+        return event;
+    }
+
+    static class TestCompressible implements Compressible {
+        volatile boolean suspended = false;
+
+        @Override
+        public boolean isCompressing() {
+            return true;
+        }
+
+        @Override
+        public void setCompressionSuspended(boolean suspended) {
+            this.suspended = suspended;
+        }
+    }
+}
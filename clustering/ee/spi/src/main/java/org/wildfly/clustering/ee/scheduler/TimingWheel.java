@@ -0,0 +1,280 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ee.scheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Hashed timing wheel that coalesces expiration of keys into ticks of fixed duration.
+ * Scheduling, rescheduling and cancellation of a key are constant time operations.
+ * Each bucket of the wheel separates its entries by rotation, so that a tick only visits the keys expiring on that tick, and not those of subsequent rotations.
+ * On each tick, all keys whose expiration time has passed are collected and handed, in batches of a bounded size, to an expiration task running on a separate executor.
+ * @param <K> the key type
+ */
+public class TimingWheel<K> implements AutoCloseable {
+
+    // No logger interface for this module and no reason to create one for this class only
+    private static final Logger LOGGER = Logger.getLogger(TimingWheel.class);
+
+    private final Map<K, Entry<K>> entries = new ConcurrentHashMap<>();
+    // Entries of each bucket, by absolute tick
+    private final Map<Long, Set<Entry<K>>>[] wheel;
+    private final int mask;
+    private final long tickMillis;
+    private final int maxBatchSize;
+    private final Consumer<List<K>> task;
+    private final Executor executor;
+    private final Clock clock;
+    private final ScheduledFuture<?> future;
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder lag = new LongAdder();
+
+    // Tick currently being, or last, processed by the ticker, only ever advanced by the ticker thread
+    private volatile long currentTick;
+
+    /**
+     * Creates a new timing wheel.
+     * @param tick the duration of a single tick of the wheel, i.e. the precision of expiration.
+     * @param ticksPerWheel the number of buckets in the wheel, rounded up to the next power of 2.
+     * @param maxBatchSize the maximum number of keys passed to a single invocation of the expiration task.
+     * @param task the task that expires a batch of keys
+     * @param ticker the executor that advances the wheel
+     * @param executor the executor that runs the expiration task
+     */
+    public TimingWheel(Duration tick, int ticksPerWheel, int maxBatchSize, Consumer<List<K>> task, ScheduledExecutorService ticker, Executor executor) {
+        this(tick, ticksPerWheel, maxBatchSize, task, ticker, executor, Clock.systemUTC());
+    }
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(Duration tick, int ticksPerWheel, int maxBatchSize, Consumer<List<K>> task, ScheduledExecutorService ticker, Executor executor, Clock clock) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException(tick.toString());
+        }
+        if (ticksPerWheel <= 0) {
+            throw new IllegalArgumentException(Integer.toString(ticksPerWheel));
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException(Integer.toString(maxBatchSize));
+        }
+        int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.wheel = new Map[Math.max(size, 1)];
+        for (int i = 0; i < this.wheel.length; ++i) {
+            this.wheel[i] = new ConcurrentHashMap<>();
+        }
+        this.mask = this.wheel.length - 1;
+        this.tickMillis = Math.max(tick.toMillis(), 1L);
+        this.maxBatchSize = maxBatchSize;
+        this.task = task;
+        this.executor = executor;
+        this.clock = clock;
+        this.currentTick = clock.millis() / this.tickMillis;
+        this.future = ticker.scheduleAtFixedRate(this::advance, this.tickMillis, this.tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules the expiration of the specified key at the specified time, replacing any previous expiration of this key.
+     * @param key a key
+     * @param expiration the expiration time
+     */
+    public void schedule(K key, Instant expiration) {
+        // Round up, such that a key never expires prematurely
+        long tick = Math.max(Math.floorDiv(expiration.toEpochMilli() + this.tickMillis - 1, this.tickMillis), this.currentTick + 1);
+        Entry<K> entry = new Entry<>(key, expiration.toEpochMilli(), tick);
+        // Publish new entry before adding it to its bucket, so that a concurrent tick cannot expire the previous entry
+        Entry<K> previous = this.entries.put(key, entry);
+        this.bucket(tick).computeIfAbsent(tick, t -> ConcurrentHashMap.newKeySet()).add(entry);
+        if (previous != null) {
+            this.remove(previous);
+        }
+        // If the ticker reached our tick in the meantime, it may have already collected its entries, so reschedule for the next tick
+        if ((tick <= this.currentTick) && this.entries.remove(key, entry)) {
+            this.remove(entry);
+            this.schedule(key, expiration);
+        }
+    }
+
+    /**
+     * Cancels the expiration of the specified key.
+     * @param key a key
+     * @return true, if the specified key was scheduled, false otherwise.
+     */
+    public boolean cancel(K key) {
+        Entry<K> entry = this.entries.remove(key);
+        if (entry != null) {
+            this.remove(entry);
+        }
+        return entry != null;
+    }
+
+    /**
+     * Indicates whether the expiration of the specified key is currently scheduled.
+     * @param key a key
+     * @return true, if the specified key is scheduled, false otherwise.
+     */
+    public boolean contains(K key) {
+        return this.entries.containsKey(key);
+    }
+
+    /**
+     * Returns the keys whose expiration is currently scheduled.
+     * @return a set of keys
+     */
+    public Set<K> getKeys() {
+        return Collections.unmodifiableSet(this.entries.keySet());
+    }
+
+    /**
+     * Returns the number of keys expired by this timing wheel.
+     * @return the number of expired keys
+     */
+    public long getExpiredCount() {
+        return this.expiredCount.sum();
+    }
+
+    /**
+     * Returns the number of batches of expired keys submitted to the expiration task.
+     * @return the number of batches
+     */
+    public long getBatchCount() {
+        return this.batchCount.sum();
+    }
+
+    /**
+     * Returns the average duration between the scheduled expiration time of a key and the time at which it was collected for expiration.
+     * @return the average expiration lag
+     */
+    public Duration getAverageLag() {
+        long count = this.expiredCount.sum();
+        return (count > 0) ? Duration.ofMillis(this.lag.sum() / count) : Duration.ZERO;
+    }
+
+    @Override
+    public void close() {
+        this.future.cancel(false);
+        this.entries.clear();
+        for (Map<Long, Set<Entry<K>>> bucket : this.wheel) {
+            bucket.clear();
+        }
+    }
+
+    private Map<Long, Set<Entry<K>>> bucket(long tick) {
+        return this.wheel[(int) (tick & this.mask)];
+    }
+
+    private void remove(Entry<K> entry) {
+        Map<Long, Set<Entry<K>>> bucket = this.bucket(entry.tick);
+        Set<Entry<K>> entries = bucket.get(entry.tick);
+        if (entries != null) {
+            entries.remove(entry);
+            // Empty entry sets are otherwise retained until their tick is processed, which never happens for a tick already passed
+            if (entries.isEmpty() && (entry.tick <= this.currentTick)) {
+                bucket.remove(entry.tick, entries);
+            }
+        }
+    }
+
+    void advance() {
+        long now = this.clock.millis() / this.tickMillis;
+        long previous = this.currentTick;
+        if (this.entries.isEmpty()) {
+            // Skip the ticks of an empty wheel
+            this.currentTick = now;
+            if (this.entries.isEmpty()) return;
+            // A key was scheduled concurrently, possibly for one of the skipped ticks
+            for (long tick = previous + 1; tick <= now; ++tick) {
+                this.expire(tick);
+            }
+            return;
+        }
+        // Process any ticks missed due to a delayed ticker
+        for (long tick = previous + 1; tick <= now; ++tick) {
+            if (Thread.currentThread().isInterrupted()) return;
+            // Publish the tick before collecting its bucket, so that a concurrent schedule(...) targets the next tick, rather than the next rotation
+            this.currentTick = tick;
+            this.expire(tick);
+        }
+    }
+
+    private void expire(long tick) {
+        // Detach the entries of this tick only, leaving those of subsequent rotations untouched
+        Set<Entry<K>> entries = this.bucket(tick).remove(tick);
+        if (entries == null) return;
+        long now = this.clock.millis();
+        List<K> batch = new ArrayList<>(Math.min(this.maxBatchSize, 64));
+        for (Entry<K> entry : entries) {
+            // Skip entries that were concurrently rescheduled or canceled
+            if (this.entries.remove(entry.key, entry)) {
+                this.lag.add(Math.max(now - entry.expiration, 0L));
+                batch.add(entry.key);
+                if (batch.size() == this.maxBatchSize) {
+                    this.submit(batch);
+                    batch = new ArrayList<>(this.maxBatchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            this.submit(batch);
+        }
+    }
+
+    private void submit(List<K> batch) {
+        List<K> keys = Collections.unmodifiableList(batch);
+        try {
+            this.executor.execute(() -> this.task.accept(keys));
+            this.expiredCount.add(keys.size());
+            this.batchCount.increment();
+        } catch (RejectedExecutionException e) {
+            // Executor was shutdown
+            LOGGER.debugf(e, "Failed to expire %d keys", keys.size());
+        }
+    }
+
+    private static class Entry<K> {
+        final K key;
+        final long expiration;
+        final long tick;
+
+        Entry(K key, long expiration, long tick) {
+            this.key = key;
+            this.expiration = expiration;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ee.scheduler;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit test for {@link TimingWheel}.
+ * The ticker is driven explicitly against a controllable clock.
+ */
+public class TimingWheelTestCase {
+
+    private static final Duration TICK = Duration.ofMillis(10);
+
+    private final AtomicLong time = new AtomicLong(1_000_000L);
+    private final Clock clock = mock(Clock.class);
+    private final ScheduledExecutorService ticker = mock(ScheduledExecutorService.class);
+    private final ScheduledFuture<?> future = mock(ScheduledFuture.class);
+
+    public TimingWheelTestCase() {
+        when(this.clock.millis()).thenAnswer(invocation -> this.time.get());
+        when(this.clock.instant()).thenAnswer(invocation -> Instant.ofEpochMilli(this.time.get()));
+        doReturn(this.future).when(this.ticker).scheduleAtFixedRate(any(), anyLong(), anyLong(), any());
+    }
+
+    private TimingWheel<String> createWheel(Consumer<List<String>> task) {
+        return new TimingWheel<>(TICK, 8, 2, task, this.ticker, Runnable::run, this.clock);
+    }
+
+    private Runnable captureTicker() {
+        ArgumentCaptor<Runnable> command = ArgumentCaptor.forClass(Runnable.class);
+        verify(this.ticker).scheduleAtFixedRate(command.capture(), eq(TICK.toMillis()), eq(TICK.toMillis()), eq(TimeUnit.MILLISECONDS));
+        return command.getValue();
+    }
+
+    @Test
+    public void test() {
+        List<List<String>> batches = new ArrayList<>();
+        try (TimingWheel<String> wheel = this.createWheel(batches::add)) {
+            Runnable advance = this.captureTicker();
+            Instant now = this.clock.instant();
+            wheel.schedule("expired", now.minusSeconds(1));
+            wheel.schedule("expiring", now.plusMillis(20));
+            wheel.schedule("expiring-too", now.plusMillis(20));
+            wheel.schedule("expiring-also", now.plusMillis(20));
+            // Scheduled for a subsequent rotation of the wheel
+            wheel.schedule("rescheduled", now.plusMillis(20));
+            wheel.schedule("rescheduled", now.plusSeconds(100));
+            wheel.schedule("canceled", now.plusMillis(20));
+            assertTrue(wheel.cancel("canceled"));
+            assertFalse(wheel.cancel("canceled"));
+
+            this.time.addAndGet(TICK.toMillis());
+            advance.run();
+
+            assertEquals(Collections.singletonList(Collections.singletonList("expired")), batches);
+
+            // Nothing is due yet
+            this.time.addAndGet(TICK.toMillis() - 1);
+            advance.run();
+
+            assertEquals(1, batches.size());
+
+            // A delayed ticker catches up on all missed ticks
+            this.time.addAndGet(TICK.toMillis() * 2);
+            advance.run();
+
+            assertEquals(1, wheel.getKeys().size());
+            assertTrue(wheel.getKeys().contains("rescheduled"));
+            assertEquals(4, wheel.getExpiredCount());
+            assertEquals(3, wheel.getBatchCount());
+        }
+        verify(this.future).cancel(false);
+
+        int count = 0;
+        for (List<String> batch : batches) {
+            assertTrue(batch.size() <= 2);
+            assertFalse(batch.contains("rescheduled"));
+            assertFalse(batch.contains("canceled"));
+            count += batch.size();
+        }
+        assertEquals(4, count);
+    }
+
+    @Test
+    public void subsequentRotation() {
+        List<List<String>> batches = new ArrayList<>();
+        try (TimingWheel<String> wheel = this.createWheel(batches::add)) {
+            Runnable advance = this.captureTicker();
+            Instant now = this.clock.instant();
+            // Both keys hash to the same bucket of the 8 bucket wheel, but on different rotations
+            wheel.schedule("current", now.plus(TICK));
+            wheel.schedule("next", now.plus(TICK.multipliedBy(9)));
+
+            this.time.addAndGet(TICK.toMillis());
+            advance.run();
+
+            assertEquals(Collections.singletonList(Collections.singletonList("current")), batches);
+            assertEquals(Collections.singleton("next"), wheel.getKeys());
+
+            // Not yet expired one tick short of its rotation
+            this.time.addAndGet(TICK.toMillis() * 7);
+            advance.run();
+
+            assertEquals(1, batches.size());
+
+            this.time.addAndGet(TICK.toMillis());
+            advance.run();
+
+            assertEquals(2, batches.size());
+            assertEquals(Collections.singletonList("next"), batches.get(1));
+            assertTrue(wheel.getKeys().isEmpty());
+        }
+    }
+
+    @Test
+    public void empty() {
+        List<List<String>> batches = new ArrayList<>();
+        try (TimingWheel<String> wheel = this.createWheel(batches::add)) {
+            Runnable advance = this.captureTicker();
+            // Ticks of an empty wheel are skipped
+            this.time.addAndGet(TICK.toMillis() * 100);
+            advance.run();
+
+            wheel.schedule("expiring", this.clock.instant().plus(TICK));
+
+            this.time.addAndGet(TICK.toMillis());
+            advance.run();
+
+            assertEquals(Collections.singletonList(Collections.singletonList("expiring")), batches);
+            assertTrue(wheel.getKeys().isEmpty());
+        }
+    }
+
+    @Test
+    public void scheduleDuringTick() {
+        List<List<String>> batches = new ArrayList<>();
+        AtomicReference<TimingWheel<String>> reference = new AtomicReference<>();
+        // Schedule a key, already due, while the ticker is collecting the bucket of the current tick
+        Consumer<List<String>> task = batch -> {
+            batches.add(batch);
+            if (batch.contains("expiring")) {
+                reference.get().schedule("late", this.clock.instant());
+            }
+        };
+        try (TimingWheel<String> wheel = this.createWheel(task)) {
+            reference.set(wheel);
+            Runnable advance = this.captureTicker();
+            wheel.schedule("expiring", this.clock.instant().plus(TICK));
+
+            this.time.addAndGet(TICK.toMillis());
+            advance.run();
+
+            assertEquals(Collections.singletonList(Collections.singletonList("expiring")), batches);
+            assertTrue(wheel.getKeys().contains("late"));
+
+            // Must expire on the very next tick, not on the next rotation of the wheel
+            this.time.addAndGet(TICK.toMillis());
+            advance.run();
+
+            assertEquals(2, batches.size());
+            assertEquals(Collections.singletonList("late"), batches.get(1));
+            assertTrue(wheel.getKeys().isEmpty());
+        }
+    }
+}
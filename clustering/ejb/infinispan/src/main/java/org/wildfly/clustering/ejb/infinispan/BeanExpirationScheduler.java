@@ -21,21 +21,30 @@
  */
 package org.wildfly.clustering.ejb.infinispan;
 
-import java.util.Map;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
+import org.wildfly.clustering.ejb.RemoveListener;
 import org.wildfly.clustering.ejb.Time;
+import org.wildfly.clustering.ejb.infinispan.BeanExpirationTimingWheel.ScheduledBean;
 import org.wildfly.clustering.ejb.infinispan.logging.InfinispanEjbLogger;
 import org.wildfly.clustering.infinispan.spi.distribution.Locality;
 
 /**
  * Schedules a bean for expiration.
+ * Expiration times are coalesced into the ticks of a timing wheel shared by all bean managers of the deployment,
+ * such that beans expiring within the same tick are removed in bulk within a single batch.
  *
  * @author Paul Ferraro
  *
@@ -44,15 +53,24 @@ import org.wildfly.clustering.infinispan.spi.distribution.Locality;
  * @param <T> the bean type
  */
 public class BeanExpirationScheduler<G, I, T> implements Scheduler<I> {
-    final Map<I, Future<?>> expirationFutures = new ConcurrentHashMap<>();
+
     final Batcher<TransactionBatch> batcher;
     final BeanRemover<I, T> remover;
     final ExpirationConfiguration<T> expiration;
+    private final BeanExpirationTimingWheel wheel;
+    // Identifiers scheduled by this scheduler, so that cancelling them does not require a scan of the shared wheel
+    private final Set<I> ids = ConcurrentHashMap.newKeySet();
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0L);
+    private final LongAdder collectedCount = new LongAdder();
+    private final LongAdder lag = new LongAdder();
 
     public BeanExpirationScheduler(Batcher<TransactionBatch> batcher, BeanRemover<I, T> remover, ExpirationConfiguration<T> expiration) {
         this.batcher = batcher;
         this.remover = remover;
         this.expiration = expiration;
+        this.wheel = expiration.getTimingWheel();
     }
 
     @Override
@@ -62,25 +80,21 @@ public class BeanExpirationScheduler<G, I, T> implements Scheduler<I> {
         if (value >= 0) {
             TimeUnit unit = timeout.getUnit();
             InfinispanEjbLogger.ROOT_LOGGER.tracef("Scheduling stateful session bean %s to expire in %d %s", id, value, unit);
-            Runnable task = new ExpirationTask(id);
-            // Make sure the expiration future map insertion happens before map removal (during task execution).
-            synchronized (task) {
-                this.expirationFutures.put(id, this.expiration.getExecutor().schedule(task, value, unit));
-            }
+            this.wheel.schedule(this, id, Instant.now().plusMillis(unit.toMillis(value)));
+            // Index only after scheduling, see expire(...)
+            this.ids.add(id);
         }
     }
 
     @Override
     public void cancel(I id) {
-        Future<?> future = this.expirationFutures.remove(id);
-        if (future != null) {
-            future.cancel(false);
-        }
+        this.wheel.cancel(this, id);
+        this.ids.remove(id);
     }
 
     @Override
     public void cancel(Locality locality) {
-        for (I id: this.expirationFutures.keySet()) {
+        for (I id: this.ids) {
             if (Thread.currentThread().isInterrupted()) break;
             if (!locality.isLocal(id)) {
                 this.cancel(id);
@@ -90,44 +104,90 @@ public class BeanExpirationScheduler<G, I, T> implements Scheduler<I> {
 
     @Override
     public void close() {
-        for (Future<?> future: this.expirationFutures.values()) {
-            future.cancel(false);
+        // The timing wheel is shared, so only cancel the beans scheduled by this scheduler
+        for (I id: this.ids) {
+            this.cancel(id);
+        }
+    }
+
+    @Override
+    public long getExpiredCount() {
+        return this.expiredCount.sum();
+    }
+
+    @Override
+    public long getExpirationBatchCount() {
+        return this.batchCount.sum();
+    }
+
+    @Override
+    public long getMaxExpirationBatchSize() {
+        return this.maxBatchSize.get();
+    }
+
+    @Override
+    public Duration getAverageExpirationLag() {
+        long count = this.collectedCount.sum();
+        return (count > 0) ? Duration.ofMillis(this.lag.sum() / count) : Duration.ZERO;
+    }
+
+    void expire(List<ScheduledBean<?>> beans) {
+        long now = System.currentTimeMillis();
+        List<I> ids = new ArrayList<>(beans.size());
+        for (ScheduledBean<?> bean : beans) {
+            @SuppressWarnings("unchecked")
+            I id = (I) bean.id;
+            ids.add(id);
+            this.ids.remove(id);
+            // Restore index entry of a bean concurrently rescheduled after its collection by the wheel
+            if (this.wheel.contains(this, id)) {
+                this.ids.add(id);
+            }
+            this.lag.add(Math.max(now - bean.expiration.toEpochMilli(), 0L));
         }
-        for (Future<?> future: this.expirationFutures.values()) {
-            if (!future.isDone()) {
+        this.collectedCount.add(ids.size());
+        InfinispanEjbLogger.ROOT_LOGGER.tracef("Expiring stateful session beans %s", ids);
+        try {
+            this.remove(ids);
+        } catch (RuntimeException e) {
+            if (ids.size() == 1) {
+                InfinispanEjbLogger.ROOT_LOGGER.failedToExpireBeans(e, ids);
+                return;
+            }
+            InfinispanEjbLogger.ROOT_LOGGER.debugf(e, "Failed to expire stateful session beans %s within a single batch, retrying individually", ids);
+            // Retry each bean within its own batch, so that a single failing bean cannot prevent the expiration of the others
+            for (I id : ids) {
+                List<I> singleton = Collections.singletonList(id);
                 try {
-                    future.get();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                } catch (ExecutionException e) {
-                    // Ignore
+                    this.remove(singleton);
+                } catch (RuntimeException ex) {
+                    InfinispanEjbLogger.ROOT_LOGGER.failedToExpireBeans(ex, singleton);
                 }
             }
         }
-        this.expirationFutures.clear();
     }
 
-    private class ExpirationTask implements Runnable {
-        private final I id;
-
-        ExpirationTask(I id) {
-            this.id = id;
+    /**
+     * Removes the specified beans within a single batch.
+     * The remove listener is only notified once the batch has completed, so that the listener is never notified of a removal that was rolled back.
+     */
+    private void remove(List<I> ids) {
+        List<T> removed = new ArrayList<>(ids.size());
+        try (Batch batch = this.batcher.createBatch()) {
+            try {
+                this.remover.remove(ids, removed::add);
+            } catch (RuntimeException | Error e) {
+                batch.discard();
+                throw e;
+            }
         }
-
-        @Override
-        public void run() {
-            InfinispanEjbLogger.ROOT_LOGGER.tracef("Expiring stateful session bean %s", this.id);
-            try (Batch batch = BeanExpirationScheduler.this.batcher.createBatch()) {
-                try {
-                    BeanExpirationScheduler.this.remover.remove(this.id, BeanExpirationScheduler.this.expiration.getRemoveListener());
-                } catch (Throwable e) {
-                    InfinispanEjbLogger.ROOT_LOGGER.failedToExpireBean(e, this.id);
-                    batch.discard();
-                }
-            } finally {
-                synchronized (this) {
-                    BeanExpirationScheduler.this.expirationFutures.remove(this.id);
-                }
+        this.batchCount.increment();
+        this.expiredCount.add(removed.size());
+        this.maxBatchSize.accumulate(removed.size());
+        RemoveListener<T> listener = this.expiration.getRemoveListener();
+        if (listener != null) {
+            for (T bean : removed) {
+                listener.removed(bean);
             }
         }
     }
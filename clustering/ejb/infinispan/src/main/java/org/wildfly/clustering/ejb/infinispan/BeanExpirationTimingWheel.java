@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ejb.infinispan;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.wildfly.clustering.ee.scheduler.TimingWheel;
+
+/**
+ * Timing wheel shared by the expiration schedulers of all bean managers of a deployment using the same bean management provider.
+ * A single ticker drives the expiration of the stateful session beans of every component of the deployment,
+ * and each batch of expired beans is partitioned by the scheduler that scheduled them.
+ */
+public class BeanExpirationTimingWheel implements AutoCloseable {
+    // Upper bound of the expiration precision
+    static final Duration TICK = Duration.ofMillis(100);
+    private static final int TICKS_PER_WHEEL = 512;
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private final TimingWheel<ScheduledBean<?>> wheel;
+
+    public BeanExpirationTimingWheel(ScheduledExecutorService executor) {
+        this(TICK, executor);
+    }
+
+    BeanExpirationTimingWheel(Duration tick, ScheduledExecutorService executor) {
+        this.wheel = new TimingWheel<>(tick, TICKS_PER_WHEEL, MAX_BATCH_SIZE, this::expire, executor, executor);
+    }
+
+    <I> void schedule(BeanExpirationScheduler<?, I, ?> scheduler, I id, Instant expiration) {
+        this.wheel.schedule(new ScheduledBean<>(scheduler, id, expiration), expiration);
+    }
+
+    <I> boolean cancel(BeanExpirationScheduler<?, I, ?> scheduler, I id) {
+        return this.wheel.cancel(new ScheduledBean<>(scheduler, id, null));
+    }
+
+    <I> boolean contains(BeanExpirationScheduler<?, I, ?> scheduler, I id) {
+        return this.wheel.contains(new ScheduledBean<>(scheduler, id, null));
+    }
+
+    @Override
+    public void close() {
+        this.wheel.close();
+    }
+
+    private void expire(List<ScheduledBean<?>> beans) {
+        Map<BeanExpirationScheduler<?, ?, ?>, List<ScheduledBean<?>>> schedulers = new IdentityHashMap<>();
+        for (ScheduledBean<?> bean : beans) {
+            schedulers.computeIfAbsent(bean.scheduler, key -> new ArrayList<>(beans.size())).add(bean);
+        }
+        for (Map.Entry<BeanExpirationScheduler<?, ?, ?>, List<ScheduledBean<?>>> entry : schedulers.entrySet()) {
+            entry.getKey().expire(entry.getValue());
+        }
+    }
+
+    /**
+     * A bean scheduled for expiration by a given scheduler.
+     * The expiration time does not participate in equality, such that rescheduling a bean replaces its previous expiration.
+     */
+    static class ScheduledBean<I> {
+        final BeanExpirationScheduler<?, I, ?> scheduler;
+        final I id;
+        final Instant expiration;
+
+        ScheduledBean(BeanExpirationScheduler<?, I, ?> scheduler, I id, Instant expiration) {
+            this.scheduler = scheduler;
+            this.id = id;
+            this.expiration = expiration;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.scheduler) * 31 + this.id.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof ScheduledBean)) return false;
+            ScheduledBean<?> bean = (ScheduledBean<?>) object;
+            return (this.scheduler == bean.scheduler) && Objects.equals(this.id, bean.id);
+        }
+
+        @Override
+        public String toString() {
+            return this.id.toString();
+        }
+    }
+}
@@ -21,6 +21,8 @@
  */
 package org.wildfly.clustering.ejb.infinispan;
 
+import java.util.Collection;
+
 import org.wildfly.clustering.ejb.RemoveListener;
 
 /**
@@ -30,4 +32,15 @@ import org.wildfly.clustering.ejb.RemoveListener;
  */
 public interface BeanRemover<K, V> {
     void remove(K id, RemoveListener<V> listener);
+
+    /**
+     * Removes the specified beans, e.g. within the same batch.
+     * @param ids a collection of bean identifiers
+     * @param listener a listener to notify of each bean removal
+     */
+    default void remove(Collection<K> ids, RemoveListener<V> listener) {
+        for (K id : ids) {
+            this.remove(id, listener);
+        }
+    }
 }
@@ -21,8 +21,6 @@
  */
 package org.wildfly.clustering.ejb.infinispan;
 
-import java.util.concurrent.ScheduledExecutorService;
-
 import org.wildfly.clustering.ejb.RemoveListener;
 import org.wildfly.clustering.ejb.Time;
 
@@ -45,8 +43,8 @@ public interface ExpirationConfiguration<T> {
     RemoveListener<T> getRemoveListener();
 
     /**
-     * Returns the scheduled executor suitable for scheduling bean expiration.
-     * @return a scheduled executor
+     * Returns the timing wheel, shared by all bean managers of the deployment, that schedules bean expiration.
+     * @return a timing wheel
      */
-    ScheduledExecutorService getExecutor();
+    BeanExpirationTimingWheel getTimingWheel();
 }
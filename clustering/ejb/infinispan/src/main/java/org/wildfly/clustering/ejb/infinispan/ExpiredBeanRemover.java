@@ -21,6 +21,10 @@
  */
 package org.wildfly.clustering.ejb.infinispan;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 import org.wildfly.clustering.ejb.Bean;
 import org.wildfly.clustering.ejb.RemoveListener;
 import org.wildfly.clustering.ejb.infinispan.logging.InfinispanEjbLogger;
@@ -44,14 +48,31 @@ public class ExpiredBeanRemover<I, T> implements BeanRemover<I, T> {
 
     @Override
     public void remove(I id, RemoveListener<T> listener) {
+        if (this.isExpired(id)) {
+            InfinispanEjbLogger.ROOT_LOGGER.tracef("Removing expired bean %s", id);
+            this.factory.remove(id, listener);
+        }
+    }
+
+    @Override
+    public void remove(Collection<I> ids, RemoveListener<T> listener) {
+        List<I> expired = new ArrayList<>(ids.size());
+        for (I id : ids) {
+            if (this.isExpired(id)) {
+                expired.add(id);
+            }
+        }
+        if (!expired.isEmpty()) {
+            InfinispanEjbLogger.ROOT_LOGGER.tracef("Removing expired beans %s", expired);
+            // Let the factory remove beans of the same group together
+            this.factory.remove(expired, listener);
+        }
+    }
+
+    private boolean isExpired(I id) {
         BeanEntry<I> entry = this.factory.findValue(id);
         @SuppressWarnings("resource")
         Bean<I, T> bean = (entry != null) ? this.factory.createBean(id, entry) : null;
-        if (bean != null) {
-            if (bean.isExpired()) {
-                InfinispanEjbLogger.ROOT_LOGGER.tracef("Removing expired bean %s", id);
-                this.factory.remove(id, listener);
-            }
-        }
+        return (bean != null) && bean.isExpired();
     }
 }
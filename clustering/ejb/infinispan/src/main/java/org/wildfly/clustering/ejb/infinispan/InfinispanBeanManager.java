@@ -58,6 +58,7 @@ import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
 import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.Invoker;
 import org.wildfly.clustering.ee.infinispan.CacheProperties;
+import org.wildfly.clustering.ee.infinispan.CompressionGuard;
 import org.wildfly.clustering.ee.infinispan.InfinispanBatcher;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
 import org.wildfly.clustering.ee.retry.RetryingInvoker;
@@ -75,6 +76,9 @@ import org.wildfly.clustering.infinispan.spi.distribution.CacheLocality;
 import org.wildfly.clustering.infinispan.spi.distribution.ConsistentHashLocality;
 import org.wildfly.clustering.infinispan.spi.distribution.Locality;
 import org.wildfly.clustering.infinispan.spi.distribution.SimpleLocality;
+import org.wildfly.clustering.marshalling.spi.Compressible;
+import org.wildfly.clustering.marshalling.spi.MarshalledValueFactory;
+import org.wildfly.clustering.marshalling.spi.MarshalledValueStatistics;
 import org.wildfly.clustering.registry.Registry;
 import org.wildfly.clustering.spi.NodeFactory;
 import org.wildfly.common.function.ExceptionSupplier;
@@ -90,7 +94,7 @@ import org.wildfly.security.manager.WildFlySecurityManager;
  * @param <T> the bean type
  */
 @Listener(primaryOnly = true)
-public class InfinispanBeanManager<I, T> implements BeanManager<I, T, TransactionBatch> {
+public class InfinispanBeanManager<I, T> implements BeanManager<I, T, TransactionBatch>, MarshalledValueStatistics {
 
     private static ThreadFactory createThreadFactory() {
         PrivilegedAction<ThreadFactory> action = () -> new JBossThreadFactory(new ThreadGroup(InfinispanBeanManager.class.getSimpleName()), Boolean.FALSE, null, "%G - %t", null, null);
@@ -112,11 +116,13 @@ public class InfinispanBeanManager<I, T> implements BeanManager<I, T, Transactio
     private final PassivationConfiguration<T> passivation;
     private final Batcher<TransactionBatch> batcher;
     private final Predicate<Map.Entry<? super BeanKey<I>, ? super BeanEntry<I>>> filter;
+    private final MarshalledValueFactory<?> marshalledValueFactory;
     private final AtomicReference<Future<?>> rehashFuture = new AtomicReference<>();
 
     private volatile Scheduler<I> scheduler;
     private volatile ExecutorService executor;
     private volatile CommandDispatcher<Scheduler<I>> dispatcher;
+    private volatile CompressionGuard compressionGuard;
 
     public InfinispanBeanManager(InfinispanBeanManagerConfiguration<I, T> configuration, IdentifierFactory<I> identifierFactory, Configuration<BeanKey<I>, BeanEntry<I>, BeanFactory<I, T>> beanConfiguration, Configuration<BeanGroupKey<I>, BeanGroupEntry<I, T>, BeanGroupFactory<I, T>> groupConfiguration) {
         this.filter = configuration.getBeanFilter();
@@ -135,6 +141,7 @@ public class InfinispanBeanManager<I, T> implements BeanManager<I, T, Transactio
         this.dispatcherFactory = configuration.getCommandDispatcherFactory();
         this.expiration = configuration.getExpirationConfiguration();
         this.passivation = configuration.getPassivationConfiguration();
+        this.marshalledValueFactory = configuration.getMarshalledValueFactory();
     }
 
     @Override
@@ -159,7 +166,11 @@ public class InfinispanBeanManager<I, T> implements BeanManager<I, T, Transactio
             public void close() {
             }
         };
-        this.dispatcher = this.dispatcherFactory.createCommandDispatcher(String.join("/", this.cache.getName(), this.filter.toString()), this.scheduler);
+        String name = String.join("/", this.cache.getName(), this.filter.toString());
+        this.dispatcher = this.dispatcherFactory.createCommandDispatcher(name, this.scheduler);
+        if ((this.marshalledValueFactory instanceof Compressible) && ((Compressible) this.marshalledValueFactory).isCompressing() && this.cache.getCacheConfiguration().clustering().cacheMode().isClustered()) {
+            this.compressionGuard = new CompressionGuard(name, this.cache, this.nodeFactory::createNode, this.dispatcherFactory, (Compressible) this.marshalledValueFactory);
+        }
         this.cache.addListener(this, new PredicateCacheEventFilter<>(this.filter), null);
         this.schedule(new SimpleLocality(false), new CacheLocality(this.cache));
     }
@@ -178,6 +189,10 @@ public class InfinispanBeanManager<I, T> implements BeanManager<I, T, Transactio
             this.dispatcher.close();
             this.scheduler.close();
             this.affinity.stop();
+            CompressionGuard guard = this.compressionGuard;
+            if (guard != null) {
+                guard.close();
+            }
         }
     }
 
@@ -289,6 +304,55 @@ public class InfinispanBeanManager<I, T> implements BeanManager<I, T, Transactio
         return this.groupFactory.getPassiveCount();
     }
 
+    @Override
+    public long getExpiredCount() {
+        Scheduler<I> scheduler = this.scheduler;
+        return (scheduler != null) ? scheduler.getExpiredCount() : 0L;
+    }
+
+    @Override
+    public long getExpirationBatchCount() {
+        Scheduler<I> scheduler = this.scheduler;
+        return (scheduler != null) ? scheduler.getExpirationBatchCount() : 0L;
+    }
+
+    @Override
+    public long getMaxExpirationBatchSize() {
+        Scheduler<I> scheduler = this.scheduler;
+        return (scheduler != null) ? scheduler.getMaxExpirationBatchSize() : 0L;
+    }
+
+    @Override
+    public Duration getAverageExpirationLag() {
+        Scheduler<I> scheduler = this.scheduler;
+        return (scheduler != null) ? scheduler.getAverageExpirationLag() : Duration.ZERO;
+    }
+
+    @Override
+    public long getMarshalledCount() {
+        return this.marshalledValueFactory.getMarshalledCount();
+    }
+
+    @Override
+    public long getMarshalledBytes() {
+        return this.marshalledValueFactory.getMarshalledBytes();
+    }
+
+    @Override
+    public long getStoredBytes() {
+        return this.marshalledValueFactory.getStoredBytes();
+    }
+
+    @Override
+    public long[] getMarshalledSizeHistogram() {
+        return this.marshalledValueFactory.getMarshalledSizeHistogram();
+    }
+
+    @Override
+    public long[] getStoredSizeHistogram() {
+        return this.marshalledValueFactory.getStoredSizeHistogram();
+    }
+
     @DataRehashed
     public void dataRehashed(DataRehashedEvent<BeanKey<I>, BeanEntry<I>> event) {
         Locality newLocality = new ConsistentHashLocality(event.getCache(), event.getConsistentHashAtEnd());
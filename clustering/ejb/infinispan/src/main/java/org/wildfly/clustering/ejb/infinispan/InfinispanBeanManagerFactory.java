@@ -22,7 +22,6 @@
 package org.wildfly.clustering.ejb.infinispan;
 
 import java.util.Map;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Predicate;
 
 import org.infinispan.Cache;
@@ -68,7 +67,7 @@ public class InfinispanBeanManagerFactory<I, T> implements BeanManagerFactory<I,
     @Override
     public BeanManager<I, T, TransactionBatch> createBeanManager(IdentifierFactory<I> identifierFactory, PassivationListener<T> passivationListener, RemoveListener<T> removeListener) {
         MarshallingContext context = new SimpleMarshallingContextFactory().createMarshallingContext(this.configuration.getMarshallingConfigurationRepository(), this.configuration.getBeanContext().getClassLoader());
-        MarshalledValueFactory<MarshallingContext> factory = new SimpleMarshalledValueFactory(context);
+        MarshalledValueFactory<MarshallingContext> factory = new SimpleMarshalledValueFactory(context, this.configuration.getCompression(), this.configuration.getCompressionThreshold());
         Cache<BeanKey<I>, BeanEntry<I>> beanCache = this.configuration.getCache();
         Cache<BeanGroupKey<I>, BeanGroupEntry<I, T>> groupCache = this.configuration.getCache();
         CacheProperties properties = new InfinispanCacheProperties(groupCache.getCacheConfiguration());
@@ -95,7 +94,7 @@ public class InfinispanBeanManagerFactory<I, T> implements BeanManagerFactory<I,
         KeyAffinityServiceFactory affinityFactory = this.configuration.getKeyAffinityServiceFactory();
         CommandDispatcherFactory dispatcherFactory = this.configuration.getCommandDispatcherFactory();
         Time timeout = this.configuration.getBeanContext().getTimeout();
-        ScheduledExecutorService scheduler = this.configuration.getScheduler();
+        BeanExpirationTimingWheel wheel = this.configuration.getExpirationTimingWheel();
         ExpirationConfiguration<T> expiration = new ExpirationConfiguration<T>() {
             @Override
             public Time getTimeout() {
@@ -108,8 +107,8 @@ public class InfinispanBeanManagerFactory<I, T> implements BeanManagerFactory<I,
             }
 
             @Override
-            public ScheduledExecutorService getExecutor() {
-                return scheduler;
+            public BeanExpirationTimingWheel getTimingWheel() {
+                return wheel;
             }
         };
         InfinispanBeanManagerConfiguration<I, T> configuration = new InfinispanBeanManagerConfiguration<I, T>() {
@@ -152,6 +151,11 @@ public class InfinispanBeanManagerFactory<I, T> implements BeanManagerFactory<I,
             public CacheProperties getProperties() {
                 return properties;
             }
+
+            @Override
+            public MarshalledValueFactory<?> getMarshalledValueFactory() {
+                return factory;
+            }
         };
         return new InfinispanBeanManager<>(configuration, identifierFactory, beanConfiguration, groupConfiguration);
     }
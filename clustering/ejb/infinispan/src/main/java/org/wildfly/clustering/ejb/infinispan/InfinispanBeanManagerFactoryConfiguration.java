@@ -22,14 +22,13 @@
 
 package org.wildfly.clustering.ejb.infinispan;
 
-import java.util.concurrent.ScheduledExecutorService;
-
 import org.infinispan.Cache;
 import org.infinispan.remoting.transport.Address;
 import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
 import org.wildfly.clustering.ejb.BeanContext;
 import org.wildfly.clustering.ejb.BeanPassivationConfiguration;
 import org.wildfly.clustering.infinispan.spi.affinity.KeyAffinityServiceFactory;
+import org.wildfly.clustering.marshalling.jboss.MarshalledValueCompression;
 import org.wildfly.clustering.marshalling.jboss.MarshallingConfigurationRepository;
 import org.wildfly.clustering.registry.Registry;
 import org.wildfly.clustering.spi.NodeFactory;
@@ -42,9 +41,11 @@ public interface InfinispanBeanManagerFactoryConfiguration {
     <K, V> Cache<K, V> getCache();
     KeyAffinityServiceFactory getKeyAffinityServiceFactory();
     MarshallingConfigurationRepository getMarshallingConfigurationRepository();
-    ScheduledExecutorService getScheduler();
+    BeanExpirationTimingWheel getExpirationTimingWheel();
     BeanPassivationConfiguration getPassivationConfiguration();
     NodeFactory<Address> getNodeFactory();
     Registry<String, ?> getRegistry();
     CommandDispatcherFactory getCommandDispatcherFactory();
+    MarshalledValueCompression getCompression();
+    int getCompressionThreshold();
 }
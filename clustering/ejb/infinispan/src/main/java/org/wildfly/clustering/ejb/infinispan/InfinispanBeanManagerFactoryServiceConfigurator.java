@@ -22,7 +22,6 @@
 
 package org.wildfly.clustering.ejb.infinispan;
 
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 
 import org.infinispan.Cache;
@@ -42,6 +41,7 @@ import org.wildfly.clustering.ejb.BeanPassivationConfiguration;
 import org.wildfly.clustering.infinispan.spi.InfinispanCacheRequirement;
 import org.wildfly.clustering.infinispan.spi.InfinispanRequirement;
 import org.wildfly.clustering.infinispan.spi.affinity.KeyAffinityServiceFactory;
+import org.wildfly.clustering.marshalling.jboss.MarshalledValueCompression;
 import org.wildfly.clustering.marshalling.jboss.MarshallingConfigurationRepository;
 import org.wildfly.clustering.registry.Registry;
 import org.wildfly.clustering.service.CompositeDependency;
@@ -60,12 +60,13 @@ public class InfinispanBeanManagerFactoryServiceConfigurator<I, T> extends Simpl
 
     private final BeanContext context;
     private final BeanManagerFactoryServiceConfiguratorConfiguration configuration;
+    private final MarshalledValueCompression compression;
 
     @SuppressWarnings("rawtypes")
     private final SupplierDependency<Cache> cache;
     private final SupplierDependency<KeyAffinityServiceFactory> affinityFactory;
     private final SupplierDependency<MarshallingConfigurationRepository> repository;
-    private final SupplierDependency<ScheduledExecutorService> scheduler;
+    private final SupplierDependency<BeanExpirationTimingWheel> wheel;
     private final SupplierDependency<NodeFactory<Address>> group;
     private final SupplierDependency<Registry<String, ?>> registry;
     private final SupplierDependency<CommandDispatcherFactory> dispatcherFactory;
@@ -74,12 +75,14 @@ public class InfinispanBeanManagerFactoryServiceConfigurator<I, T> extends Simpl
         super(context.getDeploymentUnitServiceName().append(context.getBeanName()).append("bean-manager"));
         this.context = context;
         this.configuration = configuration;
+        String compression = configuration.getCompression();
+        this.compression = (compression != null) ? MarshalledValueCompression.parse(compression) : null;
         ServiceName deploymentUnitServiceName = context.getDeploymentUnitServiceName();
         String containerName = configuration.getContainerName();
         this.cache = new ServiceSupplierDependency<>(InfinispanCacheRequirement.CACHE.getServiceName(support, containerName, InfinispanBeanManagerFactoryServiceConfiguratorFactory.getCacheName(deploymentUnitServiceName)));
         this.affinityFactory = new ServiceSupplierDependency<>(InfinispanRequirement.KEY_AFFINITY_FACTORY.getServiceName(support, containerName));
         this.repository = new ServiceSupplierDependency<>(deploymentUnitServiceName.append("marshalling"));
-        this.scheduler = new ServiceSupplierDependency<>(deploymentUnitServiceName.append(name, "expiration"));
+        this.wheel = new ServiceSupplierDependency<>(deploymentUnitServiceName.append(name, "expiration-wheel"));
         this.dispatcherFactory = new ServiceSupplierDependency<>(ClusteringRequirement.COMMAND_DISPATCHER_FACTORY.getServiceName(support, containerName));
         this.registry = new ServiceSupplierDependency<>(ClusteringCacheRequirement.REGISTRY.getServiceName(support, containerName, BeanManagerFactoryServiceConfiguratorConfiguration.CLIENT_MAPPINGS_CACHE_NAME));
         this.group = new ServiceSupplierDependency<>(ClusteringCacheRequirement.GROUP.getServiceName(support, containerName, BeanManagerFactoryServiceConfiguratorConfiguration.CLIENT_MAPPINGS_CACHE_NAME));
@@ -88,7 +91,7 @@ public class InfinispanBeanManagerFactoryServiceConfigurator<I, T> extends Simpl
     @Override
     public ServiceBuilder<?> build(ServiceTarget target) {
         ServiceBuilder<?> builder = target.addService(this.getServiceName());
-        new CompositeDependency(this.cache, this.affinityFactory, this.repository, this.scheduler, this.group, this.registry, this.dispatcherFactory).register(builder);
+        new CompositeDependency(this.cache, this.affinityFactory, this.repository, this.wheel, this.group, this.registry, this.dispatcherFactory).register(builder);
         Consumer<BeanManagerFactory<I, T, TransactionBatch>> factory = builder.provides(this.getServiceName());
         Service service = Service.newInstance(factory, new InfinispanBeanManagerFactory<>(this));
         return builder.setInstance(service).setInitialMode(ServiceController.Mode.ON_DEMAND);
@@ -115,8 +118,8 @@ public class InfinispanBeanManagerFactoryServiceConfigurator<I, T> extends Simpl
     }
 
     @Override
-    public ScheduledExecutorService getScheduler() {
-        return this.scheduler.get();
+    public BeanExpirationTimingWheel getExpirationTimingWheel() {
+        return this.wheel.get();
     }
 
     @Override
@@ -138,4 +141,14 @@ public class InfinispanBeanManagerFactoryServiceConfigurator<I, T> extends Simpl
     public CommandDispatcherFactory getCommandDispatcherFactory() {
         return this.dispatcherFactory.get();
     }
+
+    @Override
+    public MarshalledValueCompression getCompression() {
+        return this.compression;
+    }
+
+    @Override
+    public int getCompressionThreshold() {
+        return this.configuration.getCompressionThreshold();
+    }
 }
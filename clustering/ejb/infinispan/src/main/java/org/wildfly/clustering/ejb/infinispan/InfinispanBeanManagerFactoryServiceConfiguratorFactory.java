@@ -117,10 +117,11 @@ public class InfinispanBeanManagerFactoryServiceConfiguratorFactory<I> implement
             }
         };
 
-        List<CapabilityServiceConfigurator> builders = new ArrayList<>(4);
+        List<CapabilityServiceConfigurator> builders = new ArrayList<>(5);
         builders.add(new TemplateConfigurationServiceConfigurator(ServiceName.parse(InfinispanCacheRequirement.CONFIGURATION.resolve(containerName, cacheName)), containerName, cacheName, templateCacheName, configurator));
         builders.add(new CacheServiceConfigurator<>(ServiceName.parse(InfinispanCacheRequirement.CACHE.resolve(containerName, cacheName)), containerName, cacheName).require(new ServiceDependency(name.append("marshalling"))));
         builders.add(new ServiceConfiguratorAdapter(new RemoveOnCancelScheduledExecutorServiceConfigurator(name.append(this.name, "expiration"), EXPIRATION_THREAD_FACTORY)));
+        builders.add(new ServiceConfiguratorAdapter(new BeanExpirationTimingWheelServiceConfigurator(name.append(this.name, "expiration-wheel"), name.append(this.name, "expiration"))));
         return builders;
     }
 
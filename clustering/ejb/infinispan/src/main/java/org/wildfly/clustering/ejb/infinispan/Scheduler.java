@@ -22,13 +22,14 @@
 
 package org.wildfly.clustering.ejb.infinispan;
 
+import org.wildfly.clustering.ejb.BeanExpirationStatistics;
 import org.wildfly.clustering.infinispan.spi.distribution.Locality;
 
 /**
  * A scheduler for some task.
  * @author Paul Ferraro
  */
-public interface Scheduler<I> extends AutoCloseable {
+public interface Scheduler<I> extends BeanExpirationStatistics, AutoCloseable {
     /**
      * Schedules a task for the specified bean.
      * @param id a bean identifier
@@ -21,6 +21,12 @@
  */
 package org.wildfly.clustering.ejb.infinispan.bean;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.infinispan.Cache;
 import org.infinispan.context.Flag;
 import org.wildfly.clustering.ee.infinispan.CacheProperties;
@@ -116,4 +122,30 @@ public class InfinispanBeanFactory<I, T> implements BeanFactory<I, T> {
             }
         }
     }
+
+    @Override
+    public void remove(Collection<I> ids, RemoveListener<T> listener) {
+        // Group beans by their bean group, so that each group entry is read and mutated only once
+        Map<I, List<I>> groups = new LinkedHashMap<>();
+        for (I id : ids) {
+            BeanEntry<I> entry = this.cache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS).remove(this.createKey(id));
+            if (entry != null) {
+                groups.computeIfAbsent(entry.getGroupId(), key -> new ArrayList<>()).add(id);
+            }
+        }
+        for (Map.Entry<I, List<I>> entry : groups.entrySet()) {
+            I groupId = entry.getKey();
+            BeanGroupEntry<I, T> groupEntry = this.groupFactory.findValue(groupId);
+            if (groupEntry != null) {
+                try (BeanGroup<I, T> group = this.groupFactory.createGroup(groupId, groupEntry)) {
+                    for (I id : entry.getValue()) {
+                        T bean = group.removeBean(id);
+                        if (listener != null) {
+                            listener.removed(bean);
+                        }
+                    }
+                }
+            }
+        }
+    }
 }
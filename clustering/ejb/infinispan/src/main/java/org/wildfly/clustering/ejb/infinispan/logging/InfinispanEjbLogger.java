@@ -24,6 +24,8 @@ package org.wildfly.clustering.ejb.infinispan.logging;
 import static org.jboss.logging.Logger.Level.DEBUG;
 import static org.jboss.logging.Logger.Level.WARN;
 
+import java.util.Collection;
+
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.Logger;
 import org.jboss.logging.annotations.Cause;
@@ -79,4 +81,8 @@ public interface InfinispanEjbLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 10, value = "Disabling expiration for '%s'. SFSB expiration should be configured per \u00A74.3.11 of the EJB specification.")
     void expirationDisabled(String cacheName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 11, value = "Failed to expire stateful session beans %s")
+    void failedToExpireBeans(@Cause Throwable cause, Collection<?> ids);
 }
@@ -21,30 +21,62 @@
  */
 package org.wildfly.clustering.ejb.infinispan;
 
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import org.junit.After;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
 import org.wildfly.clustering.ejb.RemoveListener;
 import org.wildfly.clustering.ejb.Time;
+import org.wildfly.clustering.ejb.infinispan.BeanExpirationTimingWheel.ScheduledBean;
 
 public class BeanExpirationSchedulerTestCase {
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final BeanExpirationTimingWheel wheel = new BeanExpirationTimingWheel(Duration.ofMillis(10), this.executor);
+
+    @After
+    public void destroy() {
+        this.wheel.close();
+        this.executor.shutdownNow();
+    }
+
     @Test
-    public void testImmortal() throws InterruptedException {
+    public void testImmortal() {
         Batcher<TransactionBatch> batcher = mock(Batcher.class);
         BeanRemover<String, Object> remover = mock(BeanRemover.class);
         ExpirationConfiguration<Object> config = mock(ExpirationConfiguration.class);
         RemoveListener<Object> listener = mock(RemoveListener.class);
         String beanId = "immortal";
 
-        when(config.getExecutor()).thenReturn(Executors.newSingleThreadScheduledExecutor());
+        when(config.getTimingWheel()).thenReturn(this.wheel);
 
         // Fun fact: the EJB specification allows a timeout value of 0, so only negative timeouts are treated as immortal
         when(config.getTimeout()).thenReturn(new Time(-1, TimeUnit.SECONDS));
@@ -53,61 +85,168 @@ public class BeanExpirationSchedulerTestCase {
         try (Scheduler<String> scheduler = new BeanExpirationScheduler<>(batcher, remover, config)) {
             scheduler.schedule(beanId);
 
-            Thread.sleep(1000);
+            assertFalse(this.wheel.contains((BeanExpirationScheduler<?, String, ?>) scheduler, beanId));
         }
 
         verify(batcher, never()).createBatch();
-        verify(remover, never()).remove(beanId, listener);
+        verify(remover, never()).remove(eq(beanId), any());
+        verify(remover, never()).remove(anyCollection(), any());
     }
 
     @Test
-    public void testExpire() throws InterruptedException {
+    public void testExpire() {
         Batcher<TransactionBatch> batcher = mock(Batcher.class);
         TransactionBatch batch = mock(TransactionBatch.class);
         BeanRemover<String, Object> remover = mock(BeanRemover.class);
         ExpirationConfiguration<Object> config = mock(ExpirationConfiguration.class);
         RemoveListener<Object> listener = mock(RemoveListener.class);
         String beanId = "expiring";
+        Object bean = new Object();
 
-        when(config.getExecutor()).thenReturn(Executors.newSingleThreadScheduledExecutor());
+        when(config.getTimingWheel()).thenReturn(this.wheel);
         when(batcher.createBatch()).thenReturn(batch);
 
         when(config.getTimeout()).thenReturn(new Time(1, TimeUnit.MILLISECONDS));
         when(config.getRemoveListener()).thenReturn(listener);
+        doAnswer(new RemoveAnswer(bean)).when(remover).remove(eq(Collections.singletonList(beanId)), any());
 
         try (Scheduler<String> scheduler = new BeanExpirationScheduler<>(batcher, remover, config)) {
             scheduler.schedule(beanId);
 
-            Thread.sleep(1000);
+            // Listener is notified once the batch completes
+            verify(listener, timeout(5000L)).removed(bean);
+
+            assertEquals(1L, scheduler.getExpiredCount());
+            assertEquals(1L, scheduler.getExpirationBatchCount());
+            assertEquals(1L, scheduler.getMaxExpirationBatchSize());
         }
 
-        verify(remover).remove(beanId, listener);
         verify(batch).close();
+        verify(batch, never()).discard();
     }
 
     @Test
-    public void testCancel() throws InterruptedException {
+    public void testCancel() {
         Batcher<TransactionBatch> batcher = mock(Batcher.class);
         BeanRemover<String, Object> remover = mock(BeanRemover.class);
         ExpirationConfiguration<Object> config = mock(ExpirationConfiguration.class);
         RemoveListener<Object> listener = mock(RemoveListener.class);
         String beanId = "canceled";
 
-        when(config.getExecutor()).thenReturn(Executors.newSingleThreadScheduledExecutor());
+        when(config.getTimingWheel()).thenReturn(this.wheel);
 
         when(config.getTimeout()).thenReturn(new Time(1, TimeUnit.MINUTES));
         when(config.getRemoveListener()).thenReturn(listener);
 
-        try (Scheduler<String> scheduler = new BeanExpirationScheduler<>(batcher, remover, config)) {
+        BeanExpirationScheduler<String, String, Object> scheduler = new BeanExpirationScheduler<>(batcher, remover, config);
+        try {
             scheduler.schedule(beanId);
 
-            Thread.sleep(1000);
+            assertTrue(this.wheel.contains(scheduler, beanId));
 
             scheduler.cancel(beanId);
+
+            assertFalse(this.wheel.contains(scheduler, beanId));
+
             scheduler.schedule(beanId);
+        } finally {
+            scheduler.close();
         }
 
-        verify(remover, never()).remove(beanId, listener);
+        // Closing the scheduler cancels its beans
+        assertFalse(this.wheel.contains(scheduler, beanId));
+
+        verify(remover, never()).remove(eq(beanId), any());
+        verify(remover, never()).remove(anyCollection(), any());
         verify(batcher, never()).createBatch();
     }
+
+    @Test
+    public void testSharedWheel() throws InterruptedException {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        BeanRemover<String, Object> remover1 = mock(BeanRemover.class);
+        BeanRemover<String, Object> remover2 = mock(BeanRemover.class);
+        ExpirationConfiguration<Object> config = mock(ExpirationConfiguration.class);
+
+        when(config.getTimingWheel()).thenReturn(this.wheel);
+        when(batcher.createBatch()).thenReturn(batch);
+        when(config.getTimeout()).thenReturn(new Time(1, TimeUnit.MILLISECONDS));
+        Set<String> removed = ConcurrentHashMap.newKeySet();
+        CountDownLatch latch = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            removed.addAll(ids);
+            ids.forEach(id -> latch.countDown());
+            return null;
+        }).when(remover2).remove(anyCollection(), any());
+
+        try (Scheduler<String> scheduler1 = new BeanExpirationScheduler<>(batcher, remover1, config)) {
+            try (Scheduler<String> scheduler2 = new BeanExpirationScheduler<>(batcher, remover2, config)) {
+                // Same bean identifier scheduled by different schedulers
+                scheduler1.schedule("bean");
+                scheduler2.schedule("bean");
+                scheduler2.schedule("other");
+
+                verify(remover1, timeout(5000L)).remove(eq(Collections.singletonList("bean")), any());
+                assertTrue(latch.await(5L, TimeUnit.SECONDS));
+                assertEquals(new HashSet<>(Arrays.asList("bean", "other")), removed);
+            }
+        }
+
+        verify(remover1, times(1)).remove(anyCollection(), any());
+    }
+
+    @Test
+    public void testBatchFailure() {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        BeanRemover<String, Object> remover = mock(BeanRemover.class);
+        ExpirationConfiguration<Object> config = mock(ExpirationConfiguration.class);
+        RemoveListener<Object> listener = mock(RemoveListener.class);
+        Object bean = new Object();
+
+        when(config.getTimingWheel()).thenReturn(this.wheel);
+        when(batcher.createBatch()).thenReturn(batch);
+        when(config.getTimeout()).thenReturn(new Time(1, TimeUnit.MINUTES));
+        when(config.getRemoveListener()).thenReturn(listener);
+
+        doThrow(new IllegalStateException()).when(remover).remove(eq(Arrays.asList("failing", "expiring")), any());
+        doThrow(new IllegalStateException()).when(remover).remove(eq(Collections.singletonList("failing")), any());
+        doAnswer(new RemoveAnswer(bean)).when(remover).remove(eq(Collections.singletonList("expiring")), any());
+
+        try (BeanExpirationScheduler<String, String, Object> scheduler = new BeanExpirationScheduler<>(batcher, remover, config)) {
+            Instant now = Instant.now();
+            scheduler.expire(Arrays.asList(new ScheduledBean<>(scheduler, "failing", now), new ScheduledBean<>(scheduler, "expiring", now)));
+
+            // The failing bean must not prevent expiration of the other
+            verify(remover).remove(eq(Collections.singletonList("expiring")), any());
+            verify(listener).removed(bean);
+            // Only removals of committed batches are counted
+            assertEquals(1L, scheduler.getExpiredCount());
+            assertEquals(1L, scheduler.getExpirationBatchCount());
+            assertEquals(1L, scheduler.getMaxExpirationBatchSize());
+        }
+
+        verify(batch, times(2)).discard();
+        verify(batch, times(3)).close();
+    }
+
+    private static class RemoveAnswer implements Answer<Void> {
+        private final Object bean;
+
+        RemoveAnswer(Object bean) {
+            this.bean = bean;
+        }
+
+        @Override
+        public Void answer(InvocationOnMock invocation) {
+            Collection<?> ids = invocation.getArgument(0);
+            RemoveListener<Object> listener = invocation.getArgument(1);
+            for (int i = 0; i < ids.size(); ++i) {
+                listener.removed(this.bean);
+            }
+            return null;
+        }
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ejb;
+
+import java.time.Duration;
+
+/**
+ * Exposes statistics of bean expiration.
+ */
+public interface BeanExpirationStatistics {
+    /**
+     * Returns the number of beans that were scheduled for removal due to expiration.
+     * @return a number of beans
+     */
+    default long getExpiredCount() {
+        return 0L;
+    }
+
+    /**
+     * Returns the number of batches in which expired beans were removed.
+     * @return a number of batches
+     */
+    default long getExpirationBatchCount() {
+        return 0L;
+    }
+
+    /**
+     * Returns the largest number of expired beans removed within a single batch.
+     * @return a number of beans
+     */
+    default long getMaxExpirationBatchSize() {
+        return 0L;
+    }
+
+    /**
+     * Returns the average duration between the time at which a bean became eligible for expiration and the time at which it was expired.
+     * @return a duration
+     */
+    default Duration getAverageExpirationLag() {
+        return Duration.ZERO;
+    }
+}
@@ -31,4 +31,16 @@ public interface BeanManagerFactoryServiceConfiguratorConfiguration extends Bean
 
     String getContainerName();
     String getCacheName();
+
+    /**
+     * Returns the name of the codec used to compress the serialized form of bean groups, e.g. "deflate".
+     * @return a codec name, or null, if bean groups should not be compressed
+     */
+    String getCompression();
+
+    /**
+     * Returns the size, in bytes, below which the serialized form of a bean group is not compressed.
+     * @return a number of bytes
+     */
+    int getCompressionThreshold();
 }
@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.infinispan.spi.function;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import org.infinispan.functional.EntryView.ReadWriteEntryView;
+
+/**
+ * Function evaluated against the entry view of a functional map that applies a set of puts and removals to an existing map, where a null operand value indicates a removal.
+ * Unlike {@link MapPutFunction} and {@link MapRemoveFunction}, this function never creates a map, retains an empty map, and returns nothing to the caller.
+ * @param <K> the map key type
+ * @param <V> the map value type
+ */
+public class MapComputeFunction<K, V> implements Function<ReadWriteEntryView<Object, Map<K, V>>, Void> {
+    private final Map<K, V> operand;
+    private final UnaryOperator<Map<K, V>> copier;
+
+    public MapComputeFunction(Map<K, V> operand, UnaryOperator<Map<K, V>> copier) {
+        this.operand = operand;
+        this.copier = copier;
+    }
+
+    @Override
+    public Void apply(ReadWriteEntryView<Object, Map<K, V>> view) {
+        Optional<Map<K, V>> existing = view.find();
+        if (existing.isPresent()) {
+            // Transactional caches must operate on a copy of the map
+            Map<K, V> map = this.copier.apply(existing.get());
+            for (Map.Entry<K, V> entry : this.operand.entrySet()) {
+                K key = entry.getKey();
+                V value = entry.getValue();
+                if (value != null) {
+                    map.put(key, value);
+                } else {
+                    map.remove(key);
+                }
+            }
+            view.set(map);
+        }
+        return null;
+    }
+
+    public Map<K, V> getOperand() {
+        return this.operand;
+    }
+}
@@ -22,11 +22,19 @@
 
 package org.wildfly.clustering.infinispan.spi.function;
 
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
+import org.infinispan.functional.EntryView.ReadWriteEntryView;
+
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 /**
  * @author Paul Ferraro
@@ -119,4 +127,55 @@ public class FunctionTestCase {
         Map<String, String> result4 = new ConcurrentMapRemoveFunction<String, String>("bar").apply(null, result3);
         Assert.assertNull(result4);
     }
+
+    @Test
+    public void copyOnWriteMapCompute() {
+        Map<String, String> map = new CopyOnWriteMapPutFunction<>("foo", "a").apply(null, null);
+        Map<String, String> delta = new HashMap<>();
+        delta.put("foo", null);
+        delta.put("bar", "b");
+
+        Map<String, String> result = compute(new CopyOnWriteMapComputeFunction<>(delta), map);
+        Assert.assertNotNull(result);
+        Assert.assertNotSame(map, result);
+        Assert.assertFalse(result.containsKey("foo"));
+        Assert.assertEquals("b", result.get("bar"));
+
+        // Empty maps are retained
+        Map<String, String> result2 = compute(new CopyOnWriteMapComputeFunction<>(Collections.<String, String>singletonMap("bar", null)), result);
+        Assert.assertNotNull(result2);
+        Assert.assertTrue(result2.isEmpty());
+
+        // Missing maps are never created
+        Assert.assertNull(compute(new CopyOnWriteMapComputeFunction<>(delta), null));
+    }
+
+    @Test
+    public void concurrentMapCompute() {
+        Map<String, String> map = new ConcurrentMapPutFunction<>("foo", "a").apply(null, null);
+        Map<String, String> delta = new HashMap<>();
+        delta.put("foo", null);
+        delta.put("bar", "b");
+
+        Map<String, String> result = compute(new ConcurrentMapComputeFunction<>(delta), map);
+        Assert.assertSame(map, result);
+        Assert.assertFalse(result.containsKey("foo"));
+        Assert.assertEquals("b", result.get("bar"));
+
+        Map<String, String> result2 = compute(new ConcurrentMapComputeFunction<>(Collections.<String, String>singletonMap("bar", null)), result);
+        Assert.assertSame(map, result2);
+        Assert.assertTrue(result2.isEmpty());
+
+        Assert.assertNull(compute(new ConcurrentMapComputeFunction<>(delta), null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Map<K, V> compute(MapComputeFunction<K, V> function, Map<K, V> map) {
+        ReadWriteEntryView<Object, Map<K, V>> view = mock(ReadWriteEntryView.class);
+        when(view.find()).thenReturn(Optional.ofNullable(map));
+        Assert.assertNull(function.apply(view));
+        ArgumentCaptor<Map<K, V>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(view, (map != null) ? times(1) : never()).set(captor.capture());
+        return (map != null) ? captor.getValue() : null;
+    }
 }
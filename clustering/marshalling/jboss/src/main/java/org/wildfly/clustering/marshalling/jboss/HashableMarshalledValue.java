@@ -37,7 +37,11 @@ public class HashableMarshalledValue<T> extends SimpleMarshalledValue<T> {
     private transient int hashCode;
 
     public HashableMarshalledValue(T object, MarshallingContext context) {
-        super(object, context);
+        this(object, context, MarshalledValueEncoder.RAW);
+    }
+
+    HashableMarshalledValue(T object, MarshallingContext context, MarshalledValueEncoder encoder) {
+        super(object, context, encoder);
         this.hashCode = (object != null ) ? object.hashCode() : 0;
     }
 
@@ -37,8 +37,12 @@ public class HashableMarshalledValueFactory extends SimpleMarshalledValueFactory
         super(context);
     }
 
+    public HashableMarshalledValueFactory(MarshallingContext context, MarshalledValueCompression compression, int threshold) {
+        super(context, compression, threshold);
+    }
+
     @Override
     public <T> SimpleMarshalledValue<T> createMarshalledValue(T object) {
-        return new HashableMarshalledValue<>(object, this.context);
+        return new HashableMarshalledValue<>(object, this.context, this.encoder);
     }
 }
@@ -0,0 +1,152 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.marshalling.jboss;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression codecs for the serialized form of a {@link SimpleMarshalledValue}.
+ * A compressed serialized form starts with a non-canonical variable length encoding of 0, which is never written as a marshalling version,
+ * followed by the codec, the variable length encoded size of the uncompressed form, and the compressed form itself.
+ * Consequently, compressed and uncompressed values can be read interchangeably by any node that supports compression.
+ */
+public enum MarshalledValueCompression {
+    DEFLATE_FAST(Deflater.BEST_SPEED),
+    DEFLATE(Deflater.DEFAULT_COMPRESSION),
+    ;
+    private static final byte[] MAGIC = new byte[] { (byte) 0x80, 0x00 };
+    // magic + codec + maximum size of variable length integer
+    private static final int MAX_HEADER_SIZE = MAGIC.length + 1 + 5;
+    private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(Inflater::new);
+
+    private final ThreadLocal<Deflater> deflaters;
+
+    MarshalledValueCompression(int level) {
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level));
+    }
+
+    /**
+     * Parses a compression codec from its external name, e.g. "deflate-fast".
+     * @param name a codec name
+     * @return a compression codec
+     * @throws IllegalArgumentException if no such codec exists
+     */
+    public static MarshalledValueCompression parse(String name) {
+        return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Compresses the specified serialized form.
+     * @param source a buffer containing the uncompressed form
+     * @param length the number of valid bytes in the buffer
+     * @return the exactly sized compressed form, or null, if compression would not reduce its size
+     */
+    byte[] compress(byte[] source, int length) {
+        if (length <= MAX_HEADER_SIZE) return null;
+        // Compressed form is only useful if it is smaller than the uncompressed form
+        byte[] target = new byte[length];
+        int offset = writeHeader(target, this.ordinal(), length);
+        Deflater deflater = this.deflaters.get();
+        try {
+            deflater.setInput(source, 0, length);
+            deflater.finish();
+            while (!deflater.finished() && (offset < target.length)) {
+                offset += deflater.deflate(target, offset, target.length - offset);
+            }
+            return deflater.finished() ? Arrays.copyOf(target, offset) : null;
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    /**
+     * Indicates whether the specified serialized form is compressed.
+     * @param bytes a serialized form
+     * @return true, if the specified serialized form is compressed, false otherwise.
+     */
+    static boolean isCompressed(byte[] bytes) {
+        return (bytes.length > MAGIC.length) && (bytes[0] == MAGIC[0]) && (bytes[1] == MAGIC[1]);
+    }
+
+    /**
+     * Returns the uncompressed form of the specified serialized form.
+     * @param bytes a serialized form, possibly compressed
+     * @return the uncompressed form, or the specified serialized form, if it was not compressed.
+     * @throws IOException if the serialized form could not be decompressed
+     */
+    static byte[] decompress(byte[] bytes) throws IOException {
+        if (!isCompressed(bytes)) return bytes;
+        int offset = MAGIC.length;
+        int codec = bytes[offset++];
+        if ((codec < 0) || (codec >= values().length)) {
+            throw new IOException(Integer.toString(codec));
+        }
+        // Decode variable length size
+        int size = 0;
+        byte b;
+        int shift = 0;
+        do {
+            if (offset == bytes.length) throw new IOException();
+            b = bytes[offset++];
+            size |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        byte[] result = new byte[size];
+        Inflater inflater = INFLATERS.get();
+        try {
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            int count = 0;
+            while (count < size) {
+                int inflated = inflater.inflate(result, count, size - count);
+                if ((inflated == 0) && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException(new DataFormatException());
+                }
+                count += inflated;
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.reset();
+        }
+    }
+
+    private static int writeHeader(byte[] target, int codec, int length) {
+        int offset = 0;
+        for (byte b : MAGIC) {
+            target[offset++] = b;
+        }
+        target[offset++] = (byte) codec;
+        int i = length;
+        while ((i & ~0x7F) != 0) {
+            target[offset++] = (byte) ((i & 0x7F) | 0x80);
+            i >>>= 7;
+        }
+        target[offset++] = (byte) i;
+        return offset;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.marshalling.jboss;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of the sizes of written serialized forms, using buckets of exponentially increasing size.
+ * Bucket 0 counts empty forms, and bucket <em>n</em> counts forms whose size is within [2<sup>n-1</sup>, 2<sup>n</sup>).
+ * Recording is lock-free and safe for concurrent use.
+ */
+public class MarshalledValueSizeHistogram {
+
+    private static final int BUCKETS = Integer.SIZE;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+
+    public MarshalledValueSizeHistogram() {
+        for (int i = 0; i < BUCKETS; ++i) {
+            this.counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records the specified size.
+     * @param size a non-negative size, in bytes
+     */
+    public void record(int size) {
+        this.counts[BUCKETS - Integer.numberOfLeadingZeros(size)].increment();
+        this.total.add(size);
+    }
+
+    /**
+     * Returns the number of recorded sizes.
+     * @return the number of recorded sizes
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder adder : this.counts) {
+            count += adder.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the sum of all recorded sizes.
+     * @return a number of bytes
+     */
+    public long getTotalSize() {
+        return this.total.sum();
+    }
+
+    /**
+     * Returns the mean of all recorded sizes.
+     * @return a number of bytes
+     */
+    public long getMeanSize() {
+        long count = this.getCount();
+        return (count > 0) ? this.getTotalSize() / count : 0;
+    }
+
+    /**
+     * Returns the number of recorded sizes per bucket.
+     * @return an array of counts, indexed by bucket
+     */
+    public long[] getCounts() {
+        long[] result = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; ++i) {
+            result[i] = this.counts[i].sum();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the exclusive upper bound of the bucket containing the specified percentile of recorded sizes.
+     * @param percentile a percentile within [0, 100]
+     * @return an upper bound, in bytes, or 0 if no sizes were recorded
+     */
+    public long getPercentile(double percentile) {
+        if ((percentile < 0) || (percentile > 100)) {
+            throw new IllegalArgumentException(Double.toString(percentile));
+        }
+        long[] counts = this.getCounts();
+        long count = 0;
+        for (long value : counts) {
+            count += value;
+        }
+        if (count == 0) return 0;
+        long rank = Math.max((long) Math.ceil(count * percentile / 100), 1L);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return 1L << i;
+            }
+        }
+        return 1L << BUCKETS;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%d, p50<%d, p99<%d", this.getCount(), this.getMeanSize(), this.getPercentile(50), this.getPercentile(99));
+    }
+}
@@ -23,10 +23,10 @@
 package org.wildfly.clustering.marshalling.jboss;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import org.jboss.marshalling.Marshaller;
@@ -36,6 +36,7 @@ import org.jboss.marshalling.SimpleDataOutput;
 import org.jboss.marshalling.Unmarshaller;
 import org.wildfly.clustering.marshalling.spi.IndexSerializer;
 import org.wildfly.clustering.marshalling.spi.MarshalledValue;
+import org.wildfly.clustering.marshalling.spi.MarshallingBuffer;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
@@ -49,10 +50,16 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
     private transient volatile MarshallingContext context;
     private transient volatile T object;
     private transient volatile byte[] bytes;
+    private transient volatile MarshalledValueEncoder encoder;
 
     public SimpleMarshalledValue(T object, MarshallingContext context) {
+        this(object, context, MarshalledValueEncoder.RAW);
+    }
+
+    SimpleMarshalledValue(T object, MarshallingContext context, MarshalledValueEncoder encoder) {
         this.context = context;
         this.object = object;
+        this.encoder = encoder;
     }
 
     SimpleMarshalledValue(byte[] bytes) {
@@ -64,21 +71,30 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         return this.object;
     }
 
-    byte[] getBytes() throws IOException {
+    synchronized byte[] getBytes() throws IOException {
         byte[] bytes = this.bytes;
-        if (bytes != null) return bytes;
+        if (bytes != null) {
+            // Release serialized form retained by size(), since it can be regenerated from the object
+            if (this.object != null) {
+                this.bytes = null;
+            }
+            return bytes;
+        }
         if (this.object == null) return null;
         int version = this.context.getCurrentVersion();
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
         ClassLoader loader = setThreadContextClassLoader(this.context.getClassLoader());
-        try (SimpleDataOutput data = new SimpleDataOutput(Marshalling.createByteOutput(output))) {
+        try (MarshallingBuffer buffer = MarshallingBuffer.acquire(); SimpleDataOutput data = new SimpleDataOutput(Marshalling.createByteOutput(buffer))) {
             IndexSerializer.VARIABLE.writeInt(data, version);
             try (Marshaller marshaller = this.context.createMarshaller(version)) {
                 marshaller.start(data);
                 marshaller.writeObject(this.object);
                 marshaller.finish();
-                return output.toByteArray();
             }
+            data.flush();
+            // Deserialized values have no encoder
+            MarshalledValueEncoder encoder = this.encoder;
+            ByteBuffer content = buffer.getBuffer();
+            return ((encoder != null) ? encoder : MarshalledValueEncoder.RAW).encode(content.array(), content.remaining());
         } finally {
             setThreadContextClassLoader(loader);
         }
@@ -94,7 +110,7 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         if (this.object == null) {
             this.context = context;
             if (this.bytes != null) {
-                ByteArrayInputStream input = new ByteArrayInputStream(this.bytes);
+                ByteArrayInputStream input = new ByteArrayInputStream(MarshalledValueCompression.decompress(this.bytes));
                 ClassLoader loader = setThreadContextClassLoader(this.context.getClassLoader());
                 try (SimpleDataInput data = new SimpleDataInput(Marshalling.createByteInput(input))) {
                     int version = IndexSerializer.VARIABLE.readInt(data);
@@ -112,6 +128,17 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         return this.object;
     }
 
+    /**
+     * {@inheritDoc}
+     * The serialized form is retained until this value is next serialized.
+     */
+    @Override
+    public synchronized int size() throws IOException {
+        byte[] bytes = this.getBytes();
+        this.bytes = bytes;
+        return (bytes != null) ? bytes.length : 0;
+    }
+
     /**
      * {@inheritDoc}
      * N.B. Calls to hashCode will return 0 if this marshalled value was deserialized but its object not yet rehydrated.
@@ -134,7 +161,9 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         try {
             byte[] us = this.getBytes();
             byte[] them = value.getBytes();
-            return ((us != null) && (them != null)) ? Arrays.equals(us, them) : (us == them);
+            if ((us == null) || (them == null)) return us == them;
+            // Compare uncompressed forms, since values may have been encoded differently
+            return Arrays.equals(us, them) || ((MarshalledValueCompression.isCompressed(us) || MarshalledValueCompression.isCompressed(them)) && Arrays.equals(MarshalledValueCompression.decompress(us), MarshalledValueCompression.decompress(them)));
         } catch (IOException e) {
             throw new IllegalStateException(e);
         }
@@ -19,28 +19,116 @@
  * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
  * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
  */
-
 package org.wildfly.clustering.marshalling.jboss;
 
+import org.wildfly.clustering.marshalling.spi.Compressible;
 import org.wildfly.clustering.marshalling.spi.MarshalledValueFactory;
 
 /**
  * Factory for creating a {@link SimpleMarshalledValue}.
+ * Serialized forms larger than a given threshold are optionally compressed.
+ * N.B. Compressed values cannot be read by nodes that predate compression support, thus compression should be suspended while any such node is present.
  * @author Paul Ferraro
  */
-public class SimpleMarshalledValueFactory implements MarshalledValueFactory<MarshallingContext> {
+public class SimpleMarshalledValueFactory implements MarshalledValueFactory<MarshallingContext>, Compressible {
+    /** The size, in bytes, below which serialized forms are not compressed, unless otherwise specified. */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
     protected final MarshallingContext context;
+    private final MarshalledValueCompression compression;
+    private final int threshold;
+    private final MarshalledValueSizeHistogram marshalledSizes = new MarshalledValueSizeHistogram();
+    private final MarshalledValueSizeHistogram storedSizes = new MarshalledValueSizeHistogram();
+    private volatile boolean compressionSuspended = false;
+    final MarshalledValueEncoder encoder = this::encode;
 
     public SimpleMarshalledValueFactory(MarshallingContextFactory factory, MarshallingConfigurationRepository repository, ClassLoader loader) {
         this(factory.createMarshallingContext(repository, loader));
     }
 
     public SimpleMarshalledValueFactory(MarshallingContext context) {
+        this(context, null, DEFAULT_COMPRESSION_THRESHOLD);
+    }
+
+    /**
+     * Creates a marshalled value factory whose values compress serialized forms of at least the specified size.
+     * @param context a marshalling context
+     * @param compression a compression codec, or null, if values should not be compressed
+     * @param threshold the size, in bytes, below which serialized forms are not compressed
+     */
+    public SimpleMarshalledValueFactory(MarshallingContext context, MarshalledValueCompression compression, int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException(Integer.toString(threshold));
+        }
         this.context = context;
+        this.compression = compression;
+        this.threshold = threshold;
     }
 
     @Override
     public <T> SimpleMarshalledValue<T> createMarshalledValue(T object) {
-        return new SimpleMarshalledValue<>(object, this.context);
+        return new SimpleMarshalledValue<>(object, this.context, this.encoder);
+    }
+
+    private byte[] encode(byte[] buffer, int length) {
+        this.marshalledSizes.record(length);
+        byte[] result = (this.compression != null) && !this.compressionSuspended && (length >= this.threshold) ? this.compression.compress(buffer, length) : null;
+        if (result == null) {
+            result = MarshalledValueEncoder.RAW.encode(buffer, length);
+        }
+        this.storedSizes.record(result.length);
+        return result;
+    }
+
+    @Override
+    public boolean isCompressing() {
+        return this.compression != null;
+    }
+
+    @Override
+    public void setCompressionSuspended(boolean suspended) {
+        this.compressionSuspended = suspended;
+    }
+
+    /**
+     * Returns the histogram of the uncompressed sizes of each serialization of the values created by this factory.
+     * A value is serialized each time it is written, thus a value written repeatedly is recorded repeatedly.
+     * @return a size histogram
+     */
+    public MarshalledValueSizeHistogram getMarshalledSizes() {
+        return this.marshalledSizes;
+    }
+
+    /**
+     * Returns the histogram of the sizes of each serialization of the values created by this factory, as written, i.e. following any compression.
+     * @return a size histogram
+     */
+    public MarshalledValueSizeHistogram getStoredSizes() {
+        return this.storedSizes;
+    }
+
+    @Override
+    public long getMarshalledCount() {
+        return this.marshalledSizes.getCount();
+    }
+
+    @Override
+    public long getMarshalledBytes() {
+        return this.marshalledSizes.getTotalSize();
+    }
+
+    @Override
+    public long getStoredBytes() {
+        return this.storedSizes.getTotalSize();
+    }
+
+    @Override
+    public long[] getMarshalledSizeHistogram() {
+        return this.marshalledSizes.getCounts();
+    }
+
+    @Override
+    public long[] getStoredSizeHistogram() {
+        return this.storedSizes.getCounts();
     }
 }
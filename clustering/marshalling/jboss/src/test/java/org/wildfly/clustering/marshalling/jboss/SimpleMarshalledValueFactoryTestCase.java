@@ -94,6 +94,115 @@ public class SimpleMarshalledValueFactoryTestCase {
         assertNull(mv.get(this.context));
     }
 
+    @Test
+    public void size() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        SimpleMarshalledValue<UUID> mv = this.factory.createMarshalledValue(uuid);
+
+        int size = mv.size();
+        assertTrue(size > 0);
+        byte[] bytes = mv.getBytes();
+        assertEquals(size, bytes.length);
+        // Retained serialized form is released once used
+        assertNotSame(bytes, mv.getBytes());
+        assertSame(uuid, mv.get(this.context));
+
+        SimpleMarshalledValue<UUID> copy = replicate(mv);
+        assertEquals(size, copy.size());
+        assertEquals(uuid, copy.get(this.context));
+
+        assertEquals(0, this.factory.createMarshalledValue(null).size());
+    }
+
+    @Test
+    public void compression() throws Exception {
+        SimpleMarshalledValueFactory factory = new SimpleMarshalledValueFactory(this.context, MarshalledValueCompression.DEFLATE_FAST, 1024);
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 16384) {
+            builder.append(UUID.randomUUID().toString().substring(0, 4)).append("................");
+        }
+        String large = builder.toString();
+
+        SimpleMarshalledValue<String> mv = factory.createMarshalledValue(large);
+        byte[] compressed = mv.getBytes();
+        byte[] raw = this.factory.createMarshalledValue(large).getBytes();
+        assertTrue(MarshalledValueCompression.isCompressed(compressed));
+        assertFalse(MarshalledValueCompression.isCompressed(raw));
+        assertTrue(compressed.length < raw.length);
+        assertArrayEquals(raw, MarshalledValueCompression.decompress(compressed));
+
+        SimpleMarshalledValue<String> copy = replicate(mv);
+        assertEquals(large, copy.get(this.context));
+        // Compressed and uncompressed forms of the same object are equal
+        assertTrue(replicate(mv).equals(replicate(this.factory.createMarshalledValue(large))));
+
+        // Values smaller than threshold are not compressed
+        UUID uuid = UUID.randomUUID();
+        SimpleMarshalledValue<UUID> small = factory.createMarshalledValue(uuid);
+        assertFalse(MarshalledValueCompression.isCompressed(small.getBytes()));
+        assertEquals(uuid, replicate(small).get(this.context));
+
+        MarshalledValueSizeHistogram marshalledSizes = factory.getMarshalledSizes();
+        MarshalledValueSizeHistogram storedSizes = factory.getStoredSizes();
+        // 1 raw + 2 replications of large value, 2 of small value
+        assertEquals(5, marshalledSizes.getCount());
+        assertEquals(5, storedSizes.getCount());
+        assertTrue(storedSizes.getTotalSize() < marshalledSizes.getTotalSize());
+        assertTrue(marshalledSizes.getPercentile(100) > raw.length);
+    }
+
+    @Test
+    public void suspendedCompression() throws Exception {
+        SimpleMarshalledValueFactory factory = new SimpleMarshalledValueFactory(this.context, MarshalledValueCompression.DEFLATE, 0);
+        assertTrue(factory.isCompressing());
+        assertFalse(this.factory.isCompressing());
+
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 4096) {
+            builder.append("................");
+        }
+        String value = builder.toString();
+
+        factory.setCompressionSuspended(true);
+        byte[] raw = factory.createMarshalledValue(value).getBytes();
+        assertFalse(MarshalledValueCompression.isCompressed(raw));
+
+        factory.setCompressionSuspended(false);
+        byte[] compressed = factory.createMarshalledValue(value).getBytes();
+        assertTrue(MarshalledValueCompression.isCompressed(compressed));
+
+        assertEquals(2, factory.getMarshalledCount());
+        assertEquals(2L * raw.length, factory.getMarshalledBytes());
+        assertEquals(raw.length + compressed.length, factory.getStoredBytes());
+        long[] marshalledSizes = factory.getMarshalledSizeHistogram();
+        long[] storedSizes = factory.getStoredSizeHistogram();
+        assertEquals(2, marshalledSizes[Integer.SIZE - Integer.numberOfLeadingZeros(raw.length)]);
+        assertEquals(1, storedSizes[Integer.SIZE - Integer.numberOfLeadingZeros(raw.length)]);
+        assertEquals(1, storedSizes[Integer.SIZE - Integer.numberOfLeadingZeros(compressed.length)]);
+    }
+
+    @Test
+    public void histogram() {
+        MarshalledValueSizeHistogram histogram = new MarshalledValueSizeHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(100);
+        histogram.record(127);
+        histogram.record(128);
+        long[] counts = histogram.getCounts();
+        assertEquals(1, counts[0]);
+        assertEquals(1, counts[1]);
+        assertEquals(2, counts[7]);
+        assertEquals(1, counts[8]);
+        assertEquals(5, histogram.getCount());
+        assertEquals(356, histogram.getTotalSize());
+        assertEquals(71, histogram.getMeanSize());
+        assertEquals(1, histogram.getPercentile(0));
+        assertEquals(128, histogram.getPercentile(80));
+        assertEquals(256, histogram.getPercentile(100));
+    }
+
     /**
      * Test method for {@link org.jboss.ha.framework.server.SimpleMarshalledValue#equals(java.lang.Object)}.
      */
@@ -0,0 +1,43 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.spi;
+
+/**
+ * Implemented by marshalled value factories that may compress the serialized forms of their values.
+ * Members running a release that predates compression cannot read compressed forms,
+ * thus compression can be suspended while any such member is present.
+ */
+public interface Compressible {
+
+    /**
+     * Indicates whether this factory is configured to compress serialized forms.
+     * @return true, if compression is configured, false otherwise
+     */
+    boolean isCompressing();
+
+    /**
+     * Suspends or resumes the compression of subsequently serialized forms.
+     * @param suspended indicates whether compression should be suspended
+     */
+    void setCompressionSuspended(boolean suspended);
+}
@@ -30,4 +30,14 @@ import java.io.Serializable;
  */
 public interface MarshalledValue<T, C> extends Serializable {
     T get(C context) throws IOException, ClassNotFoundException;
+
+    /**
+     * Returns the size of the serialized form of this value, marshalling its object if necessary.
+     * Implementations may retain the serialized form until this value is next serialized, so that its object is not marshalled twice.
+     * @return the number of bytes of the serialized form of this value, or -1 if unknown
+     * @throws IOException if the object of this value could not be marshalled
+     */
+    default int size() throws IOException {
+        return -1;
+    }
 }
\ No newline at end of file
@@ -25,6 +25,6 @@ package org.wildfly.clustering.marshalling.spi;
 /**
  * @author Paul Ferraro
  */
-public interface MarshalledValueFactory<C> {
+public interface MarshalledValueFactory<C> extends MarshalledValueStatistics {
     <T> MarshalledValue<T, C> createMarshalledValue(T object);
 }
\ No newline at end of file
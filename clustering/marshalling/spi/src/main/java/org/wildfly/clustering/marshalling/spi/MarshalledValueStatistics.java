@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.spi;
+
+/**
+ * Exposes statistics of the sizes of the serialized forms of marshalled values.
+ * Sizes are recorded each time a value is serialized.
+ */
+public interface MarshalledValueStatistics {
+
+    /**
+     * Returns the number of times a value was serialized.
+     * @return a number of serializations
+     */
+    default long getMarshalledCount() {
+        return 0L;
+    }
+
+    /**
+     * Returns the total size of all serialized forms, prior to compression.
+     * @return a number of bytes
+     */
+    default long getMarshalledBytes() {
+        return 0L;
+    }
+
+    /**
+     * Returns the total size of all serialized forms, as written, i.e. following any compression.
+     * @return a number of bytes
+     */
+    default long getStoredBytes() {
+        return 0L;
+    }
+
+    /**
+     * Returns a histogram of the sizes of all serialized forms, prior to compression.
+     * The element at index i counts the serialized forms whose size, in bytes, is at least 2<sup>i-1</sup>, but less than 2<sup>i</sup>.
+     * The element at index 0 counts empty serialized forms.
+     * @return an array of counts
+     */
+    default long[] getMarshalledSizeHistogram() {
+        return new long[0];
+    }
+
+    /**
+     * Returns a histogram of the sizes of all serialized forms, as written, using the buckets of {@link #getMarshalledSizeHistogram()}.
+     * @return an array of counts
+     */
+    default long[] getStoredSizeHistogram() {
+        return new long[0];
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.marshalling.spi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Buffer into which objects are marshalled.
+ * Buffers acquired via {@link #acquire()} are reused per thread, avoiding growing a fresh {@link ByteArrayOutputStream}, one array copy at a time, for every marshalled object.
+ * Buffers that grew beyond {@link #MAX_RETAINED_SIZE} are not retained, so that large objects do not pin memory to pooled threads.
+ * Buffers expose their content via {@link #getBuffer()}, without the copy made by {@link #toByteArray()}.
+ */
+public class MarshallingBuffer extends ByteArrayOutputStream {
+
+    public static final int INITIAL_SIZE = 512;
+    public static final int MAX_RETAINED_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<MarshallingBuffer> BUFFERS = ThreadLocal.withInitial(MarshallingBuffer::new);
+
+    /**
+     * Acquires the buffer of the current thread, or a new buffer, if the buffer of the current thread is already in use.
+     * The returned buffer must be closed once its content was consumed.
+     * @return an empty buffer
+     */
+    public static MarshallingBuffer acquire() {
+        MarshallingBuffer buffer = BUFFERS.get();
+        if (buffer.acquired) {
+            // e.g. an object whose serialization marshals another object
+            return new MarshallingBuffer();
+        }
+        buffer.acquired = true;
+        return buffer;
+    }
+
+    private final DataOutputStream output = new DataOutputStream(this);
+    private boolean acquired = false;
+
+    private MarshallingBuffer() {
+        super(INITIAL_SIZE);
+    }
+
+    /**
+     * Returns a {@link DataOutput} that writes to this buffer.
+     * @return a data output
+     */
+    public DataOutput getDataOutput() {
+        return this.output;
+    }
+
+    /**
+     * Writes the content of this buffer to the specified output, without an intermediate copy.
+     * @param output a data output
+     * @throws IOException if the content could not be written
+     */
+    public void writeTo(DataOutput output) throws IOException {
+        output.write(this.buf, 0, this.count);
+    }
+
+    /**
+     * Returns the content of this buffer, without a copy.
+     * The content of a buffer acquired via {@link #acquire()} is only valid until it is closed, since the buffer is then reused.
+     * @return a buffer view of this content
+     */
+    public ByteBuffer getBuffer() {
+        return ByteBuffer.wrap(this.buf, 0, this.count);
+    }
+
+    /**
+     * Resets this buffer and releases it for reuse by the current thread.
+     */
+    @Override
+    public void close() {
+        this.reset();
+        if (this.buf.length > MAX_RETAINED_SIZE) {
+            this.buf = new byte[INITIAL_SIZE];
+        }
+        this.acquired = false;
+    }
+}
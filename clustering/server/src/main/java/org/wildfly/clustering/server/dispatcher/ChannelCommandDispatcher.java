@@ -22,10 +22,14 @@
 package org.wildfly.clustering.server.dispatcher;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
@@ -83,7 +87,7 @@ public class ChannelCommandDispatcher<C> implements CommandDispatcher<C> {
         this.localDispatcher = localDispatcher;
         this.closeTask = closeTask;
         this.localAddress = dispatcher.getChannel().getAddress();
-        this.options = new RequestOptions(ResponseMode.GET_ALL, this.timeout.toMillis(), false, FILTER, Message.Flag.DONT_BUNDLE, Message.Flag.OOB);
+        this.options = this.createOptions();
     }
 
     @Override
@@ -112,34 +116,50 @@ public class ChannelCommandDispatcher<C> implements CommandDispatcher<C> {
     public <R> Map<Node, CompletionStage<R>> executeOnGroup(Command<R, ? super C> command, Node... excludedMembers) throws CommandDispatcherException {
         Set<Node> excluded = (excludedMembers != null) ? new HashSet<>(Arrays.asList(excludedMembers)) : Collections.emptySet();
         Map<Node, CompletionStage<R>> results = new ConcurrentHashMap<>();
-        Buffer buffer = this.createBuffer(command);
+        Map<Address, Node> targets = new HashMap<>();
+        // The local member, and any excluded members, will discard the multicast request
+        List<Address> exclusions = new ArrayList<>(excluded.size() + 1);
+        exclusions.add(this.localAddress);
         for (Node member : this.group.getMembership().getMembers()) {
-            if (!excluded.contains(member)) {
-                Address address = this.group.getAddress(member);
-                if (this.localAddress.equals(address)) {
-                    results.put(member, this.localDispatcher.executeOnMember(command, member));
-                } else {
-                    try {
-                        ServiceRequest<R> request = new ServiceRequest<>(this.dispatcher.getCorrelator(), this.group.getAddress(member), this.options);
-                        CompletionStage<R> future = request.send(buffer);
-                        results.put(member, future);
-                        future.whenComplete(new PruneCancellationTask<>(results, member));
-                    } catch (CommandDispatcherException e) {
-                        // Cancel previously dispatched messages
-                        for (CompletionStage<R> result : results.values()) {
-                            result.toCompletableFuture().cancel(true);
-                        }
-                        throw e;
-                    }
+            Address address = this.group.getAddress(member);
+            if (excluded.contains(member)) {
+                exclusions.add(address);
+            } else if (this.localAddress.equals(address)) {
+                results.put(member, this.localDispatcher.executeOnMember(command, member));
+            } else {
+                targets.put(address, member);
+            }
+        }
+        if (!targets.isEmpty()) {
+            // Send a single multicast, rather than a unicast per member
+            RequestOptions options = this.createOptions().exclusionList(exclusions.toArray(new Address[exclusions.size()]));
+            GroupServiceRequest<R> request = new GroupServiceRequest<>(this.dispatcher.getCorrelator(), targets.keySet(), options);
+            try {
+                for (Map.Entry<Address, CompletionStage<R>> entry : request.send(this.createBuffer(command)).entrySet()) {
+                    Node member = targets.get(entry.getKey());
+                    CompletionStage<R> future = entry.getValue();
+                    results.put(member, future);
+                    future.whenComplete(new PruneCancellationTask<>(results, member));
                 }
+            } catch (CommandDispatcherException | IllegalArgumentException e) {
+                // Cancel previously dispatched messages
+                for (CompletionStage<R> result : results.values()) {
+                    result.toCompletableFuture().cancel(true);
+                }
+                throw e;
             }
         }
         return results;
     }
 
+    private RequestOptions createOptions() {
+        return new RequestOptions(ResponseMode.GET_ALL, this.timeout.toMillis(), false, FILTER, Message.Flag.DONT_BUNDLE, Message.Flag.OOB);
+    }
+
     private <R> Buffer createBuffer(Command<R, ? super C> command) {
         try {
-            return new Buffer(this.marshaller.marshal(command));
+            ByteBuffer buffer = this.marshaller.marshal(command);
+            return new Buffer(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
         } catch (IOException e) {
             throw new IllegalArgumentException(e);
         }
@@ -22,15 +22,15 @@
 
 package org.wildfly.clustering.server.dispatcher;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.Marshalling;
 import org.wildfly.clustering.dispatcher.Command;
 import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
 import org.wildfly.clustering.marshalling.spi.IndexSerializer;
+import org.wildfly.clustering.marshalling.spi.MarshallingBuffer;
 
 /**
  * @author Paul Ferraro
@@ -46,18 +46,18 @@ public class CommandDispatcherMarshaller<C> implements CommandMarshaller<C> {
     }
 
     @Override
-    public <R> byte[] marshal(Command<R, ? super C> command) throws IOException {
+    public <R> ByteBuffer marshal(Command<R, ? super C> command) throws IOException {
         int version = this.context.getCurrentVersion();
-        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-        try (DataOutputStream output = new DataOutputStream(bytes)) {
-            IndexSerializer.VARIABLE.writeInt(output, version);
+        try (MarshallingBuffer buffer = MarshallingBuffer.acquire()) {
+            IndexSerializer.VARIABLE.writeInt(buffer.getDataOutput(), version);
             try (Marshaller marshaller = this.context.createMarshaller(version)) {
-                marshaller.start(Marshalling.createByteOutput(output));
+                marshaller.start(Marshalling.createByteOutput(buffer));
                 marshaller.writeObject(this.id);
                 marshaller.writeObject(command);
                 marshaller.flush();
             }
-            return bytes.toByteArray();
+            // JGroups retains the message payload until it is acknowledged, so it gets its own exact-size array
+            return ByteBuffer.wrap(buffer.toByteArray());
         }
     }
 }
@@ -22,6 +22,7 @@
 package org.wildfly.clustering.server.dispatcher;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.wildfly.clustering.dispatcher.Command;
 
@@ -33,10 +34,10 @@ import org.wildfly.clustering.dispatcher.Command;
  */
 public interface CommandMarshaller<C> {
     /**
-     * Marshals the specified command to a byte[].
+     * Marshals the specified command to a buffer.
      * @param command a command
      * @return a serialized command.
      * @throws IOException if marshalling fails.
      */
-    <R> byte[] marshal(Command<R, ? super C> command) throws IOException;
+    <R> ByteBuffer marshal(Command<R, ? super C> command) throws IOException;
 }
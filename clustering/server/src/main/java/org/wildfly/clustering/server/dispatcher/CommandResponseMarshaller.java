@@ -22,11 +22,9 @@
 package org.wildfly.clustering.server.dispatcher;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.DataOutput;
-import java.io.DataOutputStream;
 import java.nio.ByteBuffer;
 
 import org.jboss.marshalling.Marshaller;
@@ -36,6 +34,7 @@ import org.wildfly.clustering.jgroups.spi.ChannelFactory;
 import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
 import org.wildfly.clustering.marshalling.spi.IndexSerializer;
 import org.wildfly.clustering.marshalling.spi.IntSerializer;
+import org.wildfly.clustering.marshalling.spi.MarshallingBuffer;
 
 /**
  * Marshalling strategy for the command response.
@@ -57,18 +56,16 @@ public class CommandResponseMarshaller implements org.jgroups.blocks.Marshaller
     @Override
     public void objectToStream(Object object, DataOutput stream) throws Exception {
         int version = this.context.getCurrentVersion();
-        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-        try (DataOutputStream output = new DataOutputStream(bytes)) {
-            this.versionSerializer.writeInt(output, version);
+        try (MarshallingBuffer buffer = MarshallingBuffer.acquire()) {
+            this.versionSerializer.writeInt(buffer.getDataOutput(), version);
             try (Marshaller marshaller = this.context.createMarshaller(version)) {
-                marshaller.start(Marshalling.createByteOutput(output));
+                marshaller.start(Marshalling.createByteOutput(buffer));
                 marshaller.writeObject(object);
                 marshaller.flush();
             }
+            IndexSerializer.VARIABLE.writeInt(stream, buffer.size());
+            buffer.writeTo(stream);
         }
-        byte[] buffer = bytes.toByteArray();
-        IndexSerializer.VARIABLE.writeInt(stream, buffer.length);
-        stream.write(buffer);
     }
 
     @Override
@@ -0,0 +1,186 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.server.dispatcher;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jgroups.Address;
+import org.jgroups.SuspectedException;
+import org.jgroups.View;
+import org.jgroups.blocks.Request;
+import org.jgroups.blocks.RequestCorrelator;
+import org.jgroups.blocks.RequestOptions;
+import org.jgroups.util.Buffer;
+import org.wildfly.clustering.dispatcher.CommandDispatcherException;
+
+/**
+ * Sends a single multicast request to a set of group members, exposing the response of each member as a separate {@link CompletionStage}.
+ * Members not targeted by this request are expected to be listed in the exclusion list of the request options.
+ * Like {@link ServiceRequest}, translates a {@link NoSuchService} response, or a suspected member, to a {@link CancellationException}.
+ * @param <T> the response type
+ */
+public class GroupServiceRequest<T> extends Request<Void> {
+
+    private final Map<Address, ServiceResponse<T>> responses;
+
+    public GroupServiceRequest(RequestCorrelator correlator, Collection<Address> targets, RequestOptions options) {
+        super(correlator, options);
+        Map<Address, ServiceResponse<T>> responses = new HashMap<>();
+        for (Address target : targets) {
+            ServiceResponse<T> response = new ServiceResponse<>(options.timeout());
+            responses.put(target, response);
+        }
+        this.responses = Collections.unmodifiableMap(responses);
+        for (ServiceResponse<T> response : responses.values()) {
+            response.whenComplete((result, exception) -> this.checkCompletion());
+        }
+    }
+
+    public Map<Address, CompletionStage<T>> send(Buffer data) throws CommandDispatcherException {
+        try {
+            this.sendRequest(data);
+            return Collections.unmodifiableMap(this.responses);
+        } catch (Exception e) {
+            this.cancel(true);
+            throw new CommandDispatcherException(e);
+        }
+    }
+
+    @Override
+    public void sendRequest(Buffer data) throws Exception {
+        this.corr.sendRequest(this.responses.keySet(), data, this, this.options);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void receiveResponse(Object value, Address sender, boolean exceptional) {
+        ServiceResponse<T> response = this.responses.get(sender);
+        if ((response == null) || response.isDone()) return;
+
+        if (exceptional) {
+            response.completeExceptionally((Throwable) value);
+        } else if (value instanceof NoSuchService) {
+            response.completeExceptionally(new CancellationException());
+        } else {
+            response.complete((T) value);
+        }
+    }
+
+    @Override
+    public void viewChange(View view) {
+        // Members that left the view will never respond
+        for (Map.Entry<Address, ServiceResponse<T>> entry : this.responses.entrySet()) {
+            if (!view.containsMember(entry.getKey())) {
+                entry.getValue().completeExceptionally(new CancellationException());
+            }
+        }
+    }
+
+    @Override
+    public void siteUnreachable(String site) {
+        // Group requests never target other sites
+    }
+
+    @Override
+    public void transportClosed() {
+        for (ServiceResponse<T> response : this.responses.values()) {
+            response.completeExceptionally(new CancellationException());
+        }
+    }
+
+    @Override
+    public Void waitForCompletion(long timeout, TimeUnit unit) throws Exception {
+        return this.get(timeout, unit);
+    }
+
+    @Override
+    public Void waitForCompletion() throws Exception {
+        return this.get();
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        for (ServiceResponse<T> response : this.responses.values()) {
+            response.cancel(mayInterruptIfRunning);
+        }
+        return cancelled;
+    }
+
+    private void checkCompletion() {
+        for (ServiceResponse<T> response : this.responses.values()) {
+            if (!response.isDone()) return;
+        }
+        // Unregister from correlator once all members have responded, or were cancelled
+        if (this.complete(null)) {
+            this.corrDone();
+        }
+    }
+
+    private static class ServiceResponse<T> extends CompletableFuture<T> {
+        private final long timeout;
+
+        ServiceResponse(long timeout) {
+            this.timeout = timeout;
+        }
+
+        @Override
+        public boolean completeExceptionally(Throwable exception) {
+            return super.completeExceptionally((exception instanceof SuspectedException) ? new CancellationException() : exception);
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            try {
+                // Wait at most for the configured timeout
+                // If the message was dropped by the receiver, this would otherwise block forever
+                return super.get(this.timeout, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Auto-cancel on timeout
+                this.cancel(true);
+                throw new CancellationException(e.getLocalizedMessage());
+            }
+        }
+
+        @Override
+        public T join() {
+            try {
+                return this.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            } catch (ExecutionException e) {
+                throw new CompletionException(e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.server.dispatcher;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.Unmarshaller;
+import org.junit.Test;
+import org.wildfly.clustering.dispatcher.Command;
+import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
+import org.wildfly.clustering.marshalling.jboss.SimpleMarshallingConfigurationRepository;
+import org.wildfly.clustering.marshalling.jboss.SimpleMarshallingContext;
+import org.wildfly.clustering.marshalling.spi.IndexSerializer;
+import org.wildfly.clustering.marshalling.spi.MarshallingBuffer;
+
+/**
+ * Unit test for {@link CommandDispatcherMarshaller}.
+ */
+public class CommandDispatcherMarshallerTestCase {
+
+    private final MarshallingContext context = new SimpleMarshallingContext(Marshalling.getMarshallerFactory("river", Marshalling.class.getClassLoader()), new SimpleMarshallingConfigurationRepository(new MarshallingConfiguration()), Thread.currentThread().getContextClassLoader());
+    private final CommandMarshaller<Void> marshaller = new CommandDispatcherMarshaller<>(this.context, "id");
+
+    @Test
+    public void test() throws Exception {
+        TestCommand command = new TestCommand(new byte[] { 1, 2, 3 });
+        ByteBuffer buffer = this.marshaller.marshal(command);
+        this.verify(command, buffer);
+
+        // Subsequent commands marshalled using the same thread must not affect the content of previous commands
+        TestCommand largeCommand = new TestCommand(new byte[MarshallingBuffer.MAX_RETAINED_SIZE * 2]);
+        this.verify(largeCommand, this.marshaller.marshal(largeCommand));
+        this.verify(command, buffer);
+    }
+
+    @Test
+    public void allocation() throws IOException {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        long threadId = Thread.currentThread().getId();
+        TestCommand command = new TestCommand(new byte[1024]);
+        int iterations = 10000;
+        // Warm up
+        for (int i = 0; i < iterations; ++i) {
+            this.marshaller.marshal(command);
+        }
+        long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; ++i) {
+            this.marshaller.marshal(command);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - start;
+        System.out.printf("Marshalling a %d byte command allocated %d bytes/op%n", command.data.length, allocated / iterations);
+    }
+
+    private void verify(TestCommand command, ByteBuffer buffer) throws Exception {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining()))) {
+            int version = IndexSerializer.VARIABLE.readInt(input);
+            try (Unmarshaller unmarshaller = this.context.createUnmarshaller(version)) {
+                unmarshaller.start(Marshalling.createByteInput(input));
+                assertEquals("id", unmarshaller.readObject());
+                TestCommand result = (TestCommand) unmarshaller.readObject();
+                assertArrayEquals(command.data, result.data);
+            }
+            assertEquals(-1, input.read());
+        }
+    }
+
+    static class TestCommand implements Command<Void, Void> {
+        private static final long serialVersionUID = -2218960183624985416L;
+
+        final byte[] data;
+
+        TestCommand(byte[] data) {
+            this.data = Arrays.copyOf(data, data.length);
+        }
+
+        @Override
+        public Void execute(Void context) {
+            return null;
+        }
+    }
+}
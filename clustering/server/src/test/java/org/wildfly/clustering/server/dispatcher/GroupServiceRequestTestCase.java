@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.server.dispatcher;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+import org.jgroups.Address;
+import org.jgroups.View;
+import org.jgroups.blocks.RequestCorrelator;
+import org.jgroups.blocks.RequestOptions;
+import org.jgroups.util.Buffer;
+import org.jgroups.util.UUID;
+import org.junit.Test;
+import org.wildfly.clustering.dispatcher.CommandDispatcherException;
+
+/**
+ * Unit test for {@link GroupServiceRequest}.
+ */
+public class GroupServiceRequestTestCase {
+
+    @Test
+    public void test() throws Exception {
+        RequestCorrelator correlator = mock(RequestCorrelator.class);
+        Address local = UUID.randomUUID();
+        Address member1 = UUID.randomUUID();
+        Address member2 = UUID.randomUUID();
+        Address member3 = UUID.randomUUID();
+        Address member4 = UUID.randomUUID();
+        RequestOptions options = RequestOptions.SYNC().exclusionList(local);
+        Buffer buffer = new Buffer(new byte[] { 1 });
+
+        GroupServiceRequest<String> request = new GroupServiceRequest<>(correlator, Arrays.asList(member1, member2, member3, member4), options);
+        Map<Address, CompletionStage<String>> responses = request.send(buffer);
+
+        // A single request is sent to all targets
+        verify(correlator).sendRequest(responses.keySet(), buffer, request, options);
+        assertEquals(4, responses.size());
+
+        request.receiveResponse("foo", member1, false);
+        request.receiveResponse(NoSuchService.INSTANCE, member2, false);
+        request.receiveResponse(new IllegalStateException(), member3, true);
+        // Responses from non-targets are ignored
+        request.receiveResponse("bar", local, false);
+
+        assertEquals("foo", responses.get(member1).toCompletableFuture().join());
+        assertTrue(responses.get(member2).toCompletableFuture().isCancelled());
+        try {
+            responses.get(member3).toCompletableFuture().get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertFalse(responses.get(member4).toCompletableFuture().isDone());
+        assertFalse(request.isDone());
+
+        // Member that left the view will never respond
+        request.viewChange(new View(local, 2L, Arrays.asList(local, member1, member2, member3)));
+
+        try {
+            responses.get(member4).toCompletableFuture().join();
+            fail();
+        } catch (CancellationException e) {
+            // Expected
+        }
+        assertTrue(request.isDone());
+    }
+
+    @Test
+    public void sendFailure() throws Exception {
+        RequestCorrelator correlator = mock(RequestCorrelator.class);
+        Address member = UUID.randomUUID();
+        RequestOptions options = RequestOptions.SYNC();
+        Buffer buffer = new Buffer(new byte[] { 1 });
+
+        GroupServiceRequest<String> request = new GroupServiceRequest<>(correlator, Arrays.asList(member), options);
+
+        doThrow(new IllegalStateException()).when(correlator).sendRequest(anyCollection(), same(buffer), same(request), same(options));
+
+        try {
+            request.send(buffer);
+            fail();
+        } catch (CommandDispatcherException e) {
+            assertTrue(request.isCancelled());
+        }
+    }
+}
@@ -74,6 +74,7 @@ import org.wildfly.clustering.web.session.ImmutableHttpSessionAdapter;
 import org.wildfly.clustering.web.session.ImmutableSession;
 import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
 import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
+import org.wildfly.clustering.web.session.ReplicationStatistics;
 import org.wildfly.clustering.web.session.Session;
 import org.wildfly.clustering.web.session.SessionAttributes;
 import org.wildfly.clustering.web.session.SessionExpirationListener;
@@ -272,6 +273,30 @@ public class InfinispanSessionManager<MV, AV, L> implements SessionManager<L, Tr
         return this.getActiveSessions().size();
     }
 
+    @Override
+    public long getReplicationCount() {
+        ReplicationStatistics statistics = this.getReplicationStatistics();
+        return (statistics != null) ? statistics.getReplicationCount() : 0L;
+    }
+
+    @Override
+    public long getReplicatedBytes() {
+        ReplicationStatistics statistics = this.getReplicationStatistics();
+        return (statistics != null) ? statistics.getReplicatedBytes() : 0L;
+    }
+
+    @Override
+    public long getMeanReplicatedBytes() {
+        ReplicationStatistics statistics = this.getReplicationStatistics();
+        return (statistics != null) ? statistics.getMeanReplicatedBytes() : 0L;
+    }
+
+    // Only attributes replicated as deltas record replication statistics
+    private ReplicationStatistics getReplicationStatistics() {
+        Object attributesFactory = this.factory.getAttributesFactory();
+        return (attributesFactory instanceof ReplicationStatistics) ? (ReplicationStatistics) attributesFactory : null;
+    }
+
     @CacheEntryActivated
     public void activated(CacheEntryActivatedEvent<SessionCreationMetaDataKey, ?> event) {
         if (!event.isPre() && !this.properties.isPersistent()) {
@@ -23,6 +23,7 @@ package org.wildfly.clustering.web.infinispan.session;
 
 import java.security.PrivilegedAction;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -48,7 +49,9 @@ import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
 import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.Recordable;
+import org.wildfly.clustering.ee.Remover;
 import org.wildfly.clustering.ee.infinispan.CacheProperties;
+import org.wildfly.clustering.ee.infinispan.CompressionGuard;
 import org.wildfly.clustering.ee.infinispan.InfinispanBatcher;
 import org.wildfly.clustering.ee.infinispan.InfinispanCacheProperties;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
@@ -59,14 +62,20 @@ import org.wildfly.clustering.infinispan.spi.distribution.ConsistentHashLocality
 import org.wildfly.clustering.infinispan.spi.distribution.Key;
 import org.wildfly.clustering.infinispan.spi.distribution.Locality;
 import org.wildfly.clustering.infinispan.spi.distribution.SimpleLocality;
+import org.wildfly.clustering.infinispan.spi.PredicateKeyFilter;
+import org.wildfly.clustering.marshalling.spi.Compressible;
 import org.wildfly.clustering.marshalling.spi.Marshallability;
+import org.wildfly.clustering.marshalling.spi.MarshalledValue;
 import org.wildfly.clustering.marshalling.spi.MarshalledValueFactory;
 import org.wildfly.clustering.marshalling.spi.MarshalledValueMarshaller;
 import org.wildfly.clustering.spi.NodeFactory;
 import org.wildfly.clustering.web.IdentifierFactory;
 import org.wildfly.clustering.web.infinispan.AffinityIdentifierFactory;
 import org.wildfly.clustering.web.infinispan.session.coarse.CoarseSessionAttributesFactory;
+import org.wildfly.clustering.web.infinispan.session.coarse.DeltaSessionAttributesFactory;
 import org.wildfly.clustering.web.infinispan.session.fine.FineSessionAttributesFactory;
+import org.wildfly.clustering.web.infinispan.session.fine.SessionAttributeKey;
+import org.wildfly.clustering.web.infinispan.session.fine.SessionAttributeNearCache;
 import org.wildfly.clustering.web.session.ImmutableSession;
 import org.wildfly.clustering.web.session.SessionExpirationListener;
 import org.wildfly.clustering.web.session.SessionManager;
@@ -82,6 +91,19 @@ import org.wildfly.security.manager.WildFlySecurityManager;
 @Listener
 public class InfinispanSessionManagerFactory<C extends Marshallability, L> implements SessionManagerFactory<L, TransactionBatch> {
 
+    // Selects the session expiration scheduler implementation, i.e. "timing-wheel", otherwise the default scheduler is used
+    private static final String SCHEDULER_PROPERTY = "jboss.clustering.web.session.expiration.scheduler";
+    private static final String TIMING_WHEEL_SCHEDULER = "timing-wheel";
+    // Enables caching of unmarshalled attributes of fine granularity sessions, i.e. "request" or "node", otherwise unmarshalled attributes are not cached
+    private static final String ATTRIBUTE_CACHE_PROPERTY = "jboss.clustering.web.session.attribute.cache";
+    private static final String REQUEST_ATTRIBUTE_CACHE = "request";
+    private static final String NODE_ATTRIBUTE_CACHE = "node";
+    // Selects the replication mode of coarse granularity session attributes, i.e. "delta", otherwise the full attribute map is replicated
+    private static final String ATTRIBUTE_REPLICATION_PROPERTY = "jboss.clustering.web.session.attribute.replication";
+    private static final String DELTA_ATTRIBUTE_REPLICATION = "delta";
+    // Fraction of the max inactive interval of a session by which the replicated last accessed time of a session may lag, e.g. "0.05", otherwise every access is replicated
+    private static final String ACCESS_THRESHOLD_PROPERTY = "jboss.clustering.web.session.access.threshold";
+
     private static ThreadFactory createThreadFactory() {
         PrivilegedAction<ThreadFactory> action = () -> new JBossThreadFactory(new ThreadGroup(InfinispanSessionManager.class.getSimpleName()), Boolean.FALSE, null, "%G - %t", null, null);
         return WildFlySecurityManager.doUnchecked(action);
@@ -101,6 +123,8 @@ public class InfinispanSessionManagerFactory<C extends Marshallability, L> imple
     private final SessionCreationMetaDataKeyFilter filter = new SessionCreationMetaDataKeyFilter();
     private final ExecutorService executor = Executors.newSingleThreadExecutor(createThreadFactory());
     private final AtomicReference<Future<?>> rehashFuture = new AtomicReference<>();
+    private final List<Object> attributeCacheListeners = new CopyOnWriteArrayList<>();
+    private final CompressionGuard compressionGuard;
 
     public InfinispanSessionManagerFactory(InfinispanSessionManagerFactoryConfiguration<C, L> config) {
         this.affinityFactory = config.getKeyAffinityServiceFactory();
@@ -108,18 +132,26 @@ public class InfinispanSessionManagerFactory<C extends Marshallability, L> imple
         this.memberFactory = config.getMemberFactory();
         this.batcher = new InfinispanBatcher(this.cache);
         this.properties = new InfinispanCacheProperties(this.cache.getCacheConfiguration());
-        SessionMetaDataFactory<InfinispanSessionMetaData<L>, L> metaDataFactory = new InfinispanSessionMetaDataFactory<>(config.getCache(), this.properties);
+        SessionMetaDataFactory<InfinispanSessionMetaData<L>, L> metaDataFactory = new InfinispanSessionMetaDataFactory<>(config.getCache(), this.properties, Double.parseDouble(WildFlySecurityManager.getPropertyPrivileged(ACCESS_THRESHOLD_PROPERTY, "0")));
         this.factory = new InfinispanSessionFactory<>(metaDataFactory, this.createSessionAttributesFactory(config), config.getSessionManagerFactoryConfiguration().getLocalContextFactory());
         CommandDispatcherFactory dispatcherFactory = config.getCommandDispatcherFactory();
         ExpiredSessionRemover<?, ?, L> remover = new ExpiredSessionRemover<>(this.factory);
         this.expirationRegistrar = remover;
-        this.scheduler = new SessionExpirationScheduler(this.batcher, remover);
+        this.scheduler = createScheduler(this.batcher, remover);
         this.dispatcher = dispatcherFactory.createCommandDispatcher(this.cache.getName(), this.scheduler);
         this.group = dispatcherFactory.getGroup();
+        MarshalledValueFactory<C> marshalledValueFactory = config.getSessionManagerFactoryConfiguration().getMarshalledValueFactory();
+        boolean compressing = (marshalledValueFactory instanceof Compressible) && ((Compressible) marshalledValueFactory).isCompressing();
+        this.compressionGuard = compressing && this.cache.getCacheConfiguration().clustering().cacheMode().isClustered() ? new CompressionGuard(this.cache.getName(), this.cache, this.memberFactory::createNode, dispatcherFactory, (Compressible) marshalledValueFactory) : null;
         this.cache.addListener(this);
         this.schedule(new SimpleLocality(false), new CacheLocality(this.cache));
     }
 
+    private static Scheduler createScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover) {
+        String scheduler = WildFlySecurityManager.getPropertyPrivileged(SCHEDULER_PROPERTY, null);
+        return TIMING_WHEEL_SCHEDULER.equals(scheduler) ? new TimingWheelSessionExpirationScheduler(batcher, remover) : new SessionExpirationScheduler(batcher, remover);
+    }
+
     @Override
     public SessionManager<L, TransactionBatch> createSessionManager(final SessionManagerConfiguration configuration) {
         IdentifierFactory<String> factory = new AffinityIdentifierFactory<>(configuration.getIdentifierFactory(), this.cache, this.affinityFactory);
@@ -189,9 +221,21 @@ public class InfinispanSessionManagerFactory<C extends Marshallability, L> imple
 
         switch (config.getAttributePersistenceStrategy()) {
             case FINE: {
-                return new FineSessionAttributesFactory<>(configuration.getCache(), configuration.getCache(), new MarshalledValueMarshaller<>(factory, context), this.properties);
+                String attributeCache = WildFlySecurityManager.getPropertyPrivileged(ATTRIBUTE_CACHE_PROPERTY, null);
+                Cache<SessionAttributeKey, MarshalledValue<Object, C>> cache = configuration.getCache();
+                SessionAttributeNearCache<MarshalledValue<Object, C>> nearCache = null;
+                if (NODE_ATTRIBUTE_CACHE.equals(attributeCache)) {
+                    nearCache = new SessionAttributeNearCache<>(cache);
+                    cache.addListener(nearCache, new PredicateKeyFilter<>(SessionAttributeKey.class::isInstance), null);
+                    this.attributeCacheListeners.add(nearCache);
+                }
+                boolean requestCache = (nearCache != null) || REQUEST_ATTRIBUTE_CACHE.equals(attributeCache);
+                return new FineSessionAttributesFactory<>(configuration.getCache(), cache, new MarshalledValueMarshaller<>(factory, context), this.properties, nearCache, requestCache);
             }
             case COARSE: {
+                if (DELTA_ATTRIBUTE_REPLICATION.equals(WildFlySecurityManager.getPropertyPrivileged(ATTRIBUTE_REPLICATION_PROPERTY, null))) {
+                    return new DeltaSessionAttributesFactory<>(configuration.getCache(), new MarshalledValueMarshaller<>(factory, context), this.properties);
+                }
                 return new CoarseSessionAttributesFactory<>(configuration.getCache(), new MarshalledValueMarshaller<>(factory, context), this.properties);
             }
             default: {
@@ -204,6 +248,9 @@ public class InfinispanSessionManagerFactory<C extends Marshallability, L> imple
     @Override
     public void close() {
         this.cache.removeListener(this);
+        for (Object listener : this.attributeCacheListeners) {
+            this.cache.removeListener(listener);
+        }
         PrivilegedAction<List<Runnable>> action = () -> this.executor.shutdownNow();
         WildFlySecurityManager.doUnchecked(action);
         try {
@@ -213,6 +260,9 @@ public class InfinispanSessionManagerFactory<C extends Marshallability, L> imple
         }
         this.dispatcher.close();
         this.scheduler.close();
+        if (this.compressionGuard != null) {
+            this.compressionGuard.close();
+        }
     }
 
     @DataRehashed
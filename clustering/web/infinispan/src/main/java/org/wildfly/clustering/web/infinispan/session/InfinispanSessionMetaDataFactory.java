@@ -22,6 +22,9 @@
 
 package org.wildfly.clustering.web.infinispan.session;
 
+import java.time.Duration;
+import java.util.function.Supplier;
+
 import javax.transaction.SystemException;
 
 import org.infinispan.Cache;
@@ -46,13 +49,26 @@ public class InfinispanSessionMetaDataFactory<L> implements SessionMetaDataFacto
     private final Cache<SessionCreationMetaDataKey, SessionCreationMetaDataEntry<L>> findCreationMetaDataCache;
     private final Cache<SessionAccessMetaDataKey, SessionAccessMetaData> accessMetaDataCache;
     private final CacheProperties properties;
+    private final double accessThreshold;
 
-    @SuppressWarnings("unchecked")
     public InfinispanSessionMetaDataFactory(Cache<? extends Key<String>, ?> cache, CacheProperties properties) {
+        this(cache, properties, 0);
+    }
+
+    /**
+     * Creates a session meta data factory that coalesces replication of the last accessed time of a session.
+     * @param accessThreshold the fraction of the max inactive interval of a session by which its replicated last accessed time may lag its actual last accessed time.
+     */
+    @SuppressWarnings("unchecked")
+    public InfinispanSessionMetaDataFactory(Cache<? extends Key<String>, ?> cache, CacheProperties properties, double accessThreshold) {
+        if ((accessThreshold < 0) || (accessThreshold >= 1)) {
+            throw new IllegalArgumentException(Double.toString(accessThreshold));
+        }
         this.creationMetaDataCache = (Cache<SessionCreationMetaDataKey, SessionCreationMetaDataEntry<L>>) cache;
         this.findCreationMetaDataCache = properties.isLockOnRead() ? this.creationMetaDataCache.getAdvancedCache().withFlags(Flag.FORCE_WRITE_LOCK) : this.creationMetaDataCache;
         this.accessMetaDataCache = (Cache<SessionAccessMetaDataKey, SessionAccessMetaData>) cache;
         this.properties = properties;
+        this.accessThreshold = accessThreshold;
     }
 
     @Override
@@ -98,7 +114,8 @@ public class InfinispanSessionMetaDataFactory<L> implements SessionMetaDataFacto
 
         SessionAccessMetaDataKey accessMetaDataKey = new SessionAccessMetaDataKey(id);
         Mutator accessMutator = this.properties.isTransactional() && this.accessMetaDataCache.getAdvancedCache().getCacheEntry(accessMetaDataKey).isCreated() ? Mutator.PASSIVE : new CacheEntryMutator<>(this.accessMetaDataCache, accessMetaDataKey, entry.getAccessMetaData());
-        SessionAccessMetaData accessMetaData = new MutableSessionAccessMetaData(entry.getAccessMetaData(), accessMutator);
+        Supplier<Duration> precision = (this.accessThreshold > 0) ? () -> Duration.ofMillis((long) (creationMetaData.getMaxInactiveInterval().toMillis() * this.accessThreshold)) : () -> Duration.ZERO;
+        SessionAccessMetaData accessMetaData = new MutableSessionAccessMetaData(entry.getAccessMetaData(), accessMutator, precision);
 
         return new SimpleSessionMetaData(creationMetaData, accessMetaData);
     }
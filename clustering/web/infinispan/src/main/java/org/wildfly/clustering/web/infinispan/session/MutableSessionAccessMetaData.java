@@ -23,6 +23,7 @@
 package org.wildfly.clustering.web.infinispan.session;
 
 import java.time.Duration;
+import java.util.function.Supplier;
 
 import org.wildfly.clustering.ee.Mutator;
 
@@ -33,10 +34,23 @@ public class MutableSessionAccessMetaData implements SessionAccessMetaData {
 
     private final SessionAccessMetaData metaData;
     private final Mutator mutator;
+    private final Supplier<Duration> precision;
 
     public MutableSessionAccessMetaData(SessionAccessMetaData metaData, Mutator mutator) {
+        this(metaData, mutator, () -> Duration.ZERO);
+    }
+
+    /**
+     * Creates mutable access meta data that only replicates the last accessed time if it moved into a different interval of the specified precision.
+     * Consequently, the replicated last accessed time lags the actual last accessed time by at most the specified precision.
+     * @param metaData the access meta data of a session
+     * @param mutator mutates the cache entry of the access meta data
+     * @param precision supplies the precision of the replicated last accessed time, where zero indicates that every access is replicated
+     */
+    public MutableSessionAccessMetaData(SessionAccessMetaData metaData, Mutator mutator, Supplier<Duration> precision) {
         this.metaData = metaData;
         this.mutator = mutator;
+        this.precision = precision;
     }
 
     @Override
@@ -46,7 +60,12 @@ public class MutableSessionAccessMetaData implements SessionAccessMetaData {
 
     @Override
     public void setLastAccessedDuration(Duration duration) {
+        Duration previous = this.metaData.getLastAccessedDuration();
         this.metaData.setLastAccessedDuration(duration);
-        this.mutator.mutate();
+        long precision = this.precision.get().toMillis();
+        // Coalesce accesses within the same interval, since the previous access within this interval was already replicated
+        if ((precision <= 0) || (Math.floorDiv(previous.toMillis(), precision) != Math.floorDiv(duration.toMillis(), precision))) {
+            this.mutator.mutate();
+        }
     }
 }
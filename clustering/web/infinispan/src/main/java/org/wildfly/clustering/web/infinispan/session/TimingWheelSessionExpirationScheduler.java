@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.security.PrivilegedAction;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.clustering.ee.Batch;
+import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.Remover;
+import org.wildfly.clustering.ee.infinispan.TransactionBatch;
+import org.wildfly.clustering.ee.scheduler.TimingWheel;
+import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Session expiration scheduler that coalesces the expiration of sessions into the ticks of a hashed timing wheel.
+ * Unlike {@link SessionExpirationScheduler}, rescheduling a session is a constant time operation,
+ * and sessions expiring within the same tick are removed together within a single batch.
+ */
+public class TimingWheelSessionExpirationScheduler implements Scheduler {
+
+    static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+    static final int DEFAULT_TICKS_PER_WHEEL = 512;
+    static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    final Batcher<TransactionBatch> batcher;
+    final Remover<String> remover;
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService executor;
+    private final TimingWheel<String> wheel;
+
+    public TimingWheelSessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover) {
+        this(batcher, remover, DEFAULT_TICK, Math.max(Runtime.getRuntime().availableProcessors() / 2, 1));
+    }
+
+    public TimingWheelSessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, Duration tick, int threads) {
+        this.batcher = batcher;
+        this.remover = remover;
+        ThreadFactory factory = createThreadFactory();
+        this.ticker = createScheduledExecutor(factory);
+        this.executor = Executors.newFixedThreadPool(threads, factory);
+        this.wheel = new TimingWheel<>(tick, DEFAULT_TICKS_PER_WHEEL, DEFAULT_MAX_BATCH_SIZE, this::expire, this.ticker, this.executor);
+    }
+
+    private static ThreadFactory createThreadFactory() {
+        PrivilegedAction<ThreadFactory> action = () -> new JBossThreadFactory(new ThreadGroup(TimingWheelSessionExpirationScheduler.class.getSimpleName()), Boolean.FALSE, null, "%G - %t", null, null);
+        return WildFlySecurityManager.doUnchecked(action);
+    }
+
+    private static ScheduledExecutorService createScheduledExecutor(ThreadFactory factory) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, factory);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return executor;
+    }
+
+    @Override
+    public void schedule(String sessionId, ImmutableSessionMetaData metaData) {
+        Duration maxInactiveInterval = metaData.getMaxInactiveInterval();
+        if (!maxInactiveInterval.isZero()) {
+            Instant expiration = metaData.getLastAccessedTime().plus(maxInactiveInterval);
+            InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s will expire at %s", sessionId, expiration);
+            this.wheel.schedule(sessionId, expiration);
+        }
+    }
+
+    @Override
+    public void cancel(String sessionId) {
+        this.wheel.cancel(sessionId);
+    }
+
+    @Override
+    public void cancel(Locality locality) {
+        for (String sessionId : this.wheel.getKeys()) {
+            if (Thread.currentThread().isInterrupted()) break;
+            if (!locality.isLocal(sessionId)) {
+                this.cancel(sessionId);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        this.wheel.close();
+        // Discard pending batches and interrupt those in progress, then wait for the latter to complete
+        PrivilegedAction<Void> action = () -> {
+            this.ticker.shutdownNow();
+            this.executor.shutdownNow();
+            return null;
+        };
+        WildFlySecurityManager.doUnchecked(action);
+        try {
+            this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void expire(List<String> sessionIds) {
+        InfinispanWebLogger.ROOT_LOGGER.tracef("Expiring sessions %s", sessionIds);
+        try (Batch batch = this.batcher.createBatch()) {
+            for (String sessionId : sessionIds) {
+                // Abandon the remainder of this batch if we are closing
+                if (Thread.currentThread().isInterrupted()) break;
+                try {
+                    this.remover.remove(sessionId);
+                } catch (Throwable e) {
+                    InfinispanWebLogger.ROOT_LOGGER.failedToExpireSession(e, sessionId);
+                }
+            }
+        } catch (RuntimeException e) {
+            InfinispanWebLogger.ROOT_LOGGER.failedToExpireSessions(e, sessionIds.size());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+import org.infinispan.commons.marshall.NotSerializableException;
+import org.infinispan.functional.FunctionalMap.ReadWriteMap;
+import org.wildfly.clustering.ee.infinispan.CacheProperties;
+import org.wildfly.clustering.infinispan.spi.function.ConcurrentMapComputeFunction;
+import org.wildfly.clustering.infinispan.spi.function.CopyOnWriteMapComputeFunction;
+import org.wildfly.clustering.marshalling.spi.MarshalledValue;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
+import org.wildfly.clustering.web.session.SessionAttributeImmutability;
+
+/**
+ * Exposes session attributes for a coarse granularity session whose changes are replicated as a delta.
+ * Readers see the full attribute map, while only the added, changed and removed attributes are written to the cache when the session is closed.
+ * @param <V> the marshalled attribute value type
+ */
+public class DeltaSessionAttributes<V extends MarshalledValue<Object, ?>> extends CoarseImmutableSessionAttributes implements SessionAttributes {
+    private final SessionAttributesKey key;
+    private final Map<String, Object> attributes;
+    private final Set<String> changes = ConcurrentHashMap.newKeySet();
+    private final ReadWriteMap<Object, Map<String, V>> map;
+    private final Marshaller<Object, V> marshaller;
+    private final CacheProperties properties;
+    private final LongConsumer recorder;
+
+    /**
+     * Creates delta session attributes.
+     * @param key the cache key of the session attributes
+     * @param attributes the unmarshalled session attributes
+     * @param map a functional view of the cache
+     * @param marshaller the attribute marshaller
+     * @param properties the cache properties
+     * @param recorder records the number of bytes replicated by each delta
+     */
+    public DeltaSessionAttributes(SessionAttributesKey key, Map<String, Object> attributes, ReadWriteMap<Object, Map<String, V>> map, Marshaller<Object, V> marshaller, CacheProperties properties, LongConsumer recorder) {
+        super(attributes);
+        this.key = key;
+        this.attributes = attributes;
+        this.map = map;
+        this.marshaller = marshaller;
+        this.properties = properties;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Object removeAttribute(String name) {
+        Object value = this.attributes.remove(name);
+        if (value != null) {
+            this.changes.add(name);
+        }
+        return value;
+    }
+
+    @Override
+    public Object setAttribute(String name, Object value) {
+        if (value == null) {
+            return this.removeAttribute(name);
+        }
+        if (this.properties.isMarshalling() && !this.marshaller.isMarshallable(value)) {
+            throw new IllegalArgumentException(new NotSerializableException(value.getClass().getName()));
+        }
+        Object old = this.attributes.put(name, value);
+        this.changes.add(name);
+        return old;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        Object value = this.attributes.get(name);
+        // If the object is mutable, we need to indicate that the attribute should be replicated
+        if ((value != null) && !SessionAttributeImmutability.INSTANCE.test(value)) {
+            this.changes.add(name);
+        }
+        return value;
+    }
+
+    @Override
+    public void close() {
+        if (this.changes.isEmpty()) return;
+
+        Map<String, V> delta = new HashMap<>();
+        long bytes = 0;
+        for (String name : this.changes) {
+            Object attribute = this.attributes.get(name);
+            V value = (attribute != null) ? this.marshaller.write(attribute) : null;
+            delta.put(name, value);
+            bytes += name.length() + size(value);
+        }
+        this.changes.clear();
+        InfinispanWebLogger.ROOT_LOGGER.tracef("Replicating %d bytes of %s for session attributes %s", bytes, delta.keySet(), this.key);
+        this.map.eval(this.key, this.properties.isTransactional() ? new CopyOnWriteMapComputeFunction<>(delta) : new ConcurrentMapComputeFunction<>(delta)).join();
+        this.recorder.accept(bytes);
+    }
+
+    private static int size(MarshalledValue<Object, ?> value) {
+        if (value == null) return 0;
+        try {
+            return Math.max(value.size(), 0);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.infinispan.functional.FunctionalMap.ReadWriteMap;
+import org.infinispan.functional.impl.FunctionalMapImpl;
+import org.infinispan.functional.impl.ReadWriteMapImpl;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntriesEvicted;
+import org.infinispan.notifications.cachelistener.event.CacheEntriesEvictedEvent;
+import org.wildfly.clustering.ee.infinispan.CacheProperties;
+import org.wildfly.clustering.infinispan.spi.distribution.Key;
+import org.wildfly.clustering.marshalling.spi.InvalidSerializedFormException;
+import org.wildfly.clustering.marshalling.spi.MarshalledValue;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
+import org.wildfly.clustering.web.infinispan.session.SessionAttributesFactory;
+import org.wildfly.clustering.web.infinispan.session.SessionCreationMetaDataKey;
+import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
+import org.wildfly.clustering.web.session.ReplicationStatistics;
+
+/**
+ * {@link SessionAttributesFactory} for coarse granularity sessions whose changes are replicated as a delta.
+ * All session attributes are stored in a single cache entry, as a map of individually marshalled attribute values.
+ * Only added, changed and removed attributes are replicated, via a functional write to that cache entry.
+ * N.B. The stored form of session attributes differs from {@link CoarseSessionAttributesFactory}, thus sessions cannot be shared by deployments that use different modes.
+ * @param <V> the marshalled attribute value type
+ */
+@Listener(sync = false)
+public class DeltaSessionAttributesFactory<V extends MarshalledValue<Object, ?>> implements SessionAttributesFactory<Map<String, Object>>, ReplicationStatistics {
+
+    private final Cache<SessionAttributesKey, Map<String, V>> cache;
+    private final ReadWriteMap<Object, Map<String, V>> map;
+    private final Marshaller<Object, V> marshaller;
+    private final CacheProperties properties;
+    private final LongAdder replicationCount = new LongAdder();
+    private final LongAdder replicatedBytes = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public DeltaSessionAttributesFactory(Cache<SessionAttributesKey, Map<String, V>> cache, Marshaller<Object, V> marshaller, CacheProperties properties) {
+        this(cache, ReadWriteMapImpl.create(FunctionalMapImpl.create((AdvancedCache<Object, Map<String, V>>) (AdvancedCache<?, ?>) cache.getAdvancedCache())), marshaller, properties);
+    }
+
+    DeltaSessionAttributesFactory(Cache<SessionAttributesKey, Map<String, V>> cache, ReadWriteMap<Object, Map<String, V>> map, Marshaller<Object, V> marshaller, CacheProperties properties) {
+        this.cache = cache;
+        this.map = map;
+        this.marshaller = marshaller;
+        this.properties = properties;
+    }
+
+    @Override
+    public Map<String, Object> createValue(String id, Void context) {
+        // Functions applied to non-transactional caches operate on the stored map directly
+        Map<String, V> values = this.properties.isTransactional() ? new HashMap<>() : new ConcurrentHashMap<>();
+        this.cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).put(new SessionAttributesKey(id), values);
+        return this.createAttributes();
+    }
+
+    @Override
+    public Map<String, Object> findValue(String id) {
+        Map<String, V> values = this.cache.get(new SessionAttributesKey(id));
+        if (values != null) {
+            Map<String, Object> attributes = this.createAttributes();
+            try {
+                for (Map.Entry<String, V> entry : values.entrySet()) {
+                    Object attribute = this.marshaller.read(entry.getValue());
+                    if (attribute != null) {
+                        attributes.put(entry.getKey(), attribute);
+                    }
+                }
+                return attributes;
+            } catch (InvalidSerializedFormException e) {
+                InfinispanWebLogger.ROOT_LOGGER.failedToActivateSession(e, id);
+                this.remove(id);
+            }
+        }
+        return null;
+    }
+
+    private Map<String, Object> createAttributes() {
+        return this.properties.isLockOnRead() ? new HashMap<>() : new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public boolean remove(String id) {
+        this.cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).remove(new SessionAttributesKey(id));
+        return true;
+    }
+
+    @Override
+    public SessionAttributes createSessionAttributes(String id, Map<String, Object> attributes) {
+        return new DeltaSessionAttributes<>(new SessionAttributesKey(id), attributes, this.map, this.marshaller, this.properties, this::record);
+    }
+
+    @Override
+    public ImmutableSessionAttributes createImmutableSessionAttributes(String id, Map<String, Object> attributes) {
+        return new CoarseImmutableSessionAttributes(attributes);
+    }
+
+    private void record(long bytes) {
+        this.replicationCount.increment();
+        this.replicatedBytes.add(bytes);
+    }
+
+    @Override
+    public long getReplicationCount() {
+        return this.replicationCount.sum();
+    }
+
+    @Override
+    public long getReplicatedBytes() {
+        return this.replicatedBytes.sum();
+    }
+
+    @Override
+    public long getMeanReplicatedBytes() {
+        long count = this.replicationCount.sum();
+        return (count > 0) ? this.replicatedBytes.sum() / count : 0L;
+    }
+
+    @CacheEntriesEvicted
+    public void evicted(CacheEntriesEvictedEvent<Key<String>, ?> event) {
+        if (!event.isPre()) {
+            Cache<SessionAttributesKey, Map<String, V>> cache = this.cache.getAdvancedCache().withFlags(Flag.SKIP_LISTENER_NOTIFICATION);
+            for (Key<String> key : event.getEntries().keySet()) {
+                // Workaround for ISPN-8324
+                if (key instanceof SessionCreationMetaDataKey) {
+                    cache.evict(new SessionAttributesKey(key.getValue()));
+                }
+            }
+        }
+    }
+}
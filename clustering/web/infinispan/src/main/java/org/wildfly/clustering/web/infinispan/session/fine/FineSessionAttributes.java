@@ -22,6 +22,7 @@
 package org.wildfly.clustering.web.infinispan.session.fine;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -54,16 +55,30 @@ public class FineSessionAttributes<V> implements SessionAttributes {
     private final Map<String, Mutator> mutations = new ConcurrentHashMap<>();
     private final Marshaller<Object, V> marshaller;
     private final CacheProperties properties;
+    private final SessionAttributeNearCache<V> nearCache;
+    // Unmarshalled attributes read during the current request, if enabled
+    private final Map<String, SessionAttributeNearCache.Entry<V>> requestCache;
 
     private volatile Map<String, UUID> names;
 
     public FineSessionAttributes(String id, Map<String, UUID> names, Cache<SessionAttributeNamesKey, Map<String, UUID>> namesCache, Cache<SessionAttributeKey, V> attributeCache, Marshaller<Object, V> marshaller, CacheProperties properties) {
+        this(id, names, namesCache, attributeCache, marshaller, properties, null, false);
+    }
+
+    /**
+     * Creates session attributes whose unmarshalled values may be cached.
+     * @param nearCache a node-local cache of unmarshalled attributes, or null, if disabled
+     * @param requestCache indicates whether unmarshalled attributes should be cached for the duration of the request
+     */
+    public FineSessionAttributes(String id, Map<String, UUID> names, Cache<SessionAttributeNamesKey, Map<String, UUID>> namesCache, Cache<SessionAttributeKey, V> attributeCache, Marshaller<Object, V> marshaller, CacheProperties properties, SessionAttributeNearCache<V> nearCache, boolean requestCache) {
         this.id = id;
         this.setNames(names);
         this.namesCache = namesCache;
         this.attributeCache = attributeCache;
         this.marshaller = marshaller;
         this.properties = properties;
+        this.nearCache = nearCache;
+        this.requestCache = requestCache ? Collections.synchronizedMap(new HashMap<>()) : null;
     }
 
     @Override
@@ -73,6 +88,7 @@ public class FineSessionAttributes<V> implements SessionAttributes {
 
         this.setNames(this.namesCache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS).computeIfPresent(this.createKey(), this.properties.isTransactional() ? new CopyOnWriteMapRemoveFunction<>(name) : new ConcurrentMapRemoveFunction<>(name)));
 
+        this.invalidate(name, this.createKey(attributeId));
         Object result = this.read(name, this.attributeCache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS).remove(this.createKey(attributeId)));
         this.mutations.remove(name);
         return result;
@@ -93,6 +109,8 @@ public class FineSessionAttributes<V> implements SessionAttributes {
             UUID newAttributeId = UUID.randomUUID();
             this.setNames(this.namesCache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS).compute(this.createKey(), this.properties.isTransactional() ? new CopyOnWriteMapPutFunction<>(name, newAttributeId) : new ConcurrentMapPutFunction<>(name, newAttributeId)));
             attributeId = this.names.get(name);
+        } else {
+            this.invalidate(name, this.createKey(attributeId));
         }
 
         Object result = this.read(name, this.attributeCache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS).put(this.createKey(attributeId), value));
@@ -106,8 +124,9 @@ public class FineSessionAttributes<V> implements SessionAttributes {
         if (attributeId == null) return null;
 
         SessionAttributeKey key = this.createKey(attributeId);
-        V value = this.attributeCache.get(key);
-        Object attribute = this.read(name, value);
+        SessionAttributeNearCache.Entry<V> entry = this.findEntry(name, key);
+        V value = (entry != null) ? entry.getValue() : this.attributeCache.get(key);
+        Object attribute = (entry != null) ? entry.getAttribute() : this.read(name, value);
         if (attribute != null) {
             // If the object is mutable, we need to indicate that the attribute should be replicated
             if (!SessionAttributeImmutability.INSTANCE.test(attribute)) {
@@ -134,6 +153,40 @@ public class FineSessionAttributes<V> implements SessionAttributes {
             }
         }
         this.mutations.clear();
+        if (this.requestCache != null) {
+            this.requestCache.clear();
+        }
+    }
+
+    private SessionAttributeNearCache.Entry<V> findEntry(String name, SessionAttributeKey key) {
+        if ((this.requestCache == null) && (this.nearCache == null)) return null;
+
+        SessionAttributeNearCache.Entry<V> entry = (this.requestCache != null) ? this.requestCache.get(name) : null;
+        if (entry == null) {
+            entry = (this.nearCache != null) ? this.nearCache.get(key) : null;
+            if (entry == null) {
+                SessionAttributeNearCache.Entry<V> reservation = (this.nearCache != null) ? this.nearCache.reserve(key) : null;
+                V value = this.attributeCache.get(key);
+                Object attribute = this.read(name, value);
+                if (reservation != null) {
+                    this.nearCache.complete(key, reservation, value, attribute);
+                }
+                entry = new SessionAttributeNearCache.Entry<>(value, attribute);
+            }
+            if ((this.requestCache != null) && (entry.getAttribute() != null)) {
+                this.requestCache.put(name, entry);
+            }
+        }
+        return entry;
+    }
+
+    private void invalidate(String name, SessionAttributeKey key) {
+        if (this.requestCache != null) {
+            this.requestCache.remove(name);
+        }
+        if (this.nearCache != null) {
+            this.nearCache.invalidate(key);
+        }
     }
 
     private void setNames(Map<String, UUID> names) {
@@ -56,12 +56,26 @@ public class FineSessionAttributesFactory<V> implements SessionAttributesFactory
     private final Cache<SessionAttributeKey, V> attributeCache;
     private final Marshaller<Object, V> marshaller;
     private final CacheProperties properties;
+    private final SessionAttributeNearCache<V> nearCache;
+    private final boolean requestCache;
 
     public FineSessionAttributesFactory(Cache<SessionAttributeNamesKey, Map<String, UUID>> namesCache, Cache<SessionAttributeKey, V> attributeCache, Marshaller<Object, V> marshaller, CacheProperties properties) {
+        this(namesCache, attributeCache, marshaller, properties, null, false);
+    }
+
+    /**
+     * Creates a factory for session attributes whose unmarshalled values may be cached.
+     * N.B. The specified near cache must be registered as a listener of the attribute cache by the caller.
+     * @param nearCache a node-local cache of unmarshalled attributes, or null, if disabled
+     * @param requestCache indicates whether unmarshalled attributes should be cached for the duration of a request
+     */
+    public FineSessionAttributesFactory(Cache<SessionAttributeNamesKey, Map<String, UUID>> namesCache, Cache<SessionAttributeKey, V> attributeCache, Marshaller<Object, V> marshaller, CacheProperties properties, SessionAttributeNearCache<V> nearCache, boolean requestCache) {
         this.namesCache = namesCache;
         this.attributeCache = attributeCache;
         this.marshaller = marshaller;
         this.properties = properties;
+        this.nearCache = nearCache;
+        this.requestCache = requestCache;
     }
 
     @Override
@@ -106,7 +120,7 @@ public class FineSessionAttributesFactory<V> implements SessionAttributesFactory
 
     @Override
     public SessionAttributes createSessionAttributes(String id, Map<String, UUID> names) {
-        return new FineSessionAttributes<>(id, names, this.namesCache, this.attributeCache, this.marshaller, this.properties);
+        return new FineSessionAttributes<>(id, names, this.namesCache, this.attributeCache, this.marshaller, this.properties, this.nearCache, this.requestCache);
     }
 
     @Override
@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.fine;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.infinispan.Cache;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntriesEvicted;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryExpired;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryInvalidated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.annotation.TopologyChanged;
+import org.infinispan.notifications.cachelistener.event.CacheEntriesEvictedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
+
+/**
+ * Node-local cache of unmarshalled session attribute values for fine granularity sessions.
+ * Entries are only retained for keys owned by this node, since only owners are notified of remote writes.
+ * Any remote write, removal, invalidation or eviction of a session attribute, as well as any topology change, invalidates the corresponding entries.
+ * Local writes invalidate the corresponding entry, unless they replicate the cached value itself, i.e. via a {@link org.wildfly.clustering.ee.infinispan.CacheEntryMutator}.
+ * @param <V> the marshalled attribute value type
+ */
+@Listener(sync = true)
+public class SessionAttributeNearCache<V> {
+
+    private final Map<SessionAttributeKey, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Cache<SessionAttributeKey, V> cache;
+
+    public SessionAttributeNearCache(Cache<SessionAttributeKey, V> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the cached entry for the specified key.
+     * @param key a session attribute key
+     * @return a cached entry, or null if no entry was cached for the specified key
+     */
+    public Entry<V> get(SessionAttributeKey key) {
+        Entry<V> entry = this.entries.get(key);
+        return ((entry != null) && entry.isComplete()) ? entry : null;
+    }
+
+    /**
+     * Reserves an entry for the specified key, prior to reading its value from the cache.
+     * A reservation is discarded by any concurrent invalidation of the key, such that a stale value read from the cache is never cached.
+     * @param key a session attribute key
+     * @return a reservation token to be completed via {@link #complete(SessionAttributeKey, Entry, Object, Object)}, or null if the specified key cannot be cached by this node.
+     */
+    public Entry<V> reserve(SessionAttributeKey key) {
+        DistributionManager dist = this.cache.getAdvancedCache().getDistributionManager();
+        if ((dist != null) && !dist.getCacheTopology().getDistribution(key).isWriteOwner()) return null;
+        Entry<V> reservation = new Entry<>(null, null);
+        return (this.entries.putIfAbsent(key, reservation) == null) ? reservation : null;
+    }
+
+    /**
+     * Completes a reservation with the value read from the cache and its unmarshalled attribute.
+     * @param key a session attribute key
+     * @param reservation a reservation token previously returned by {@link #reserve(SessionAttributeKey)}
+     * @param value the marshalled value read from the cache
+     * @param attribute the unmarshalled attribute
+     */
+    public void complete(SessionAttributeKey key, Entry<V> reservation, V value, Object attribute) {
+        if ((value != null) && (attribute != null)) {
+            this.entries.replace(key, reservation, new Entry<>(value, attribute));
+        } else {
+            this.entries.remove(key, reservation);
+        }
+    }
+
+    /**
+     * Discards the cached entry, or pending reservation, for the specified key.
+     * @param key a session attribute key
+     */
+    public void invalidate(SessionAttributeKey key) {
+        this.entries.remove(key);
+    }
+
+    /**
+     * Returns the number of entries cached by this node.
+     * @return the number of cached entries
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Discards all cached entries.
+     */
+    public void clear() {
+        this.entries.clear();
+    }
+
+    @CacheEntryModified
+    public void modified(CacheEntryEvent<SessionAttributeKey, V> event) {
+        if (!event.isOriginLocal()) {
+            this.invalidate(event.getKey());
+        } else if (!event.isPre()) {
+            // Retain entry if this write merely replicated a mutation of the cached value
+            V value = event.getValue();
+            this.entries.computeIfPresent(event.getKey(), (key, entry) -> (entry.isComplete() && (entry.getValue() == value)) ? entry : null);
+        }
+    }
+
+    @CacheEntryRemoved
+    @CacheEntryInvalidated
+    @CacheEntryExpired
+    public void removed(CacheEntryEvent<SessionAttributeKey, V> event) {
+        this.invalidate(event.getKey());
+    }
+
+    @CacheEntriesEvicted
+    public void evicted(CacheEntriesEvictedEvent<SessionAttributeKey, V> event) {
+        for (SessionAttributeKey key : event.getEntries().keySet()) {
+            this.invalidate(key);
+        }
+    }
+
+    @TopologyChanged
+    public void topologyChanged(TopologyChangedEvent<SessionAttributeKey, V> event) {
+        // Ownership of cached keys may have changed
+        this.clear();
+    }
+
+    /**
+     * A cached marshalled value and its unmarshalled attribute.
+     * @param <V> the marshalled attribute value type
+     */
+    public static class Entry<V> {
+        private final V value;
+        private final Object attribute;
+
+        Entry(V value, Object attribute) {
+            this.value = value;
+            this.attribute = attribute;
+        }
+
+        boolean isComplete() {
+            return this.attribute != null;
+        }
+
+        public V getValue() {
+            return this.value;
+        }
+
+        public Object getAttribute() {
+            return this.attribute;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+
+import org.junit.Test;
+import org.wildfly.clustering.ee.Mutator;
+
+/**
+ * Unit test for {@link MutableSessionAccessMetaData}.
+ */
+public class MutableSessionAccessMetaDataTestCase {
+
+    @Test
+    public void replicateEveryAccess() {
+        Mutator mutator = mock(Mutator.class);
+        SessionAccessMetaData metaData = new MutableSessionAccessMetaData(new SimpleSessionAccessMetaData(), mutator);
+
+        metaData.setLastAccessedDuration(Duration.ofMillis(1));
+        metaData.setLastAccessedDuration(Duration.ofMillis(2));
+
+        assertEquals(Duration.ofMillis(2), metaData.getLastAccessedDuration());
+        verify(mutator, times(2)).mutate();
+    }
+
+    @Test
+    public void coalesceAccesses() {
+        Mutator mutator = mock(Mutator.class);
+        SessionAccessMetaData metaData = new MutableSessionAccessMetaData(new SimpleSessionAccessMetaData(), mutator, () -> Duration.ofSeconds(10));
+
+        metaData.setLastAccessedDuration(Duration.ofSeconds(1));
+        metaData.setLastAccessedDuration(Duration.ofSeconds(9));
+
+        // Accesses are always visible locally
+        assertEquals(Duration.ofSeconds(9), metaData.getLastAccessedDuration());
+        verify(mutator, never()).mutate();
+
+        metaData.setLastAccessedDuration(Duration.ofSeconds(10));
+        verify(mutator, times(1)).mutate();
+
+        metaData.setLastAccessedDuration(Duration.ofSeconds(35));
+        verify(mutator, times(2)).mutate();
+    }
+
+    @Test
+    public void boundedLag() {
+        Duration maxInactiveInterval = Duration.ofMinutes(30);
+        double threshold = 0.05;
+        Duration precision = Duration.ofMillis((long) (maxInactiveInterval.toMillis() * threshold));
+        SimpleSessionAccessMetaData local = new SimpleSessionAccessMetaData();
+        SimpleSessionAccessMetaData replicated = new SimpleSessionAccessMetaData();
+        int[] writes = new int[1];
+        Mutator mutator = () -> {
+            replicated.setLastAccessedDuration(local.getLastAccessedDuration());
+            writes[0] += 1;
+        };
+        SessionAccessMetaData metaData = new MutableSessionAccessMetaData(local, mutator, () -> precision);
+
+        // One request every 100ms for an hour
+        int accesses = 0;
+        for (long millis = 0; millis < Duration.ofHours(1).toMillis(); millis += 100) {
+            metaData.setLastAccessedDuration(Duration.ofMillis(millis));
+            accesses += 1;
+            Duration lag = local.getLastAccessedDuration().minus(replicated.getLastAccessedDuration());
+            // A remote node must never consider the session expired earlier than the precision allows
+            assertTrue(lag.toString(), lag.compareTo(precision) < 0);
+        }
+        assertEquals(36000, accesses);
+        // Only the first access within each of the subsequent 39 intervals of 90 seconds is replicated
+        assertEquals(39, writes[0]);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.infinispan.functional.EntryView.ReadWriteEntryView;
+import org.infinispan.functional.FunctionalMap.ReadWriteMap;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.wildfly.clustering.ee.infinispan.CacheProperties;
+import org.wildfly.clustering.marshalling.spi.MarshalledValue;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
+
+/**
+ * Unit test for {@link DeltaSessionAttributes}.
+ */
+public class DeltaSessionAttributesTestCase {
+    private final SessionAttributesKey key = new SessionAttributesKey("session");
+    private final ReadWriteMap<Object, Map<String, TestMarshalledValue>> map = mock(ReadWriteMap.class);
+    private final Marshaller<Object, TestMarshalledValue> marshaller = mock(Marshaller.class);
+    private final CacheProperties properties = mock(CacheProperties.class);
+    private final long[] recorded = new long[1];
+
+    private SessionAttributes createSessionAttributes(Map<String, Object> attributes) {
+        return new DeltaSessionAttributes<>(this.key, attributes, this.map, this.marshaller, this.properties, bytes -> this.recorded[0] += bytes);
+    }
+
+    @Test
+    public void noChanges() {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("immutable", "value");
+        SessionAttributes sessionAttributes = this.createSessionAttributes(attributes);
+
+        assertEquals("value", sessionAttributes.getAttribute("immutable"));
+        assertNull(sessionAttributes.getAttribute("missing"));
+        assertNull(sessionAttributes.removeAttribute("missing"));
+
+        sessionAttributes.close();
+
+        verifyZeroInteractions(this.map);
+        assertEquals(0L, this.recorded[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void delta() {
+        Object cart = new StringBuilder("cart");
+        Object added = new Object();
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("cart", cart);
+        attributes.put("flag", "on");
+        attributes.put("removed", "value");
+        attributes.put("unchanged", "value");
+        TestMarshalledValue cartValue = new TestMarshalledValue(100_000);
+        TestMarshalledValue addedValue = new TestMarshalledValue(10);
+        when(this.marshaller.isMarshallable(added)).thenReturn(true);
+        when(this.marshaller.write(cart)).thenReturn(cartValue);
+        when(this.marshaller.write(added)).thenReturn(addedValue);
+        when(this.map.eval(same(this.key), any(Function.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        SessionAttributes sessionAttributes = this.createSessionAttributes(attributes);
+
+        assertNull(sessionAttributes.setAttribute("added", added));
+        assertEquals("value", sessionAttributes.removeAttribute("removed"));
+        assertEquals("on", sessionAttributes.getAttribute("flag"));
+        assertEquals("value", sessionAttributes.getAttribute("unchanged"));
+        // Mutable attribute must be replicated
+        assertSame(cart, sessionAttributes.getAttribute("cart"));
+
+        verifyZeroInteractions(this.map);
+
+        sessionAttributes.close();
+
+        ArgumentCaptor<Function<ReadWriteEntryView<Object, Map<String, TestMarshalledValue>>, ?>> captor = ArgumentCaptor.forClass(Function.class);
+        verify(this.map).eval(same(this.key), captor.capture());
+        assertEquals("cart".length() + 100_000 + "added".length() + 10 + "removed".length(), this.recorded[0]);
+
+        // Apply delta to the stored form of the session attributes
+        Map<String, TestMarshalledValue> stored = new HashMap<>();
+        stored.put("cart", new TestMarshalledValue(50_000));
+        stored.put("flag", new TestMarshalledValue(1));
+        stored.put("removed", new TestMarshalledValue(1));
+        stored.put("unchanged", new TestMarshalledValue(1));
+        ReadWriteEntryView<Object, Map<String, TestMarshalledValue>> view = mock(ReadWriteEntryView.class);
+        when(view.find()).thenReturn(Optional.of(stored));
+
+        captor.getValue().apply(view);
+
+        ArgumentCaptor<Map<String, TestMarshalledValue>> result = ArgumentCaptor.forClass(Map.class);
+        verify(view).set(result.capture());
+        assertEquals(4, result.getValue().size());
+        assertSame(cartValue, result.getValue().get("cart"));
+        assertSame(addedValue, result.getValue().get("added"));
+        assertFalse(result.getValue().containsKey("removed"));
+        assertTrue(result.getValue().containsKey("flag"));
+        assertTrue(result.getValue().containsKey("unchanged"));
+
+        // Changes are only replicated once
+        sessionAttributes.close();
+        verifyNoMoreInteractions(this.map);
+    }
+
+    static class TestMarshalledValue implements MarshalledValue<Object, Object> {
+        private static final long serialVersionUID = 1L;
+        private final int size;
+
+        TestMarshalledValue(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Object get(Object context) {
+            return null;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.fine;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.distribution.DistributionInfo;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.LocalizedCacheTopology;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.clustering.ee.infinispan.CacheProperties;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
+
+/**
+ * Unit test for {@link FineSessionAttributes} using a {@link SessionAttributeNearCache}.
+ */
+public class FineSessionAttributesTestCase {
+    private final Cache<SessionAttributeNamesKey, Map<String, UUID>> namesCache = mock(Cache.class);
+    private final Cache<SessionAttributeKey, Object> attributeCache = mock(Cache.class);
+    private final AdvancedCache<SessionAttributeKey, Object> advancedCache = mock(AdvancedCache.class);
+    private final Marshaller<Object, Object> marshaller = mock(Marshaller.class);
+    private final CacheProperties properties = mock(CacheProperties.class);
+    private final SessionAttributeNearCache<Object> nearCache = new SessionAttributeNearCache<>(this.attributeCache);
+    private final String id = "session";
+    private final String name = "name";
+    private final UUID attributeId = UUID.randomUUID();
+    private final SessionAttributeKey key = new SessionAttributeKey(this.id, this.attributeId);
+    private final Object value = new Object();
+
+    @Before
+    public void init() throws Exception {
+        when(this.attributeCache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.withFlags(Flag.IGNORE_RETURN_VALUES, Flag.FAIL_SILENTLY)).thenReturn(this.advancedCache);
+        when(this.attributeCache.getCacheConfiguration()).thenReturn(new ConfigurationBuilder().build());
+        when(this.attributeCache.get(this.key)).thenReturn(this.value);
+        when(this.properties.isTransactional()).thenReturn(false);
+    }
+
+    private SessionAttributes createSessionAttributes(SessionAttributeNearCache<Object> nearCache, boolean requestCache) {
+        return new FineSessionAttributes<>(this.id, Collections.singletonMap(this.name, this.attributeId), this.namesCache, this.attributeCache, this.marshaller, this.properties, nearCache, requestCache);
+    }
+
+    @Test
+    public void requestCache() throws Exception {
+        when(this.marshaller.read(this.value)).thenReturn("attribute");
+
+        SessionAttributes attributes = this.createSessionAttributes(null, true);
+
+        assertEquals("attribute", attributes.getAttribute(this.name));
+        assertEquals("attribute", attributes.getAttribute(this.name));
+
+        verify(this.attributeCache, times(1)).get(this.key);
+        verify(this.marshaller, times(1)).read(this.value);
+
+        attributes.close();
+
+        // Subsequent request must read the attribute again
+        attributes = this.createSessionAttributes(null, true);
+
+        assertEquals("attribute", attributes.getAttribute(this.name));
+
+        verify(this.attributeCache, times(2)).get(this.key);
+        verify(this.marshaller, times(2)).read(this.value);
+    }
+
+    @Test
+    public void nearCache() throws Exception {
+        when(this.marshaller.read(this.value)).thenReturn("attribute");
+
+        for (int i = 0; i < 3; ++i) {
+            SessionAttributes attributes = this.createSessionAttributes(this.nearCache, true);
+            assertEquals("attribute", attributes.getAttribute(this.name));
+            attributes.close();
+        }
+
+        verify(this.attributeCache, times(1)).get(this.key);
+        verify(this.marshaller, times(1)).read(this.value);
+        assertEquals(1, this.nearCache.size());
+    }
+
+    @Test
+    public void remoteWrite() throws Exception {
+        Object newValue = new Object();
+        when(this.marshaller.read(this.value)).thenReturn("attribute");
+        when(this.marshaller.read(newValue)).thenReturn("new-attribute");
+
+        assertEquals("attribute", this.createSessionAttributes(this.nearCache, true).getAttribute(this.name));
+
+        this.nearCache.modified(createEvent(this.key, newValue, false, true));
+        when(this.attributeCache.get(this.key)).thenReturn(newValue);
+
+        assertEquals(0, this.nearCache.size());
+        assertEquals("new-attribute", this.createSessionAttributes(this.nearCache, true).getAttribute(this.name));
+        assertEquals("new-attribute", this.createSessionAttributes(this.nearCache, true).getAttribute(this.name));
+
+        verify(this.marshaller, times(1)).read(newValue);
+    }
+
+    @Test
+    public void localWrite() throws Exception {
+        Object mutable = new StringBuilder("attribute");
+        when(this.marshaller.read(this.value)).thenReturn(mutable);
+
+        SessionAttributes attributes = this.createSessionAttributes(this.nearCache, true);
+        assertSame(mutable, attributes.getAttribute(this.name));
+        // Mutable attributes are replicated on close for non-transactional caches
+        attributes.close();
+        verify(this.advancedCache).put(this.key, this.value);
+
+        // Replication of the cached value itself must not invalidate the near cache
+        this.nearCache.modified(createEvent(this.key, this.value, true, false));
+        assertEquals(1, this.nearCache.size());
+
+        attributes = this.createSessionAttributes(this.nearCache, true);
+        assertSame(mutable, attributes.getAttribute(this.name));
+        attributes.close();
+        verify(this.advancedCache, times(2)).put(this.key, this.value);
+        verify(this.attributeCache, times(1)).get(this.key);
+
+        // Any other local write invalidates the cached value
+        this.nearCache.modified(createEvent(this.key, new Object(), true, false));
+        assertEquals(0, this.nearCache.size());
+    }
+
+    @Test
+    public void remove() throws Exception {
+        when(this.marshaller.read(this.value)).thenReturn("attribute");
+
+        assertEquals("attribute", this.createSessionAttributes(this.nearCache, true).getAttribute(this.name));
+        assertEquals(1, this.nearCache.size());
+
+        this.nearCache.removed(createEvent(this.key, null, true, false));
+
+        assertEquals(0, this.nearCache.size());
+    }
+
+    @Test
+    public void nonOwner() throws Exception {
+        DistributionManager dist = mock(DistributionManager.class);
+        LocalizedCacheTopology topology = mock(LocalizedCacheTopology.class);
+        DistributionInfo info = mock(DistributionInfo.class);
+        when(this.advancedCache.getDistributionManager()).thenReturn(dist);
+        when(dist.getCacheTopology()).thenReturn(topology);
+        when(topology.getDistribution(this.key)).thenReturn(info);
+        when(info.isWriteOwner()).thenReturn(false);
+        when(this.marshaller.read(this.value)).thenReturn("attribute");
+
+        assertEquals("attribute", this.createSessionAttributes(this.nearCache, true).getAttribute(this.name));
+        assertEquals("attribute", this.createSessionAttributes(this.nearCache, true).getAttribute(this.name));
+
+        // Non-owners are not notified of remote writes, so must not cache
+        assertEquals(0, this.nearCache.size());
+        verify(this.attributeCache, times(2)).get(this.key);
+    }
+
+    @Test
+    public void invalidatedReservation() throws Exception {
+        when(this.attributeCache.get(this.key)).thenAnswer(invocation -> {
+            // Simulate a concurrent remote write, between reservation and read
+            this.nearCache.modified(createEvent(this.key, new Object(), false, true));
+            return this.value;
+        });
+        when(this.marshaller.read(this.value)).thenReturn("attribute");
+
+        assertEquals("attribute", this.createSessionAttributes(this.nearCache, true).getAttribute(this.name));
+
+        // Stale value must not be cached
+        assertEquals(0, this.nearCache.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CacheEntryEvent<SessionAttributeKey, Object> createEvent(SessionAttributeKey key, Object value, boolean local, boolean pre) {
+        CacheEntryEvent<SessionAttributeKey, Object> event = mock(CacheEntryEvent.class);
+        when(event.getKey()).thenReturn(key);
+        when(event.getValue()).thenReturn(value);
+        when(event.isOriginLocal()).thenReturn(local);
+        when(event.isPre()).thenReturn(pre);
+        return event;
+    }
+}
@@ -27,6 +27,7 @@ import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ee.BatchContext;
 import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.Recordable;
+import org.wildfly.clustering.marshalling.spi.MarshalledValueStatistics;
 import org.wildfly.clustering.web.IdentifierFactory;
 import org.wildfly.clustering.web.session.ImmutableSession;
 import org.wildfly.clustering.web.session.SessionExpirationListener;
@@ -50,11 +51,13 @@ public class DistributableSessionManagerFactory implements io.undertow.servlet.a
 
     private final SessionManagerFactory<LocalSessionContext, Batch> factory;
     private final DistributableSessionManagerConfiguration config;
+    private final MarshalledValueStatistics marshalledValueStatistics;
     private final SessionListeners listeners = new SessionListeners();
 
-    public DistributableSessionManagerFactory(SessionManagerFactory<LocalSessionContext, Batch> factory, DistributableSessionManagerConfiguration config) {
+    public DistributableSessionManagerFactory(SessionManagerFactory<LocalSessionContext, Batch> factory, DistributableSessionManagerConfiguration config, MarshalledValueStatistics marshalledValueStatistics) {
         this.factory = factory;
         this.config = config;
+        this.marshalledValueStatistics = marshalledValueStatistics;
     }
 
     @Override
@@ -101,7 +104,7 @@ public class DistributableSessionManagerFactory implements io.undertow.servlet.a
                 };
             }
         });
-        RecordableSessionManagerStatistics statistics = (inactiveSessionStatistics != null) ? new DistributableSessionManagerStatistics(manager, inactiveSessionStatistics, this.config.getMaxActiveSessions()) : null;
+        RecordableSessionManagerStatistics statistics = (inactiveSessionStatistics != null) ? new DistributableSessionManagerStatistics(manager, this.marshalledValueStatistics, inactiveSessionStatistics, this.config.getMaxActiveSessions()) : null;
         return new DistributableSessionManager(info.getDeploymentName(), manager, this.listeners, statistics);
     }
 }
@@ -42,6 +42,7 @@ import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
 import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.marshalling.jboss.ExternalizerObjectTable;
+import org.wildfly.clustering.marshalling.jboss.MarshalledValueCompression;
 import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
 import org.wildfly.clustering.marshalling.jboss.SimpleClassTable;
 import org.wildfly.clustering.marshalling.jboss.SimpleMarshalledValueFactory;
@@ -95,6 +96,7 @@ public class DistributableSessionManagerFactoryServiceConfigurator extends Simpl
     }
 
     private final DistributableSessionManagerConfiguration config;
+    private final MarshalledValueFactory<MarshallingContext> marshalledValueFactory;
     private final CapabilityServiceConfigurator configurator;
 
     public DistributableSessionManagerFactoryServiceConfigurator(ServiceName name, DistributableSessionManagerConfiguration config, SessionManagerFactoryServiceConfiguratorProvider provider) {
@@ -103,7 +105,9 @@ public class DistributableSessionManagerFactoryServiceConfigurator extends Simpl
 
         Module module = config.getModule();
         MarshallingContext context = new SimpleMarshallingContextFactory().createMarshallingContext(new SimpleMarshallingConfigurationRepository(MarshallingVersion.class, MarshallingVersion.CURRENT, module), module.getClassLoader());
-        MarshalledValueFactory<MarshallingContext> factory = new SimpleMarshalledValueFactory(context);
+        String compression = config.getCompression();
+        MarshalledValueFactory<MarshallingContext> factory = new SimpleMarshalledValueFactory(context, (compression != null) ? MarshalledValueCompression.parse(compression) : null, config.getCompressionThreshold());
+        this.marshalledValueFactory = factory;
         LocalContextFactory<LocalSessionContext> localContextFactory = new LocalSessionContextFactory();
         SessionManagerFactoryConfiguration<MarshallingContext, LocalSessionContext> configuration = new SessionManagerFactoryConfiguration<MarshallingContext, LocalSessionContext>() {
             @Override
@@ -151,7 +155,7 @@ public class DistributableSessionManagerFactoryServiceConfigurator extends Simpl
 
     @Override
     public SessionManagerFactory apply(org.wildfly.clustering.web.session.SessionManagerFactory<LocalSessionContext, Batch> factory) {
-        return new DistributableSessionManagerFactory(factory, this.config);
+        return new DistributableSessionManagerFactory(factory, this.config, this.marshalledValueFactory);
     }
 
     @Override
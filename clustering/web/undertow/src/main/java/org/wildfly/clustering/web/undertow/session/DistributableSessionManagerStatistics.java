@@ -24,8 +24,9 @@ package org.wildfly.clustering.web.undertow.session;
 
 import java.util.concurrent.atomic.AtomicLong;
 
-import org.wildfly.clustering.web.session.ActiveSessionStatistics;
+import org.wildfly.clustering.marshalling.spi.MarshalledValueStatistics;
 import org.wildfly.clustering.web.session.InactiveSessionStatistics;
+import org.wildfly.clustering.web.session.SessionManager;
 
 import io.undertow.server.session.Session;
 
@@ -35,13 +36,15 @@ import io.undertow.server.session.Session;
 public class DistributableSessionManagerStatistics implements RecordableSessionManagerStatistics {
 
     private final InactiveSessionStatistics inactiveSessionStatistics;
-    private final ActiveSessionStatistics activeSessionStatistics;
+    private final SessionManager<?, ?> manager;
+    private final MarshalledValueStatistics marshalledValueStatistics;
     private final int maxActiveSessions;
     private volatile long startTime = System.currentTimeMillis();
     private final AtomicLong createdSessionCount = new AtomicLong();
 
-    public DistributableSessionManagerStatistics(ActiveSessionStatistics activeSessionStatistics, InactiveSessionStatistics inactiveSessionStatistics, int maxActiveSessions) {
-        this.activeSessionStatistics = activeSessionStatistics;
+    public DistributableSessionManagerStatistics(SessionManager<?, ?> manager, MarshalledValueStatistics marshalledValueStatistics, InactiveSessionStatistics inactiveSessionStatistics, int maxActiveSessions) {
+        this.manager = manager;
+        this.marshalledValueStatistics = marshalledValueStatistics;
         this.inactiveSessionStatistics = inactiveSessionStatistics;
         this.maxActiveSessions = maxActiveSessions;
         this.reset();
@@ -70,7 +73,47 @@ public class DistributableSessionManagerStatistics implements RecordableSessionM
 
     @Override
     public long getActiveSessionCount() {
-        return this.activeSessionStatistics.getActiveSessionCount();
+        return this.manager.getActiveSessionCount();
+    }
+
+    @Override
+    public long getReplicationCount() {
+        return this.manager.getReplicationCount();
+    }
+
+    @Override
+    public long getReplicatedBytes() {
+        return this.manager.getReplicatedBytes();
+    }
+
+    @Override
+    public long getMeanReplicatedBytes() {
+        return this.manager.getMeanReplicatedBytes();
+    }
+
+    @Override
+    public long getMarshalledCount() {
+        return this.marshalledValueStatistics.getMarshalledCount();
+    }
+
+    @Override
+    public long getMarshalledBytes() {
+        return this.marshalledValueStatistics.getMarshalledBytes();
+    }
+
+    @Override
+    public long getStoredBytes() {
+        return this.marshalledValueStatistics.getStoredBytes();
+    }
+
+    @Override
+    public long[] getMarshalledSizeHistogram() {
+        return this.marshalledValueStatistics.getMarshalledSizeHistogram();
+    }
+
+    @Override
+    public long[] getStoredSizeHistogram() {
+        return this.marshalledValueStatistics.getStoredSizeHistogram();
     }
 
     @Override
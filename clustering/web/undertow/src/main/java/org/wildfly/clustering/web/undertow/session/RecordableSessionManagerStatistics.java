@@ -22,6 +22,8 @@
 package org.wildfly.clustering.web.undertow.session;
 
 import org.wildfly.clustering.ee.Recordable;
+import org.wildfly.extension.undertow.session.SessionMarshallingStatistics;
+import org.wildfly.extension.undertow.session.SessionReplicationStatistics;
 
 import io.undertow.server.session.Session;
 import io.undertow.server.session.SessionManagerStatistics;
@@ -29,5 +31,5 @@ import io.undertow.server.session.SessionManagerStatistics;
 /**
  * @author Paul Ferraro
  */
-public interface RecordableSessionManagerStatistics extends SessionManagerStatistics, Recordable<Session> {
+public interface RecordableSessionManagerStatistics extends SessionManagerStatistics, SessionReplicationStatistics, SessionMarshallingStatistics, Recordable<Session> {
 }
@@ -25,6 +25,7 @@ package org.jboss.as.connector.services.workmanager;
 import static org.jboss.as.connector.logging.ConnectorLogger.ROOT_LOGGER;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.jboss.as.connector.security.ElytronSecurityIntegration;
 import org.jboss.as.connector.services.workmanager.transport.CommandDispatcherTransport;
@@ -61,6 +62,8 @@ public final class DistributedWorkManagerService implements Service<NamedDistrib
 
     private final InjectedValue<CommandDispatcherFactory> dispatcherFactory = new InjectedValue<>();
 
+    private final InjectedValue<ScheduledExecutorService> scheduledExecutor = new InjectedValue<>();
+
     /**
      * create an instance
      *
@@ -81,7 +84,7 @@ public final class DistributedWorkManagerService implements Service<NamedDistrib
     public void start(StartContext context) throws StartException {
         ROOT_LOGGER.debugf("Starting JCA DistributedWorkManager: ", value.getName());
 
-        CommandDispatcherTransport transport = new CommandDispatcherTransport(this.dispatcherFactory.getValue(), this.value.getName());
+        CommandDispatcherTransport transport = new CommandDispatcherTransport(this.dispatcherFactory.getValue(), this.value.getName(), this.scheduledExecutor.getValue());
 
         this.value.setTransport(transport);
 
@@ -153,4 +156,8 @@ public final class DistributedWorkManagerService implements Service<NamedDistrib
     public Injector<CommandDispatcherFactory> getCommandDispatcherFactoryInjector() {
         return this.dispatcherFactory;
     }
+
+    public Injector<ScheduledExecutorService> getScheduledExecutorInjector() {
+        return this.scheduledExecutor;
+    }
 }
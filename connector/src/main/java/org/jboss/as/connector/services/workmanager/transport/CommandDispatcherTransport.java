@@ -29,8 +29,15 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import javax.resource.spi.work.DistributableWork;
 import javax.resource.spi.work.WorkException;
@@ -52,25 +59,45 @@ import org.wildfly.clustering.service.concurrent.ServiceExecutor;
 import org.wildfly.clustering.service.concurrent.StampedLockServiceExecutor;
 import org.wildfly.common.function.ExceptionRunnable;
 import org.wildfly.common.function.ExceptionSupplier;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * {@link DistributedWorkManager}-specific transport based on a {@link CommandDispatcher}.
- * The current implementation is a direct translation of {@link org.jboss.jca.core.workmanager.transport.remote.jgroups.JGroupsTransport}.
+ * The current implementation is a direct translation of {@link org.jboss.jca.core.workmanager.transport.remote.jgroups.JGroupsTransport},
+ * except that statistics deltas and free thread updates may be coalesced per member and sent asynchronously at a fixed interval.
  * @author Paul Ferraro
  */
 public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> implements GroupListener {
 
+    /**
+     * Interval, in milliseconds, at which coalesced statistics are sent to other members.
+     * A value of 0, the default, sends every statistics update synchronously.
+     * N.B. Coalesced statistics cannot be read by members that predate this transport, so this must only be enabled once every member of the cluster supports it.
+     */
+    public static final String STATISTICS_FLUSH_INTERVAL = "jboss.jca.distributed-workmanager.statistics-flush-interval";
+    private static final long DEFAULT_STATISTICS_FLUSH_INTERVAL = 0L;
+
     private final ServiceExecutor executor = new StampedLockServiceExecutor();
+    private final ConcurrentMap<Node, StatisticsBatch> batches = new ConcurrentHashMap<>();
     private final CommandDispatcherFactory dispatcherFactory;
     private final String name;
+    private final ScheduledExecutorService scheduler;
+    private final long flushInterval;
 
     private volatile CommandDispatcher<CommandDispatcherTransport> dispatcher;
     private volatile Registration groupListenerRegistration;
     private volatile boolean initialized = false;
+    private volatile ScheduledFuture<?> flushFuture;
+
+    public CommandDispatcherTransport(CommandDispatcherFactory dispatcherFactory, String name, ScheduledExecutorService scheduler) {
+        this(dispatcherFactory, name, scheduler, Long.parseLong(WildFlySecurityManager.getPropertyPrivileged(STATISTICS_FLUSH_INTERVAL, Long.toString(DEFAULT_STATISTICS_FLUSH_INTERVAL))));
+    }
 
-    public CommandDispatcherTransport(CommandDispatcherFactory dispatcherFactory, String name) {
+    CommandDispatcherTransport(CommandDispatcherFactory dispatcherFactory, String name, ScheduledExecutorService scheduler, long flushInterval) {
         this.dispatcherFactory = dispatcherFactory;
         this.name = name;
+        this.scheduler = scheduler;
+        this.flushInterval = flushInterval;
     }
 
     @Override
@@ -83,10 +110,19 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
         this.dispatcher = this.dispatcherFactory.createCommandDispatcher(this.name, this);
         this.groupListenerRegistration = this.dispatcherFactory.getGroup().register(this);
         this.broadcast(new JoinCommand());
+        if (this.flushInterval > 0) {
+            this.flushFuture = this.scheduler.scheduleWithFixedDelay(this::flush, this.flushInterval, this.flushInterval, TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
     public void shutdown() {
+        ScheduledFuture<?> future = this.flushFuture;
+        if (future != null) {
+            future.cancel(false);
+            // Send whatever has accumulated since the last flush
+            this.flush();
+        }
         this.executor.close(() -> {
             try {
                 this.broadcast(new LeaveCommand(this.getOwnAddress()));
@@ -116,6 +152,23 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
 
     @Override
     protected Serializable sendMessage(Node physicalAddress, Request request, Serializable... parameters) throws WorkException {
+        if (this.flushInterval > 0) {
+            if (StatisticsBatch.accepts(request)) {
+                this.batches.computeIfAbsent(physicalAddress, key -> new StatisticsBatch()).add(request, parameters);
+                return null;
+            }
+            if (request == Request.CLEAR_DISTRIBUTED_STATISTICS) {
+                // Deltas accumulated before the clear must be applied before it
+                CompletionStage<?> response = this.flush(physicalAddress);
+                if (response != null) {
+                    try {
+                        response.toCompletableFuture().join();
+                    } catch (CancellationException | CompletionException e) {
+                        // Already logged by flush
+                    }
+                }
+            }
+        }
         Command<?, CommandDispatcherTransport> command = createCommand(request, parameters);
         CommandDispatcher<CommandDispatcherTransport> dispatcher = this.dispatcher;
         ExceptionSupplier<Optional<Serializable>, WorkException> task = new ExceptionSupplier<Optional<Serializable>, WorkException>() {
@@ -134,6 +187,44 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
         return this.executor.execute(task).orElse(null).orElse(null);
     }
 
+    private void flush() {
+        Set<Node> members = new HashSet<>(this.dispatcherFactory.getGroup().getMembership().getMembers());
+        for (Map.Entry<Node, StatisticsBatch> entry : this.batches.entrySet()) {
+            Node member = entry.getKey();
+            if (members.contains(member)) {
+                this.flush(member);
+            } else {
+                // e.g. a batch created for a member after it left
+                this.batches.remove(member, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Sends the statistics accumulated for the specified member.
+     * @param member a group member
+     * @return the response of the member, or null, if there was nothing to send
+     */
+    private CompletionStage<?> flush(Node member) {
+        StatisticsBatch batch = this.batches.get(member);
+        DeltaStatisticsCommand command = (batch != null) ? batch.drain() : null;
+        if (command == null) return null;
+        CommandDispatcher<CommandDispatcherTransport> dispatcher = this.dispatcher;
+        Supplier<CompletionStage<?>> task = () -> {
+            try {
+                return dispatcher.executeOnMember(command, member).whenComplete((result, exception) -> {
+                    if ((exception != null) && !(exception instanceof CancellationException)) {
+                        ConnectorLogger.ROOT_LOGGER.warn(exception.getLocalizedMessage(), exception);
+                    }
+                });
+            } catch (CommandDispatcherException e) {
+                ConnectorLogger.ROOT_LOGGER.warn(e.getLocalizedMessage(), e);
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        return this.executor.execute(task).orElse(null);
+    }
+
     private void broadcast(Command<Void, CommandDispatcherTransport> command) throws WorkException {
         CommandDispatcher<CommandDispatcherTransport> dispatcher = this.dispatcher;
         ExceptionRunnable<WorkException> task = new ExceptionRunnable<WorkException>() {
@@ -234,6 +325,7 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
             leavers.removeAll(membership.getMembers());
             // Handle abrupt leavers
             for (Node leaver : leavers) {
+                this.batches.remove(leaver);
                 this.leave(leaver);
             }
 
@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.services.workmanager.transport;
+
+import java.util.function.BiConsumer;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+
+/**
+ * Enumerates the distributed statistics deltas that can be coalesced into a {@link DeltaStatisticsCommand}.
+ */
+enum DeltaStatistic {
+    DOWORK_ACCEPTED(Request.DELTA_DOWORK_ACCEPTED, CommandDispatcherTransport::localDeltaDoWorkAccepted),
+    DOWORK_REJECTED(Request.DELTA_DOWORK_REJECTED, CommandDispatcherTransport::localDeltaDoWorkRejected),
+    SCHEDULEWORK_ACCEPTED(Request.DELTA_SCHEDULEWORK_ACCEPTED, CommandDispatcherTransport::localDeltaScheduleWorkAccepted),
+    SCHEDULEWORK_REJECTED(Request.DELTA_SCHEDULEWORK_REJECTED, CommandDispatcherTransport::localDeltaScheduleWorkRejected),
+    STARTWORK_ACCEPTED(Request.DELTA_STARTWORK_ACCEPTED, CommandDispatcherTransport::localDeltaStartWorkAccepted),
+    STARTWORK_REJECTED(Request.DELTA_STARTWORK_REJECTED, CommandDispatcherTransport::localDeltaStartWorkRejected),
+    WORK_FAILED(Request.DELTA_WORK_FAILED, CommandDispatcherTransport::localDeltaWorkFailed),
+    WORK_SUCCESSFUL(Request.DELTA_WORK_SUCCESSFUL, CommandDispatcherTransport::localDeltaWorkSuccessful),
+    ;
+    private final Request request;
+    private final BiConsumer<CommandDispatcherTransport, Address> update;
+
+    DeltaStatistic(Request request, BiConsumer<CommandDispatcherTransport, Address> update) {
+        this.request = request;
+        this.update = update;
+    }
+
+    /**
+     * Applies this delta to the local statistics of the specified work manager.
+     * @param transport the local transport
+     * @param address the address of a work manager
+     */
+    void apply(CommandDispatcherTransport transport, Address address) {
+        this.update.accept(transport, address);
+    }
+
+    /**
+     * Returns the delta statistic corresponding to the specified request.
+     * @param request a transport request
+     * @return a delta statistic, or null if the request is not a statistics delta
+     */
+    static DeltaStatistic forRequest(Request request) {
+        for (DeltaStatistic statistic : values()) {
+            if (statistic.request == request) return statistic;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.services.workmanager.transport;
+
+import java.util.Map;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.wildfly.clustering.dispatcher.Command;
+
+/**
+ * Applies a batch of coalesced statistics deltas and free thread updates, as accumulated by a {@link StatisticsBatch}.
+ */
+public class DeltaStatisticsCommand implements Command<Void, CommandDispatcherTransport> {
+    private static final long serialVersionUID = 2618254781425367127L;
+
+    // Counts per work manager, indexed by DeltaStatistic ordinal
+    private final Map<Address, long[]> deltas;
+    private final Map<Address, Long> shortRunningFree;
+    private final Map<Address, Long> longRunningFree;
+
+    DeltaStatisticsCommand(Map<Address, long[]> deltas, Map<Address, Long> shortRunningFree, Map<Address, Long> longRunningFree) {
+        this.deltas = deltas;
+        this.shortRunningFree = shortRunningFree;
+        this.longRunningFree = longRunningFree;
+    }
+
+    Map<Address, long[]> getDeltas() {
+        return this.deltas;
+    }
+
+    Map<Address, Long> getShortRunningFree() {
+        return this.shortRunningFree;
+    }
+
+    Map<Address, Long> getLongRunningFree() {
+        return this.longRunningFree;
+    }
+
+    @Override
+    public Void execute(CommandDispatcherTransport transport) {
+        DeltaStatistic[] statistics = DeltaStatistic.values();
+        for (Map.Entry<Address, long[]> entry : this.deltas.entrySet()) {
+            Address address = entry.getKey();
+            long[] counts = entry.getValue();
+            for (int i = 0; i < counts.length; ++i) {
+                for (long j = 0; j < counts[i]; ++j) {
+                    statistics[i].apply(transport, address);
+                }
+            }
+        }
+        for (Map.Entry<Address, Long> entry : this.shortRunningFree.entrySet()) {
+            transport.localUpdateShortRunningFree(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<Address, Long> entry : this.longRunningFree.entrySet()) {
+            transport.localUpdateLongRunningFree(entry.getKey(), entry.getValue());
+        }
+        return null;
+    }
+}
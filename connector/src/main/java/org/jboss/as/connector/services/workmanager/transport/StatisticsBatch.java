@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.services.workmanager.transport;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+
+/**
+ * Accumulates the statistics deltas and free thread updates destined for a single member, until drained into a
+ * {@link DeltaStatisticsCommand}. Deltas are summed, while free thread updates retain only the latest value.
+ */
+class StatisticsBatch {
+
+    private Map<Address, long[]> deltas = new HashMap<>();
+    private Map<Address, Long> shortRunningFree = new HashMap<>();
+    private Map<Address, Long> longRunningFree = new HashMap<>();
+
+    /**
+     * Indicates whether the specified request can be coalesced into a batch.
+     * @param request a transport request
+     * @return true, if the request can be batched, false otherwise
+     */
+    static boolean accepts(Request request) {
+        switch (request) {
+            case UPDATE_SHORTRUNNING_FREE:
+            case UPDATE_LONGRUNNING_FREE: {
+                return true;
+            }
+            default: {
+                return DeltaStatistic.forRequest(request) != null;
+            }
+        }
+    }
+
+    /**
+     * Adds the specified request to this batch.
+     * @param request a request for which {@link #accepts(Request)} returned true
+     * @param parameters the request parameters
+     */
+    synchronized void add(Request request, Serializable... parameters) {
+        Address address = (Address) parameters[0];
+        switch (request) {
+            case UPDATE_SHORTRUNNING_FREE: {
+                this.shortRunningFree.put(address, (Long) parameters[1]);
+                break;
+            }
+            case UPDATE_LONGRUNNING_FREE: {
+                this.longRunningFree.put(address, (Long) parameters[1]);
+                break;
+            }
+            default: {
+                DeltaStatistic statistic = DeltaStatistic.forRequest(request);
+                if (statistic == null) {
+                    throw new IllegalStateException(request.name());
+                }
+                this.deltas.computeIfAbsent(address, key -> new long[DeltaStatistic.values().length])[statistic.ordinal()] += 1;
+            }
+        }
+    }
+
+    /**
+     * Removes the accumulated content of this batch.
+     * @return a command applying the accumulated content, or null if this batch is empty
+     */
+    synchronized DeltaStatisticsCommand drain() {
+        if (this.deltas.isEmpty() && this.shortRunningFree.isEmpty() && this.longRunningFree.isEmpty()) return null;
+        DeltaStatisticsCommand command = new DeltaStatisticsCommand(this.deltas, this.shortRunningFree, this.longRunningFree);
+        this.deltas = new HashMap<>();
+        this.shortRunningFree = new HashMap<>();
+        this.longRunningFree = new HashMap<>();
+        return command;
+    }
+}
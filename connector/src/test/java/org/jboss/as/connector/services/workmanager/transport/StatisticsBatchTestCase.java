@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.services.workmanager.transport;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+import org.junit.Test;
+
+public class StatisticsBatchTestCase {
+
+    private final Address address = new Address("id", "name", "transport");
+
+    @Test
+    public void accepts() {
+        assertTrue(StatisticsBatch.accepts(Request.DELTA_DOWORK_ACCEPTED));
+        assertTrue(StatisticsBatch.accepts(Request.DELTA_WORK_FAILED));
+        assertTrue(StatisticsBatch.accepts(Request.UPDATE_SHORTRUNNING_FREE));
+        assertTrue(StatisticsBatch.accepts(Request.UPDATE_LONGRUNNING_FREE));
+        assertFalse(StatisticsBatch.accepts(Request.CLEAR_DISTRIBUTED_STATISTICS));
+        assertFalse(StatisticsBatch.accepts(Request.DO_WORK));
+        assertFalse(StatisticsBatch.accepts(Request.GET_SHORTRUNNING_FREE));
+    }
+
+    @Test
+    public void coalesce() {
+        StatisticsBatch batch = new StatisticsBatch();
+        assertNull(batch.drain());
+
+        batch.add(Request.DELTA_DOWORK_ACCEPTED, this.address);
+        batch.add(Request.DELTA_DOWORK_ACCEPTED, this.address);
+        batch.add(Request.DELTA_WORK_SUCCESSFUL, this.address);
+        batch.add(Request.UPDATE_SHORTRUNNING_FREE, this.address, 10L);
+        batch.add(Request.UPDATE_SHORTRUNNING_FREE, this.address, 8L);
+        batch.add(Request.UPDATE_LONGRUNNING_FREE, this.address, 4L);
+
+        DeltaStatisticsCommand command = batch.drain();
+        long[] expected = new long[DeltaStatistic.values().length];
+        expected[DeltaStatistic.DOWORK_ACCEPTED.ordinal()] = 2;
+        expected[DeltaStatistic.WORK_SUCCESSFUL.ordinal()] = 1;
+        assertEquals(1, command.getDeltas().size());
+        assertArrayEquals(expected, command.getDeltas().get(this.address));
+        // Only the latest free thread count is retained
+        assertEquals(Long.valueOf(8L), command.getShortRunningFree().get(this.address));
+        assertEquals(Long.valueOf(4L), command.getLongRunningFree().get(this.address));
+
+        // Draining empties the batch
+        assertNull(batch.drain());
+    }
+}
@@ -22,7 +22,9 @@
 package org.jboss.as.ejb3.cache;
 
 import org.wildfly.clustering.ejb.AffinitySupport;
+import org.wildfly.clustering.ejb.BeanExpirationStatistics;
 import org.wildfly.clustering.ejb.IdentifierFactory;
+import org.wildfly.clustering.marshalling.spi.MarshalledValueStatistics;
 
 /**
  * Cache a stateful object and make sure any life cycle callbacks are
@@ -30,7 +32,7 @@ import org.wildfly.clustering.ejb.IdentifierFactory;
  *
  * @author <a href="mailto:carlo.dewolf@jboss.com">Carlo de Wolf</a>
  */
-public interface Cache<K, V extends Identifiable<K>> extends AffinitySupport<K>, IdentifierFactory<K> {
+public interface Cache<K, V extends Identifiable<K>> extends AffinitySupport<K>, IdentifierFactory<K>, BeanExpirationStatistics, MarshalledValueStatistics {
     ThreadLocal<Object> CURRENT_GROUP = new ThreadLocal<>();
 
     /**
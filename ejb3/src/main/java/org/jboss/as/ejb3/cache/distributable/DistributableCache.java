@@ -21,6 +21,8 @@
  */
 package org.jboss.as.ejb3.cache.distributable;
 
+import java.time.Duration;
+
 import javax.transaction.TransactionSynchronizationRegistry;
 
 import org.jboss.as.ejb3.cache.Cache;
@@ -34,6 +36,7 @@ import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ejb.Bean;
 import org.wildfly.clustering.ejb.BeanManager;
 import org.wildfly.clustering.ejb.RemoveListener;
+import org.wildfly.clustering.marshalling.spi.MarshalledValueStatistics;
 
 /**
  * Distributable {@link Cache} implementation.
@@ -48,6 +51,8 @@ import org.wildfly.clustering.ejb.RemoveListener;
  * @param <V> the cache value type
  */
 public class DistributableCache<K, V extends Identifiable<K> & Contextual<Batch>> implements Cache<K, V> {
+    private static final MarshalledValueStatistics NO_MARSHALLED_VALUE_STATISTICS = new MarshalledValueStatistics() {};
+
     private final BeanManager<K, V, Batch> manager;
     private final StatefulObjectFactory<V> factory;
     private final TransactionSynchronizationRegistry tsr;
@@ -219,6 +224,55 @@ public class DistributableCache<K, V extends Identifiable<K> & Contextual<Batch>
         return this.manager.getActiveCount() + this.manager.getPassiveCount();
     }
 
+    @Override
+    public long getExpiredCount() {
+        return this.manager.getExpiredCount();
+    }
+
+    @Override
+    public long getExpirationBatchCount() {
+        return this.manager.getExpirationBatchCount();
+    }
+
+    @Override
+    public long getMaxExpirationBatchSize() {
+        return this.manager.getMaxExpirationBatchSize();
+    }
+
+    @Override
+    public Duration getAverageExpirationLag() {
+        return this.manager.getAverageExpirationLag();
+    }
+
+    @Override
+    public long getMarshalledCount() {
+        return this.getMarshalledValueStatistics().getMarshalledCount();
+    }
+
+    @Override
+    public long getMarshalledBytes() {
+        return this.getMarshalledValueStatistics().getMarshalledBytes();
+    }
+
+    @Override
+    public long getStoredBytes() {
+        return this.getMarshalledValueStatistics().getStoredBytes();
+    }
+
+    @Override
+    public long[] getMarshalledSizeHistogram() {
+        return this.getMarshalledValueStatistics().getMarshalledSizeHistogram();
+    }
+
+    @Override
+    public long[] getStoredSizeHistogram() {
+        return this.getMarshalledValueStatistics().getStoredSizeHistogram();
+    }
+
+    private MarshalledValueStatistics getMarshalledValueStatistics() {
+        return (this.manager instanceof MarshalledValueStatistics) ? (MarshalledValueStatistics) this.manager : NO_MARSHALLED_VALUE_STATISTICS;
+    }
+
     @Override
     public boolean isRemotable(Throwable throwable) {
         return this.manager.isRemotable(throwable);
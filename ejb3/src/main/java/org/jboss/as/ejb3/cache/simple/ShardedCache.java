@@ -0,0 +1,456 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.simple;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.as.ejb3.cache.Cache;
+import org.jboss.as.ejb3.cache.Identifiable;
+import org.jboss.as.ejb3.cache.StatefulObjectFactory;
+import org.jboss.as.ejb3.component.stateful.StatefulTimeoutInfo;
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.ejb.client.Affinity;
+import org.jboss.ejb.client.NodeAffinity;
+import org.wildfly.clustering.ejb.IdentifierFactory;
+
+/**
+ * {@link Cache} implementation using in-memory storage and eager expiration, whose entries are sharded by key hash.
+ * Each shard owns its entries and its expiration queue, and schedules at most one task at a time on the shared executor, which removes expired entries in batches.
+ * Unlike {@link SimpleCache}, expiration does not schedule a task per released bean, so frequent creation and release of beans
+ * does not contend on the executor.
+ *
+ * @param <K> the cache key type
+ * @param <V> the cache value type
+ */
+public class ShardedCache<K, V extends Identifiable<K>> implements Cache<K, V> {
+
+    static final int MAX_BATCH_SIZE = 64;
+
+    private final List<Shard> shards;
+    private final int mask;
+    private final StatefulObjectFactory<V> factory;
+    private final IdentifierFactory<K> identifierFactory;
+    private final StatefulTimeoutInfo timeout;
+    private final ServerEnvironment environment;
+    private final ScheduledExecutorService executor;
+
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder expirationLag = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0L);
+
+    public ShardedCache(StatefulObjectFactory<V> factory, IdentifierFactory<K> identifierFactory, StatefulTimeoutInfo timeout, ServerEnvironment environment, ScheduledExecutorService executor, int shards) {
+        this.factory = factory;
+        this.identifierFactory = identifierFactory;
+        this.timeout = timeout;
+        this.environment = environment;
+        this.executor = executor;
+        // Round up to a power of 2, so that a shard can be selected via a mask
+        int size = (shards > 1) ? Integer.highestOneBit(shards - 1) << 1 : 1;
+        this.mask = size - 1;
+        this.shards = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            this.shards.add(new Shard());
+        }
+    }
+
+    @Override
+    public void start() {
+        for (Shard shard : this.shards) {
+            shard.start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        for (Shard shard : this.shards) {
+            shard.stop();
+        }
+        for (Shard shard : this.shards) {
+            shard.clear();
+        }
+    }
+
+    @Override
+    public Affinity getStrictAffinity() {
+        return new NodeAffinity(this.environment.getNodeName());
+    }
+
+    @Override
+    public Affinity getWeakAffinity(K key) {
+        return Affinity.NONE;
+    }
+
+    @Override
+    public K createIdentifier() {
+        return this.identifierFactory.createIdentifier();
+    }
+
+    @Override
+    public V create() {
+        if (CURRENT_GROUP.get() != null) {
+            // An SFSB that uses a distributable cache cannot contain an SFSB that uses a simple cache
+            throw EjbLogger.ROOT_LOGGER.incompatibleCaches();
+        }
+        V bean = this.factory.createInstance();
+        K id = bean.getId();
+        this.shard(id).entries.put(id, new Entry<>(bean));
+        return bean;
+    }
+
+    @Override
+    public void discard(V value) {
+        K id = value.getId();
+        Entry<V> entry = this.shard(id).entries.remove(id);
+        if (entry != null) {
+            entry.remove();
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        Entry<V> entry = this.shard(key).entries.remove(key);
+        if (entry != null) {
+            entry.remove();
+            this.factory.destroyInstance(entry.getValue());
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        Entry<V> entry = this.shard(key).entries.get(key);
+        // If the entry was already claimed for removal, it is as good as removed
+        return ((entry != null) && entry.use()) ? entry.getValue() : null;
+    }
+
+    @Override
+    public boolean contains(K key) {
+        return this.shard(key).entries.containsKey(key);
+    }
+
+    @Override
+    public void release(V bean) {
+        K id = bean.getId();
+        Shard shard = this.shard(id);
+        Entry<V> entry = shard.entries.get(id);
+        if (entry != null) {
+            long value = (this.timeout != null) ? this.timeout.getValue() : -1L;
+            if (value > 0) {
+                Expiration<K> expiration = entry.done(id, System.nanoTime() + this.timeout.getTimeUnit().toNanos(value));
+                if (expiration != null) {
+                    shard.schedule(expiration);
+                }
+            } else if (entry.done() && (value == 0)) {
+                // The EJB specification allows a 0 timeout, which means the bean is immediately eligible for removal.
+                this.remove(id);
+            }
+        }
+    }
+
+    @Override
+    public int getCacheSize() {
+        int size = 0;
+        for (Shard shard : this.shards) {
+            size += shard.entries.size();
+        }
+        return size;
+    }
+
+    @Override
+    public int getPassivatedCount() {
+        return 0;
+    }
+
+    @Override
+    public int getTotalSize() {
+        return this.getCacheSize();
+    }
+
+    /**
+     * Returns the number of shards of this cache.
+     * @return the number of shards
+     */
+    public int getShardCount() {
+        return this.shards.size();
+    }
+
+    @Override
+    public long getExpiredCount() {
+        return this.expired.sum();
+    }
+
+    @Override
+    public long getExpirationBatchCount() {
+        return this.batches.sum();
+    }
+
+    @Override
+    public long getMaxExpirationBatchSize() {
+        return this.maxBatchSize.get();
+    }
+
+    @Override
+    public Duration getAverageExpirationLag() {
+        long count = this.expired.sum();
+        return (count > 0) ? Duration.ofNanos(this.expirationLag.sum() / count) : Duration.ZERO;
+    }
+
+    private Shard shard(K key) {
+        int hash = key.hashCode();
+        return this.shards.get((hash ^ (hash >>> 16)) & this.mask);
+    }
+
+    class Shard implements Runnable {
+        final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+        final DelayQueue<Expiration<K>> expirations = new DelayQueue<>();
+        // Guarded by this shard
+        private Future<?> future;
+        private boolean started;
+
+        synchronized void start() {
+            this.started = true;
+        }
+
+        void stop() {
+            Future<?> future;
+            synchronized (this) {
+                this.started = false;
+                future = this.future;
+                this.future = null;
+            }
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        void clear() {
+            for (Map.Entry<K, Entry<V>> entry : this.entries.entrySet()) {
+                // A removal task that is still running may have already removed this entry
+                if (this.entries.remove(entry.getKey(), entry.getValue())) {
+                    ShardedCache.this.factory.destroyInstance(entry.getValue().getValue());
+                }
+            }
+            this.expirations.clear();
+        }
+
+        void schedule(Expiration<K> expiration) {
+            this.expirations.offer(expiration);
+            synchronized (this) {
+                // Since the timeout of a cache is fixed, a pending removal task will never expire later than this expiration
+                if (this.future == null) {
+                    this.schedule(expiration.getDeadline());
+                }
+            }
+        }
+
+        // Must be called while holding this shard's monitor
+        private void schedule(long deadline) {
+            if (this.started) {
+                this.future = ShardedCache.this.executor.schedule(this, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public void run() {
+            List<Expiration<K>> batch = new ArrayList<>(MAX_BATCH_SIZE);
+            // Only expired elements are drained from a delay queue
+            while (this.expirations.drainTo(batch, MAX_BATCH_SIZE) > 0) {
+                this.remove(batch);
+                batch.clear();
+            }
+            synchronized (this) {
+                this.future = null;
+                // Expirations offered while this task was running did not schedule a task of their own
+                Expiration<K> next = this.expirations.peek();
+                if (next != null) {
+                    this.schedule(next.getDeadline());
+                }
+            }
+        }
+
+        private void remove(List<Expiration<K>> batch) {
+            long now = System.nanoTime();
+            int removed = 0;
+            for (Expiration<K> expiration : batch) {
+                K key = expiration.getKey();
+                Entry<V> entry = this.entries.get(key);
+                // Skip expirations superseded by a subsequent invocation of the bean
+                if ((entry != null) && entry.expire(expiration) && this.entries.remove(key, entry)) {
+                    try {
+                        ShardedCache.this.factory.destroyInstance(entry.getValue());
+                    } catch (RuntimeException e) {
+                        EjbLogger.ROOT_LOGGER.debugf(e, "Failed to destroy expired bean %s", key);
+                    }
+                    ShardedCache.this.expirationLag.add(now - expiration.getDeadline());
+                    removed += 1;
+                }
+            }
+            if (removed > 0) {
+                ShardedCache.this.expired.add(removed);
+                ShardedCache.this.batches.increment();
+                ShardedCache.this.maxBatchSize.accumulate(removed);
+            }
+        }
+    }
+
+    static class Expiration<K> implements Delayed {
+        private final K key;
+        private final long deadline;
+
+        Expiration(K key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+
+        K getKey() {
+            return this.key;
+        }
+
+        long getDeadline() {
+            return this.deadline;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(this.deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed delayed) {
+            return Long.compare(this.deadline - ((Expiration<?>) delayed).deadline, 0L);
+        }
+    }
+
+    /**
+     * The usage count and pending expiration of an entry, which are always updated together.
+     */
+    static class State {
+        // State of an entry claimed for removal
+        static final State REMOVED = new State(0, null);
+        static final State IDLE = new State(0, null);
+
+        final int usage;
+        final Expiration<?> expiration;
+
+        State(int usage, Expiration<?> expiration) {
+            this.usage = usage;
+            this.expiration = expiration;
+        }
+    }
+
+    static class Entry<V> {
+        private final V value;
+        private final AtomicReference<State> state = new AtomicReference<>(State.IDLE);
+
+        Entry(V value) {
+            this.value = value;
+        }
+
+        V getValue() {
+            return this.value;
+        }
+
+        /**
+         * Increments the usage count of this entry, cancelling any pending expiration.
+         * @return false, if this entry was already claimed for removal, true otherwise
+         */
+        boolean use() {
+            State current = this.state.get();
+            while (current != State.REMOVED) {
+                if (this.state.compareAndSet(current, new State(current.usage + 1, null))) {
+                    return true;
+                }
+                current = this.state.get();
+            }
+            return false;
+        }
+
+        /**
+         * Decrements the usage count of this entry.
+         * @return true, if this entry is no longer in use, false otherwise
+         */
+        boolean done() {
+            State current = this.state.get();
+            while (current != State.REMOVED) {
+                int usage = current.usage - 1;
+                if (this.state.compareAndSet(current, new State(usage, null))) {
+                    return usage == 0;
+                }
+                current = this.state.get();
+            }
+            return false;
+        }
+
+        /**
+         * Decrements the usage count of this entry, and sets its expiration within the same update if it is no longer in use.
+         * @param key the key of this entry
+         * @param deadline the expiration deadline, in nanoseconds
+         * @return the expiration of this entry, if it is no longer in use, null otherwise
+         */
+        <K> Expiration<K> done(K key, long deadline) {
+            Expiration<K> expiration = null;
+            State current = this.state.get();
+            while (current != State.REMOVED) {
+                int usage = current.usage - 1;
+                if ((usage == 0) && (expiration == null)) {
+                    expiration = new Expiration<>(key, deadline);
+                }
+                if (this.state.compareAndSet(current, new State(usage, (usage == 0) ? expiration : null))) {
+                    return (usage == 0) ? expiration : null;
+                }
+                current = this.state.get();
+            }
+            return null;
+        }
+
+        /**
+         * Claims this entry for removal via the specified expiration, if it is still pending.
+         * @param expiration an expiration of this entry
+         * @return true, if this entry was claimed, false if the expiration was superseded by a subsequent invocation
+         */
+        boolean expire(Expiration<?> expiration) {
+            State current = this.state.get();
+            return (current.expiration == expiration) && this.state.compareAndSet(current, State.REMOVED);
+        }
+
+        /**
+         * Claims this entry for removal, cancelling any pending expiration.
+         */
+        void remove() {
+            this.state.set(State.REMOVED);
+        }
+    }
+}
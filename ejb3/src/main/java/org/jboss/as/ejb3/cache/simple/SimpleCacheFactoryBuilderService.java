@@ -57,10 +57,17 @@ public class SimpleCacheFactoryBuilderService<K, V extends Identifiable<K>> exte
     });
 
     private final String name;
+    // Number of shards of a ShardedCache, or 0 to use a SimpleCache
+    private final int shards;
 
     public SimpleCacheFactoryBuilderService(String name) {
+        this(name, 0);
+    }
+
+    public SimpleCacheFactoryBuilderService(String name, int shards) {
         super(name);
         this.name = name;
+        this.shards = shards;
     }
 
     @Override
@@ -75,7 +82,7 @@ public class SimpleCacheFactoryBuilderService<K, V extends Identifiable<K>> exte
 
     @Override
     public ServiceBuilder<? extends CacheFactory<K, V>> build(ServiceTarget target, ServiceName name, BeanContext context, StatefulTimeoutInfo timeout) {
-        return SimpleCacheFactoryService.build(this.name, target, name, context, timeout);
+        return (this.shards > 0) ? ShardedCacheFactoryService.build(this.name, target, name, context, timeout, this.shards) : SimpleCacheFactoryService.build(this.name, target, name, context, timeout);
     }
 
     @Override
@@ -80,6 +80,7 @@ import org.jboss.as.ejb3.deployment.EjbDeploymentAttachmentKeys;
 import org.jboss.as.ejb3.deployment.EjbJarDescription;
 import org.jboss.as.ejb3.deployment.ModuleDeployment;
 import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.remote.EJBMethodLocatorIndex;
 import org.jboss.as.ejb3.security.ApplicationSecurityDomainConfig;
 import org.jboss.as.ejb3.security.EJBMethodSecurityAttribute;
 import org.jboss.as.ejb3.security.EJBSecurityViewConfigurator;
@@ -486,6 +487,8 @@ public abstract class EJBComponentDescription extends ComponentDescription {
                     if (Remote.class.isAssignableFrom(configuration.getViewClass())) {
                         configuration.addViewInterceptor(EjbExceptionTransformingInterceptorFactories.REMOTE_INSTANCE, InterceptorOrder.View.REMOTE_EXCEPTION_TRANSFORMER);
                     }
+                    // index the view methods for dispatching remote invocations
+                    configuration.putPrivateData(EJBMethodLocatorIndex.class, new EJBMethodLocatorIndex(configuration.getProxyFactory().getCachedMethods()));
                 }
             });
             if (view.getMethodIntf() == MethodIntf.HOME) {
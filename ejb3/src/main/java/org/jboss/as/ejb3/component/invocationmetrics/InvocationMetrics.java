@@ -22,17 +22,20 @@
 package org.jboss.as.ejb3.component.invocationmetrics;
 
 import java.lang.reflect.Method;
-import java.util.AbstractMap;
-import java.util.AbstractSet;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.Map;
-import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * Invocation statistics of a component. Totals are kept in striped accumulators, and each method has its own recorder
+ * with wait and execution time histograms, so recording an invocation neither retries nor allocates.
+ *
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class InvocationMetrics {
@@ -40,11 +43,23 @@ public class InvocationMetrics {
         final long invocations;
         final long executionTime;
         final long waitTime;
-
-        private Values(final long invocations, final long waitTime, final long executionTime) {
-            this.invocations = invocations;
-            this.executionTime = executionTime;
-            this.waitTime = waitTime;
+        private final long executionTimeP50;
+        private final long executionTimeP99;
+        private final long maxExecutionTime;
+        private final long waitTimeP50;
+        private final long waitTimeP99;
+        private final long maxWaitTime;
+
+        private Values(final MethodMetrics metrics) {
+            this.invocations = metrics.invocations.sum();
+            this.waitTime = TimeUnit.NANOSECONDS.toMillis(metrics.waitTime.sum());
+            this.executionTime = TimeUnit.NANOSECONDS.toMillis(metrics.executionTime.sum());
+            this.executionTimeP50 = metrics.executionTimes.getValueAtQuantile(0.5);
+            this.executionTimeP99 = metrics.executionTimes.getValueAtQuantile(0.99);
+            this.maxExecutionTime = metrics.executionTimes.getMax();
+            this.waitTimeP50 = metrics.waitTimes.getValueAtQuantile(0.5);
+            this.waitTimeP99 = metrics.waitTimes.getValueAtQuantile(0.99);
+            this.maxWaitTime = metrics.waitTimes.getMax();
         }
 
         public long getExecutionTime() {
@@ -58,40 +73,118 @@ public class InvocationMetrics {
         public long getWaitTime() {
             return waitTime;
         }
-    }
 
-    private final AtomicReference<Values> values = new AtomicReference<Values>(new Values(0, 0, 0));
-    private final AtomicLong concurrent = new AtomicLong(0);
-    private final AtomicLong peakConcurrent = new AtomicLong(0);
+        /**
+         * @return the median execution time in microseconds
+         */
+        public long getExecutionTimeP50() {
+            return executionTimeP50;
+        }
 
-    private final ConcurrentMap<String, AtomicReference<Values>> methods = new ConcurrentHashMap<String, AtomicReference<Values>>();
+        /**
+         * @return the 99th percentile execution time in microseconds
+         */
+        public long getExecutionTimeP99() {
+            return executionTimeP99;
+        }
 
+        /**
+         * @return the maximum execution time in microseconds
+         */
+        public long getMaxExecutionTime() {
+            return maxExecutionTime;
+        }
+
+        /**
+         * @return the median wait time in microseconds
+         */
+        public long getWaitTimeP50() {
+            return waitTimeP50;
+        }
+
+        /**
+         * @return the 99th percentile wait time in microseconds
+         */
+        public long getWaitTimeP99() {
+            return waitTimeP99;
+        }
+
+        /**
+         * @return the maximum wait time in microseconds
+         */
+        public long getMaxWaitTime() {
+            return maxWaitTime;
+        }
+    }
+
+    static class MethodMetrics {
+        final LongAdder invocations = new LongAdder();
+        final LongAdder waitTime = new LongAdder();
+        final LongAdder executionTime = new LongAdder();
+        final LatencyHistogram waitTimes = new LatencyHistogram();
+        final LatencyHistogram executionTimes = new LatencyHistogram();
+
+        void record(final long waitNanos, final long executionNanos) {
+            this.invocations.increment();
+            this.waitTime.add(waitNanos);
+            this.executionTime.add(executionNanos);
+            this.waitTimes.record(TimeUnit.NANOSECONDS.toMicros(waitNanos));
+            this.executionTimes.record(TimeUnit.NANOSECONDS.toMicros(executionNanos));
+        }
+    }
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder waitTime = new LongAdder();
+    private final LongAdder executionTime = new LongAdder();
+    private final AtomicLong concurrent = new AtomicLong(0);
+    private final LongAccumulator peakConcurrent = new LongAccumulator(Math::max, 0L);
+
+    // Recorders are shared by all methods reported under the same name, e.g. the same method exposed by several views
+    private final ConcurrentMap<Method, MethodMetrics> recorders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    /**
+     * Records a finished invocation.
+     * @param method the invoked method
+     * @param invocationWaitTime the time spent waiting for an instance, in nanoseconds
+     * @param invocationExecutionTime the time spent executing the method, in nanoseconds
+     */
     void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
         concurrent.decrementAndGet();
-        for(;;) {
-            final Values oldv = values.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (values.compareAndSet(oldv, newv))
-                break;
-        }
-        final AtomicReference<Values> methodValues = ref(methods, method.getName());
-        for (;;) {
-            final Values oldv = methodValues.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (methodValues.compareAndSet(oldv, newv))
-                break;
+        invocations.increment();
+        waitTime.add(invocationWaitTime);
+        executionTime.add(invocationExecutionTime);
+        recorder(method).record(invocationWaitTime, invocationExecutionTime);
+    }
+
+    private MethodMetrics recorder(final Method method) {
+        // Avoid computeIfAbsent(...) on the hot path, since it locks the bin even if the mapping exists
+        MethodMetrics metrics = recorders.get(method);
+        if (metrics == null) {
+            metrics = methods.computeIfAbsent(name(method), key -> new MethodMetrics());
+            final MethodMetrics existing = recorders.putIfAbsent(method, metrics);
+            if (existing != null)
+                metrics = existing;
         }
+        return metrics;
     }
 
-    private static AtomicReference<Values> ref(final ConcurrentMap<String, AtomicReference<Values>> map, final String key) {
-        AtomicReference<Values> ref = map.get(key);
-        if (ref == null) {
-            ref = new AtomicReference<Values>(new Values(0, 0, 0));
-            final AtomicReference<Values> prevRef = map.putIfAbsent(key, ref);
-            if (prevRef != null)
-                ref = prevRef;
+    /**
+     * Overloaded methods are distinguished by the fully qualified names of their parameter types, all others keep their plain name.
+     */
+    static String name(final Method method) {
+        for (final Method candidate : method.getDeclaringClass().getMethods()) {
+            if (candidate.getName().equals(method.getName()) && !candidate.equals(method)) {
+                final StringBuilder builder = new StringBuilder(method.getName()).append('(');
+                final Class<?>[] types = method.getParameterTypes();
+                for (int i = 0; i < types.length; ++i) {
+                    if (i > 0) builder.append(',');
+                    builder.append(types[i].getTypeName());
+                }
+                return builder.append(')').toString();
+            }
         }
-        return ref;
+        return method.getName();
     }
 
     public long getConcurrent() {
@@ -99,62 +192,19 @@ public class InvocationMetrics {
     }
 
     public long getExecutionTime() {
-        return values.get().executionTime;
+        return TimeUnit.NANOSECONDS.toMillis(executionTime.sum());
     }
 
     public long getInvocations() {
-        return values.get().invocations;
+        return invocations.sum();
     }
 
     public Map<String, Values> getMethods() {
-        return new AbstractMap<String, Values>() {
-            @Override
-            public Set<Entry<String, Values>> entrySet() {
-                return new AbstractSet<Entry<String, Values>>() {
-                    @Override
-                    public Iterator<Entry<String, Values>> iterator() {
-                        final Iterator<Entry<String, AtomicReference<Values>>> delegate = methods.entrySet().iterator();
-                        return new Iterator<Entry<String, Values>>() {
-                            @Override
-                            public boolean hasNext() {
-                                return delegate.hasNext();
-                            }
-
-                            @Override
-                            public Entry<String, Values> next() {
-                                final Entry<String, AtomicReference<Values>> next = delegate.next();
-                                return new Entry<String, Values>() {
-                                    @Override
-                                    public String getKey() {
-                                        return next.getKey();
-                                    }
-
-                                    @Override
-                                    public Values getValue() {
-                                        return next.getValue().get();
-                                    }
-
-                                    @Override
-                                    public Values setValue(final Values value) {
-                                        throw new UnsupportedOperationException("NYI");
-                                    }
-                                };
-                            }
-
-                            @Override
-                            public void remove() {
-                                throw new UnsupportedOperationException("NYI");
-                            }
-                        };
-                    }
-
-                    @Override
-                    public int size() {
-                        return methods.size();
-                    }
-                };
-            }
-        };
+        final Map<String, Values> result = new TreeMap<>();
+        for (final Map.Entry<String, MethodMetrics> entry : methods.entrySet()) {
+            result.put(entry.getKey(), new Values(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(result);
     }
 
     public long getPeakConcurrent() {
@@ -162,13 +212,10 @@ public class InvocationMetrics {
     }
 
     public long getWaitTime() {
-        return values.get().waitTime;
+        return TimeUnit.NANOSECONDS.toMillis(waitTime.sum());
     }
 
     void startInvocation() {
-        final long v = concurrent.incrementAndGet();
-        // concurrent might decrement here, but we take that missing peak for granted.
-        if (peakConcurrent.get() < v)
-            peakConcurrent.incrementAndGet();
+        peakConcurrent.accumulate(concurrent.incrementAndGet());
     }
 }
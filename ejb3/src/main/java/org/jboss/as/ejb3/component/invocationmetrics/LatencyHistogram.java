@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear latency histogram. Each power of two is split into {@value #SUB_BUCKETS} linear sub-buckets, bounding the
+ * relative error of a reported percentile to 25%. Each bucket is a striped {@link LongAdder}, so concurrent invocations of
+ * the same method do not contend on a shared counter. Buckets are created on first use, since latencies typically occupy
+ * only a few of them, after which recording neither retries nor allocates.
+ */
+class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) << SUB_BUCKET_BITS;
+
+    private final AtomicReferenceArray<LongAdder> counts = new AtomicReferenceArray<>(BUCKETS);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    void record(long value) {
+        long v = Math.max(value, 0L);
+        this.bucket(index(v)).increment();
+        this.max.accumulate(v);
+    }
+
+    private LongAdder bucket(int index) {
+        LongAdder bucket = this.counts.get(index);
+        if (bucket == null) {
+            LongAdder adder = new LongAdder();
+            bucket = this.counts.compareAndSet(index, null, adder) ? adder : this.counts.get(index);
+        }
+        return bucket;
+    }
+
+    /**
+     * Returns the value at the given quantile, i.e. the upper bound of the bucket holding that rank, capped by the maximum
+     * recorded value.
+     * @param quantile a value between 0 and 1
+     * @return the value at the quantile, or 0 if nothing was recorded
+     */
+    long getValueAtQuantile(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            LongAdder bucket = this.counts.get(i);
+            snapshot[i] = (bucket != null) ? bucket.sum() : 0L;
+            total += snapshot[i];
+        }
+        if (total == 0) return 0L;
+        long rank = Math.max((long) Math.ceil(quantile * total), 1L);
+        long max = this.max.get();
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            cumulative += snapshot[i];
+            if (cumulative >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    long getMax() {
+        return this.max.get();
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) | (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long mantissa = (index & (SUB_BUCKETS - 1)) | SUB_BUCKETS;
+        long next = (mantissa + 1) << shift;
+        // The last bucket would overflow
+        return (next > 0) ? next - 1 : Long.MAX_VALUE;
+    }
+}
@@ -231,6 +231,11 @@ public class MessageDrivenComponent extends EJBComponent implements PooledCompon
 
         super.start();
 
+        // Started once the component is started, since prefilling the pool creates component instances
+        if (this.pool != null) {
+            this.pool.start();
+        }
+
         synchronized (this) {
             this.started = true;
             if (this.deliveryActive && !suspended) {
@@ -248,10 +253,6 @@ public class MessageDrivenComponent extends EJBComponent implements PooledCompon
         super.init();
 
         suspendController.registerActivity(serverActivity);
-
-        if (this.pool != null) {
-            this.pool.start();
-        }
     }
 
     @Override
@@ -26,6 +26,10 @@ import org.jboss.as.ejb3.pool.Pool;
 import org.jboss.as.ejb3.pool.StatelessObjectFactory;
 import org.jboss.as.ejb3.pool.strictmax.StrictMaxPool;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -39,6 +43,9 @@ public class StrictMaxPoolConfig extends PoolConfig {
 
     public static final TimeUnit DEFAULT_TIMEOUT_UNIT = TimeUnit.MINUTES;
 
+    public static final int DEFAULT_MIN_POOL_SIZE = 0;
+
+    public static final boolean DEFAULT_AWAIT_PREFILL = false;
 
     private volatile int maxPoolSize;
 
@@ -46,16 +53,39 @@ public class StrictMaxPoolConfig extends PoolConfig {
 
     private volatile long timeout;
 
+    private volatile int minPoolSize;
+
+    private volatile boolean awaitPrefill;
+
+    private volatile Executor executor;
+
+    // Pools created from this configuration, resized whenever the maximum pool size changes
+    private final Map<Pool<?>, Boolean> pools = Collections.synchronizedMap(new WeakHashMap<>());
+
     public StrictMaxPoolConfig(final String poolName, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(poolName, maxSize, DEFAULT_MIN_POOL_SIZE, DEFAULT_AWAIT_PREFILL, timeout, timeUnit);
+    }
+
+    public StrictMaxPoolConfig(final String poolName, int maxSize, int minSize, boolean awaitPrefill, long timeout, TimeUnit timeUnit) {
         super(poolName);
         this.maxPoolSize = maxSize;
+        this.minPoolSize = minSize;
+        this.awaitPrefill = awaitPrefill;
         this.timeout = timeout;
         this.timeoutUnit = timeUnit;
     }
 
     @Override
     public <T> Pool<T> createPool(final StatelessObjectFactory<T> statelessObjectFactory) {
-        return new StrictMaxPool<T>(statelessObjectFactory, this.maxPoolSize, this.timeout, this.timeoutUnit);
+        return this.register(new StrictMaxPool<T>(statelessObjectFactory, this.maxPoolSize, this.minPoolSize, this.awaitPrefill, this.executor, this.timeout, this.timeoutUnit));
+    }
+
+    /**
+     * Registers a pool created from this configuration, so that it follows subsequent changes of the maximum pool size.
+     */
+    protected <T> Pool<T> register(Pool<T> pool) {
+        this.pools.put(pool, Boolean.TRUE);
+        return pool;
     }
 
     public int getMaxPoolSize() {
@@ -64,6 +94,42 @@ public class StrictMaxPoolConfig extends PoolConfig {
 
     public void setMaxPoolSize(int maxPoolSize) {
         this.maxPoolSize = maxPoolSize;
+        synchronized (this.pools) {
+            for (Pool<?> pool : this.pools.keySet()) {
+                pool.setMaxSize(maxPoolSize);
+            }
+        }
+    }
+
+    public int getMinPoolSize() {
+        return minPoolSize;
+    }
+
+    /**
+     * Changes the number of instances created when a pool is started.
+     * Pools already started are not affected.
+     */
+    public void setMinPoolSize(int minPoolSize) {
+        this.minPoolSize = minPoolSize;
+    }
+
+    public boolean isAwaitPrefill() {
+        return awaitPrefill;
+    }
+
+    public void setAwaitPrefill(boolean awaitPrefill) {
+        this.awaitPrefill = awaitPrefill;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets the executor creating the instances of pools when they are started.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
     }
 
     public TimeUnit getTimeoutUnit() {
@@ -87,6 +153,8 @@ public class StrictMaxPoolConfig extends PoolConfig {
         return "StrictMaxPoolConfig{" +
                 "name=" + this.poolName +
                 ", maxPoolSize=" + maxPoolSize +
+                ", minPoolSize=" + minPoolSize +
+                ", awaitPrefill=" + awaitPrefill +
                 ", timeoutUnit=" + timeoutUnit +
                 ", timeout=" + timeout +
                 '}';
@@ -22,6 +22,7 @@
 
 package org.jboss.as.ejb3.component.pool;
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.ejb3.logging.EjbLogger;
@@ -50,6 +51,8 @@ public class StrictMaxPoolConfigService implements Service<StrictMaxPoolConfig>
 
     private final InjectedValue<Integer> maxThreadsInjector = new InjectedValue<>();
 
+    private final InjectedValue<ExecutorService> executorInjector = new InjectedValue<>();
+
     private volatile int declaredMaxSize;
 
     public enum Derive {NONE, FROM_WORKER_POOLS, FROM_CPU_COUNT}
@@ -58,13 +61,22 @@ public class StrictMaxPoolConfigService implements Service<StrictMaxPoolConfig>
 
 
     public StrictMaxPoolConfigService(final String poolName, int declaredMaxSize, Derive derive, long timeout, TimeUnit timeUnit) {
-        this.declaredMaxSize = declaredMaxSize;
+        this(poolName, declaredMaxSize, StrictMaxPoolConfig.DEFAULT_MIN_POOL_SIZE, StrictMaxPoolConfig.DEFAULT_AWAIT_PREFILL, derive, timeout, timeUnit);
+    }
+
+    public StrictMaxPoolConfigService(final String poolName, int declaredMaxSize, int minSize, boolean awaitPrefill, Derive derive, long timeout, TimeUnit timeUnit) {
+        this(new StrictMaxPoolConfig(poolName, declaredMaxSize, minSize, awaitPrefill, timeout, timeUnit), derive);
+    }
+
+    protected StrictMaxPoolConfigService(final StrictMaxPoolConfig poolConfig, Derive derive) {
+        this.declaredMaxSize = poolConfig.getMaxPoolSize();
         this.derive = derive;
-        this.poolConfig = new StrictMaxPoolConfig(poolName, declaredMaxSize, timeout, timeUnit);
+        this.poolConfig = poolConfig;
     }
 
     @Override
     public void start(StartContext context) throws StartException {
+        poolConfig.setExecutor(executorInjector.getValue());
         setDerive(derive);
     }
 
@@ -107,6 +119,14 @@ public class StrictMaxPoolConfigService implements Service<StrictMaxPoolConfig>
         poolConfig.setMaxPoolSize(max);
     }
 
+    public void setMinPoolSize(int minPoolSize) {
+        poolConfig.setMinPoolSize(minPoolSize);
+    }
+
+    public void setAwaitPrefill(boolean awaitPrefill) {
+        poolConfig.setAwaitPrefill(awaitPrefill);
+    }
+
     public void setTimeout(long timeout) {
         poolConfig.setTimeout(timeout);
     }
@@ -128,4 +148,8 @@ public class StrictMaxPoolConfigService implements Service<StrictMaxPoolConfig>
     public Injector<Integer> getMaxThreadsInjector() {
         return maxThreadsInjector;
     }
+
+    public Injector<ExecutorService> getExecutorInjector() {
+        return executorInjector;
+    }
 }
@@ -41,6 +41,7 @@ public class SingletonComponentCreateService extends SessionBeanComponentCreateS
     private final boolean initOnStartup;
     private final List<ServiceName> dependsOn;
     private final InjectedValue<DefaultAccessTimeoutService> defaultAccessTimeoutService = new InjectedValue<DefaultAccessTimeoutService>();
+    private final InjectedValue<SingletonLockService> singletonLockService = new InjectedValue<SingletonLockService>();
 
     public SingletonComponentCreateService(final ComponentConfiguration componentConfiguration, final ApplicationExceptions ejbJarConfiguration, final boolean initOnStartup, final List<ServiceName> dependsOn) {
         super(componentConfiguration, ejbJarConfiguration);
@@ -64,4 +65,12 @@ public class SingletonComponentCreateService extends SessionBeanComponentCreateS
     Injector<DefaultAccessTimeoutService> getDefaultAccessTimeoutInjector() {
         return this.defaultAccessTimeoutService;
     }
+
+    public SingletonLockService getSingletonLockService() {
+        return singletonLockService.getValue();
+    }
+
+    Injector<SingletonLockService> getSingletonLockInjector() {
+        return this.singletonLockService;
+    }
 }
@@ -0,0 +1,333 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.singleton;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+
+/**
+ * An implementation of {@link ReadWriteLock} for read-mostly singletons, which throws an {@link javax.ejb.IllegalLoopbackException}
+ * when a thread holding a read lock tries to obtain a write lock.
+ * <p>
+ * Readers announce themselves by incrementing one of several reader counters, chosen by thread, each of which occupies its own
+ * cache line. Uncontended readers therefore never write to memory shared with readers on other cores. A writer first acquires
+ * an exclusive lock, which diverts new readers to wait for that lock, and then waits for the counters of all readers to drain.
+ * Reentrant read locks are tracked per thread, and are granted even if a writer is waiting.
+ * </p>
+ */
+public class StripedEJBReadWriteLock implements ReadWriteLock {
+
+    // Number of longs per counter, such that each counter occupies its own cache line
+    private static final int PADDING = 16;
+    // Number of times a waiting writer yields before parking
+    private static final int SPINS = 64;
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLongArray readers;
+    private final int mask;
+    // Excludes writers from each other, and readers from writers
+    private final ReentrantLock writer = new ReentrantLock();
+    private volatile boolean writing = false;
+    // Read locks held by the current thread, as a mutable holder to avoid boxing
+    private final ThreadLocal<int[]> readHolds = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final Lock readLock = new ReadLock();
+    private final Lock writeLock = new WriteLock();
+
+    public StripedEJBReadWriteLock() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public StripedEJBReadWriteLock(int stripes) {
+        int size = (stripes > 1) ? Integer.highestOneBit(stripes - 1) << 1 : 1;
+        this.mask = size - 1;
+        this.readers = new AtomicLongArray(size * PADDING);
+    }
+
+    @Override
+    public Lock readLock() {
+        return this.readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return this.writeLock;
+    }
+
+    private int readerIndex() {
+        return ((int) Thread.currentThread().getId() & this.mask) * PADDING;
+    }
+
+    private boolean hasReaders() {
+        for (int i = 0; i < this.readers.length(); i += PADDING) {
+            if (this.readers.get(i) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Waits for all readers to release their read locks.
+     *
+     * @param timed whether or not to wait at most the specified time
+     * @param nanos the maximum time to wait, if timed
+     * @param interruptible whether or not waiting can be interrupted
+     * @return true, if all read locks were released, false if the specified time elapsed
+     */
+    private boolean awaitReaders(boolean timed, long nanos, boolean interruptible) throws InterruptedException {
+        long deadline = timed ? System.nanoTime() + nanos : 0L;
+        int spins = 0;
+        boolean interrupted = false;
+        try {
+            while (this.hasReaders()) {
+                long remaining = timed ? deadline - System.nanoTime() : MAX_PARK_NANOS;
+                if (remaining <= 0) {
+                    return false;
+                }
+                if (spins < SPINS) {
+                    spins += 1;
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(this, Math.min(remaining, MAX_PARK_NANOS));
+                }
+                if (Thread.interrupted()) {
+                    if (interruptible) {
+                        throw new InterruptedException();
+                    }
+                    interrupted = true;
+                }
+            }
+            return true;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Ensures that the current thread doesn't hold any read locks. If
+     * the thread holds any read locks, this method throws a {@link javax.ejb.IllegalLoopbackException}.
+     */
+    private void checkLoopback() {
+        if (this.readHolds.get()[0] > 0) {
+            throw EjbLogger.ROOT_LOGGER.failToUpgradeToWriteLock();
+        }
+    }
+
+    public class ReadLock implements Lock {
+
+        /**
+         * Announces this reader, unless a writer holds or awaits the write lock.
+         * @param holds the read locks held by the current thread
+         * @return true, if the read lock was acquired, false if a writer holds or awaits the write lock
+         */
+        private boolean tryAcquire(int[] holds) {
+            if (holds[0] > 0) {
+                // Reentrant read locks are always granted, otherwise a waiting writer would deadlock with this thread
+                holds[0] += 1;
+                return true;
+            }
+            int index = readerIndex();
+            readers.incrementAndGet(index);
+            if (!writing) {
+                holds[0] = 1;
+                return true;
+            }
+            readers.decrementAndGet(index);
+            return false;
+        }
+
+        /**
+         * Announces this reader, while the current thread holds the exclusive lock of writers.
+         * @param holds the read locks held by the current thread
+         */
+        private void acquireExclusively(int[] holds) {
+            try {
+                readers.incrementAndGet(readerIndex());
+                holds[0] = 1;
+            } finally {
+                writer.unlock();
+            }
+        }
+
+        @Override
+        public void lock() {
+            int[] holds = readHolds.get();
+            if (!this.tryAcquire(holds)) {
+                writer.lock();
+                this.acquireExclusively(holds);
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            int[] holds = readHolds.get();
+            if (!this.tryAcquire(holds)) {
+                writer.lockInterruptibly();
+                this.acquireExclusively(holds);
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            int[] holds = readHolds.get();
+            if (this.tryAcquire(holds)) {
+                return true;
+            }
+            if (writer.tryLock()) {
+                this.acquireExclusively(holds);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            int[] holds = readHolds.get();
+            if (this.tryAcquire(holds)) {
+                return true;
+            }
+            if (writer.tryLock(time, unit)) {
+                this.acquireExclusively(holds);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void unlock() {
+            int[] holds = readHolds.get();
+            if (holds[0] == 0) {
+                throw new IllegalMonitorStateException();
+            }
+            holds[0] -= 1;
+            if (holds[0] == 0) {
+                readers.decrementAndGet(readerIndex());
+            }
+        }
+
+        /**
+         * Not implemented
+         *
+         * @throws UnsupportedOperationException
+         */
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    public class WriteLock implements Lock {
+
+        /**
+         * Waits for readers, once the current thread holds the exclusive lock of writers.
+         * If readers do not release their locks in time, the exclusive lock is released.
+         */
+        private boolean acquired(boolean timed, long nanos, boolean interruptible) throws InterruptedException {
+            if (writer.getHoldCount() > 1) {
+                // Reentrant write lock
+                return true;
+            }
+            writing = true;
+            boolean acquired = false;
+            try {
+                acquired = awaitReaders(timed, nanos, interruptible);
+                return acquired;
+            } finally {
+                if (!acquired) {
+                    writing = false;
+                    writer.unlock();
+                }
+            }
+        }
+
+        @Override
+        public void lock() {
+            checkLoopback();
+            writer.lock();
+            try {
+                this.acquired(false, 0L, false);
+            } catch (InterruptedException e) {
+                // Cannot happen, since waiting is not interruptible
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            checkLoopback();
+            writer.lockInterruptibly();
+            this.acquired(false, 0L, true);
+        }
+
+        @Override
+        public boolean tryLock() {
+            checkLoopback();
+            if (!writer.tryLock()) {
+                return false;
+            }
+            try {
+                return this.acquired(true, 0L, false);
+            } catch (InterruptedException e) {
+                // Cannot happen, since waiting is not interruptible
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            checkLoopback();
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            if (!writer.tryLock(time, unit)) {
+                return false;
+            }
+            return this.acquired(true, deadline - System.nanoTime(), true);
+        }
+
+        @Override
+        public void unlock() {
+            if (writer.getHoldCount() == 1) {
+                writing = false;
+            }
+            writer.unlock();
+        }
+
+        /**
+         * Not implemented
+         *
+         * @throws UnsupportedOperationException
+         */
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
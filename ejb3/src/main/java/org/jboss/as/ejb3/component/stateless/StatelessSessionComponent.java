@@ -105,9 +105,13 @@ public class StatelessSessionComponent extends SessionBeanComponent implements P
         return timeoutMethod;
     }
 
+    /**
+     * {@inheritDoc}
+     * The pool is started once the component is started, since prefilling the pool creates component instances.
+     */
     @Override
-    public void init() {
-        super.init();
+    public void start() {
+        super.start();
         if(this.pool!=null){
             this.pool.start();
         }
@@ -3184,4 +3184,35 @@ public interface EjbLogger extends BasicLogger {
     @Message(id = 509, value = "Clustered EJBs in Node: %s are bound to INADDR_ANY(%s). Client cannot reach back the cluster when they are not in the same local network.")
     void clusteredEJBsBoundToINADDRANY(String nodeName, String ip);
 
+    @LogMessage(level = WARN)
+    @Message(id = 510, value = "Discarding incomplete or corrupt records of timer journal segment %s following position %d")
+    void truncatedTimerJournalSegment(File segment, long position);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 511, value = "Failed to compact timer journal in %s")
+    void failedToCompactTimerJournal(File directory, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 512, value = "Failed to delete obsolete timer file %s")
+    void failedToDeleteTimerFile(File file);
+
+    @LogMessage(level = WARN)
+    @Message(id = 513, value = "Failed to prefill pool %s")
+    void failedToPrefillPool(Object pool, @Cause Throwable cause);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 514, value = "Failed to refresh timers for %s")
+    void timerRefreshFailed(String timedObjectId, @Cause Throwable cause);
+
+    @Message(id = 515, value = "Timer journal segment %s is corrupt following position %d, but is not the last segment of its journal")
+    IOException corruptTimerJournalSegment(File segment, long position);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 516, value = "Cannot prepare the timer persistence tables for the incremental refresh, timers created or cancelled by other nodes will not be refreshed")
+    void couldNotPrepareTimerChangeTracking(@Cause SQLException e);
+
+    @LogMessage(level = WARN)
+    @Message(id = 517, value = "Could not confirm the migration of timer %s of %s into the timer journal, timer files in %s will be kept")
+    void timerMigrationNotConfirmed(String timerId, String timedObjectId, String directory);
+
 }
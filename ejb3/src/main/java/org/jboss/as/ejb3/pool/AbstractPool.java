@@ -21,6 +21,12 @@
  */
 package org.jboss.as.ejb3.pool;
 
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -35,11 +41,34 @@ public abstract class AbstractPool<T> implements Pool<T> {
     private final StatelessObjectFactory<T> factory;
     private final AtomicInteger createCount = new AtomicInteger(0);
     private final AtomicInteger removeCount = new AtomicInteger(0);
+    /**
+     * The number of instances to create when the pool is started.
+     */
+    private final int minSize;
+    /**
+     * Creates the instances of the pool when it is started, may be null if minSize is 0.
+     */
+    private final Executor executor;
+    /**
+     * Indicates whether {@link #start()} blocks until the pool was prefilled.
+     */
+    private final boolean awaitPrefill;
+    private volatile boolean stopped = false;
+    private volatile CompletableFuture<Void> prefill = CompletableFuture.completedFuture(null);
+    private volatile long prefillTime = 0;
 
     protected AbstractPool(StatelessObjectFactory<T> factory) {
+        this(factory, 0, false, null);
+    }
+
+    protected AbstractPool(StatelessObjectFactory<T> factory, int minSize, boolean awaitPrefill, Executor executor) {
         assert factory != null : "factory is null";
+        assert (minSize == 0) || (executor != null) : "executor is null";
 
         this.factory = factory;
+        this.minSize = minSize;
+        this.awaitPrefill = awaitPrefill;
+        this.executor = executor;
     }
 
     public int getCreateCount() {
@@ -52,6 +81,76 @@ public abstract class AbstractPool<T> implements Pool<T> {
 
     public abstract void setMaxSize(int maxSize);
 
+    @Override
+    public long getPrefillTime() {
+        return this.prefillTime;
+    }
+
+    /**
+     * Prefills the pool with minSize instances, created in parallel by at most one task per processor.
+     * Since creation of an instance blocks until its component has started, pools must only be started by started components.
+     * If so configured, blocks until the pool was prefilled.
+     */
+    @Override
+    public void start() {
+        this.stopped = false;
+        int count = Math.min(this.minSize, this.getMaxSize()) - this.getCurrentSize();
+        if (count > 0) {
+            long start = System.nanoTime();
+            AtomicInteger remaining = new AtomicInteger(count);
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[Math.min(count, Runtime.getRuntime().availableProcessors())];
+            for (int i = 0; i < futures.length; ++i) {
+                futures[i] = CompletableFuture.runAsync(() -> this.prefill(remaining), this.executor);
+            }
+            CompletableFuture<Void> prefill = CompletableFuture.allOf(futures).whenComplete((result, exception) -> {
+                this.prefillTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                ROOT_LOGGER.debugf("Prefilled pool %s with %d instances in %d ms", this, this.getCurrentSize(), this.prefillTime);
+            });
+            this.prefill = prefill;
+            if (this.awaitPrefill) {
+                this.await(prefill);
+            }
+        }
+    }
+
+    /**
+     * Stops prefilling the pool, waiting for any instance currently being created.
+     * Subclasses must destroy their idle instances afterwards.
+     */
+    @Override
+    public void stop() {
+        this.stopped = true;
+        this.await(this.prefill);
+    }
+
+    /**
+     * Creates a single instance and adds it to the idle instances of this pool, if a permit is available without waiting.
+     *
+     * @return true, if an instance was added, false otherwise
+     */
+    protected abstract boolean prefill();
+
+    private void prefill(AtomicInteger remaining) {
+        try {
+            while (!this.stopped && (remaining.getAndDecrement() > 0)) {
+                // Never compete with invocations for a permit
+                if (!this.prefill()) return;
+            }
+        } catch (RuntimeException e) {
+            ROOT_LOGGER.failedToPrefillPool(this, e);
+        }
+    }
+
+    private void await(CompletableFuture<Void> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            ROOT_LOGGER.failedToPrefillPool(this, e.getCause());
+        }
+    }
+
     protected T create() {
         T bean = factory.create();
 
@@ -57,6 +57,34 @@ public interface Pool<T> {
 
     int getRemoveCount();
 
+    /**
+     * Returns the largest number of objects that were in use concurrently.
+     *
+     * @return the peak number of objects in use
+     */
+    int getPeakInUseCount();
+
+    /**
+     * Returns the number of attempts to get an object that timed out.
+     *
+     * @return the number of timed out attempts
+     */
+    long getTimeoutCount();
+
+    /**
+     * Returns a histogram of the time spent waiting to get an object from the pool.
+     *
+     * @return the number of objects obtained per wait time bucket, see {@link PoolSemaphore#WAIT_TIME_BUCKETS}
+     */
+    long[] getWaitTimeHistogram();
+
+    /**
+     * Returns the time it took to prefill the pool when it was last started.
+     *
+     * @return a duration in milliseconds, or 0, if the pool was not prefilled
+     */
+    long getPrefillTime();
+
     /**
      * Release the object from use.
      *
@@ -64,10 +92,17 @@ public interface Pool<T> {
      */
     void release(T obj);
 
+    /**
+     * Changes the maximum size of the pool.
+     * When shrinking, objects in use beyond the new maximum size are destroyed when released.
+     *
+     * @param maxSize the new maximum size
+     */
     void setMaxSize(int maxSize);
 
     /**
-     * Start the pool.
+     * Start the pool, prefilling it with its minimum number of objects, if any.
+     * Depending on its configuration, blocks until the pool was prefilled.
      */
     void start();
 
@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+
+/**
+ * A semaphore that limits the number of active instances of a pool.
+ * Unlike a plain {@link Semaphore}, the number of permits can be changed while permits are held,
+ * and statistics about the acquisition of permits are recorded.
+ */
+public class PoolSemaphore extends Semaphore {
+    private static final long serialVersionUID = -4506398416862525946L;
+
+    /**
+     * The inclusive upper bounds, in milliseconds, of the buckets of the wait time histogram.
+     * The histogram contains an additional bucket for longer wait times.
+     */
+    public static final long[] WAIT_TIME_BUCKETS = new long[] { 0, 1, 10, 100, 1000, 10000 };
+
+    private volatile int size;
+    private final LongAdder[] waitTimes = new LongAdder[WAIT_TIME_BUCKETS.length + 1];
+    private final LongAdder timeouts = new LongAdder();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+    // Number of instances in excess of a reduced size, which must be destroyed rather than returned to the pool
+    private final AtomicInteger excess = new AtomicInteger();
+
+    public PoolSemaphore(int size) {
+        super(size, false);
+        this.size = size;
+        for (int i = 0; i < this.waitTimes.length; ++i) {
+            this.waitTimes[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Acquires a permit, waiting at most the specified time.
+     * @param timeout the maximum time to wait for a permit
+     * @param unit the unit of the timeout
+     * @throws javax.ejb.EJBException if no permit became available within the specified time, or if interrupted while waiting
+     */
+    public void acquire(long timeout, TimeUnit unit) {
+        long waitTime = 0;
+        if (!this.tryAcquire()) {
+            long start = System.nanoTime();
+            try {
+                if (!this.tryAcquire(timeout, unit)) {
+                    this.timeouts.increment();
+                    throw EjbLogger.ROOT_LOGGER.failedToAcquirePermit(timeout, unit);
+                }
+            } catch (InterruptedException e) {
+                throw EjbLogger.ROOT_LOGGER.acquireSemaphoreInterrupted();
+            }
+            waitTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+        this.waitTimes[bucket(waitTime)].increment();
+
+        int inUse = this.size - this.availablePermits();
+        // Avoid contending on the peak value, unless we need to update it
+        if (inUse > this.peakInUse.get()) {
+            this.peakInUse.accumulateAndGet(inUse, Math::max);
+        }
+    }
+
+    /**
+     * Returns the total number of permits.
+     * @return the total number of permits
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Changes the total number of permits.
+     * When shrinking, the number of available permits may become negative until enough held permits are released,
+     * and the instances in excess of the new size must be destroyed by the callers that successfully {@link #claimExcess() claim} them.
+     * @param size the new total number of permits
+     * @param instances the current number of instances of the pool
+     */
+    public synchronized void setSize(int size, int instances) {
+        int delta = size - this.size;
+        this.size = size;
+        if (delta > 0) {
+            this.release(delta);
+        } else if (delta < 0) {
+            this.reducePermits(-delta);
+        }
+        this.excess.set(Math.max(instances - size, 0));
+    }
+
+    /**
+     * Claims the destruction of a single instance in excess of the size of this semaphore.
+     * At most as many callers as there are excess instances succeed, regardless of concurrency.
+     * @return true, if the caller must destroy its instance, false if it may be returned to the pool
+     */
+    public boolean claimExcess() {
+        int current = this.excess.get();
+        while (current > 0) {
+            if (this.excess.compareAndSet(current, current - 1)) {
+                return true;
+            }
+            current = this.excess.get();
+        }
+        return false;
+    }
+
+    /**
+     * Returns the largest number of permits held concurrently.
+     * @return the largest number of permits held concurrently
+     */
+    public int getPeakInUseCount() {
+        return this.peakInUse.get();
+    }
+
+    /**
+     * Returns the number of attempts to acquire a permit that timed out.
+     * @return the number of timed out acquisitions
+     */
+    public long getTimeoutCount() {
+        return this.timeouts.sum();
+    }
+
+    /**
+     * Returns the number of acquired permits per wait time bucket.
+     * @return an array of counts, indexed by the buckets of {@link #WAIT_TIME_BUCKETS}, followed by the count of longer wait times
+     */
+    public long[] getWaitTimeHistogram() {
+        long[] histogram = new long[this.waitTimes.length];
+        for (int i = 0; i < histogram.length; ++i) {
+            histogram[i] = this.waitTimes[i].sum();
+        }
+        return histogram;
+    }
+
+    private static int bucket(long waitTime) {
+        for (int i = 0; i < WAIT_TIME_BUCKETS.length; ++i) {
+            if (waitTime <= WAIT_TIME_BUCKETS[i]) {
+                return i;
+            }
+        }
+        return WAIT_TIME_BUCKETS.length;
+    }
+}
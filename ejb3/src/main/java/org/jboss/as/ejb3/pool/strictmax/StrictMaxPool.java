@@ -23,13 +23,13 @@ package org.jboss.as.ejb3.pool.strictmax;
 
 import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
 
-import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.PoolSemaphore;
 import org.jboss.as.ejb3.pool.StatelessObjectFactory;
 
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -44,12 +44,9 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
      * A FIFO semaphore that is set when the strict max size behavior is in effect.
      * When set, only maxSize instances may be active and any attempt to get an
      * instance will block until an instance is freed.
+     * The number of permits of the semaphore is the maximum number of instances allowed in the pool.
      */
-    private final Semaphore semaphore;
-    /**
-     * The maximum number of instances allowed in the pool
-     */
-    private final int maxSize;
+    private final PoolSemaphore semaphore;
     /**
      * The time to wait for the semaphore.
      */
@@ -62,9 +59,12 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
     private final Queue<T> pool = new ConcurrentLinkedQueue<T>();
 
     public StrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
-        super(factory);
-        this.maxSize = maxSize;
-        this.semaphore = new Semaphore(maxSize, false);
+        this(factory, maxSize, 0, false, null, timeout, timeUnit);
+    }
+
+    public StrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, int minSize, boolean awaitPrefill, Executor executor, long timeout, TimeUnit timeUnit) {
+        super(factory, minSize, awaitPrefill, executor);
+        this.semaphore = new PoolSemaphore(maxSize);
         this.timeout = timeout;
         this.timeUnit = timeUnit;
     }
@@ -74,6 +74,8 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
             ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
         }
 
+        // A discarded instance no longer counts towards any excess of a shrunk pool
+        semaphore.claimExcess();
         // If we block when maxSize instances are in use, invoke release on strictMaxSize
         semaphore.release();
 
@@ -90,11 +92,31 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
     }
 
     public int getMaxSize() {
-        return maxSize;
+        return semaphore.getSize();
     }
 
     public void setMaxSize(int maxSize) {
-        throw EjbLogger.ROOT_LOGGER.methodNotImplemented();
+        semaphore.setSize(maxSize, getCurrentSize());
+        // Destroy idle instances in excess of the new maximum size, the remainder is destroyed upon release
+        for (T bean = pool.poll(); bean != null; bean = pool.poll()) {
+            if (!semaphore.claimExcess()) {
+                pool.add(bean);
+                break;
+            }
+            destroy(bean);
+        }
+    }
+
+    public int getPeakInUseCount() {
+        return semaphore.getPeakInUseCount();
+    }
+
+    public long getTimeoutCount() {
+        return semaphore.getTimeoutCount();
+    }
+
+    public long[] getWaitTimeHistogram() {
+        return semaphore.getWaitTimeHistogram();
     }
 
     /**
@@ -104,13 +126,7 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
      * @return Context /w instance
      */
     public T get() {
-        try {
-            boolean acquired = semaphore.tryAcquire(timeout, timeUnit);
-            if (!acquired)
-                throw EjbLogger.ROOT_LOGGER.failedToAcquirePermit(timeout, timeUnit);
-        } catch (InterruptedException e) {
-            throw EjbLogger.ROOT_LOGGER.acquireSemaphoreInterrupted();
-        }
+        semaphore.acquire(timeout, timeUnit);
 
         T bean = pool.poll();
 
@@ -141,10 +157,15 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
      */
     public void release(T obj) {
         if (ROOT_LOGGER.isTraceEnabled()) {
-            ROOT_LOGGER.tracef("%s/%s Free instance: %s", pool.size(), maxSize, this);
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", pool.size(), semaphore.getSize(), this);
         }
 
-        pool.add(obj);
+        if (semaphore.claimExcess()) {
+            // Pool was shrunk while this instance was in use
+            destroy(obj);
+        } else {
+            pool.add(obj);
+        }
 
         semaphore.release();
     }
@@ -156,17 +177,26 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
             ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
         }
 
+        semaphore.claimExcess();
         semaphore.release();
         // let the super do the other remove stuff
         super.doRemove(ctx);
     }
 
-    public void start() {
-        // TODO Auto-generated method stub
-
+    @Override
+    protected boolean prefill() {
+        if (!semaphore.tryAcquire()) return false;
+        try {
+            pool.add(create());
+        } finally {
+            semaphore.release();
+        }
+        return true;
     }
 
+    @Override
     public void stop() {
+        super.stop();
         for (T obj = pool.poll(); obj != null; obj = pool.poll()) {
             destroy(obj);
         }
@@ -0,0 +1,276 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.striped;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.PoolSemaphore;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool with a maximum size, that keeps idle instances in LIFO stacks striped by thread.
+ * An invocation reuses the instance most recently released by a thread of the same stripe, which is the most likely to still be warm,
+ * and threads of distinct stripes never contend for the same stack.
+ * Instances that do not fit in the stack of a stripe spill over into a shared LIFO stack.
+ * Like {@link org.jboss.as.ejb3.pool.strictmax.StrictMaxPool}, at most maxSize instances may be active at any time.
+ * Permits are deliberately not striped: enforcing a strict maximum across stripes would require stealing permits between stripes,
+ * and blocking waiters would have to be woken by a release in any stripe.
+ * A single non-fair semaphore costs one compare-and-set per acquisition and release while permits are available.
+ *
+ * @param <T> the pooled instance type
+ */
+public class StripedMaxPool<T> extends AbstractPool<T> {
+
+    /**
+     * Limits the number of active instances to maxSize.
+     */
+    private final PoolSemaphore semaphore;
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    private final Stripe<T>[] stripes;
+    private final int mask;
+    /**
+     * Idle instances that did not fit into the stack of their stripe.
+     */
+    private final Deque<T> overflow = new ConcurrentLinkedDeque<>();
+
+    public StripedMaxPool(StatelessObjectFactory<T> factory, int maxSize, int minSize, boolean awaitPrefill, Executor executor, long timeout, TimeUnit timeUnit) {
+        this(factory, maxSize, minSize, awaitPrefill, executor, timeout, timeUnit, Runtime.getRuntime().availableProcessors());
+    }
+
+    StripedMaxPool(StatelessObjectFactory<T> factory, int maxSize, int minSize, Executor executor, long timeout, TimeUnit timeUnit, int concurrency) {
+        this(factory, maxSize, minSize, false, executor, timeout, timeUnit, concurrency);
+    }
+
+    @SuppressWarnings("unchecked")
+    StripedMaxPool(StatelessObjectFactory<T> factory, int maxSize, int minSize, boolean awaitPrefill, Executor executor, long timeout, TimeUnit timeUnit, int concurrency) {
+        super(factory, minSize, awaitPrefill, executor);
+        this.semaphore = new PoolSemaphore(maxSize);
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        // Use a power of 2 number of stripes, but no more stripes than instances
+        int concurrencyLevel = Math.max(Math.min(concurrency, maxSize), 1);
+        int count = (concurrencyLevel > 1) ? Integer.highestOneBit(concurrencyLevel - 1) << 1 : 1;
+        int capacity = (maxSize + count - 1) / count;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; ++i) {
+            this.stripes[i] = new Stripe<>(capacity);
+        }
+        this.mask = count - 1;
+    }
+
+    @Override
+    public void discard(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
+        }
+
+        // A discarded instance no longer counts towards any excess of a shrunk pool
+        this.semaphore.claimExcess();
+        this.semaphore.release();
+
+        super.doRemove(ctx);
+    }
+
+    @Override
+    public int getCurrentSize() {
+        return this.getCreateCount() - this.getRemoveCount();
+    }
+
+    @Override
+    public int getAvailableCount() {
+        return this.semaphore.availablePermits();
+    }
+
+    @Override
+    public int getMaxSize() {
+        return this.semaphore.getSize();
+    }
+
+    /**
+     * Changes the maximum size of the pool.
+     * The capacity of the stripes is fixed, so after growing the pool, surplus idle instances are kept in the shared stack.
+     */
+    @Override
+    public void setMaxSize(int maxSize) {
+        this.semaphore.setSize(maxSize, this.getCurrentSize());
+        // Destroy idle instances in excess of the new maximum size, the remainder is destroyed upon release
+        for (T bean = this.poll(); bean != null; bean = this.poll()) {
+            if (!this.semaphore.claimExcess()) {
+                this.offer(bean);
+                break;
+            }
+            this.destroy(bean);
+        }
+    }
+
+    @Override
+    public int getPeakInUseCount() {
+        return this.semaphore.getPeakInUseCount();
+    }
+
+    @Override
+    public long getTimeoutCount() {
+        return this.semaphore.getTimeoutCount();
+    }
+
+    @Override
+    public long[] getWaitTimeHistogram() {
+        return this.semaphore.getWaitTimeHistogram();
+    }
+
+    @Override
+    public T get() {
+        this.semaphore.acquire(this.timeout, this.timeUnit);
+
+        T bean = this.poll();
+        if (bean != null) {
+            return bean;
+        }
+
+        try {
+            // Pool is empty, create an instance
+            bean = this.create();
+        } finally {
+            if (bean == null) {
+                this.semaphore.release();
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public void release(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", this.getCurrentSize(), this.semaphore.getSize(), this);
+        }
+
+        if (this.semaphore.claimExcess()) {
+            // Pool was shrunk while this instance was in use
+            this.destroy(obj);
+        } else {
+            this.offer(obj);
+        }
+
+        this.semaphore.release();
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
+        }
+
+        this.semaphore.claimExcess();
+        this.semaphore.release();
+
+        super.doRemove(ctx);
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        for (Stripe<T> stripe : this.stripes) {
+            for (T obj = stripe.pop(); obj != null; obj = stripe.pop()) {
+                this.destroy(obj);
+            }
+        }
+        for (T obj = this.overflow.pollFirst(); obj != null; obj = this.overflow.pollFirst()) {
+            this.destroy(obj);
+        }
+    }
+
+    @Override
+    protected boolean prefill() {
+        if (!this.semaphore.tryAcquire()) return false;
+        try {
+            this.overflow.offerLast(this.create());
+        } finally {
+            this.semaphore.release();
+        }
+        return true;
+    }
+
+    private Stripe<T> stripe() {
+        // Spread sequential thread identifiers across stripes
+        long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return this.stripes[(int) (id >>> 32) & this.mask];
+    }
+
+    private T poll() {
+        Stripe<T> local = this.stripe();
+        T bean = local.pop();
+        if (bean == null) {
+            bean = this.overflow.pollFirst();
+        }
+        if (bean == null) {
+            // Steal from other stripes before creating a new instance, so that the pool never exceeds maxSize instances
+            for (int i = 0; (bean == null) && (i < this.stripes.length); ++i) {
+                Stripe<T> stripe = this.stripes[i];
+                if (stripe != local) {
+                    bean = stripe.pop();
+                }
+            }
+        }
+        return bean;
+    }
+
+    private void offer(T obj) {
+        if (!this.stripe().push(obj)) {
+            this.overflow.offerFirst(obj);
+        }
+    }
+
+    /**
+     * A bounded LIFO stack of idle instances.
+     * Guarded by its own monitor, which, since threads are spread across stripes, is rarely contended.
+     */
+    private static class Stripe<T> {
+        private final Object[] stack;
+        private int size = 0;
+
+        Stripe(int capacity) {
+            this.stack = new Object[capacity];
+        }
+
+        synchronized boolean push(T obj) {
+            if (this.size == this.stack.length) return false;
+            this.stack[this.size++] = obj;
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized T pop() {
+            if (this.size == 0) return null;
+            T obj = (T) this.stack[--this.size];
+            this.stack[this.size] = null;
+            return obj;
+        }
+    }
+}
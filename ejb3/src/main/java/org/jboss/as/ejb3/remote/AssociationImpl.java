@@ -193,9 +193,12 @@ final class AssociationImpl implements Association, AutoCloseable {
             }
 
             try {
-                final Map<String, Object> contextDataHolder = new HashMap<>();
+                // only allocate a holder if the client asked for context data to be returned
+                final Map<String, Object> contextDataHolder = attachments.containsKey(RETURNED_CONTEXT_DATA_KEY) ? new HashMap<>() : Collections.emptyMap();
                 result = invokeMethod(componentView, invokedMethod, invocationRequest, requestContent, cancellationFlag, contextDataHolder);
-                attachments.putAll(contextDataHolder);
+                if (!contextDataHolder.isEmpty()) {
+                    attachments.putAll(contextDataHolder);
+                }
             } catch (EJBComponentUnavailableException ex) {
                 // if the EJB is shutting down when the invocation was done, then it's as good as the EJB not being available. The client has to know about this as
                 // a "no such EJB" failure so that it can retry the invocation on a different node if possible.
@@ -497,11 +500,13 @@ final class AssociationImpl implements Association, AutoCloseable {
         interceptorContext.putPrivateData(InvocationType.class, InvocationType.REMOTE);
         interceptorContext.setBlockingCaller(false);
         // setup the contextData on the (spec specified) InvocationContext
-        final Map<String, Object> invocationContextData = new HashMap<String, Object>();
+        final Map<String, Object> attachments = content.getAttachments();
+        // size the context data up front, it will hold (nearly) all attachments
+        final Map<String, Object> invocationContextData = new HashMap<String, Object>((attachments != null) ? attachments.size() * 4 / 3 + 1 : 16);
         interceptorContext.setContextData(invocationContextData);
-        if (content.getAttachments() != null) {
+        if (attachments != null) {
             // attach the attachments which were passed from the remote client
-            for (final Map.Entry<String, Object> attachment : content.getAttachments().entrySet()){
+            for (final Map.Entry<String, Object> attachment : attachments.entrySet()){
                 if (attachment == null) {
                     continue;
                 }
@@ -565,7 +570,12 @@ final class AssociationImpl implements Association, AutoCloseable {
         return securityIdentity == null ? componentView.invoke(interceptorContext) : securityIdentity.runAsFunctionEx(ComponentView::invoke, componentView, interceptorContext);
     }
 
-    private static Method findMethod(final ComponentView componentView, final EJBMethodLocator ejbMethodLocator) {
+    static Method findMethod(final ComponentView componentView, final EJBMethodLocator ejbMethodLocator) {
+        final EJBMethodLocatorIndex index = componentView.getPrivateData(EJBMethodLocatorIndex.class);
+        if (index != null) {
+            return index.getMethod(ejbMethodLocator);
+        }
+        // views not configured by an EJB component description are not indexed
         final Set<Method> viewMethods = componentView.getViewMethods();
         for (final Method method : viewMethods) {
             if (method.getName().equals(ejbMethodLocator.getMethodName())) {
@@ -0,0 +1,59 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.ejb.client.EJBMethodLocator;
+
+/**
+ * Index of the methods of a remotely accessible view, keyed by their {@link EJBMethodLocator}.
+ * Built once while the view is configured and attached to it as private data, so that dispatching a remote invocation
+ * is a single hash lookup instead of a scan of the view methods comparing parameter type names.
+ */
+public final class EJBMethodLocatorIndex {
+
+    private final Map<EJBMethodLocator, Method> methods;
+
+    public EJBMethodLocatorIndex(final Collection<Method> methods) {
+        final Map<EJBMethodLocator, Method> index = new HashMap<>(methods.size() * 4 / 3 + 1);
+        for (final Method method : methods) {
+            // Methods differing only by return type, e.g. bridge methods, share a locator and are equally valid targets
+            index.putIfAbsent(EJBMethodLocator.forMethod(method), method);
+        }
+        this.methods = index;
+    }
+
+    /**
+     * Returns the view method identified by the given locator.
+     *
+     * @param locator the method locator sent by the client
+     * @return the method, or {@code null} if the view has no such method
+     */
+    public Method getMethod(final EJBMethodLocator locator) {
+        return this.methods.get(locator);
+    }
+}
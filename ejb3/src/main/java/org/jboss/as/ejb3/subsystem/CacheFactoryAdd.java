@@ -69,16 +69,17 @@ public class CacheFactoryAdd extends AbstractAddStepHandler {
         final Collection<String> unwrappedAliasValues = CacheFactoryResourceDefinition.ALIASES.unwrap(context,model);
         final Set<String> aliases = unwrappedAliasValues != null ? new HashSet<>(unwrappedAliasValues) : Collections.<String>emptySet();
         ServiceTarget target = context.getServiceTarget();
-        ServiceBuilder<?> builder = buildCacheFactoryBuilder(target, name, passivationStore);
+        int shards = CacheFactoryResourceDefinition.SHARDS.resolveModelAttribute(context, model).asInt();
+        ServiceBuilder<?> builder = buildCacheFactoryBuilder(target, name, passivationStore, shards);
         for (String alias: aliases) {
             builder.addAliases(CacheFactoryBuilderService.getServiceName(alias));
         }
         builder.install();
     }
 
-    private static ServiceBuilder<?> buildCacheFactoryBuilder(ServiceTarget target, String name, String passivationStore) {
+    private static ServiceBuilder<?> buildCacheFactoryBuilder(ServiceTarget target, String name, String passivationStore, int shards) {
         if (passivationStore == null) {
-            return new SimpleCacheFactoryBuilderService<>(name).build(target);
+            return new SimpleCacheFactoryBuilderService<>(name, shards).build(target);
         }
         return new DelegateCacheFactoryBuilderService<>(name, DistributableCacheFactoryBuilderService.getServiceName(passivationStore)).build(target);
     }
@@ -85,6 +85,13 @@ public class DatabaseDataStoreResourceDefinition extends SimpleResourceDefinitio
                     .setDefaultValue(new ModelNode(true))
                     .build();
 
+    public static final SimpleAttributeDefinition INCREMENTAL_REFRESH =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.INCREMENTAL_REFRESH, ModelType.BOOLEAN, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .build();
+
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
     static {
@@ -94,6 +101,7 @@ public class DatabaseDataStoreResourceDefinition extends SimpleResourceDefinitio
         map.put(PARTITION.getName(), PARTITION);
         map.put(REFRESH_INTERVAL.getName(), REFRESH_INTERVAL);
         map.put(ALLOW_EXECUTION.getName(), ALLOW_EXECUTION);
+        map.put(INCREMENTAL_REFRESH.getName(), INCREMENTAL_REFRESH);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
@@ -12,7 +12,8 @@ public enum EJB3Model {
     VERSION_1_2_0(1, 2, 0),
     VERSION_1_2_1(1, 2, 1),
     VERSION_1_3_0(1, 3, 0),
-    VERSION_4_0_0(4, 0, 0)
+    VERSION_4_0_0(4, 0, 0),
+    VERSION_5_0_0(5, 0, 0),
     ;
 
     static final EJB3Model CURRENT = VERSION_4_0_0;
@@ -371,7 +371,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
         }
     }
 
-    private void parseSingletonBean(final XMLExtendedStreamReader reader, final List<ModelNode> operations, final ModelNode ejb3SubsystemAddOperation) throws XMLStreamException {
+    protected void parseSingletonBean(final XMLExtendedStreamReader reader, final List<ModelNode> operations, final ModelNode ejb3SubsystemAddOperation) throws XMLStreamException {
         final int count = reader.getAttributeCount();
         final EnumSet<EJB3SubsystemXMLAttribute> missingRequiredAttributes = EnumSet.of(EJB3SubsystemXMLAttribute.DEFAULT_ACCESS_TIMEOUT);
         for (int i = 0; i < count; i++) {
@@ -415,14 +415,18 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
         requireNoAttributes(reader);
 
         while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
-            switch (EJB3SubsystemXMLElement.forName(reader.getLocalName())) {
-                case STRICT_MAX_POOL: {
-                    this.parseStrictMaxPool(reader, operations);
-                    break;
-                }
-                default: {
-                    throw unexpectedElement(reader);
-                }
+            this.parseBeanInstancePool(reader, EJB3SubsystemXMLElement.forName(reader.getLocalName()), operations);
+        }
+    }
+
+    void parseBeanInstancePool(final XMLExtendedStreamReader reader, final EJB3SubsystemXMLElement element, List<ModelNode> operations) throws XMLStreamException {
+        switch (element) {
+            case STRICT_MAX_POOL: {
+                this.parseStrictMaxPool(reader, operations);
+                break;
+            }
+            default: {
+                throw unexpectedElement(reader);
             }
         }
     }
@@ -481,7 +485,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
         }
     }
 
-    private void parseCache(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+    protected void parseCache(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
         String name = null;
         ModelNode operation = Util.createAddOperation();
         //Set<String> aliases = new LinkedHashSet<String>();
@@ -69,12 +69,16 @@ public interface EJB3SubsystemModel {
     String STATISTICS_ENABLED = "statistics-enabled";
 
     String FILE_DATA_STORE = "file-data-store";
+    String FORMAT = "format";
 
     String MAX_POOL_SIZE = "max-pool-size";
+    String MIN_POOL_SIZE = "min-pool-size";
+    String AWAIT_PREFILL = "await-prefill";
     String DERIVE_SIZE = "derive-size";
     String DERIVED_SIZE = "derived-size";
 
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
+    String STRIPED_MAX_BEAN_INSTANCE_POOL = "striped-max-bean-instance-pool";
 
     String MAX_THREADS = "max-threads";
     String KEEPALIVE_TIME = "keepalive-time";
@@ -83,6 +87,7 @@ public interface EJB3SubsystemModel {
     String PATH = "path";
 
     String DEFAULT_SINGLETON_BEAN_ACCESS_TIMEOUT = "default-singleton-bean-access-timeout";
+    String SINGLETON_BEAN_STRIPED_LOCK = "singleton-bean-striped-lock";
     String DEFAULT_STATEFUL_BEAN_ACCESS_TIMEOUT = "default-stateful-bean-access-timeout";
     String DEFAULT_DATA_STORE = "default-data-store";
 
@@ -101,6 +106,7 @@ public interface EJB3SubsystemModel {
     String TIMER_SERVICE = "timer-service";
     String THREAD_POOL = "thread-pool";
     String THREAD_POOL_NAME = "thread-pool-name";
+    String SCHEDULER_THREADS = "scheduler-threads";
     String DEFAULT = "default";
 
     String USE_QUALIFIED_NAME = "use-qualified-name";
@@ -108,6 +114,7 @@ public interface EJB3SubsystemModel {
 
     String CACHE = "cache";
     String PASSIVATION_STORE = "passivation-store";
+    String SHARDS = "shards";
 
     String MDB_DELIVERY_GROUP="mdb-delivery-group";
     String MDB_DELVIERY_GROUP_ACTIVE = "active";
@@ -123,6 +130,8 @@ public interface EJB3SubsystemModel {
     @Deprecated String CLUSTER_PASSIVATION_STORE = "cluster-passivation-store";
     String BEAN_CACHE = "bean-cache";
     String CACHE_CONTAINER = "cache-container";
+    String COMPRESSION = "compression";
+    String COMPRESSION_THRESHOLD = "compression-threshold";
     @Deprecated String CLIENT_MAPPINGS_CACHE = "client-mappings-cache";
     @Deprecated String PASSIVATE_EVENTS_ON_REPLICATE = "passivate-events-on-replicate";
 
@@ -135,6 +144,7 @@ public interface EJB3SubsystemModel {
     String PARTITION  = "partition";
     String REFRESH_INTERVAL = "refresh-interval";
     String ALLOW_EXECUTION = "allow-execution";
+    String INCREMENTAL_REFRESH = "incremental-refresh";
 
     String STATIC_URLS = "static-urls";
 
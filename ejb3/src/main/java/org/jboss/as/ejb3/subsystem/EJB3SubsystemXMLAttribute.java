@@ -34,6 +34,7 @@ public enum EJB3SubsystemXMLAttribute {
     ALIAS("alias"),
     ALIASES("aliases"),
     ALLOW_EXECUTION("allow-execution"),
+    AWAIT_PREFILL("await-prefill"),
 
     BEAN_CACHE("bean-cache"),
 
@@ -42,6 +43,8 @@ public enum EJB3SubsystemXMLAttribute {
     CLIENT_MAPPINGS_CLUSTER_NAME("cluster"),
     @Deprecated CLIENT_MAPPINGS_CACHE("client-mappings-cache"),
     @Deprecated CLUSTERED_CACHE_REF("clustered-cache-ref"),
+    COMPRESSION("compression"),
+    COMPRESSION_THRESHOLD("compression-threshold"),
     CONNECT_TIMEOUT("connect-timeout"),
     CONNECTOR_REF("connector-ref"),
     CORE_THREADS("core-threads"),
@@ -55,10 +58,13 @@ public enum EJB3SubsystemXMLAttribute {
     ENABLE_BY_DEFAULT("enable-by-default"),
     EXCLUDE_LOCAL_RECEIVER("exclude-local-receiver"),
 
+    FORMAT("format"),
+
     @Deprecated GROUPS_PATH("groups-path"),
 
     @Deprecated IDLE_TIMEOUT("idle-timeout"),
     @Deprecated IDLE_TIMEOUT_UNIT("idle-timeout-unit"),
+    INCREMENTAL_REFRESH("incremental-refresh"),
     INSTANCE_ACQUISITION_TIMEOUT("instance-acquisition-timeout"),
     INSTANCE_ACQUISITION_TIMEOUT_UNIT("instance-acquisition-timeout-unit"),
 
@@ -70,6 +76,7 @@ public enum EJB3SubsystemXMLAttribute {
     MAX_SIZE("max-size"),
     DERIVE_SIZE("derive-size"),
     MAX_THREADS("max-threads"),
+    MIN_POOL_SIZE("min-pool-size"),
 
     NAME("name"),
 
@@ -87,8 +94,11 @@ public enum EJB3SubsystemXMLAttribute {
     RELATIVE_TO("relative-to"),
     RESOURCE_ADAPTER_NAME("resource-adapter-name"),
 
+    SCHEDULER_THREADS("scheduler-threads"),
     @Deprecated SESSIONS_PATH("sessions-path"),
+    SHARDS("shards"),
     STATIC_URLS("static-urls"),
+    STRIPED_LOCK("striped-lock"),
     @Deprecated SUBDIRECTORY_COUNT("subdirectory-count"),
 
     THREAD_POOL_NAME("thread-pool-name"),
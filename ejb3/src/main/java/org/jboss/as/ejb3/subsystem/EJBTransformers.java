@@ -34,7 +34,9 @@ import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.DEFAULT_SFSB_CACHE;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.DEFAULT_SFSB_PASSIVATION_DISABLED_CACHE;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.EXECUTE_IN_WORKER;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.REFRESH_INTERVAL;
+import static org.jboss.as.ejb3.subsystem.StrictMaxPoolResourceDefinition.AWAIT_PREFILL;
 import static org.jboss.as.ejb3.subsystem.StrictMaxPoolResourceDefinition.DERIVE_SIZE;
+import static org.jboss.as.ejb3.subsystem.StrictMaxPoolResourceDefinition.MIN_POOL_SIZE;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -57,11 +59,13 @@ import org.jboss.as.controller.transform.ResourceTransformationContext;
 import org.jboss.as.controller.transform.SubsystemTransformerRegistration;
 import org.jboss.as.controller.transform.TransformationContext;
 import org.jboss.as.controller.transform.description.AttributeConverter;
+import org.jboss.as.controller.transform.description.AttributeTransformationDescriptionBuilder;
 import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
 import org.jboss.as.controller.transform.description.RejectAttributeChecker;
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
 import org.jboss.as.controller.transform.description.TransformationDescription;
 import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
+import org.jboss.as.ejb3.component.pool.StrictMaxPoolConfig;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.dmr.ModelNode;
 import org.wildfly.clustering.ejb.BeanManagerFactoryServiceConfiguratorConfiguration;
@@ -74,6 +78,7 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
     private static final ModelVersion VERSION_1_3_0 = ModelVersion.create(1, 3, 0);
     private static final ModelVersion VERSION_3_0_0 = ModelVersion.create(3, 0, 0);
     private static final ModelVersion VERSION_4_0_0 = ModelVersion.create(4, 0, 0);
+    private static final ModelVersion VERSION_5_0_0 = ModelVersion.create(5, 0, 0);
 
     @Override
     public String getSubsystemName() {
@@ -86,6 +91,7 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         registerTimerTransformers_1_3_0(subsystemRegistration);
         registerTransformers_3_0_0(subsystemRegistration);
         registerTransformers_4_0_0(subsystemRegistration);
+        registerTransformers_5_0_0(subsystemRegistration);
     }
 
     private static void registerTransformers_1_2_1(SubsystemTransformerRegistration subsystemRegistration) {
@@ -132,9 +138,12 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
                 .addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN);
 
         registerPassivationStoreTransformers_1_2_1_and_1_3_0(builder);
+        registerCacheTransformers(builder);
+        registerSingletonLockTransformers(builder);
         registerRemoteTransformers(builder);
         registerMdbDeliveryGroupTransformers(builder);
         registerStrictMaxPoolTransformers(builder);
+        registerStripedMaxPoolTransformers(builder);
         registerApplicationSecurityDomainDTransformers(builder);
         registerIdentityTransformers(builder);
         builder.rejectChildResource(PathElement.pathElement(EJB3SubsystemModel.REMOTING_PROFILE));
@@ -161,9 +170,16 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         builder.getAttributeBuilder().addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN);
         registerMdbDeliveryGroupTransformers(builder);
         registerRemoteTransformers(builder);
+        registerCacheTransformers(builder);
+        registerSingletonLockTransformers(builder);
+        registerPassivationStoreCompressionTransformers(builder.addChildResource(PassivationStoreResourceDefinition.INSTANCE.getPathElement()));
         registerStrictMaxPoolTransformers(builder);
+        registerStripedMaxPoolTransformers(builder);
         registerApplicationSecurityDomainDTransformers(builder);
         registerIdentityTransformers(builder);
+        ResourceTransformationDescriptionBuilder timerService = builder.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH);
+        registerSchedulerThreadsTransformers(timerService);
+        registerDataStoreAttributeTransformers(timerService);
 
         // Rename new statistics-enabled attribute to old enable-statistics
         builder.getAttributeBuilder().addRename(EJB3SubsystemModel.STATISTICS_ENABLED, EJB3SubsystemModel.ENABLE_STATISTICS);
@@ -175,6 +191,14 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
 
         registerApplicationSecurityDomainDTransformers(builder);
         registerIdentityTransformers(builder);
+        registerCacheTransformers(builder);
+        registerSingletonLockTransformers(builder);
+        registerPassivationStoreCompressionTransformers(builder.addChildResource(PassivationStoreResourceDefinition.INSTANCE.getPathElement()));
+        registerStrictMaxPoolPrefillTransformers(builder);
+        registerStripedMaxPoolTransformers(builder);
+        ResourceTransformationDescriptionBuilder timerService = builder.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH);
+        registerSchedulerThreadsTransformers(timerService);
+        registerDataStoreAttributeTransformers(timerService);
         builder.addChildResource(RemotingProfileResourceDefinition.INSTANCE).getAttributeBuilder()
                 .addRejectCheck(RejectAttributeChecker.DEFINED, StaticEJBDiscoveryDefinition.INSTANCE)
                 .end();
@@ -192,6 +216,21 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         TransformationDescription.Tools.register(builder.build(), subsystemRegistration, VERSION_4_0_0);
     }
 
+    private static void registerTransformers_5_0_0(SubsystemTransformerRegistration subsystemRegistration) {
+        final ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
+
+        registerCacheTransformers(builder);
+        registerSingletonLockTransformers(builder);
+        registerPassivationStoreCompressionTransformers(builder.addChildResource(PassivationStoreResourceDefinition.INSTANCE.getPathElement()));
+        registerStrictMaxPoolPrefillTransformers(builder);
+        registerStripedMaxPoolTransformers(builder);
+        ResourceTransformationDescriptionBuilder timerService = builder.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH);
+        registerSchedulerThreadsTransformers(timerService);
+        registerDataStoreAttributeTransformers(timerService);
+
+        TransformationDescription.Tools.register(builder.build(), subsystemRegistration, VERSION_5_0_0);
+    }
+
     private static void registerRemoteTransformers(ResourceTransformationDescriptionBuilder parent) {
         ResourceTransformationDescriptionBuilder remoteService = parent.addChildResource(EJB3SubsystemModel.REMOTE_SERVICE_PATH);
         remoteService.getAttributeBuilder()
@@ -210,10 +249,26 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
     }
 
     private static void registerStrictMaxPoolTransformers(ResourceTransformationDescriptionBuilder parent) {
-        parent.addChildResource(PathElement.pathElement(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL))
+        AttributeTransformationDescriptionBuilder builder = parent.addChildResource(PathElement.pathElement(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL))
                 .getAttributeBuilder()
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(StrictMaxPoolResourceDefinition.DeriveSize.NONE.toString())), DERIVE_SIZE)
                 .addRejectCheck(RejectAttributeChecker.DEFINED, DERIVE_SIZE);
+        registerPoolPrefillTransformers(builder);
+    }
+
+    private static void registerStrictMaxPoolPrefillTransformers(ResourceTransformationDescriptionBuilder parent) {
+        registerPoolPrefillTransformers(parent.addChildResource(PathElement.pathElement(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL)).getAttributeBuilder());
+    }
+
+    private static void registerPoolPrefillTransformers(AttributeTransformationDescriptionBuilder builder) {
+        builder.setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(StrictMaxPoolConfig.DEFAULT_MIN_POOL_SIZE)), MIN_POOL_SIZE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, MIN_POOL_SIZE)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(StrictMaxPoolConfig.DEFAULT_AWAIT_PREFILL)), AWAIT_PREFILL)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, AWAIT_PREFILL);
+    }
+
+    private static void registerStripedMaxPoolTransformers(ResourceTransformationDescriptionBuilder parent) {
+        parent.rejectChildResource(PathElement.pathElement(EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL));
     }
 
     private static void registerMdbDeliveryGroupTransformers(ResourceTransformationDescriptionBuilder parent) {
@@ -222,6 +277,7 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
 
     private static void registerTimerTransformers_1_2_0(ResourceTransformationDescriptionBuilder parent) {
         ResourceTransformationDescriptionBuilder timerService = parent.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH);
+        registerSchedulerThreadsTransformers(timerService);
         registerDataStoreTransformers(timerService);
     }
 
@@ -245,11 +301,49 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
 
     private static void registerTimerTransformers_1_3_0(ResourceTransformationDescriptionBuilder parent) {
         ResourceTransformationDescriptionBuilder timerService = parent.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH);
+        registerSchedulerThreadsTransformers(timerService);
         ResourceTransformationDescriptionBuilder db = timerService.addChildResource(EJB3SubsystemModel.DATABASE_DATA_STORE_PATH);
                 db.getAttributeBuilder()
                         .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(-1)), REFRESH_INTERVAL)
                         .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(true)), ALLOW_EXECUTION)
                         .addRejectCheck(RejectAttributeChecker.DEFINED, REFRESH_INTERVAL, ALLOW_EXECUTION);
+        registerIncrementalRefreshTransformers(db);
+        registerFileDataStoreTransformers(timerService);
+    }
+
+    private static void registerCacheTransformers(ResourceTransformationDescriptionBuilder parent) {
+        parent.addChildResource(PathElement.pathElement(EJB3SubsystemModel.CACHE)).getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(0)), CacheFactoryResourceDefinition.SHARDS)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, CacheFactoryResourceDefinition.SHARDS);
+    }
+
+    private static void registerSingletonLockTransformers(ResourceTransformationDescriptionBuilder builder) {
+        builder.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), EJB3SubsystemRootResourceDefinition.SINGLETON_BEAN_STRIPED_LOCK)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemRootResourceDefinition.SINGLETON_BEAN_STRIPED_LOCK);
+    }
+
+    private static void registerSchedulerThreadsTransformers(ResourceTransformationDescriptionBuilder timerService) {
+        timerService.getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, TimerServiceResourceDefinition.SCHEDULER_THREADS)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, TimerServiceResourceDefinition.SCHEDULER_THREADS);
+    }
+
+    private static void registerDataStoreAttributeTransformers(ResourceTransformationDescriptionBuilder timerService) {
+        registerIncrementalRefreshTransformers(timerService.addChildResource(EJB3SubsystemModel.DATABASE_DATA_STORE_PATH));
+        registerFileDataStoreTransformers(timerService);
+    }
+
+    private static void registerIncrementalRefreshTransformers(ResourceTransformationDescriptionBuilder databaseDataStore) {
+        databaseDataStore.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), DatabaseDataStoreResourceDefinition.INCREMENTAL_REFRESH)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, DatabaseDataStoreResourceDefinition.INCREMENTAL_REFRESH);
+    }
+
+    private static void registerFileDataStoreTransformers(ResourceTransformationDescriptionBuilder timerService) {
+        timerService.addChildResource(EJB3SubsystemModel.FILE_DATA_STORE_PATH).getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(FileDataStoreResourceDefinition.XML_FORMAT)), FileDataStoreResourceDefinition.FORMAT)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, FileDataStoreResourceDefinition.FORMAT);
     }
 
     private static class DataStoreTransformer implements CombinedTransformer {
@@ -295,6 +389,9 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
                     && untransformedModel.get(EJB3SubsystemModel.DATABASE_DATA_STORE).keys().size() > 0)
                     || untransformedModel.get(EJB3SubsystemModel.FILE_DATA_STORE).keys().size() > 1) {
                 rejectIncompatibleDataStores(context, address);
+            } else if (fileStore.hasDefined(EJB3SubsystemModel.FORMAT) && !fileStore.get(EJB3SubsystemModel.FORMAT).asString().equals(FileDataStoreResourceDefinition.XML_FORMAT)) {
+                //legacy file stores only store timers as xml
+                rejectIncompatibleDataStores(context, address);
             }
 
             ModelNode path = fileStore.get(EJB3SubsystemModel.PATH);
@@ -325,6 +422,14 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
                 .setValueConverter(AttributeConverter.Factory.createHardCoded(new ModelNode().set(Long.valueOf(Integer.MAX_VALUE)), true), EJB3SubsystemModel.IDLE_TIMEOUT)
                 .setValueConverter(AttributeConverter.Factory.createHardCoded(new ModelNode().set(TimeUnit.SECONDS.name()), true), EJB3SubsystemModel.IDLE_TIMEOUT_UNIT)
         ;
+        registerPassivationStoreCompressionTransformers(child);
+    }
+
+    private static void registerPassivationStoreCompressionTransformers(ResourceTransformationDescriptionBuilder passivationStore) {
+        passivationStore.getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, PassivationStoreResourceDefinition.COMPRESSION)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(PassivationStoreResourceDefinition.COMPRESSION_THRESHOLD.getDefaultValue()), PassivationStoreResourceDefinition.COMPRESSION_THRESHOLD)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, PassivationStoreResourceDefinition.COMPRESSION, PassivationStoreResourceDefinition.COMPRESSION_THRESHOLD);
     }
 
     /**
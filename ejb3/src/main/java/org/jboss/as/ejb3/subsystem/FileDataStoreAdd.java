@@ -62,7 +62,9 @@ public class FileDataStoreAdd extends AbstractAddStepHandler {
         final ModelNode relativeToNode = FileDataStoreResourceDefinition.RELATIVE_TO.resolveModelAttribute(context, model);
         final String relativeTo = relativeToNode.isDefined() ? relativeToNode.asString() : null;
 
-        final FileTimerPersistence fileTimerPersistence = new FileTimerPersistence(true, path, relativeTo);
+        final String format = FileDataStoreResourceDefinition.FORMAT.resolveModelAttribute(context, model).asString();
+
+        final FileTimerPersistence fileTimerPersistence = new FileTimerPersistence(true, path, relativeTo, format.equals(FileDataStoreResourceDefinition.JOURNAL_FORMAT) ? FileTimerPersistence.Format.JOURNAL : FileTimerPersistence.Format.XML);
         final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
         final ServiceName serviceName = TimerPersistence.SERVICE_NAME.append(address.getLastElement().getValue());
         final ServiceBuilder sb = context.getServiceTarget().addService(serviceName, fileTimerPersistence);
@@ -33,6 +33,7 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.operations.validation.ModelTypeValidator;
+import org.jboss.as.controller.operations.validation.StringAllowedValuesValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -40,6 +41,7 @@ import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.as.controller.services.path.ResolvePathHandler;
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
 /**
@@ -60,6 +62,16 @@ public class FileDataStoreResourceDefinition extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
                     .build();
 
+    public static final String XML_FORMAT = "xml";
+    public static final String JOURNAL_FORMAT = "journal";
+
+    public static final SimpleAttributeDefinition FORMAT =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.FORMAT, ModelType.STRING, true)
+                    .setDefaultValue(new ModelNode(XML_FORMAT))
+                    .setValidator(new StringAllowedValuesValidator(XML_FORMAT, JOURNAL_FORMAT))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
     private final PathManager pathManager;
 
     public static final Map<String, AttributeDefinition> ATTRIBUTES;
@@ -68,6 +80,7 @@ public class FileDataStoreResourceDefinition extends SimpleResourceDefinition {
         Map<String, AttributeDefinition> map = new LinkedHashMap<String, AttributeDefinition>();
         map.put(PATH.getName(), PATH);
         map.put(RELATIVE_TO.getName(), RELATIVE_TO);
+        map.put(FORMAT.getName(), FORMAT);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
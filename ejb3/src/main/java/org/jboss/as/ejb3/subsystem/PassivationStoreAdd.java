@@ -57,10 +57,17 @@ public class PassivationStoreAdd extends AbstractAddStepHandler {
         String containerName = PassivationStoreResourceDefinition.CACHE_CONTAINER.resolveModelAttribute(context, model).asString();
         ModelNode beanCacheNode = PassivationStoreResourceDefinition.BEAN_CACHE.resolveModelAttribute(context, model);
         String cacheName = beanCacheNode.isDefined() ? beanCacheNode.asString() : null;
-        this.install(context, operation, initialMaxSize, containerName, cacheName);
+        ModelNode compressionNode = PassivationStoreResourceDefinition.COMPRESSION.resolveModelAttribute(context, model);
+        String compression = compressionNode.isDefined() ? compressionNode.asString() : null;
+        int compressionThreshold = PassivationStoreResourceDefinition.COMPRESSION_THRESHOLD.resolveModelAttribute(context, model).asInt();
+        this.install(context, operation, initialMaxSize, containerName, cacheName, compression, compressionThreshold);
     }
 
     protected void install(OperationContext context, ModelNode operation, final int initialMaxSize, final String containerName, final String cacheName) {
+        this.install(context, operation, initialMaxSize, containerName, cacheName, null, PassivationStoreResourceDefinition.COMPRESSION_THRESHOLD.getDefaultValue().asInt());
+    }
+
+    protected void install(OperationContext context, ModelNode operation, final int initialMaxSize, final String containerName, final String cacheName, final String compression, final int compressionThreshold) {
         final String name = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.ADDRESS)).getLastElement().getValue();
         BeanManagerFactoryServiceConfiguratorConfiguration config = new BeanManagerFactoryServiceConfiguratorConfiguration() {
             private volatile int maxSize = initialMaxSize;
@@ -84,6 +91,16 @@ public class PassivationStoreAdd extends AbstractAddStepHandler {
             public void setMaxSize(int size) {
                 this.maxSize = size;
             }
+
+            @Override
+            public String getCompression() {
+                return compression;
+            }
+
+            @Override
+            public int getCompressionThreshold() {
+                return compressionThreshold;
+            }
         };
         new DistributableCacheFactoryBuilderService<>(context.getCapabilityServiceSupport(), name, config).build(context.getServiceTarget())
                 .setInitialMode(ServiceController.Mode.ON_DEMAND)
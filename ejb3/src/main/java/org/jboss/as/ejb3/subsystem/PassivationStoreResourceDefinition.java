@@ -9,13 +9,16 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.operations.validation.StringAllowedValuesValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.wildfly.clustering.ejb.BeanManagerFactoryServiceConfiguratorConfiguration;
+import org.wildfly.clustering.marshalling.jboss.SimpleMarshalledValueFactory;
 
 /**
  * @author Paul Ferraro
@@ -44,8 +47,25 @@ public class PassivationStoreResourceDefinition extends SimpleResourceDefinition
             .build()
     ;
 
-    static final AttributeDefinition[] ATTRIBUTES = { MAX_SIZE, CACHE_CONTAINER, BEAN_CACHE };
-    static final AttributeDefinition[] READ_ONLY_ATTRIBUTES = { CACHE_CONTAINER, BEAN_CACHE };
+    static final SimpleAttributeDefinition COMPRESSION = new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.COMPRESSION, ModelType.STRING, true)
+            .setXmlName(EJB3SubsystemXMLAttribute.COMPRESSION.getLocalName())
+            .setAllowExpression(true)
+            .setValidator(new StringAllowedValuesValidator("deflate", "deflate-fast"))
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build()
+    ;
+    static final SimpleAttributeDefinition COMPRESSION_THRESHOLD = new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.COMPRESSION_THRESHOLD, ModelType.INT, true)
+            .setXmlName(EJB3SubsystemXMLAttribute.COMPRESSION_THRESHOLD.getLocalName())
+            .setDefaultValue(new ModelNode(SimpleMarshalledValueFactory.DEFAULT_COMPRESSION_THRESHOLD))
+            .setAllowExpression(true)
+            .setValidator(new LongRangeValidator(0, Integer.MAX_VALUE, true, true))
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build()
+    ;
+
+    static final AttributeDefinition[] ATTRIBUTES = { MAX_SIZE, CACHE_CONTAINER, BEAN_CACHE, COMPRESSION, COMPRESSION_THRESHOLD };
+    static final AttributeDefinition[] READ_ONLY_ATTRIBUTES = { CACHE_CONTAINER, BEAN_CACHE, COMPRESSION, COMPRESSION_THRESHOLD };
     static final AttributeDefinition[] READ_WRITE_ATTRIBUTES = { MAX_SIZE };
 
     static final PassivationStoreAdd ADD_HANDLER = new PassivationStoreAdd(ATTRIBUTES);
@@ -24,6 +24,7 @@ package org.jboss.as.ejb3.subsystem;
 
 import static org.jboss.as.ejb3.component.pool.StrictMaxPoolConfigService.Derive;
 
+import java.util.Collection;
 import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
@@ -34,6 +35,7 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.ejb3.component.pool.StrictMaxPoolConfig;
 import org.jboss.as.ejb3.component.pool.StrictMaxPoolConfigService;
+import org.jboss.as.server.Services;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceName;
@@ -50,6 +52,12 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
 
     static final String IO_MAX_THREADS_RUNTIME_CAPABILITY_NAME = "org.wildfly.io.max-threads";
 
+    StrictMaxPoolAdd() {
+    }
+
+    Collection<AttributeDefinition> getAttributes() {
+        return StrictMaxPoolResourceDefinition.ATTRIBUTES.values();
+    }
 
     /**
      * Populate the <code>strictMaxPoolModel</code> from the <code>operation</code>
@@ -60,7 +68,7 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
      */
     @Override
     protected void populateModel(ModelNode operation, ModelNode strictMaxPoolModel) throws OperationFailedException {
-        for (AttributeDefinition attr : StrictMaxPoolResourceDefinition.ATTRIBUTES.values()) {
+        for (AttributeDefinition attr : this.getAttributes()) {
             attr.validateAndSet(operation, strictMaxPoolModel);
         }
     }
@@ -71,14 +79,18 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
         final String poolName = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.ADDRESS)).getLastElement().getValue();
         final int maxPoolSize = StrictMaxPoolResourceDefinition.MAX_POOL_SIZE.resolveModelAttribute(context, strictMaxPoolModel).asInt();
         final Derive derive = StrictMaxPoolResourceDefinition.parseDeriveSize(context, strictMaxPoolModel);
+        final int minPoolSize = StrictMaxPoolResourceDefinition.MIN_POOL_SIZE.resolveModelAttribute(context, strictMaxPoolModel).asInt();
+        final boolean awaitPrefill = StrictMaxPoolResourceDefinition.AWAIT_PREFILL.resolveModelAttribute(context, strictMaxPoolModel).asBoolean();
         final long timeout = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.resolveModelAttribute(context, strictMaxPoolModel).asLong();
         final String unit = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.resolveModelAttribute(context, strictMaxPoolModel).asString();
         // create and install the service
-        final StrictMaxPoolConfigService poolConfigService = new StrictMaxPoolConfigService(poolName, maxPoolSize, derive, timeout, TimeUnit.valueOf(unit));
+        final StrictMaxPoolConfigService poolConfigService = this.createPoolConfigService(poolName, maxPoolSize, minPoolSize, awaitPrefill, derive, timeout, TimeUnit.valueOf(unit));
 
 
         final ServiceName serviceName = StrictMaxPoolConfigService.EJB_POOL_CONFIG_BASE_SERVICE_NAME.append(poolName);
         ServiceBuilder<StrictMaxPoolConfig> svcBuilder = context.getServiceTarget().addService(serviceName, poolConfigService);
+        // Instances of pools are prefilled by the server executor
+        Services.addServerExecutorDependency(svcBuilder, poolConfigService.getExecutorInjector());
 
         if (context.hasOptionalCapability(IO_MAX_THREADS_RUNTIME_CAPABILITY_NAME, null, null)) {
             ServiceName name = context.getCapabilityServiceName(IO_MAX_THREADS_RUNTIME_CAPABILITY_NAME, Integer.class);
@@ -88,4 +100,8 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
         svcBuilder.install();
     }
 
+    StrictMaxPoolConfigService createPoolConfigService(String poolName, int maxPoolSize, int minPoolSize, boolean awaitPrefill, Derive derive, long timeout, TimeUnit unit) {
+        return new StrictMaxPoolConfigService(poolName, maxPoolSize, minPoolSize, awaitPrefill, derive, timeout, unit);
+    }
+
 }
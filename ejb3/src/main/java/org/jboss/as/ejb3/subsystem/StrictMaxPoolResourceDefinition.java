@@ -79,6 +79,19 @@ public class StrictMaxPoolResourceDefinition extends SimpleResourceDefinition {
                     .setAlternatives(EJB3SubsystemModel.MAX_POOL_SIZE)
                     .setFlags(AttributeAccess.Flag.RESTART_NONE)
                     .build();
+    public static final SimpleAttributeDefinition MIN_POOL_SIZE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.MIN_POOL_SIZE, ModelType.INT, true)
+                    .setDefaultValue(new ModelNode().set(StrictMaxPoolConfig.DEFAULT_MIN_POOL_SIZE))
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(0, Integer.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+    public static final SimpleAttributeDefinition AWAIT_PREFILL =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.AWAIT_PREFILL, ModelType.BOOLEAN, true)
+                    .setDefaultValue(new ModelNode().set(StrictMaxPoolConfig.DEFAULT_AWAIT_PREFILL))
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
     public static final SimpleAttributeDefinition INSTANCE_ACQUISITION_TIMEOUT =
             new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.INSTANCE_ACQUISITION_TIMEOUT, ModelType.LONG, true)
                     .setXmlName(EJB3SubsystemXMLAttribute.INSTANCE_ACQUISITION_TIMEOUT.getLocalName())
@@ -106,8 +119,10 @@ public class StrictMaxPoolResourceDefinition extends SimpleResourceDefinition {
         Map<String, AttributeDefinition> map = new LinkedHashMap<String, AttributeDefinition>();
         map.put(MAX_POOL_SIZE.getName(), MAX_POOL_SIZE);
         map.put(DERIVE_SIZE.getName(), DERIVE_SIZE);
+        map.put(MIN_POOL_SIZE.getName(), MIN_POOL_SIZE);
         map.put(INSTANCE_ACQUISITION_TIMEOUT.getName(), INSTANCE_ACQUISITION_TIMEOUT);
         map.put(INSTANCE_ACQUISITION_TIMEOUT_UNIT.getName(), INSTANCE_ACQUISITION_TIMEOUT_UNIT);
+        map.put(AWAIT_PREFILL.getName(), AWAIT_PREFILL);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
@@ -38,7 +38,7 @@ import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceRegistry;
 
 /**
- * Handles the "write-attribute" operation for a strict-max-bean-instance-pool resource.
+ * Handles the "write-attribute" operation for a strict-max-bean-instance-pool or striped-max-bean-instance-pool resource.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
@@ -73,6 +73,12 @@ class StrictMaxPoolWriteHandler extends AbstractWriteAttributeHandler<Void> {
                 } else if (StrictMaxPoolResourceDefinition.DERIVE_SIZE.getName().equals(attributeName)) {
                     StrictMaxPoolConfigService.Derive derive = StrictMaxPoolResourceDefinition.parseDeriveSize(context, model);
                     smpc.setDerive(derive);
+                } else if (StrictMaxPoolResourceDefinition.MIN_POOL_SIZE.getName().equals(attributeName)) {
+                    int minPoolSize = StrictMaxPoolResourceDefinition.MIN_POOL_SIZE.resolveModelAttribute(context, model).asInt();
+                    smpc.setMinPoolSize(minPoolSize);
+                } else if (StrictMaxPoolResourceDefinition.AWAIT_PREFILL.getName().equals(attributeName)) {
+                    boolean awaitPrefill = StrictMaxPoolResourceDefinition.AWAIT_PREFILL.resolveModelAttribute(context, model).asBoolean();
+                    smpc.setAwaitPrefill(awaitPrefill);
                 } else if (StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.getName().equals(attributeName)) {
                     long timeout = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.resolveModelAttribute(context, model).asLong();
                     smpc.setTimeout(timeout);
@@ -22,21 +22,31 @@
 
 package org.jboss.as.ejb3.subsystem;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.ejb3.deployment.processors.TimerServiceDeploymentProcessor;
+import org.jboss.as.ejb3.timerservice.TimerScheduler;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
 
 /**
  * {@link org.jboss.as.controller.ResourceDefinition} for the timer-service resource.
@@ -57,24 +67,54 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                     //.setDefaultValue(new ModelNode("default-file-store")) //for backward compatibility!
                     .build();
 
+    static final SimpleAttributeDefinition SCHEDULER_THREADS =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.SCHEDULER_THREADS, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    static final SimpleAttributeDefinition TIMEOUT_COUNT =
+            new SimpleAttributeDefinitionBuilder("timeout-count", ModelType.LONG)
+                    .setUndefinedMetricValue(new ModelNode(0L))
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition AVERAGE_TIMEOUT_LATENESS =
+            new SimpleAttributeDefinitionBuilder("average-timeout-lateness", ModelType.LONG)
+                    .setUndefinedMetricValue(new ModelNode(0L))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition MAX_TIMEOUT_LATENESS =
+            new SimpleAttributeDefinitionBuilder("max-timeout-lateness", ModelType.LONG)
+                    .setUndefinedMetricValue(new ModelNode(0L))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setStorageRuntime()
+                    .build();
+
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
     private final PathManager pathManager;
+    private final boolean registerRuntimeOnly;
 
     static {
         Map<String, AttributeDefinition> map = new LinkedHashMap<String, AttributeDefinition>();
         map.put(THREAD_POOL_NAME.getName(), THREAD_POOL_NAME);
         map.put(DEFAULT_DATA_STORE.getName(), DEFAULT_DATA_STORE);
+        map.put(SCHEDULER_THREADS.getName(), SCHEDULER_THREADS);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
 
-    public TimerServiceResourceDefinition(final PathManager pathManager) {
+    public TimerServiceResourceDefinition(final PathManager pathManager, final boolean registerRuntimeOnly) {
         super(EJB3SubsystemModel.TIMER_SERVICE_PATH,
                 EJB3Extension.getResourceDescriptionResolver(EJB3SubsystemModel.TIMER_SERVICE),
                 TimerServiceAdd.INSTANCE, ReloadRequiredRemoveStepHandler.INSTANCE,
                 OperationEntry.Flag.RESTART_ALL_SERVICES, OperationEntry.Flag.RESTART_ALL_SERVICES);
         this.pathManager = pathManager;
+        this.registerRuntimeOnly = registerRuntimeOnly;
     }
 
 
@@ -83,6 +123,12 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
         for (AttributeDefinition attr : ATTRIBUTES.values()) {
             resourceRegistration.registerReadWriteAttribute(attr, null, new ReloadRequiredWriteAttributeHandler(attr));
         }
+        if (registerRuntimeOnly) {
+            TimerSchedulerMetricsHandler handler = new TimerSchedulerMetricsHandler();
+            resourceRegistration.registerMetric(TIMEOUT_COUNT, handler);
+            resourceRegistration.registerMetric(AVERAGE_TIMEOUT_LATENESS, handler);
+            resourceRegistration.registerMetric(MAX_TIMEOUT_LATENESS, handler);
+        }
     }
 
     @Override
@@ -91,4 +137,23 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
         resourceRegistration.registerSubModel(DatabaseDataStoreResourceDefinition.INSTANCE);
     }
 
+    private static class TimerSchedulerMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) {
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(TimerServiceDeploymentProcessor.TIMER_SERVICE_NAME);
+            TimerScheduler scheduler = (controller != null) && (controller.getState() == ServiceController.State.UP) ? (TimerScheduler) controller.getValue() : null;
+            if (scheduler != null) {
+                String name = operation.require(NAME).asString();
+                if (TIMEOUT_COUNT.getName().equals(name)) {
+                    context.getResult().set(scheduler.getTimeoutCount());
+                } else if (AVERAGE_TIMEOUT_LATENESS.getName().equals(name)) {
+                    context.getResult().set(scheduler.getAverageLateness());
+                } else if (MAX_TIMEOUT_LATENESS.getName().equals(name)) {
+                    context.getResult().set(scheduler.getMaxLateness());
+                }
+            }
+        }
+    }
+
 }
@@ -33,10 +33,14 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleMapAttributeDefinition;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.ejb3.cache.Cache;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.invocationmetrics.InvocationMetrics;
 import org.jboss.as.ejb3.component.stateful.StatefulSessionComponent;
@@ -80,7 +84,15 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
-    private static final AttributeDefinition METHODS = ObjectTypeAttributeDefinition.Builder.of("methods", EXECUTION_TIME, INVOCATIONS, WAIT_TIME)
+    private static final AttributeDefinition EXECUTION_TIME_P50 = latencyPercentile("execution-time-p50");
+    private static final AttributeDefinition EXECUTION_TIME_P99 = latencyPercentile("execution-time-p99");
+    private static final AttributeDefinition EXECUTION_TIME_MAX = latencyPercentile("execution-time-max");
+    private static final AttributeDefinition WAIT_TIME_P50 = latencyPercentile("wait-time-p50");
+    private static final AttributeDefinition WAIT_TIME_P99 = latencyPercentile("wait-time-p99");
+    private static final AttributeDefinition WAIT_TIME_MAX = latencyPercentile("wait-time-max");
+
+    private static final AttributeDefinition METHODS = ObjectTypeAttributeDefinition.Builder.of("methods", EXECUTION_TIME, INVOCATIONS, WAIT_TIME,
+                    EXECUTION_TIME_P50, EXECUTION_TIME_P99, EXECUTION_TIME_MAX, WAIT_TIME_P50, WAIT_TIME_P99, WAIT_TIME_MAX)
             .setRequired(false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
@@ -112,6 +124,50 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
+    private static final AttributeDefinition EXPIRED_COUNT = new SimpleAttributeDefinitionBuilder("expired-count", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition EXPIRATION_BATCH_SIZE = new SimpleAttributeDefinitionBuilder("expiration-batch-size", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition MAX_EXPIRATION_BATCH_SIZE = new SimpleAttributeDefinitionBuilder("max-expiration-batch-size", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition EXPIRATION_LAG = new SimpleAttributeDefinitionBuilder("expiration-lag", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition MARSHALLED_VALUE_COUNT = new SimpleAttributeDefinitionBuilder("marshalled-value-count", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition AVERAGE_MARSHALLED_VALUE_SIZE = new SimpleAttributeDefinitionBuilder("average-marshalled-value-size", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition AVERAGE_STORED_VALUE_SIZE = new SimpleAttributeDefinitionBuilder("average-stored-value-size", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition MARSHALLED_VALUE_SIZE_HISTOGRAM = new SimpleMapAttributeDefinition.Builder("marshalled-value-size-histogram", ModelType.LONG, true)
+            .setStorageRuntime().build();
+
+    private static final AttributeDefinition STORED_VALUE_SIZE_HISTOGRAM = new SimpleMapAttributeDefinition.Builder("stored-value-size-histogram", ModelType.LONG, true)
+            .setStorageRuntime().build();
+
     // Pool attributes
 
     public static final SimpleAttributeDefinition POOL_AVAILABLE_COUNT = new SimpleAttributeDefinitionBuilder("pool-available-count", ModelType.INT, false)
@@ -126,7 +182,35 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
     public static final SimpleAttributeDefinition POOL_REMOVE_COUNT = new SimpleAttributeDefinitionBuilder("pool-remove-count", ModelType.INT, false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
     public static final SimpleAttributeDefinition POOL_MAX_SIZE = new SimpleAttributeDefinitionBuilder("pool-max-size", ModelType.INT, false)
+            .setValidator(new IntRangeValidator(1))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition POOL_PEAK_IN_USE_COUNT = new SimpleAttributeDefinitionBuilder("pool-peak-in-use-count", ModelType.INT, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition POOL_TIMEOUT_COUNT = new SimpleAttributeDefinitionBuilder("pool-timeout-count", ModelType.LONG, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition POOL_PREFILL_TIME = new SimpleAttributeDefinitionBuilder("pool-prefill-time", ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleMapAttributeDefinition POOL_WAIT_TIME_HISTOGRAM = new SimpleMapAttributeDefinition.Builder("pool-wait-time-histogram", ModelType.LONG, true)
+            .setStorageRuntime().build();
+
+    // Keyed by the exclusive upper bound of each bucket, in bytes, omitting empty buckets
+    private static void setSizeHistogram(final ModelNode result, final long[] histogram) {
+        result.setEmptyObject();
+        for (int i = 0; i < histogram.length; ++i) {
+            if (histogram[i] > 0) {
+                result.get(Long.toString(1L << i)).set(histogram[i]);
+            }
+        }
+    }
+
+    private static AttributeDefinition latencyPercentile(final String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG)
+                .setUndefinedMetricValue(new ModelNode(0))
+                .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                .build();
+    }
 
     private final EJBComponentType componentType;
 
@@ -154,6 +238,10 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             resourceRegistration.registerReadOnlyAttribute(POOL_REMOVE_COUNT, handler);
             resourceRegistration.registerReadOnlyAttribute(POOL_CURRENT_SIZE, handler);
             resourceRegistration.registerReadWriteAttribute(POOL_MAX_SIZE, handler, handler);
+            resourceRegistration.registerReadOnlyAttribute(POOL_PEAK_IN_USE_COUNT, handler);
+            resourceRegistration.registerReadOnlyAttribute(POOL_TIMEOUT_COUNT, handler);
+            resourceRegistration.registerReadOnlyAttribute(POOL_WAIT_TIME_HISTOGRAM, handler);
+            resourceRegistration.registerReadOnlyAttribute(POOL_PREFILL_TIME, handler);
         }
 
         if (componentType.equals(EJBComponentType.STATEFUL)) {
@@ -175,6 +263,66 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                     context.getResult().set(((StatefulSessionComponent)component).getCache().getTotalSize());
                 }
             });
+            resourceRegistration.registerMetric(EXPIRED_COUNT, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    context.getResult().set(((StatefulSessionComponent)component).getCache().getExpiredCount());
+                }
+            });
+            resourceRegistration.registerMetric(EXPIRATION_BATCH_SIZE, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    Cache<?, ?> cache = ((StatefulSessionComponent)component).getCache();
+                    long batches = cache.getExpirationBatchCount();
+                    context.getResult().set((batches > 0) ? cache.getExpiredCount() / batches : 0L);
+                }
+            });
+            resourceRegistration.registerMetric(MAX_EXPIRATION_BATCH_SIZE, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    context.getResult().set(((StatefulSessionComponent)component).getCache().getMaxExpirationBatchSize());
+                }
+            });
+            resourceRegistration.registerMetric(EXPIRATION_LAG, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    context.getResult().set(((StatefulSessionComponent)component).getCache().getAverageExpirationLag().toMillis());
+                }
+            });
+            resourceRegistration.registerMetric(MARSHALLED_VALUE_COUNT, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    context.getResult().set(((StatefulSessionComponent)component).getCache().getMarshalledCount());
+                }
+            });
+            resourceRegistration.registerMetric(AVERAGE_MARSHALLED_VALUE_SIZE, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    Cache<?, ?> cache = ((StatefulSessionComponent)component).getCache();
+                    long count = cache.getMarshalledCount();
+                    context.getResult().set((count > 0) ? cache.getMarshalledBytes() / count : 0L);
+                }
+            });
+            resourceRegistration.registerMetric(AVERAGE_STORED_VALUE_SIZE, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    Cache<?, ?> cache = ((StatefulSessionComponent)component).getCache();
+                    long count = cache.getMarshalledCount();
+                    context.getResult().set((count > 0) ? cache.getStoredBytes() / count : 0L);
+                }
+            });
+            resourceRegistration.registerMetric(MARSHALLED_VALUE_SIZE_HISTOGRAM, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    setSizeHistogram(context.getResult(), ((StatefulSessionComponent)component).getCache().getMarshalledSizeHistogram());
+                }
+            });
+            resourceRegistration.registerMetric(STORED_VALUE_SIZE_HISTOGRAM, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    setSizeHistogram(context.getResult(), ((StatefulSessionComponent)component).getCache().getStoredSizeHistogram());
+                }
+            });
         }
 
         resourceRegistration.registerMetric(EXECUTION_TIME, new AbstractRuntimeMetricsHandler() {
@@ -211,6 +359,12 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                     result.get("execution-time").set(values.getExecutionTime());
                     result.get("invocations").set(values.getInvocations());
                     result.get("wait-time").set(values.getWaitTime());
+                    result.get(EXECUTION_TIME_P50.getName()).set(values.getExecutionTimeP50());
+                    result.get(EXECUTION_TIME_P99.getName()).set(values.getExecutionTimeP99());
+                    result.get(EXECUTION_TIME_MAX.getName()).set(values.getMaxExecutionTime());
+                    result.get(WAIT_TIME_P50.getName()).set(values.getWaitTimeP50());
+                    result.get(WAIT_TIME_P99.getName()).set(values.getWaitTimeP99());
+                    result.get(WAIT_TIME_MAX.getName()).set(values.getMaxWaitTime());
                     context.getResult().get(entry.getKey()).set(result);
                 }
             }
@@ -38,6 +38,7 @@ import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.as.ejb3.pool.PoolSemaphore;
 import org.jboss.as.ejb3.security.EJBSecurityMetaData;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceController;
@@ -52,7 +53,11 @@ import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourc
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_CURRENT_SIZE;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_MAX_SIZE;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_NAME;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_PEAK_IN_USE_COUNT;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_PREFILL_TIME;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_REMOVE_COUNT;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_TIMEOUT_COUNT;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_WAIT_TIME_HISTOGRAM;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.RUN_AS_ROLE;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.SECURITY_DOMAIN;
 
@@ -166,6 +171,35 @@ public abstract class AbstractEJBComponentRuntimeHandler<T extends EJBComponent>
             if (pool != null) {
                 result.set(pool.getMaxSize());
             }
+        } else if (hasPool && POOL_PEAK_IN_USE_COUNT.getName().equals(attributeName)) {
+            final Pool<?> pool = componentType.getPool(component);
+            final ModelNode result = context.getResult();
+            if (pool != null) {
+                result.set(pool.getPeakInUseCount());
+            }
+        } else if (hasPool && POOL_TIMEOUT_COUNT.getName().equals(attributeName)) {
+            final Pool<?> pool = componentType.getPool(component);
+            final ModelNode result = context.getResult();
+            if (pool != null) {
+                result.set(pool.getTimeoutCount());
+            }
+        } else if (hasPool && POOL_PREFILL_TIME.getName().equals(attributeName)) {
+            final Pool<?> pool = componentType.getPool(component);
+            final ModelNode result = context.getResult();
+            if (pool != null) {
+                result.set(pool.getPrefillTime());
+            }
+        } else if (hasPool && POOL_WAIT_TIME_HISTOGRAM.getName().equals(attributeName)) {
+            final Pool<?> pool = componentType.getPool(component);
+            final ModelNode result = context.getResult();
+            if (pool != null) {
+                // Keyed by the inclusive upper bound of each bucket, in milliseconds
+                long[] histogram = pool.getWaitTimeHistogram();
+                for (int i = 0; i < histogram.length; ++i) {
+                    String bucket = (i < PoolSemaphore.WAIT_TIME_BUCKETS.length) ? Long.toString(PoolSemaphore.WAIT_TIME_BUCKETS[i]) : "unbounded";
+                    result.get(bucket).set(histogram[i]);
+                }
+            }
         } else {
             // Bug; we were registered for an attribute but there is no code for handling it
             throw EjbLogger.ROOT_LOGGER.unknownAttribute(attributeName);
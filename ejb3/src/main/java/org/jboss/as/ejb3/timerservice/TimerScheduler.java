@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Schedules the timeouts of the EJB timers of the server, as well as the periodic tasks of timer persistence.
+ * Unlike a {@link java.util.Timer}, scheduled tasks are dispatched by multiple threads,
+ * so that a slow task does not delay unrelated timeouts.
+ * Scheduled tasks are expected to hand off any lengthy work to the executor of the timer service.
+ * <p>
+ * The scheduler also records the lateness of timeouts, i.e. the duration between the scheduled and the actual time of a timeout.
+ * </p>
+ */
+public class TimerScheduler extends ScheduledThreadPoolExecutor {
+
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalLateness = new LongAdder();
+    private final LongAccumulator maxLateness = new LongAccumulator(Math::max, 0L);
+
+    public TimerScheduler(int threads, ThreadFactory factory) {
+        super(threads, factory);
+        // Timers are cancelled frequently, so don't retain cancelled tasks until their scheduled time
+        this.setRemoveOnCancelPolicy(true);
+        this.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Records a timeout that fired with the specified lateness.
+     * @param lateness the duration, in milliseconds, between the scheduled and the actual time of the timeout
+     */
+    public void timeout(long lateness) {
+        long value = Math.max(lateness, 0L);
+        this.timeouts.increment();
+        this.totalLateness.add(value);
+        this.maxLateness.accumulate(value);
+    }
+
+    /**
+     * Returns the number of timeouts fired by this scheduler.
+     * @return the number of timeouts
+     */
+    public long getTimeoutCount() {
+        return this.timeouts.sum();
+    }
+
+    /**
+     * Returns the average lateness of the timeouts fired by this scheduler.
+     * @return the average lateness in milliseconds
+     */
+    public long getAverageLateness() {
+        long count = this.timeouts.sum();
+        return (count > 0) ? this.totalLateness.sum() / count : 0L;
+    }
+
+    /**
+     * Returns the maximum lateness of the timeouts fired by this scheduler.
+     * @return the maximum lateness in milliseconds
+     */
+    public long getMaxLateness() {
+        return this.maxLateness.get();
+    }
+}
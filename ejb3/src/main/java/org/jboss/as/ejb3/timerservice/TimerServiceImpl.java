@@ -37,6 +37,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import javax.ejb.EJBException;
 import javax.ejb.ScheduleExpression;
@@ -100,7 +102,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
 
     private final InjectedValue<ExecutorService> executorServiceInjectedValue = new InjectedValue<ExecutorService>();
 
-    private final InjectedValue<java.util.Timer> timerInjectedValue = new InjectedValue<java.util.Timer>();
+    private final InjectedValue<TimerScheduler> timerInjectedValue = new InjectedValue<TimerScheduler>();
 
     private final InjectedValue<TimedObjectInvoker> timedObjectInvoker = new InjectedValue<TimedObjectInvoker>();
 
@@ -122,7 +124,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
     /**
      * Holds the {@link java.util.concurrent.Future} of each of the timer tasks that have been scheduled
      */
-    private final Map<String, java.util.TimerTask> scheduledTimerFutures = new HashMap<String, java.util.TimerTask>();
+    private final Map<String, Task> scheduledTimerFutures = new HashMap<String, Task>();
 
     /**
      * Key that is used to store timers that are waiting on transaction completion in the transaction local
@@ -894,18 +896,18 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
                 delay = 0;
             }
             long intervalDuration = timer.getInterval();
-            final Task task = new Task(timerTask, ejbComponentInjectedValue.getValue().getControlPoint());
+            final Task task = new Task(timerTask, ejbComponentInjectedValue.getValue().getControlPoint(), System.currentTimeMillis() + delay, intervalDuration);
             if (intervalDuration > 0) {
                 EJB3_TIMER_LOGGER.debugv("Scheduling timer {0} at fixed rate, starting at {1} milliseconds from now with repeated interval={2}",
                         timer, delay, intervalDuration);
                 // schedule the task
-                this.timerInjectedValue.getValue().scheduleAtFixedRate(task, delay, intervalDuration);
+                task.setFuture(this.timerInjectedValue.getValue().scheduleAtFixedRate(task, delay, intervalDuration, TimeUnit.MILLISECONDS));
                 // maintain it in timerservice for future use (like cancellation)
                 this.scheduledTimerFutures.put(timer.getId(), task);
             } else {
                 EJB3_TIMER_LOGGER.debugv("Scheduling a single action timer {0} starting at {1} milliseconds from now", timer, delay);
                 // schedule the task
-                this.timerInjectedValue.getValue().schedule(task, delay);
+                task.setFuture(this.timerInjectedValue.getValue().schedule(task, delay, TimeUnit.MILLISECONDS));
                 // maintain it in timerservice for future use (like cancellation)
                 this.scheduledTimerFutures.put(timer.getId(), task);
 
@@ -920,7 +922,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
      */
     protected void cancelTimeout(final TimerImpl timer) {
         synchronized (this.scheduledTimerFutures) {
-            java.util.TimerTask timerTask = this.scheduledTimerFutures.remove(timer.getId());
+            Task timerTask = this.scheduledTimerFutures.remove(timer.getId());
             if (timerTask != null) {
                 timerTask.cancel();
             }
@@ -1098,7 +1100,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         return executorServiceInjectedValue;
     }
 
-    public InjectedValue<java.util.Timer> getTimerInjectedValue() {
+    public InjectedValue<TimerScheduler> getTimerInjectedValue() {
         return timerInjectedValue;
     }
 
@@ -1217,7 +1219,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
-    private class TaskPostPersist extends java.util.TimerTask {
+    private class TaskPostPersist implements Runnable {
         private final TimerImpl timer;
         private long delta = 0;
         private long nextExpirationPristine = 0;
@@ -1261,7 +1263,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
                     }
                     timerInjectedValue
                             .getValue()
-                            .schedule(new TaskPostPersist(timer, delta, nextExpirationPristine), delta);
+                            .schedule(new TaskPostPersist(timer, delta, nextExpirationPristine), delta, TimeUnit.MILLISECONDS);
                 } else {
                     EJB3_TIMER_LOGGER.exceptionPersistPostTimerState(timer, e);
                 }
@@ -1269,23 +1271,48 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
-    private class Task extends java.util.TimerTask {
+    private class Task implements Runnable {
 
         private final TimerTask<?> delegate;
         private final ControlPoint controlPoint;
+        private final long interval;
         /**
          * This is true if a task is queued up to be run by the request controller,
          * used to stop timer tasks banking up when the container is suspended.
          */
         private volatile boolean queued = false;
+        /**
+         * The time at which this task is next expected to run, only ever updated by the running task.
+         */
+        private volatile long scheduledTime;
+        /**
+         * The future of this task, only assigned once scheduled, i.e. possibly after the task first ran or was canceled.
+         */
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean canceled = false;
 
-        public Task(final TimerTask<?> delegate, ControlPoint controlPoint) {
+        public Task(final TimerTask<?> delegate, ControlPoint controlPoint, long scheduledTime, long interval) {
             this.delegate = delegate;
             this.controlPoint = controlPoint;
+            this.scheduledTime = scheduledTime;
+            this.interval = interval;
+        }
+
+        void setFuture(ScheduledFuture<?> future) {
+            this.future = future;
+            // Cancel a task that was canceled before its future was assigned
+            if (this.canceled) {
+                future.cancel(false);
+            }
         }
 
         @Override
         public void run() {
+            if (canceled) {
+                return;
+            }
+            timerInjectedValue.getValue().timeout(System.currentTimeMillis() - scheduledTime);
+            scheduledTime += interval;
             final ExecutorService executor = executorServiceInjectedValue.getOptionalValue();
             if (executor != null) {
                 if(controlPoint == null) {
@@ -1305,10 +1332,11 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
             }
         }
 
-        @Override
         public boolean cancel() {
+            this.canceled = true;
             delegate.cancel();
-            return super.cancel();
+            ScheduledFuture<?> future = this.future;
+            return (future == null) || future.cancel(false);
         }
     }
 
@@ -46,11 +46,12 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.sql.DataSource;
@@ -58,12 +59,16 @@ import javax.transaction.HeuristicMixedException;
 import javax.transaction.HeuristicRollbackException;
 import javax.transaction.NotSupportedException;
 import javax.transaction.RollbackException;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
 import javax.transaction.SystemException;
 import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
 
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.timerservice.CalendarTimer;
 import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerScheduler;
 import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
 import org.jboss.as.ejb3.timerservice.TimerState;
 import org.jboss.as.ejb3.timerservice.persistence.TimeoutMethod;
@@ -101,9 +106,12 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private final InjectedValue<ModuleLoader> moduleLoader = new InjectedValue<ModuleLoader>();
     private final Map<String, TimerChangeListener> changeListeners = Collections.synchronizedMap(new HashMap<String, TimerChangeListener>());
 
-    private final InjectedValue<java.util.Timer> timerInjectedValue = new InjectedValue<java.util.Timer>();
+    private final InjectedValue<TimerScheduler> timerInjectedValue = new InjectedValue<TimerScheduler>();
+    private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
 
     private final Map<String, Set<String>> knownTimerIds = new HashMap<>();
+    /** Change id of the partition up to which the incremental refresh has seen the creations and cancellations of each timed object*/
+    private final Map<String, Long> seenChangeIds = new HashMap<>();
 
     /** Identifier for the database dialect to be used for the timer-sql.properties */
     private String database;
@@ -117,30 +125,60 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private final int refreshInterval;
     /** Flag whether this instance should execute persistent timers*/
     private final boolean allowExecution;
+    /** Flag whether the refresh only loads the timers created or cancelled since the previous refresh*/
+    private final boolean incrementalRefresh;
     private volatile ManagedReference managedReference;
     private volatile DataSource dataSource;
     private volatile Properties sql;
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
-    private RefreshTask refreshTask;
+    private ScheduledFuture<?> refreshTask;
 
     /** Names for the different SQL commands stored in the properties*/
     private static final String CREATE_TABLE = "create-table";
     private static final String CREATE_TIMER = "create-timer";
+    private static final String CREATE_TRACKED_TIMER = "create-tracked-timer";
     private static final String UPDATE_TIMER = "update-timer";
     private static final String LOAD_ALL_TIMERS = "load-all-timers";
     private static final String LOAD_TIMER = "load-timer";
+    private static final String LOAD_TIMER_IDS = "load-timer-ids";
+    private static final String LOAD_CHANGED_TIMERS = "load-changed-timers";
     private static final String DELETE_TIMER = "delete-timer";
+    private static final String CANCEL_TIMER = "cancel-timer";
+    private static final String PURGE_TIMERS = "purge-timers";
     private static final String UPDATE_RUNNING = "update-running";
+    /** Names of the SQL commands maintaining the change counter of the incremental refresh*/
+    private static final String LOAD_CHANGE = "load-change";
+    private static final String INSERT_CHANGE = "insert-change";
+    private static final String INCREMENT_CHANGE = "increment-change";
+    private static final String UPDATE_PURGED_CHANGE = "update-purged-change";
+    private static final String ADD_CHANGE_ID = "add-change-id";
+    private static final String CREATE_CHANGE_TABLE = "create-change-table";
+    /** Order in which the batched statements of a transaction are executed, so that a timer is created before it is updated or cancelled*/
+    private static final String[] BATCH_ORDER = { CREATE_TIMER, CREATE_TRACKED_TIMER, UPDATE_TIMER, CANCEL_TIMER, DELETE_TIMER };
+    /** Tables and column used to confirm that the incremental refresh requires a migration of the schema*/
+    private static final String TIMER_TABLE = "JBOSS_EJB_TIMER";
+    private static final String CHANGE_TABLE = "JBOSS_EJB_TIMER_CHANGE";
+    private static final String CHANGE_ID_COLUMN = "CHANGE_ID";
     /** The format for scheduler start and end date*/
     private static final String SCHEDULER_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+    /**
+     * Number of refreshes after which the tombstones of cancelled timers are purged, once the change id they carry
+     * has been seen by the refresh of this node.
+     */
+    private static final int PURGE_REFRESHES = 10;
 
     public DatabaseTimerPersistence(final String database, String partition, String nodeName, int refreshInterval, boolean allowExecution) {
+        this(database, partition, nodeName, refreshInterval, allowExecution, false);
+    }
+
+    public DatabaseTimerPersistence(final String database, String partition, String nodeName, int refreshInterval, boolean allowExecution, boolean incrementalRefresh) {
         this.database = database;
         this.partition = partition;
         this.nodeName = nodeName;
         this.refreshInterval = refreshInterval;
         this.allowExecution = allowExecution;
+        this.incrementalRefresh = incrementalRefresh;
     }
 
     @Override
@@ -164,18 +202,23 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         extractDialects();
         investigateDialect();
         checkDatabase();
+        if (incrementalRefresh) {
+            checkChangeTracking();
+        }
         if (refreshInterval > 0) {
-            refreshTask = new RefreshTask();
-            timerInjectedValue.getValue().schedule(refreshTask, refreshInterval, refreshInterval);
+            // Fixed delay, so that a slow refresh never causes subsequent refreshes to run back to back
+            refreshTask = timerInjectedValue.getValue().scheduleWithFixedDelay(new RefreshTask(), refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
         }
     }
 
     @Override
     public synchronized void stop(final StopContext context) {
         if (refreshTask != null) {
-            refreshTask.cancel();
+            refreshTask.cancel(false);
+            refreshTask = null;
         }
         knownTimerIds.clear();
+        seenChangeIds.clear();
         managedReference.release();
         managedReference = null;
         dataSource = null;
@@ -312,6 +355,140 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
+    /**
+     * Prepares the database for the incremental refresh: adds the CHANGE_ID column to the timer table and creates the table
+     * holding the change counter of each partition, if the database metadata confirms that they do not exist yet.
+     */
+    private void checkChangeTracking() {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = dataSource.getConnection();
+            try {
+                //test for the existence of the column by running the refresh query
+                statement = connection.prepareStatement(sql(LOAD_CHANGED_TIMERS));
+                statement.setString(1, "NON-EXISTENT");
+                statement.setString(2, "NON-EXISTENT");
+                statement.setLong(3, Long.MAX_VALUE);
+                resultSet = statement.executeQuery();
+            } catch (SQLException e) {
+                checkMissing(connection, TIMER_TABLE, CHANGE_ID_COLUMN, e);
+                executeUpdates(connection, sql(ADD_CHANGE_ID));
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+            }
+            Change change;
+            try {
+                change = loadChange(connection);
+            } catch (SQLException e) {
+                checkMissing(connection, CHANGE_TABLE, null, e);
+                executeUpdates(connection, sql(CREATE_CHANGE_TABLE));
+                change = null;
+            }
+            if (change == null) {
+                try {
+                    insertChange(connection, 0);
+                } catch (SQLException e) {
+                    // Most likely inserted concurrently by another node
+                    EjbLogger.EJB3_TIMER_LOGGER.debugf(e, "Failed to create the change counter of partition %s", partition);
+                }
+            }
+        } catch (SQLException e) {
+            EjbLogger.EJB3_TIMER_LOGGER.couldNotPrepareTimerChangeTracking(e);
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    /**
+     * Confirms that the given table, or column of that table, does not exist, after a statement referencing it failed.
+     * Unquoted identifiers are stored in upper case by most databases, but in lower case by some.
+     *
+     * @throws SQLException the given failure, if the table or column does exist
+     */
+    private static void checkMissing(final Connection connection, final String table, final String column, final SQLException failure) throws SQLException {
+        final DatabaseMetaData metaData = connection.getMetaData();
+        final boolean lowerCase = metaData.storesLowerCaseIdentifiers();
+        final String tableName = lowerCase ? table.toLowerCase(Locale.ENGLISH) : table;
+        ResultSet resultSet = null;
+        try {
+            if (column == null) {
+                resultSet = metaData.getTables(null, null, tableName, null);
+            } else {
+                resultSet = metaData.getColumns(null, null, tableName, lowerCase ? column.toLowerCase(Locale.ENGLISH) : column);
+            }
+            if (resultSet.next()) {
+                // The statement failed for another reason, which altering the schema would not fix
+                throw failure;
+            }
+        } finally {
+            safeClose(resultSet);
+        }
+    }
+
+    private static void executeUpdates(final Connection connection, final String sql) throws SQLException {
+        for (final String update : sql.split(";")) {
+            Statement statement = null;
+            try {
+                statement = connection.createStatement();
+                statement.executeUpdate(update);
+            } finally {
+                safeClose(statement);
+            }
+        }
+    }
+
+    /**
+     * Reads the change counter of the partition.
+     *
+     * @return the change counter, or null if it does not exist
+     */
+    private Change loadChange(final Connection connection) throws SQLException {
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = connection.prepareStatement(sql(LOAD_CHANGE));
+            statement.setString(1, partition);
+            resultSet = statement.executeQuery();
+            return resultSet.next() ? new Change(resultSet.getLong(1), resultSet.getLong(2)) : null;
+        } finally {
+            safeClose(resultSet);
+            safeClose(statement);
+        }
+    }
+
+    private void insertChange(final Connection connection, final long changeId) throws SQLException {
+        PreparedStatement statement = null;
+        try {
+            statement = connection.prepareStatement(sql(INSERT_CHANGE));
+            statement.setString(1, partition);
+            statement.setLong(2, changeId);
+            statement.executeUpdate();
+        } finally {
+            safeClose(statement);
+        }
+    }
+
+    /**
+     * Increments the change counter of the partition, so that the timers subsequently created or cancelled by the same transaction carry the new change id.
+     * The lock on the counter row, held until the transaction completes, commits the changes of a partition in the order of their change ids.
+     */
+    private void incrementChange(final Connection connection) throws SQLException {
+        PreparedStatement statement = null;
+        try {
+            statement = connection.prepareStatement(sql(INCREMENT_CHANGE));
+            statement.setString(1, partition);
+            if (statement.executeUpdate() > 0) {
+                return;
+            }
+        } finally {
+            safeClose(statement);
+        }
+        insertChange(connection, 1);
+    }
+
     private String sql(final String key) {
         if (database != null) {
             String result = sql.getProperty(key + "." + database);
@@ -324,66 +501,90 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
 
     @Override
     public void addTimer(final TimerImpl timerEntity) {
-        String createTimer = sql(CREATE_TIMER);
-        Connection connection = null;
-        PreparedStatement statement = null;
-        ResultSet resultSet = null;
         try {
-            synchronized (this) {
-                knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
+            if (incrementalRefresh) {
+                execute(CREATE_TRACKED_TIMER, timerEntity, this::trackedStatementParameters, true);
+            } else {
+                execute(CREATE_TIMER, timerEntity, this::statementParameters, false);
             }
-            connection = dataSource.getConnection();
-            statement = connection.prepareStatement(createTimer);
-            statementParameters(timerEntity, statement);
-            statement.execute();
+            setKnown(timerEntity, true);
         } catch (SQLException e) {
             throw new RuntimeException(e);
-        } finally {
-            safeClose(resultSet);
-            safeClose(statement);
-            safeClose(connection);
         }
     }
 
     @Override
     public void persistTimer(final TimerImpl timerEntity) {
-        Connection connection = null;
-        PreparedStatement statement = null;
-        ResultSet resultSet = null;
         try {
-            connection = dataSource.getConnection();
             if (timerEntity.getState() == TimerState.CANCELED ||
                     timerEntity.getState() == TimerState.EXPIRED) {
-                String deleteTimer = sql(DELETE_TIMER);
-                statement = connection.prepareStatement(deleteTimer);
-                statement.setString(1, timerEntity.getTimedObjectId());
-                statement.setString(2, timerEntity.getId());
-                statement.setString(3, partition);
-                statement.execute();
-                synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).remove(timerEntity.getId());
+                if (incrementalRefresh) {
+                    // Keep the row as a tombstone, so that the incremental refresh of other nodes notices the removal
+                    execute(CANCEL_TIMER, timerEntity, this::cancelStatementParameters, true);
+                } else {
+                    execute(DELETE_TIMER, timerEntity, this::deleteStatementParameters, false);
                 }
+                setKnown(timerEntity, false);
             } else {
-                synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
-                }
-                String updateTimer = sql(UPDATE_TIMER);
-                statement = connection.prepareStatement(updateTimer);
-                statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
-                statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
-                statement.setString(3, timerEntity.getState().name());
-                setNodeName(timerEntity.getState(), statement, 4);
-                // WHERE CLAUSE
-                statement.setString(5, timerEntity.getTimedObjectId());
-                statement.setString(6, timerEntity.getId());
-                statement.setString(7, partition);
-                statement.setString(8, nodeName);   // only persist if this node or empty
-                statement.execute();
+                execute(UPDATE_TIMER, timerEntity, this::updateStatementParameters, false);
+                setKnown(timerEntity, true);
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Executes the given statement for the given timer. Within a transaction, the statement is added to the batches of the transaction,
+     * which are executed on the connection enlisted in the transaction before it completes. Otherwise the statement is executed immediately.
+     *
+     * @param tracked whether the statement creates or cancels a timer, and therefore requires a new change id
+     */
+    private void execute(final String key, final TimerImpl timerEntity, final StatementParameters parameters, final boolean tracked) throws SQLException {
+        final TransactionSynchronizationRegistry registry = transactionSynchronizationRegistry.getValue();
+        if (registry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            TimerStatementBatch batch = (TimerStatementBatch) registry.getResource(this);
+            if (batch == null) {
+                final Connection connection = dataSource.getConnection();
+                try {
+                    batch = new TimerStatementBatch(connection);
+                    registry.registerInterposedSynchronization(batch);
+                } catch (SQLException | RuntimeException e) {
+                    safeClose(connection);
+                    throw e;
+                }
+                registry.putResource(this, batch);
+            }
+            batch.add(key, timerEntity, parameters, tracked);
+            return;
+        }
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = dataSource.getConnection();
+            statement = connection.prepareStatement(sql(key));
+            parameters.setParameters(timerEntity, statement);
+            if (tracked) {
+                // Increment the change counter and stamp the timer atomically
+                connection.setAutoCommit(false);
+                try {
+                    incrementChange(connection);
+                    statement.execute();
+                    connection.commit();
+                } catch (SQLException | RuntimeException e) {
+                    try {
+                        connection.rollback();
+                    } catch (SQLException e1) {
+                        e.addSuppressed(e1);
+                    }
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            } else {
+                statement.execute();
+            }
         } finally {
-            safeClose(resultSet);
             safeClose(statement);
             safeClose(connection);
         }
@@ -409,10 +610,12 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                 statement.setString(3, timer.getId());
                 statement.setString(4, TimerState.IN_TIMEOUT.name());
                 statement.setString(5, TimerState.RETRY_TIMEOUT.name());
+                statement.setString(6, TimerState.CANCELED.name());
+                statement.setString(7, TimerState.EXPIRED.name());
                 if (timer.getNextExpiration() == null) {
-                    statement.setTimestamp(6, null);
+                    statement.setTimestamp(8, null);
                 } else {
-                    statement.setTimestamp(6, timestamp(timer.getNextExpiration()));
+                    statement.setTimestamp(8, timestamp(timer.getNextExpiration()));
                 }
             } catch (SQLException e) {
                 try {
@@ -450,6 +653,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     @Override
     public synchronized void timerUndeployed(final String timedObjectId) {
         knownTimerIds.remove(timedObjectId);
+        seenChangeIds.remove(timedObjectId);
     }
 
     @Override
@@ -460,9 +664,13 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         ResultSet resultSet = null;
         try {
             connection = dataSource.getConnection();
+            // Read before loading the timers, so that the incremental refresh covers every change not visible to the load
+            final Change change = incrementalRefresh ? loadChange(connection) : null;
             statement = connection.prepareStatement(loadTimer);
             statement.setString(1, timedObjectId);
             statement.setString(2, partition);
+            statement.setString(3, TimerState.CANCELED.name());
+            statement.setString(4, TimerState.EXPIRED.name());
             resultSet = statement.executeQuery();
             final List<Holder> timers = new ArrayList<>();
             while (resultSet.next()) {
@@ -489,6 +697,9 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                     ids.add(timer.timer.getId());
                 }
                 knownTimerIds.put(timedObjectId, ids);
+                if (change != null) {
+                    seenChangeIds.put(timedObjectId, change.current);
+                }
                 for(Holder timer : timers) {
                     if(timer.requiresReset) {
                         TimerImpl ret = timer.timer;
@@ -658,6 +869,109 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         setNodeName(timerEntity.getState(), statement, 26);
     }
 
+    private void trackedStatementParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+        statementParameters(timerEntity, statement);
+        statement.setString(27, partition);   // change counter
+    }
+
+    private void updateStatementParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+        statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
+        statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
+        statement.setString(3, timerEntity.getState().name());
+        setNodeName(timerEntity.getState(), statement, 4);
+        // WHERE CLAUSE
+        statement.setString(5, timerEntity.getTimedObjectId());
+        statement.setString(6, timerEntity.getId());
+        statement.setString(7, partition);
+        statement.setString(8, nodeName);   // only persist if this node or empty
+        statement.setString(9, TimerState.CANCELED.name());   // never revive a cancelled timer
+        statement.setString(10, TimerState.EXPIRED.name());
+    }
+
+    private void cancelStatementParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+        statement.setString(1, timerEntity.getState().name());
+        statement.setString(2, partition);   // change counter
+        // WHERE CLAUSE
+        statement.setString(3, timerEntity.getTimedObjectId());
+        statement.setString(4, timerEntity.getId());
+        statement.setString(5, partition);
+    }
+
+    private void deleteStatementParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+        statement.setString(1, timerEntity.getTimedObjectId());
+        statement.setString(2, timerEntity.getId());
+        statement.setString(3, partition);
+    }
+
+    /**
+     * Deletes the tombstones of the timers cancelled up to the given change id. The purged change id of the partition is raised first,
+     * so that a refresh which has not seen all deleted tombstones yet falls back to a full refresh.
+     */
+    private void purgeTimers(final Connection connection, final long changeId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql(UPDATE_PURGED_CHANGE))) {
+            statement.setLong(1, changeId);
+            statement.setString(2, partition);
+            statement.setLong(3, changeId);
+            statement.executeUpdate();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql(PURGE_TIMERS))) {
+            statement.setString(1, partition);
+            statement.setString(2, TimerState.CANCELED.name());
+            statement.setString(3, TimerState.EXPIRED.name());
+            statement.setLong(4, changeId);
+            statement.executeUpdate();
+        }
+    }
+
+    private Change loadChange() throws SQLException {
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            return loadChange(connection);
+        } finally {
+            safeClose(connection);
+        }
+    }
+
+    private static boolean isRemoved(final String state) {
+        return TimerState.CANCELED.name().equals(state) || TimerState.EXPIRED.name().equals(state);
+    }
+
+    /**
+     * Records whether the given timer exists, reverting the change if the current transaction does not commit.
+     */
+    private void setKnown(final TimerImpl timerEntity, final boolean known) {
+        final String timedObjectId = timerEntity.getTimedObjectId();
+        final String id = timerEntity.getId();
+        if (!setKnown(timedObjectId, id, known)) {
+            return;
+        }
+        final TransactionSynchronizationRegistry registry = transactionSynchronizationRegistry.getValue();
+        if (registry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            registry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(final int status) {
+                    if (status != Status.STATUS_COMMITTED) {
+                        setKnown(timedObjectId, id, !known);
+                    }
+                }
+            });
+        }
+    }
+
+    private synchronized boolean setKnown(final String timedObjectId, final String id, final boolean known) {
+        final Set<String> ids = knownTimerIds.get(timedObjectId);
+        if (ids == null) {
+            // Timed object was undeployed in the meantime
+            return false;
+        }
+        return known ? ids.add(id) : ids.remove(id);
+    }
+
     private String serialize(final Serializable serializable) {
         if (serializable == null) {
             return null;
@@ -749,10 +1063,14 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         return moduleLoader;
     }
 
-    public InjectedValue<Timer> getTimerInjectedValue() {
+    public InjectedValue<TimerScheduler> getTimerInjectedValue() {
         return timerInjectedValue;
     }
 
+    public InjectedValue<TransactionSynchronizationRegistry> getTransactionSynchronizationRegistry() {
+        return transactionSynchronizationRegistry;
+    }
+
     private static void safeClose(final Closeable resource) {
         try {
             if (resource != null) {
@@ -793,9 +1111,12 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
-    private class RefreshTask extends TimerTask {
+    private class RefreshTask implements Runnable {
 
         private volatile AtomicBoolean running = new AtomicBoolean();
+        // Number of incremental refreshes, and the change id read PURGE_REFRESHES refreshes ago, only accessed while running
+        private long refreshes;
+        private long purgeableChangeId;
 
         @Override
         public void run() {
@@ -805,65 +1126,305 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                     synchronized (DatabaseTimerPersistence.this) {
                         timedObjects = new HashSet<>(knownTimerIds.keySet());
                     }
+                    Change change = null;
+                    if (incrementalRefresh) {
+                        try {
+                            change = loadChange();
+                        } catch (SQLException e) {
+                            EjbLogger.EJB3_TIMER_LOGGER.debugf(e, "Failed to read the change counter of partition %s", partition);
+                        }
+                    }
+                    // Timed objects refreshed incrementally, with the change id seen by their previous refresh
+                    final Map<String, Long> refreshed = new HashMap<>();
                     for (String timedObjectId : timedObjects) {
                         TimerChangeListener listener = changeListeners.get(timedObjectId);
                         if (listener == null) {
                             continue;
                         }
-                        final Set<String> existing;
-                        synchronized (DatabaseTimerPersistence.this) {
-                            existing = new HashSet<>(knownTimerIds.get(timedObjectId));
-                        }
-                        String loadTimer = sql(LOAD_ALL_TIMERS);
-                        Connection connection = null;
-                        PreparedStatement statement = null;
-                        ResultSet resultSet = null;
                         try {
-                            connection = dataSource.getConnection();
-                            statement = connection.prepareStatement(loadTimer);
-                            statement.setString(1, timedObjectId);
-                            statement.setString(2, partition);
-                            resultSet = statement.executeQuery();
-                            while (resultSet.next()) {
-                                try {
-                                    String id = resultSet.getString(1);
-                                    if (!existing.remove(id)) {
-                                        synchronized (DatabaseTimerPersistence.this) {
-                                            knownTimerIds.get(timedObjectId).add(id);
-                                        }
-                                        final Holder holder = timerFromResult(resultSet, listener.getTimerService());
-                                        if(holder != null) {
-                                            listener.timerAdded(holder.timer);
-                                        }
+                            final Long seen;
+                            synchronized (DatabaseTimerPersistence.this) {
+                                seen = seenChangeIds.get(timedObjectId);
+                            }
+                            if (change != null && seen != null && seen >= change.purged) {
+                                refreshChangedTimers(timedObjectId, listener, seen);
+                                refreshed.put(timedObjectId, seen);
+                            } else {
+                                // The tombstones of timers cancelled since the previous refresh may have been purged already
+                                refreshAllTimers(timedObjectId, listener);
+                            }
+                            if (change != null) {
+                                synchronized (DatabaseTimerPersistence.this) {
+                                    if (knownTimerIds.containsKey(timedObjectId)) {
+                                        seenChangeIds.put(timedObjectId, change.current);
                                     }
-                                } catch (Exception e) {
-                                    EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
                                 }
                             }
+                        } catch (SQLException e) {
+                            EjbLogger.EJB3_TIMER_LOGGER.failedToRefreshTimers(timedObjectId);
+                        } catch (RuntimeException e) {
+                            // An exception escaping a periodic task would silently suppress all subsequent refreshes
+                            EjbLogger.EJB3_TIMER_LOGGER.timerRefreshFailed(timedObjectId, e);
+                        }
+                    }
+                    if (change != null) {
+                        try {
+                            purge(change, refreshed);
+                        } catch (SQLException e) {
+                            EjbLogger.EJB3_TIMER_LOGGER.debugf(e, "Failed to purge cancelled timers of partition %s", partition);
+                        }
+                    }
+                } finally {
+                    running.set(false);
+                }
+            }
 
-                            synchronized (DatabaseTimerPersistence.this) {
-                                Set<String> timers = knownTimerIds.get(timedObjectId);
-                                for (String timer : existing) {
-                                    timers.remove(timer);
-                                    listener.timerRemoved(timer);
+        }
+
+        /**
+         * Loads the ids of all timers, and the full state of the timers created by other nodes only.
+         */
+        private void refreshAllTimers(final String timedObjectId, final TimerChangeListener listener) throws SQLException {
+            final Set<String> existing;
+            synchronized (DatabaseTimerPersistence.this) {
+                Set<String> timers = knownTimerIds.get(timedObjectId);
+                if (timers == null) {
+                    return;
+                }
+                existing = new HashSet<>(timers);
+            }
+            Connection connection = null;
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                connection = dataSource.getConnection();
+                statement = connection.prepareStatement(sql(LOAD_TIMER_IDS));
+                statement.setString(1, timedObjectId);
+                statement.setString(2, partition);
+                statement.setString(3, TimerState.CANCELED.name());
+                statement.setString(4, TimerState.EXPIRED.name());
+                resultSet = statement.executeQuery();
+                final List<String> added = new ArrayList<>();
+                while (resultSet.next()) {
+                    final String id = resultSet.getString(1);
+                    if (!existing.remove(id)) {
+                        added.add(id);
+                    }
+                }
+                safeClose(resultSet);
+                safeClose(statement);
+                resultSet = null;
+                statement = null;
+                if (!added.isEmpty()) {
+                    statement = connection.prepareStatement(sql(LOAD_TIMER));
+                    for (String id : added) {
+                        statement.setString(1, timedObjectId);
+                        statement.setString(2, id);
+                        statement.setString(3, partition);
+                        resultSet = statement.executeQuery();
+                        try {
+                            // Timer may have been removed in the meantime
+                            if (resultSet.next() && !isRemoved(resultSet.getString(9))) {
+                                final Holder holder = timerFromResult(resultSet, listener.getTimerService());
+                                if (holder != null && setKnown(timedObjectId, id, true)) {
+                                    listener.timerAdded(holder.timer);
                                 }
                             }
-                        } catch (SQLException e) {
-                            EjbLogger.EJB3_TIMER_LOGGER.failedToRefreshTimers(timedObjectId);
+                        } catch (Exception e) {
+                            EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, id, e);
                         } finally {
                             safeClose(resultSet);
-                            safeClose(statement);
-                            safeClose(connection);
+                            resultSet = null;
+                        }
+                    }
+                }
+                synchronized (DatabaseTimerPersistence.this) {
+                    Set<String> timers = knownTimerIds.get(timedObjectId);
+                    if (timers != null) {
+                        for (String timer : existing) {
+                            if (timers.remove(timer)) {
+                                listener.timerRemoved(timer);
+                            }
+                        }
+                    }
+                }
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+                safeClose(connection);
+            }
+        }
+
+        /**
+         * Loads the timers created or cancelled after the given change id, adding unknown active timers and removing known cancelled ones.
+         */
+        private void refreshChangedTimers(final String timedObjectId, final TimerChangeListener listener, final long seen) throws SQLException {
+            Connection connection = null;
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                connection = dataSource.getConnection();
+                statement = connection.prepareStatement(sql(LOAD_CHANGED_TIMERS));
+                statement.setString(1, timedObjectId);
+                statement.setString(2, partition);
+                statement.setLong(3, seen);
+                resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    final String id = resultSet.getString(1);
+                    if (isRemoved(resultSet.getString(9))) {
+                        synchronized (DatabaseTimerPersistence.this) {
+                            Set<String> timers = knownTimerIds.get(timedObjectId);
+                            if (timers != null && timers.remove(id)) {
+                                listener.timerRemoved(id);
+                            }
+                        }
+                        continue;
+                    }
+                    synchronized (DatabaseTimerPersistence.this) {
+                        Set<String> timers = knownTimerIds.get(timedObjectId);
+                        if (timers == null || timers.contains(id)) {
+                            continue;
+                        }
+                    }
+                    try {
+                        final Holder holder = timerFromResult(resultSet, listener.getTimerService());
+                        if (holder != null && setKnown(timedObjectId, id, true)) {
+                            listener.timerAdded(holder.timer);
+                        }
+                    } catch (Exception e) {
+                        EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, id, e);
+                    }
+                }
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+                safeClose(connection);
+            }
+        }
+
+        /**
+         * Purges, every {@link #PURGE_REFRESHES} refreshes, the tombstones of the timers cancelled up to the change id read {@link #PURGE_REFRESHES} refreshes ago.
+         * If another node purged tombstones concurrently, the timed objects refreshed incrementally from an older change id are refreshed fully next time,
+         * since their refresh may have missed a cancellation.
+         */
+        private void purge(final Change change, final Map<String, Long> refreshed) throws SQLException {
+            Connection connection = null;
+            try {
+                connection = dataSource.getConnection();
+                if (++refreshes % PURGE_REFRESHES == 0) {
+                    if (purgeableChangeId > change.purged) {
+                        purgeTimers(connection, purgeableChangeId);
+                    }
+                    purgeableChangeId = change.current;
+                }
+                if (!refreshed.isEmpty()) {
+                    final Change current = loadChange(connection);
+                    if (current != null && current.purged > change.purged) {
+                        synchronized (DatabaseTimerPersistence.this) {
+                            for (Map.Entry<String, Long> entry : refreshed.entrySet()) {
+                                if (entry.getValue() < current.purged) {
+                                    seenChangeIds.remove(entry.getKey());
+                                }
+                            }
+                        }
+                    }
+                }
+            } finally {
+                safeClose(connection);
+            }
+        }
+    }
+
+    /**
+     * Collects the statements executed within a transaction as JDBC batches on the connection enlisted in the transaction,
+     * and executes the batches before the transaction completes.
+     */
+    private class TimerStatementBatch implements Synchronization {
+        private final Connection connection;
+        private final boolean batchUpdates;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+        // Whether the batches create or cancel a timer, and therefore require a new change id
+        private boolean tracked;
+        private boolean closed;
+
+        TimerStatementBatch(final Connection connection) throws SQLException {
+            this.connection = connection;
+            this.batchUpdates = connection.getMetaData().supportsBatchUpdates();
+        }
+
+        synchronized void add(final String key, final TimerImpl timerEntity, final StatementParameters parameters, final boolean tracked) throws SQLException {
+            PreparedStatement statement = statements.get(key);
+            if (statement == null) {
+                statement = connection.prepareStatement(sql(key));
+                statements.put(key, statement);
+            }
+            parameters.setParameters(timerEntity, statement);
+            if (batchUpdates) {
+                statement.addBatch();
+                this.tracked |= tracked;
+            } else {
+                if (tracked && !this.tracked) {
+                    incrementChange(connection);
+                    this.tracked = true;
+                }
+                statement.execute();
+            }
+        }
+
+        @Override
+        public synchronized void beforeCompletion() {
+            try {
+                if (batchUpdates) {
+                    if (tracked) {
+                        incrementChange(connection);
+                    }
+                    for (String key : BATCH_ORDER) {
+                        final PreparedStatement statement = statements.get(key);
+                        if (statement != null) {
+                            statement.executeBatch();
                         }
                     }
-                } finally {
-                    running.set(false);
                 }
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            } finally {
+                close();
             }
+        }
 
+        @Override
+        public void afterCompletion(final int status) {
+            close();
         }
+
+        private synchronized void close() {
+            if (!closed) {
+                closed = true;
+                for (PreparedStatement statement : statements.values()) {
+                    safeClose(statement);
+                }
+                safeClose(connection);
+            }
+        }
+    }
+
+    private interface StatementParameters {
+        void setParameters(TimerImpl timer, PreparedStatement statement) throws SQLException;
     }
 
+    /**
+     * Change counter of a partition: the change id of the most recent creation or cancellation of a timer,
+     * and the change id up to which the tombstones of cancelled timers were purged.
+     */
+    static final class Change {
+        final long current;
+        final long purged;
+
+        Change(long current, long purged) {
+            this.current = current;
+            this.purged = purged;
+        }
+    }
 
     static final class Holder {
         final TimerImpl timer;
@@ -64,6 +64,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
@@ -75,30 +76,60 @@ import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
 /**
  * File based persistent timer store.
  * <p/>
+ * The timers of each timed object are stored within a directory per timed object, using one of the supported {@link Format}s.
+ * By default, each timer is stored in its own XML file.
+ * Alternatively, the timers of each timed object are stored in an append-only {@link TimerJournal},
+ * into which timers persisted as XML files or in the legacy serialized format are migrated when first accessed.
+ * <p/>
  * TODO: this is fairly hackey at the moment, it should be registered as an XA resource to support proper XA semantics
  *
  * @author Stuart Douglas
  */
 public class FileTimerPersistence implements TimerPersistence, Service<FileTimerPersistence> {
 
+    /**
+     * The format in which timers are stored.
+     */
+    public enum Format {
+        /**
+         * One XML file per timer, rewritten on every change of its state.
+         */
+        XML,
+        /**
+         * A {@link TimerJournal} per timed object.
+         * Timer files are only deleted once the journal confirms their migration.
+         */
+        JOURNAL,
+        ;
+    }
+
     private static final FilePermission FILE_PERMISSION = new FilePermission("<<ALL FILES>>", "read,write,delete");
     private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
 
     private final boolean createIfNotExists;
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
+    private EjbTimerJournalCodec codec;
     private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
     private final InjectedValue<ModuleLoader> moduleLoader = new InjectedValue<ModuleLoader>();
     private final InjectedValue<PathManager> pathManager = new InjectedValue<PathManager>();
     private final String path;
     private final String pathRelativeTo;
+    private final Format format;
     private File baseDir;
     private PathManager.Callback.Handle callbackHandle;
 
     private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<String, Lock>();
     private final ConcurrentMap<String, String> directories = new ConcurrentHashMap<String, String>();
+    private final ConcurrentMap<String, TimerJournal> journals = new ConcurrentHashMap<String, TimerJournal>();
+    // Timed objects whose timer files were kept, since their migration into the journal could not be confirmed
+    private final Set<String> unmigrated = ConcurrentHashMap.newKeySet();
 
     public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo) {
+        this(createIfNotExists, path, pathRelativeTo, Format.XML);
+    }
+
+    public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo, final Format format) {
         final SecurityManager sm = System.getSecurityManager();
         if (sm != null) {
             sm.checkPermission(FILE_PERMISSION);
@@ -106,6 +137,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         this.createIfNotExists = createIfNotExists;
         this.path = path;
         this.pathRelativeTo = pathRelativeTo;
+        this.format = format;
     }
 
     @Override
@@ -130,6 +162,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
         this.configuration = configuration;
         this.factory = factory;
+        this.codec = new EjbTimerJournalCodec(factory, configuration);
         if (pathRelativeTo != null) {
             callbackHandle = pathManager.getValue().registerCallback(pathRelativeTo, PathManager.ReloadServerCallback.create(), PathManager.Event.UPDATED, PathManager.Event.REMOVED);
         }
@@ -150,6 +183,11 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     @Override
     public void stop(final StopContext context) {
+        for (TimerJournal journal : journals.values()) {
+            safeClose(journal);
+        }
+        journals.clear();
+        unmigrated.clear();
         locks.clear();
         directories.clear();
         if (callbackHandle != null) {
@@ -157,6 +195,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         }
         factory = null;
         configuration = null;
+        codec = null;
     }
 
     @Override
@@ -213,16 +252,20 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             if (status == Status.STATUS_NO_TRANSACTION ||
                     status == Status.STATUS_UNKNOWN || isBeforeCompletion()
                     || status == Status.STATUS_COMMITTED) {
-                Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
-                if (timer.getState() == TimerState.CANCELED ||
-                        timer.getState() == TimerState.EXPIRED) {
-                    map.remove(timer.getId());
-                    writeFile(timer);
-                } else if (newTimer || map.containsKey(timer.getId())) {
-                    //if it is not a new timer and is not in the map then it has
-                    //been removed by another thread.
-                    map.put(timer.getId(), timer);
-                    writeFile(timer);
+                if (format == Format.JOURNAL) {
+                    writeTimer(getJournal(timer.getTimedObjectId(), timer.getTimerService()), timer, newTimer);
+                } else {
+                    Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
+                    if (timer.getState() == TimerState.CANCELED ||
+                            timer.getState() == TimerState.EXPIRED) {
+                        map.remove(timer.getId());
+                        writeFile(timer);
+                    } else if (newTimer || map.containsKey(timer.getId())) {
+                        //if it is not a new timer and is not in the map then it has
+                        //been removed by another thread.
+                        map.put(timer.getId(), timer);
+                        writeFile(timer);
+                    }
                 }
             } else {
 
@@ -253,6 +296,8 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             lock.lock();
             locks.remove(timedObjectId);
             directories.remove(timedObjectId);
+            safeClose(journals.remove(timedObjectId));
+            unmigrated.remove(timedObjectId);
         } finally {
             lock.unlock();
         }
@@ -272,13 +317,32 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         final Lock lock = getLock(timedObjectId);
         try {
             lock.lock();
-            final Map<String, TimerImpl> timers = getTimers(timedObjectId, timerService);
+            if (format != Format.JOURNAL) {
+                final List<TimerImpl> entities = new ArrayList<TimerImpl>();
+                for (TimerImpl timer : getTimers(timedObjectId, timerService).values()) {
+                    entities.add(mostRecentEntityVersion(timer));
+                }
+                return entities;
+            }
+            final TimerJournal journal = getJournal(timedObjectId, timerService);
 
             final List<TimerImpl> entities = new ArrayList<TimerImpl>();
-            for (Map.Entry<String, TimerImpl> entry : timers.entrySet()) {
-                entities.add(mostRecentEntityVersion(entry.getValue()));
+            for (Map.Entry<String, byte[]> entry : journal.readAll().entrySet()) {
+                try {
+                    final TimerImpl timer = codec.decode(entry.getValue(), timerService);
+                    if (timer != null) {
+                        entities.add(mostRecentEntityVersion(timer));
+                    } else {
+                        //the timeout method of the auto timer no longer exists
+                        journal.remove(entry.getKey());
+                    }
+                } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                    EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, entry.getKey(), e);
+                }
             }
             return entities;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         } finally {
             lock.unlock();
         }
@@ -331,18 +395,89 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
      * @return The timers for the object
      */
     private Map<String, TimerImpl> getTimers(final String timedObjectId, final TimerServiceImpl timerService) {
-        return loadTimersFromFile(timedObjectId, timerService);
-    }
-
-    private Map<String, TimerImpl> loadTimersFromFile(String timedObjectId, TimerServiceImpl timerService) {
-        Map<String, TimerImpl> timers = new HashMap<>();
-        String directory = getDirectory(timedObjectId);
-
+        final String directory = getDirectory(timedObjectId);
+        final Map<String, TimerImpl> timers = new HashMap<>();
         timers.putAll(LegacyFileStore.loadTimersFromFile(timedObjectId, timerService, directory, factory, configuration));
         for(Map.Entry<String, TimerImpl> entry : timers.entrySet()) {
             writeFile(entry.getValue()); //write legacy timers into the new format
             //the legacy code handling code will write a marker file, to make sure that the old timers will not be loaded on next restart.
         }
+        timers.putAll(loadTimersFromFile(directory, timerService, new ArrayList<>()));
+        return timers;
+    }
+
+    /**
+     * Gets the timer journal, opening it and migrating any timers in older formats if necessary. Should be called under lock
+     *
+     * @param timedObjectId The timed object id
+     * @return The timer journal of the object
+     */
+    private TimerJournal getJournal(final String timedObjectId, final TimerServiceImpl timerService) {
+        TimerJournal journal = journals.get(timedObjectId);
+        if (journal == null) {
+            try {
+                journal = new TimerJournal(new File(getDirectory(timedObjectId)));
+                try {
+                    migrateTimers(journal, timedObjectId, timerService);
+                } catch (IOException | RuntimeException e) {
+                    safeClose(journal);
+                    throw e;
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            journals.put(timedObjectId, journal);
+        }
+        return journal;
+    }
+
+    /**
+     * Moves timers persisted by previous versions into the specified journal.
+     * Timer files are only deleted once the journal is synced to disk, and every migrated timer was read back from it.
+     * Otherwise, the timer files are kept, and migrated again once the timed object is next accessed.
+     */
+    private void migrateTimers(final TimerJournal journal, final String timedObjectId, final TimerServiceImpl timerService) throws IOException {
+        final String directory = getDirectory(timedObjectId);
+        //the legacy code handling code will write a marker file, to make sure that the old timers will not be loaded on next restart.
+        final Map<String, TimerImpl> timers = new HashMap<>(LegacyFileStore.loadTimersFromFile(timedObjectId, timerService, directory, factory, configuration));
+        final List<File> files = new ArrayList<>();
+        timers.putAll(loadTimersFromFile(directory, timerService, files));
+        if (timers.isEmpty() && files.isEmpty()) {
+            return;
+        }
+        for (TimerImpl timer : timers.values()) {
+            if (!journal.contains(timer.getId())) {
+                journal.put(timer.getId(), codec.encode(timer));
+            }
+        }
+        journal.sync();
+        final Map<String, byte[]> states = journal.readAll();
+        for (String id : timers.keySet()) {
+            final byte[] state = states.get(id);
+            boolean confirmed = (state != null);
+            if (confirmed) {
+                try {
+                    codec.decode(state, timerService);
+                } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                    EJB3_TIMER_LOGGER.debugf(e, "Failed to read migrated timer %s", id);
+                    confirmed = false;
+                }
+            }
+            if (!confirmed) {
+                EJB3_TIMER_LOGGER.timerMigrationNotConfirmed(id, timedObjectId, directory);
+                unmigrated.add(timedObjectId);
+                return;
+            }
+        }
+        for (File file : files) {
+            if (!file.delete()) {
+                EJB3_TIMER_LOGGER.failedToDeleteTimerFile(file);
+            }
+        }
+    }
+
+    private Map<String, TimerImpl> loadTimersFromFile(String directory, TimerServiceImpl timerService, List<File> files) {
+        Map<String, TimerImpl> timers = new HashMap<>();
         final File file = new File(directory);
         if (!file.exists()) {
             //no timers exist yet
@@ -369,13 +504,18 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                 try {
                     List<TimerImpl> timerList = new ArrayList<>();
                     mapper.parseDocument(timerList, streamReader);
+                    boolean deleted = false;
                     for (TimerImpl timer : timerList) {
                         if (timer.getId().equals("deleted-timer")) {
                             timerFile.delete();
+                            deleted = true;
                             break;
                         }
                         timers.put(timer.getId(), timer);
                     }
+                    if (!deleted) {
+                        files.add(timerFile);
+                    }
                 } finally {
                     safeClose(in);
                 }
@@ -401,7 +541,6 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         return mapper;
     }
 
-
     private File fileName(String timedObjectId, String timerId) {
         return new File(getDirectory(timedObjectId) + File.separator + timerId.replace(File.separator, "-") + ".xml");
     }
@@ -460,17 +599,21 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                     try {
                         lock.lock();
                         if (status == Status.STATUS_COMMITTED) {
-                            final Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
-                            if (timer.getState() == TimerState.CANCELED ||
-                                    timer.getState() == TimerState.EXPIRED) {
-                                map.remove(timer.getId());
+                            if (format == Format.JOURNAL) {
+                                writeTimer(getJournal(timer.getTimedObjectId(), timer.getTimerService()), timer, newTimer);
                             } else {
-                                if (newTimer || map.containsKey(timer.getId())) {
-                                    //if an existing timer is not in the map it has been cancelled by another thread
-                                    map.put(timer.getId(), timer);
+                                final Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
+                                if (timer.getState() == TimerState.CANCELED ||
+                                        timer.getState() == TimerState.EXPIRED) {
+                                    map.remove(timer.getId());
+                                } else {
+                                    if (newTimer || map.containsKey(timer.getId())) {
+                                        //if an existing timer is not in the map it has been cancelled by another thread
+                                        map.put(timer.getId(), timer);
+                                    }
                                 }
+                                writeFile(timer);
                             }
-                            writeFile(timer);
                         }
                     } finally {
                         lock.unlock();
@@ -483,6 +626,28 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     }
 
+    private void writeTimer(TimerJournal journal, TimerImpl timer, boolean newTimer) {
+        try {
+            if (timer.getState() == TimerState.CANCELED ||
+                    timer.getState() == TimerState.EXPIRED) {
+                journal.remove(timer.getId());
+                if (unmigrated.contains(timer.getTimedObjectId())) {
+                    // Otherwise, the timer would be migrated again
+                    final File file = fileName(timer.getTimedObjectId(), timer.getId());
+                    if (file.exists() && !file.delete()) {
+                        EJB3_TIMER_LOGGER.failedToDeleteTimerFile(file);
+                    }
+                }
+            } else if (newTimer || journal.contains(timer.getId())) {
+                //if it is not a new timer and is not in the journal then it has
+                //been removed by another thread.
+                journal.put(timer.getId(), codec.encode(timer));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private void writeFile(TimerImpl timer) {
         final File file = fileName(timer.getTimedObjectId(), timer.getId());
 
@@ -0,0 +1,470 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Segmented, append-only journal of the persistent state of the timers of a single timed object.
+ * <p/>
+ * Each state change of a timer appends a single record to the active segment, instead of rewriting a file per timer.
+ * A record consists of the length and CRC32 checksum of its body, followed by the body itself:
+ * the operation, the timer id, and, for {@link #put(String, byte[])}, the serialized timer state.
+ * Once the active segment exceeds its maximum size, subsequent records are appended to a new segment.
+ * <p/>
+ * Whenever the number of superseded records exceeds the number of live timers (and a minimum threshold),
+ * the live records are copied into a new compacted segment, after which all previous segments are deleted.
+ * Compacted segments are written to a temporary file and renamed once complete,
+ * so that recovery only ever considers the most recent compacted segment and the segments that follow it.
+ * <p/>
+ * On recovery, segments are read sequentially and replayed in order.
+ * Replay of the last segment stops at the first incomplete or corrupt record, e.g. one torn by a crash, which is then truncated.
+ * Since only the last segment is ever appended to, a corrupt record within any other segment fails recovery.
+ * <p/>
+ * Instances of this class are not expected to be shared by multiple timed objects, but are thread-safe.
+ */
+public class TimerJournal implements Closeable {
+
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final String TEMPORARY_SUFFIX = ".tmp";
+    static final long DEFAULT_MAX_SEGMENT_SIZE = 16L << 20;
+    static final int DEFAULT_COMPACTION_THRESHOLD = 1024;
+
+    private static final String SEGMENT_PREFIX = "timers-";
+    private static final int MAGIC = 0x454A4254; // EJBT
+    private static final byte VERSION = 1;
+    private static final byte COMPACTED = 0x1;
+    // magic + version + flags
+    private static final int SEGMENT_HEADER_SIZE = 6;
+    // length + checksum
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private final File directory;
+    private final long maxSegmentSize;
+    private final int compactionThreshold;
+    // Location of the most recent record of each live timer
+    private final Map<String, Location> locations = new HashMap<>();
+    // Segment files by sequence number
+    private final TreeMap<Long, File> segments = new TreeMap<>();
+    private long superseded = 0;
+    private long activeSequence;
+    private FileChannel active;
+    private long activeSize;
+
+    /**
+     * Opens the journal within the specified directory, recovering the state of any existing segments.
+     * @param directory the directory containing the segments of the journal
+     * @throws IOException if the journal could not be recovered
+     */
+    public TimerJournal(File directory) throws IOException {
+        this(directory, DEFAULT_MAX_SEGMENT_SIZE, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    TimerJournal(File directory, long maxSegmentSize, int compactionThreshold) throws IOException {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        this.compactionThreshold = compactionThreshold;
+        this.recover();
+    }
+
+    /**
+     * Indicates whether the specified file name is that of a journal segment, or of a segment being written.
+     * @param name a file name
+     * @return true, if the file belongs to a timer journal, false otherwise
+     */
+    static boolean isJournalFile(String name) {
+        return name.startsWith(SEGMENT_PREFIX) && (name.endsWith(SEGMENT_SUFFIX) || name.endsWith(SEGMENT_SUFFIX + TEMPORARY_SUFFIX));
+    }
+
+    /**
+     * Indicates whether this journal contains the specified timer.
+     * @param id a timer id
+     * @return true, if the specified timer has a live record, false otherwise
+     */
+    public synchronized boolean contains(String id) {
+        return this.locations.containsKey(id);
+    }
+
+    /**
+     * Returns the number of timers with a live record.
+     * @return the number of live timers
+     */
+    public synchronized int size() {
+        return this.locations.size();
+    }
+
+    /**
+     * Records the state of the specified timer, superseding any previous state.
+     * @param id a timer id
+     * @param state the serialized state of the timer
+     * @throws IOException if the record could not be written
+     */
+    public synchronized void put(String id, byte[] state) throws IOException {
+        Location location = this.append(PUT, id, state);
+        if (this.locations.put(id, location) != null) {
+            this.superseded += 1;
+        }
+        this.compactIfNecessary();
+    }
+
+    /**
+     * Records the removal of the specified timer.
+     * @param id a timer id
+     * @return true, if the timer had a live record, false otherwise
+     * @throws IOException if the record could not be written
+     */
+    public synchronized boolean remove(String id) throws IOException {
+        if (!this.locations.containsKey(id)) return false;
+        this.append(REMOVE, id, null);
+        this.locations.remove(id);
+        // Both the removed record, and the removal record itself are superseded
+        this.superseded += 2;
+        this.compactIfNecessary();
+        return true;
+    }
+
+    /**
+     * Reads the state of all live timers from the segments containing their records.
+     * @return the serialized state of each live timer, keyed by timer id
+     * @throws IOException if the segments could not be read
+     */
+    public synchronized Map<String, byte[]> readAll() throws IOException {
+        Map<Long, List<Map.Entry<String, Location>>> entriesBySegment = new TreeMap<>();
+        for (Map.Entry<String, Location> entry : this.locations.entrySet()) {
+            entriesBySegment.computeIfAbsent(entry.getValue().segment, key -> new ArrayList<>()).add(entry);
+        }
+        Map<String, byte[]> result = new HashMap<>();
+        for (Map.Entry<Long, List<Map.Entry<String, Location>>> segmentEntries : entriesBySegment.entrySet()) {
+            try (FileChannel channel = FileChannel.open(this.segments.get(segmentEntries.getKey()).toPath(), StandardOpenOption.READ)) {
+                for (Map.Entry<String, Location> entry : segmentEntries.getValue()) {
+                    Location location = entry.getValue();
+                    byte[] state = new byte[location.stateLength];
+                    readFully(channel, ByteBuffer.wrap(state), location.statePosition);
+                    result.put(entry.getKey(), state);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Forces any records written to this journal to the storage device.
+     * @throws IOException if the journal could not be forced
+     */
+    public synchronized void sync() throws IOException {
+        if (this.active != null) {
+            this.active.force(false);
+        }
+    }
+
+    /**
+     * Copies the live records of this journal into a new compacted segment, and deletes all previous segments.
+     * @throws IOException if the compacted segment could not be written
+     */
+    public synchronized void compact() throws IOException {
+        long sequence = this.activeSequence + 1;
+        File segment = this.segmentFile(sequence);
+        File temporary = new File(this.directory, segment.getName() + TEMPORARY_SUFFIX);
+        Map<String, Location> compacted = new HashMap<>();
+        Map<String, byte[]> states = this.readAll();
+        long size;
+        try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            size = writeHeader(channel, COMPACTED);
+            for (Map.Entry<String, byte[]> entry : states.entrySet()) {
+                Location location = write(channel, sequence, size, PUT, entry.getKey(), entry.getValue());
+                compacted.put(entry.getKey(), location);
+                size = location.end;
+            }
+            channel.force(true);
+        }
+        Files.move(temporary.toPath(), segment.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        this.closeActive();
+        // Previous segments are now obsolete, even if we fail to delete them
+        for (File obsolete : this.segments.values()) {
+            if (!obsolete.delete()) {
+                EJB3_TIMER_LOGGER.failedToDeleteTimerFile(obsolete);
+            }
+        }
+        this.segments.clear();
+        this.segments.put(sequence, segment);
+        this.locations.clear();
+        this.locations.putAll(compacted);
+        this.superseded = 0;
+        this.activeSequence = sequence;
+        this.active = FileChannel.open(segment.toPath(), StandardOpenOption.WRITE);
+        this.activeSize = size;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            this.sync();
+        } finally {
+            this.closeActive();
+        }
+    }
+
+    private void closeActive() throws IOException {
+        if (this.active != null) {
+            try {
+                this.active.close();
+            } finally {
+                this.active = null;
+            }
+        }
+    }
+
+    private void compactIfNecessary() {
+        if ((this.superseded >= this.compactionThreshold) && (this.superseded > this.locations.size())) {
+            try {
+                this.compact();
+            } catch (IOException e) {
+                // Retry once the same number of additional records were superseded
+                this.superseded = 0;
+                EJB3_TIMER_LOGGER.failedToCompactTimerJournal(this.directory, e);
+            }
+        }
+    }
+
+    private Location append(byte operation, String id, byte[] state) throws IOException {
+        if ((this.active == null) || (this.activeSize >= this.maxSegmentSize)) {
+            this.roll();
+        }
+        Location location = write(this.active, this.activeSequence, this.activeSize, operation, id, state);
+        this.activeSize = location.end;
+        return location;
+    }
+
+    private void roll() throws IOException {
+        this.closeActive();
+        long sequence = this.activeSequence + 1;
+        File segment = this.segmentFile(sequence);
+        FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        try {
+            this.activeSize = writeHeader(channel, (byte) 0);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.segments.put(sequence, segment);
+        this.activeSequence = sequence;
+        this.active = channel;
+    }
+
+    private File segmentFile(long sequence) {
+        return new File(this.directory, String.format("%s%019d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    private static long writeHeader(FileChannel channel, byte flags) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        buffer.putInt(MAGIC).put(VERSION).put(flags).flip();
+        writeFully(channel, buffer, 0);
+        return SEGMENT_HEADER_SIZE;
+    }
+
+    private static Location write(FileChannel channel, long sequence, long position, byte operation, String id, byte[] state) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(RECORD_HEADER_SIZE + 64 + ((state != null) ? state.length : 0));
+        DataOutputStream output = new DataOutputStream(bytes);
+        // Reserve space for length and checksum
+        output.writeLong(0L);
+        output.writeByte(operation);
+        output.writeUTF(id);
+        int statePosition = output.size();
+        if (state != null) {
+            output.write(state);
+        }
+        output.flush();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        int length = buffer.capacity() - RECORD_HEADER_SIZE;
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.array(), RECORD_HEADER_SIZE, length);
+        buffer.putInt(0, length);
+        buffer.putInt(4, (int) checksum.getValue());
+        writeFully(channel, buffer, position);
+        return new Location(sequence, position + statePosition, (state != null) ? state.length : 0, position + buffer.capacity());
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            offset += read;
+        }
+    }
+
+    private void recover() throws IOException {
+        File[] files = this.directory.listFiles();
+        TreeMap<Long, File> segments = new TreeMap<>();
+        for (File file : (files != null) ? files : new File[0]) {
+            String name = file.getName();
+            if (isJournalFile(name)) {
+                if (name.endsWith(TEMPORARY_SUFFIX)) {
+                    // Incomplete compaction
+                    file.delete();
+                } else {
+                    segments.put(Long.valueOf(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())), file);
+                }
+            }
+        }
+        // Only replay segments following the most recent compacted segment
+        for (Long sequence : new ArrayList<>(segments.descendingKeySet())) {
+            if (this.isCompacted(segments.get(sequence))) {
+                for (File obsolete : segments.headMap(sequence).values()) {
+                    if (!obsolete.delete()) {
+                        EJB3_TIMER_LOGGER.failedToDeleteTimerFile(obsolete);
+                    }
+                }
+                segments.headMap(sequence).clear();
+                break;
+            }
+        }
+        for (Map.Entry<Long, File> entry : segments.entrySet()) {
+            this.replay(entry.getKey(), entry.getValue(), entry.getKey().equals(segments.lastKey()));
+        }
+        this.segments.putAll(segments);
+        if (!segments.isEmpty()) {
+            this.activeSequence = segments.lastKey();
+            File last = segments.lastEntry().getValue();
+            this.active = FileChannel.open(last.toPath(), StandardOpenOption.WRITE);
+            this.activeSize = this.active.size();
+        }
+    }
+
+    private boolean isCompacted(File segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+            while (buffer.hasRemaining() && (channel.read(buffer) >= 0)) {
+                // Keep reading
+            }
+            buffer.flip();
+            return (buffer.remaining() == SEGMENT_HEADER_SIZE) && (buffer.getInt() == MAGIC) && (buffer.get() == VERSION) && ((buffer.get() & COMPACTED) != 0);
+        }
+    }
+
+    private void replay(long sequence, File segment, boolean last) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long position = 0;
+            // Channels.newInputStream(...) reads from the current position of the channel, and does not close it
+            DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            if ((size >= SEGMENT_HEADER_SIZE) && (input.readInt() == MAGIC) && (input.readByte() == VERSION)) {
+                input.readByte();
+                position = SEGMENT_HEADER_SIZE;
+                CRC32 checksum = new CRC32();
+                while (size - position >= RECORD_HEADER_SIZE) {
+                    int length = input.readInt();
+                    int expected = input.readInt();
+                    if ((length <= 0) || (length > size - position - RECORD_HEADER_SIZE)) break;
+                    byte[] body = new byte[length];
+                    input.readFully(body);
+                    checksum.reset();
+                    checksum.update(body, 0, length);
+                    if ((int) checksum.getValue() != expected) break;
+                    long end = position + RECORD_HEADER_SIZE + length;
+                    this.apply(sequence, position + RECORD_HEADER_SIZE, body, end);
+                    position = end;
+                }
+            }
+            if (position < size) {
+                if (!last) {
+                    // Only a crash while appending to the last segment can leave an incomplete record behind
+                    throw EJB3_TIMER_LOGGER.corruptTimerJournalSegment(segment, position);
+                }
+                EJB3_TIMER_LOGGER.truncatedTimerJournalSegment(segment, position);
+                channel.truncate(position);
+                if (position == 0) {
+                    // Not even a valid header, so rewrite it
+                    writeHeader(channel, (byte) 0);
+                }
+            }
+        }
+    }
+
+    private void apply(long sequence, long bodyPosition, byte[] body, long end) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(body));
+        byte operation = input.readByte();
+        String id = input.readUTF();
+        if (operation == PUT) {
+            int stateOffset = body.length - input.available();
+            if (this.locations.put(id, new Location(sequence, bodyPosition + stateOffset, body.length - stateOffset, end)) != null) {
+                this.superseded += 1;
+            }
+        } else if (operation == REMOVE) {
+            this.locations.remove(id);
+            this.superseded += 2;
+        }
+    }
+
+    Map<Long, File> getSegments() {
+        return Collections.unmodifiableMap(this.segments);
+    }
+
+    private static class Location {
+        final long segment;
+        final long statePosition;
+        final int stateLength;
+        final long end;
+
+        Location(long segment, long statePosition, int stateLength, long end) {
+            this.segment = segment;
+            this.statePosition = statePosition;
+            this.stateLength = stateLength;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.cache.Identifiable;
+import org.jboss.as.ejb3.cache.StatefulObjectFactory;
+import org.jboss.as.ejb3.component.stateful.StatefulTimeoutInfo;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ShardedCache}.
+ */
+public class ShardedCacheTestCase {
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void shards() {
+        assertEquals(1, new ShardedCache<>(new BeanFactory(), UUID::randomUUID, null, null, this.executor, 1).getShardCount());
+        assertEquals(4, new ShardedCache<>(new BeanFactory(), UUID::randomUUID, null, null, this.executor, 3).getShardCount());
+        assertEquals(8, new ShardedCache<>(new BeanFactory(), UUID::randomUUID, null, null, this.executor, 8).getShardCount());
+    }
+
+    @Test
+    public void expiration() throws InterruptedException {
+        BeanFactory factory = new BeanFactory();
+        ShardedCache<UUID, Bean> cache = new ShardedCache<>(factory, UUID::randomUUID, new StatefulTimeoutInfo(10, TimeUnit.MILLISECONDS), null, this.executor, 4);
+        cache.start();
+        try {
+            for (int i = 0; i < 100; ++i) {
+                Bean bean = cache.create();
+                assertSame(bean, cache.get(bean.getId()));
+                cache.release(bean);
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while ((cache.getCacheSize() > 0) && (System.nanoTime() < deadline)) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, cache.getCacheSize());
+            assertEquals(100, factory.destroyed.get());
+            assertEquals(100, cache.getExpiredCount());
+            assertTrue(cache.getExpirationBatchCount() > 0);
+            assertTrue(cache.getExpirationBatchCount() <= 100);
+            assertTrue(cache.getMaxExpirationBatchSize() > 0);
+            assertTrue(cache.getMaxExpirationBatchSize() <= ShardedCache.MAX_BATCH_SIZE);
+            assertFalse(cache.getAverageExpirationLag().isNegative());
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void getCancelsExpiration() throws InterruptedException {
+        BeanFactory factory = new BeanFactory();
+        ShardedCache<UUID, Bean> cache = new ShardedCache<>(factory, UUID::randomUUID, new StatefulTimeoutInfo(50, TimeUnit.MILLISECONDS), null, this.executor, 2);
+        cache.start();
+        try {
+            Bean bean = cache.create();
+            assertNotNull(cache.get(bean.getId()));
+            cache.release(bean);
+            // Re-acquire before expiration
+            assertSame(bean, cache.get(bean.getId()));
+            Thread.sleep(200);
+            assertTrue(cache.contains(bean.getId()));
+            assertEquals(0, factory.destroyed.get());
+            assertEquals(0, cache.getExpiredCount());
+
+            cache.release(bean);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (cache.contains(bean.getId()) && (System.nanoTime() < deadline)) {
+                Thread.sleep(10);
+            }
+            assertFalse(cache.contains(bean.getId()));
+            assertNull(cache.get(bean.getId()));
+            assertEquals(1, factory.destroyed.get());
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void zeroTimeout() {
+        BeanFactory factory = new BeanFactory();
+        ShardedCache<UUID, Bean> cache = new ShardedCache<>(factory, UUID::randomUUID, new StatefulTimeoutInfo(0, TimeUnit.MILLISECONDS), null, this.executor, 2);
+        cache.start();
+        try {
+            Bean bean = cache.create();
+            cache.get(bean.getId());
+            cache.release(bean);
+            assertFalse(cache.contains(bean.getId()));
+            assertEquals(1, factory.destroyed.get());
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void stop() {
+        BeanFactory factory = new BeanFactory();
+        ShardedCache<UUID, Bean> cache = new ShardedCache<>(factory, UUID::randomUUID, new StatefulTimeoutInfo(1, TimeUnit.HOURS), null, this.executor, 2);
+        cache.start();
+        for (int i = 0; i < 10; ++i) {
+            Bean bean = cache.create();
+            cache.get(bean.getId());
+            cache.release(bean);
+        }
+        cache.stop();
+        assertEquals(0, cache.getCacheSize());
+        assertEquals(10, factory.destroyed.get());
+    }
+
+    @Test
+    public void entry() {
+        ShardedCache.Entry<Bean> entry = new ShardedCache.Entry<>(new Bean());
+        assertTrue(entry.use());
+        ShardedCache.Expiration<UUID> expiration = entry.done(UUID.randomUUID(), System.nanoTime());
+        assertNotNull(expiration);
+        // A subsequent invocation supersedes the pending expiration
+        assertTrue(entry.use());
+        assertFalse(entry.expire(expiration));
+        ShardedCache.Expiration<UUID> next = entry.done(expiration.getKey(), System.nanoTime());
+        assertNotNull(next);
+        assertFalse(entry.expire(expiration));
+        assertTrue(entry.expire(next));
+        // A claimed entry can no longer be used
+        assertFalse(entry.use());
+        assertNull(entry.done(next.getKey(), System.nanoTime()));
+    }
+
+    static class Bean implements Identifiable<UUID> {
+        private final UUID id = UUID.randomUUID();
+
+        @Override
+        public UUID getId() {
+            return this.id;
+        }
+    }
+
+    static class BeanFactory implements StatefulObjectFactory<Bean> {
+        final AtomicInteger destroyed = new AtomicInteger();
+
+        @Override
+        public Bean createInstance() {
+            return new Bean();
+        }
+
+        @Override
+        public void destroyInstance(Bean instance) {
+            this.destroyed.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class InvocationMetricsTestCase {
+
+    public interface Bean {
+        void doIt();
+
+        void overloaded(String value);
+
+        void overloaded(int value);
+
+        void overloaded(java.util.Date value);
+
+        void overloaded(java.sql.Date value);
+
+        void overloaded(String[] values);
+    }
+
+    @Test
+    public void bucketBounds() {
+        for (long value : new long[] { 0, 1, 3, 4, 7, 8, 9, 15, 16, 1000, 123456789L, Long.MAX_VALUE }) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(value <= LatencyHistogram.upperBound(index));
+            if (index > 0) {
+                assertTrue(value > LatencyHistogram.upperBound(index - 1));
+            }
+        }
+    }
+
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.getValueAtQuantile(0.5));
+        for (int i = 1; i <= 1000; ++i) {
+            histogram.record(i);
+        }
+        long p50 = histogram.getValueAtQuantile(0.5);
+        long p99 = histogram.getValueAtQuantile(0.99);
+        assertTrue(String.valueOf(p50), p50 >= 500 && p50 <= 625);
+        assertTrue(String.valueOf(p99), p99 >= 990 && p99 <= 1000);
+        assertEquals(1000L, histogram.getMax());
+    }
+
+    @Test
+    public void methodNames() throws NoSuchMethodException {
+        assertEquals("doIt", InvocationMetrics.name(Bean.class.getMethod("doIt")));
+        assertEquals("overloaded(java.lang.String)", InvocationMetrics.name(Bean.class.getMethod("overloaded", String.class)));
+        assertEquals("overloaded(int)", InvocationMetrics.name(Bean.class.getMethod("overloaded", int.class)));
+        assertEquals("overloaded(java.util.Date)", InvocationMetrics.name(Bean.class.getMethod("overloaded", java.util.Date.class)));
+        assertEquals("overloaded(java.sql.Date)", InvocationMetrics.name(Bean.class.getMethod("overloaded", java.sql.Date.class)));
+        assertEquals("overloaded(java.lang.String[])", InvocationMetrics.name(Bean.class.getMethod("overloaded", String[].class)));
+    }
+
+    @Test
+    public void concurrentInvocations() throws Exception {
+        InvocationMetrics metrics = new InvocationMetrics();
+        Method doIt = Bean.class.getMethod("doIt");
+        Method overloaded = Bean.class.getMethod("overloaded", int.class);
+        int threads = 8;
+        int iterations = 10000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+        try {
+            for (int i = 0; i < threads; ++i) {
+                executor.execute(() -> {
+                    for (int j = 0; j < iterations; ++j) {
+                        metrics.startInvocation();
+                        metrics.finishInvocation((j % 2 == 0) ? doIt : overloaded, TimeUnit.MICROSECONDS.toNanos(10), TimeUnit.MILLISECONDS.toNanos(1));
+                    }
+                    latch.countDown();
+                });
+            }
+            assertTrue(latch.await(1, TimeUnit.MINUTES));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(threads * iterations, metrics.getInvocations());
+        assertEquals(threads * iterations, metrics.getExecutionTime());
+        assertEquals(0L, metrics.getConcurrent());
+        assertTrue(metrics.getPeakConcurrent() >= 1 && metrics.getPeakConcurrent() <= threads);
+
+        Map<String, InvocationMetrics.Values> methods = metrics.getMethods();
+        assertEquals(2, methods.size());
+        InvocationMetrics.Values values = methods.get("doIt");
+        assertEquals(threads * iterations / 2, values.getInvocations());
+        assertEquals(threads * iterations / 2, values.getExecutionTime());
+        assertEquals(1000L, values.getExecutionTimeP50());
+        assertEquals(1000L, values.getExecutionTimeP99());
+        assertEquals(1000L, values.getMaxExecutionTime());
+        assertEquals(10L, values.getWaitTimeP99());
+        assertEquals(threads * iterations / 2, methods.get("overloaded(int)").getInvocations());
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import javax.ejb.IllegalLoopbackException;
+
+import org.jboss.as.ejb3.component.singleton.EJBReadWriteLock;
+import org.jboss.as.ejb3.component.singleton.StripedEJBReadWriteLock;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link StripedEJBReadWriteLock}
+ */
+public class StripedEJBReadWriteLockTest {
+    private final StripedEJBReadWriteLock lock = new StripedEJBReadWriteLock();
+
+    @Test
+    public void testIllegalLoopBack() throws Exception {
+        Lock readLock = this.lock.readLock();
+        readLock.lock();
+        try {
+            this.lock.writeLock().tryLock(1, TimeUnit.SECONDS);
+            Assert.fail("Unexpected acquired write lock");
+        } catch (IllegalLoopbackException e) {
+            // expected
+        } finally {
+            readLock.unlock();
+        }
+        // Once the read lock is released, the write lock can be acquired
+        Assert.assertTrue(this.lock.writeLock().tryLock());
+        this.lock.writeLock().unlock();
+    }
+
+    @Test
+    public void testReadTimeout() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            this.lock.writeLock().lock();
+            try {
+                locked.countDown();
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        });
+        thread.start();
+        locked.await();
+        try {
+            Assert.assertFalse("Unexpected obtained a read lock", this.lock.readLock().tryLock(500, TimeUnit.MILLISECONDS));
+        } finally {
+            done.countDown();
+            thread.join();
+        }
+        Assert.assertTrue(this.lock.readLock().tryLock(1, TimeUnit.SECONDS));
+        this.lock.readLock().unlock();
+    }
+
+    @Test
+    public void testWriteTimeout() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            this.lock.readLock().lock();
+            try {
+                locked.countDown();
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                this.lock.readLock().unlock();
+            }
+        });
+        thread.start();
+        locked.await();
+        try {
+            Assert.assertFalse("Unexpected obtained a write lock", this.lock.writeLock().tryLock(500, TimeUnit.MILLISECONDS));
+            // A writer that timed out must not block subsequent readers
+            Assert.assertTrue(this.lock.readLock().tryLock());
+            this.lock.readLock().unlock();
+        } finally {
+            done.countDown();
+            thread.join();
+        }
+        Assert.assertTrue(this.lock.writeLock().tryLock(1, TimeUnit.SECONDS));
+        this.lock.writeLock().unlock();
+    }
+
+    @Test
+    public void testSameThreadCanGetWriteThenReadLock() throws Exception {
+        Lock writeLock = this.lock.writeLock();
+        writeLock.lock();
+        try {
+            // Reentrant write lock
+            Assert.assertTrue(writeLock.tryLock(1, TimeUnit.SECONDS));
+            writeLock.unlock();
+            Assert.assertTrue("Could not obtain read lock when write lock was held by the same thread!", this.lock.readLock().tryLock(1, TimeUnit.SECONDS));
+            this.lock.readLock().unlock();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Test
+    public void testReentrantReadWhileWriterWaits() throws Exception {
+        Lock readLock = this.lock.readLock();
+        readLock.lock();
+        CountDownLatch waiting = new CountDownLatch(1);
+        AtomicBoolean acquired = new AtomicBoolean();
+        Thread thread = new Thread(() -> {
+            waiting.countDown();
+            this.lock.writeLock().lock();
+            acquired.set(true);
+            this.lock.writeLock().unlock();
+        });
+        thread.start();
+        waiting.await();
+        Thread.sleep(100);
+        // Must not deadlock with the waiting writer
+        Assert.assertTrue(readLock.tryLock(1, TimeUnit.SECONDS));
+        readLock.unlock();
+        Assert.assertFalse(acquired.get());
+        readLock.unlock();
+        thread.join(5000);
+        Assert.assertTrue(acquired.get());
+    }
+
+    @Test
+    public void testMutualExclusion() throws Exception {
+        int threads = 16;
+        int iterations = 5000;
+        AtomicInteger readers = new AtomicInteger();
+        AtomicInteger writers = new AtomicInteger();
+        AtomicBoolean violated = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; ++i) {
+                boolean writer = (i % 4 == 0);
+                futures.add(executor.submit(() -> {
+                    Lock lock = writer ? this.lock.writeLock() : this.lock.readLock();
+                    for (int j = 0; j < iterations; ++j) {
+                        lock.lock();
+                        try {
+                            if (writer) {
+                                if (writers.incrementAndGet() != 1 || readers.get() != 0) violated.set(true);
+                                writers.decrementAndGet();
+                            } else {
+                                readers.incrementAndGet();
+                                if (writers.get() != 0) violated.set(true);
+                                readers.decrementAndGet();
+                            }
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertFalse(violated.get());
+    }
+
+    /**
+     * Compares the throughput of 64 concurrent readers of a {@link StripedEJBReadWriteLock} with that of an {@link EJBReadWriteLock}.
+     */
+    @Test
+    public void testConcurrentReaders() throws Exception {
+        int readers = 64;
+        long duration = TimeUnit.MILLISECONDS.toNanos(500);
+        // Warm up
+        measure(new EJBReadWriteLock(), readers, duration);
+        measure(new StripedEJBReadWriteLock(), readers, duration);
+        long reentrant = measure(new EJBReadWriteLock(), readers, duration);
+        long striped = measure(new StripedEJBReadWriteLock(), readers, duration);
+        System.out.println(String.format("%d concurrent readers over %d ms: EJBReadWriteLock %d locks/ms, StripedEJBReadWriteLock %d locks/ms", readers,
+                TimeUnit.NANOSECONDS.toMillis(duration), reentrant / TimeUnit.NANOSECONDS.toMillis(duration), striped / TimeUnit.NANOSECONDS.toMillis(duration)));
+    }
+
+    private static long measure(ReadWriteLock lock, int readers, long duration) throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(readers);
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        try {
+            List<Future<Long>> futures = new ArrayList<>(readers);
+            for (int i = 0; i < readers; ++i) {
+                futures.add(executor.submit(() -> {
+                    Lock readLock = lock.readLock();
+                    barrier.await();
+                    long count = 0;
+                    long deadline = System.nanoTime() + duration;
+                    while (System.nanoTime() < deadline) {
+                        if (readLock.tryLock(1, TimeUnit.SECONDS)) {
+                            readLock.unlock();
+                            count += 1;
+                        }
+                    }
+                    return count;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> future : futures) {
+                total += future.get();
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -21,7 +21,9 @@
  */
 package org.jboss.as.ejb3.pool.strictmax;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.concurrent.Callable;
@@ -157,4 +159,186 @@ public class StrictMaxUnitTestCase {
         assertEquals(10, MockBean.getPostConstructs());
         assertEquals(10, MockBean.getPreDestroys());
     }
+
+    @Test
+    public void testGrow() {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        Pool<MockBean> pool = new StrictMaxPool<MockBean>(factory, 5, 1, TimeUnit.SECONDS);
+        pool.start();
+
+        MockBean[] beans = new MockBean[10];
+        for (int i = 0; i < 5; i++) {
+            beans[i] = pool.get();
+        }
+        assertEquals(0, pool.getAvailableCount());
+
+        pool.setMaxSize(10);
+        assertEquals(10, pool.getMaxSize());
+        assertEquals(5, pool.getAvailableCount());
+
+        for (int i = 5; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+        assertEquals(10, pool.getPeakInUseCount());
+
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+
+        pool.stop();
+
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void testShrink() {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        Pool<MockBean> pool = new StrictMaxPool<MockBean>(factory, 10, 1, TimeUnit.SECONDS);
+        pool.start();
+
+        MockBean[] beans = new MockBean[10];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+        // Idle instances
+        for (int i = 0; i < 4; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+
+        pool.setMaxSize(3);
+        assertEquals(3, pool.getMaxSize());
+        // Idle instances are destroyed immediately
+        assertEquals(4, MockBean.getPreDestroys());
+        assertEquals(6, pool.getCurrentSize());
+        assertEquals(-3, pool.getAvailableCount());
+
+        // Instances in use are destroyed on release, until the pool fits its new size
+        for (int i = 4; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+        assertEquals(3, pool.getCurrentSize());
+        assertEquals(3, pool.getAvailableCount());
+
+        pool.stop();
+
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void testConcurrentShrink() throws Exception {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        Pool<MockBean> pool = new StrictMaxPool<MockBean>(factory, 20, 1, TimeUnit.SECONDS);
+        pool.start();
+
+        MockBean[] beans = new MockBean[20];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+        pool.setMaxSize(5);
+        // A discarded instance counts towards the excess
+        pool.discard(beans[0]);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            Future<?>[] futures = new Future<?>[beans.length - 1];
+            for (int i = 1; i < beans.length; i++) {
+                MockBean bean = beans[i];
+                futures[i - 1] = executor.submit(() -> {
+                    latch.await();
+                    pool.release(bean);
+                    return null;
+                });
+            }
+            latch.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Exactly the excess instances were destroyed, regardless of the interleaving of releases
+        assertEquals(5, pool.getCurrentSize());
+        assertEquals(5, pool.getAvailableCount());
+        assertEquals(15, MockBean.getPreDestroys());
+
+        pool.stop();
+
+        assertEquals(20, MockBean.getPostConstructs());
+    }
+
+    @Test
+    public void testStatistics() {
+        MockBean.reset();
+        StatelessObjectFactory<MockBean> factory = new MockFactory();
+        Pool<MockBean> pool = new StrictMaxPool<MockBean>(factory, 2, 10, TimeUnit.MILLISECONDS);
+        pool.start();
+
+        MockBean bean1 = pool.get();
+        MockBean bean2 = pool.get();
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (Exception e) {
+            assertEquals(EjbLogger.ROOT_LOGGER.failedToAcquirePermit(10, TimeUnit.MILLISECONDS).getMessage(), e.getMessage());
+        }
+        pool.release(bean1);
+        pool.release(bean2);
+
+        assertEquals(1, pool.getTimeoutCount());
+        assertEquals(2, pool.getPeakInUseCount());
+        assertArrayEquals(new long[] { 2, 0, 0, 0, 0, 0, 0 }, pool.getWaitTimeHistogram());
+
+        pool.stop();
+    }
+
+    @Test
+    public void testPrefill() {
+        MockBean.reset();
+        // Creation of an instance takes a while, e.g. due to injection or @PostConstruct
+        StatelessObjectFactory<MockBean> factory = new MockFactory() {
+            @Override
+            public MockBean create() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.create();
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Pool<MockBean> pool = new StrictMaxPool<MockBean>(factory, 10, 8, true, executor, 1, TimeUnit.SECONDS);
+        assertEquals(0, pool.getPrefillTime());
+        pool.start();
+
+        // Start blocks until the pool is prefilled
+        assertEquals(8, pool.getCurrentSize());
+        assertEquals(8, MockBean.getPostConstructs());
+        assertTrue(pool.getPrefillTime() >= 50);
+
+        // Prefilled instances must be used before creating new ones
+        MockBean[] beans = new MockBean[8];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+        assertEquals(8, pool.getCreateCount());
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+        }
+
+        pool.stop();
+        executor.shutdown();
+
+        assertEquals(8, MockBean.getPreDestroys());
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.as.ee.component.ComponentView;
+import org.jboss.ejb.client.EJBMethodLocator;
+import org.junit.Test;
+
+/**
+ * Verifies remote method dispatch through {@link EJBMethodLocatorIndex} and compares its overhead against scanning the
+ * view methods. {@link ResultSet} stands in for a facade with hundreds of heavily overloaded methods.
+ */
+public class EJBMethodLocatorIndexTestCase {
+    private static final List<Method> METHODS = Arrays.asList(ResultSet.class.getMethods());
+
+    @Test
+    public void dispatch() throws NoSuchMethodException {
+        ComponentView indexed = view(true);
+        ComponentView scanned = view(false);
+        for (Method method : METHODS) {
+            EJBMethodLocator locator = EJBMethodLocator.forMethod(method);
+            assertEquals(method, AssociationImpl.findMethod(indexed, locator));
+            assertEquals(method, AssociationImpl.findMethod(scanned, locator));
+        }
+        // Distinguish overloads by parameter types
+        Method byIndex = ResultSet.class.getMethod("getString", int.class);
+        Method byLabel = ResultSet.class.getMethod("getString", String.class);
+        assertEquals(byIndex, AssociationImpl.findMethod(indexed, new EJBMethodLocator("getString", "int")));
+        assertEquals(byLabel, AssociationImpl.findMethod(indexed, new EJBMethodLocator("getString", "java.lang.String")));
+
+        EJBMethodLocator missing = new EJBMethodLocator("getString", "long");
+        assertNull(AssociationImpl.findMethod(indexed, missing));
+        assertNull(AssociationImpl.findMethod(scanned, missing));
+    }
+
+    @Test
+    public void overhead() {
+        ComponentView indexed = view(true);
+        ComponentView scanned = view(false);
+        EJBMethodLocator[] locators = METHODS.stream().map(EJBMethodLocator::forMethod).toArray(EJBMethodLocator[]::new);
+        int iterations = 200;
+        // warm up
+        measure(indexed, locators, iterations);
+        measure(scanned, locators, iterations);
+        long indexTime = measure(indexed, locators, iterations);
+        long scanTime = measure(scanned, locators, iterations);
+        long lookups = (long) iterations * locators.length;
+        System.out.println(String.format("Dispatching %d lookups over %d view methods: scan %d ns/lookup, index %d ns/lookup", lookups, locators.length, scanTime / lookups, indexTime / lookups));
+    }
+
+    private static long measure(ComponentView view, EJBMethodLocator[] locators, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; ++i) {
+            for (EJBMethodLocator locator : locators) {
+                if (AssociationImpl.findMethod(view, locator) == null) {
+                    throw new IllegalStateException(locator.toString());
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static ComponentView view(boolean indexed) {
+        ComponentView view = mock(ComponentView.class);
+        Set<Method> methods = new HashSet<>(METHODS);
+        when(view.getViewMethods()).thenReturn(methods);
+        when(view.getPrivateData(EJBMethodLocatorIndex.class)).thenReturn(indexed ? new EJBMethodLocatorIndex(METHODS) : null);
+        return view;
+    }
+}
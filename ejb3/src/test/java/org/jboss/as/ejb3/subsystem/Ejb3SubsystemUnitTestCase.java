@@ -68,7 +68,7 @@ public class Ejb3SubsystemUnitTestCase extends AbstractSubsystemBaseTest {
 
     @Override
     protected String getSubsystemXsdPath() throws Exception {
-        return "schema/wildfly-ejb3_5_0.xsd";
+        return "schema/wildfly-ejb3_6_0.xsd";
     }
 
     @Override
@@ -89,6 +89,11 @@ public class Ejb3SubsystemUnitTestCase extends AbstractSubsystemBaseTest {
         standardSubsystemTest("subsystem15.xml", false);
     }
 
+    @Test
+    public void test50() throws Exception {
+        standardSubsystemTest("subsystem50.xml", false);
+    }
+
     /** WFLY-7797 */
     @Test
     public void testPoolSizeAlternatives() throws Exception {
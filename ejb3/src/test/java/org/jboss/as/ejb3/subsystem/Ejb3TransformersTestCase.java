@@ -67,7 +67,7 @@ public class Ejb3TransformersTestCase extends AbstractSubsystemBaseTest {
 
     @Override
     protected String getSubsystemXsdPath() throws Exception {
-        return "schema/wildfly-ejb3_5_0.xsd";
+        return "schema/wildfly-ejb3_6_0.xsd";
     }
 
     @Override
@@ -107,6 +107,15 @@ public class Ejb3TransformersTestCase extends AbstractSubsystemBaseTest {
                 formatArtifact("org.jboss.as:jboss-as-threads:%s", controller));
     }
 
+    @Test
+    public void testTransformerEAP720() throws Exception {
+        ModelTestControllerVersion controller = ModelTestControllerVersion.EAP_7_2_0_TEMP;
+        testTransformation(ModelVersion.create(5, 0, 0), controller,
+                formatSubsystemArtifact(controller),
+                formatArtifact("org.wildfly:wildfly-clustering-ejb-spi:%s", controller),
+                formatArtifact("org.wildfly:wildfly-clustering-service:%s", controller));
+    }
+
     /**
      * Tests transformation of model from current version into specified version
      * The xml used should parse on legacy servers without rejections.
@@ -136,6 +145,9 @@ public class Ejb3TransformersTestCase extends AbstractSubsystemBaseTest {
         // check that both versions of the legacy model are the same and valid
         checkSubsystemModelTransformation(services, model, null);
 
+        // Cache attributes were only renamed in model versions 1.x
+        if (model.getMajor() > 1) return;
+
         PathAddress ejb3PathAddress = PathAddress.pathAddress(SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME);
         Map<String, String> attributeRenames = new HashMap<>();
         attributeRenames.put(EJB3SubsystemRootResourceDefinition.DEFAULT_SFSB_CACHE.getName(), EJB3SubsystemRootResourceDefinition.DEFAULT_CLUSTERED_SFSB_CACHE.getName());
@@ -177,6 +189,15 @@ public class Ejb3TransformersTestCase extends AbstractSubsystemBaseTest {
                 formatArtifact("org.jboss.as:jboss-as-threads:%s", controller), LEGACY_EJB_CLIENT_ARTIFACT);
     }
 
+    @Test
+    public void testRejectionsEAP720() throws Exception {
+        ModelTestControllerVersion controller = ModelTestControllerVersion.EAP_7_2_0_TEMP;
+        this.testRejections(ModelVersion.create(5, 0, 0), controller,
+                formatSubsystemArtifact(controller),
+                formatArtifact("org.wildfly:wildfly-clustering-ejb-spi:%s", controller),
+                formatArtifact("org.wildfly:wildfly-clustering-service:%s", controller));
+    }
+
     @Override
     protected AdditionalInitialization createAdditionalInitialization() {
         return AdditionalInitialization.withCapabilities("org.wildfly.transactions.global-default-local-provider", buildDynamicCapabilityName("org.wildfly.security.security-domain", "ApplicationDomain"));
@@ -206,6 +227,11 @@ public class Ejb3TransformersTestCase extends AbstractSubsystemBaseTest {
     private static FailedOperationTransformationConfig createFailedOperationTransformationConfig(KernelServices services, ModelVersion version) {
         FailedOperationTransformationConfig config = new FailedOperationTransformationConfig();
         PathAddress subsystemAddress = PathAddress.pathAddress(EJB3Extension.SUBSYSTEM_PATH);
+        PathAddress prefilledStrictMaxPoolAddress = subsystemAddress.append(PathElement.pathElement(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL, "prefilled-strict-max-pool"));
+        PathAddress stripedMaxPoolAddress = subsystemAddress.append(PathElement.pathElement(EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL, "slsb-striped-max-pool"));
+        PathAddress journalFileStoreAddress = subsystemAddress.append(EJB3SubsystemModel.TIMER_SERVICE_PATH, PathElement.pathElement(EJB3SubsystemModel.FILE_DATA_STORE, "file-data-store-rejected"));
+        PathAddress shardedCacheAddress = subsystemAddress.append(PathElement.pathElement(EJB3SubsystemModel.CACHE, "simple"));
+        PathAddress passivationStoreAddress = subsystemAddress.append(PathElement.pathElement(EJB3SubsystemModel.PASSIVATION_STORE, "infinispan"));
 
         if (EJB3Model.VERSION_1_2_1.matches(version)) {
 
@@ -215,7 +241,8 @@ public class Ejb3TransformersTestCase extends AbstractSubsystemBaseTest {
                     /*EJB3SubsystemRootResourceDefinition.DEFAULT_SFSB_PASSIVATION_DISABLED_CACHE,*/ EJB3SubsystemRootResourceDefinition.DISABLE_DEFAULT_EJB_PERMISSIONS)
                     .addConfig(new FailedOperationTransformationConfig.NewAttributesConfig(
                             /*EJB3SubsystemRootResourceDefinition.DEFAULT_SFSB_PASSIVATION_DISABLED_CACHE,*/ EJB3SubsystemRootResourceDefinition.LOG_EJB_EXCEPTIONS,
-                            EJB3SubsystemRootResourceDefinition.ALLOW_EJB_NAME_REGEX, EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN))
+                            EJB3SubsystemRootResourceDefinition.ALLOW_EJB_NAME_REGEX, EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN,
+                            EJB3SubsystemRootResourceDefinition.SINGLETON_BEAN_STRIPED_LOCK))
                     .addConfig(new CorrectFalseToTrue(EJB3SubsystemRootResourceDefinition.DISABLE_DEFAULT_EJB_PERMISSIONS))
                     .build();
 
@@ -260,6 +287,21 @@ public class Ejb3TransformersTestCase extends AbstractSubsystemBaseTest {
             // reject the resource /subsystem=ejb3/service=identity
             config.addFailedAttribute(subsystemAddress.append(EJB3SubsystemModel.IDENTITY_PATH), FailedOperationTransformationConfig.REJECTED_RESOURCE);
 
+            // reject the resource /subsystem=ejb3/striped-max-bean-instance-pool=*
+            config.addFailedAttribute(stripedMaxPoolAddress, FailedOperationTransformationConfig.REJECTED_RESOURCE);
+
+            // reject non-default prefill attributes of /subsystem=ejb3/strict-max-bean-instance-pool=*
+            config.addFailedAttribute(prefilledStrictMaxPoolAddress, new FailedOperationTransformationConfig.NewAttributesConfig(StrictMaxPoolResourceDefinition.MIN_POOL_SIZE, StrictMaxPoolResourceDefinition.AWAIT_PREFILL));
+
+            // reject non-default shards of /subsystem=ejb3/cache=*
+            config.addFailedAttribute(shardedCacheAddress, new FailedOperationTransformationConfig.NewAttributesConfig(CacheFactoryResourceDefinition.SHARDS));
+
+            // reject the compression attributes of /subsystem=ejb3/passivation-store=*
+            config.addFailedAttribute(passivationStoreAddress, new FailedOperationTransformationConfig.NewAttributesConfig(PassivationStoreResourceDefinition.COMPRESSION, PassivationStoreResourceDefinition.COMPRESSION_THRESHOLD));
+
+            // reject the scheduler threads of /subsystem=ejb3/service=timer-service
+            config.addFailedAttribute(subsystemAddress.append(EJB3SubsystemModel.TIMER_SERVICE_PATH), new FailedOperationTransformationConfig.NewAttributesConfig(TimerServiceResourceDefinition.SCHEDULER_THREADS));
+
 
             //Special handling for this test!!!!
             //Don't transform the resulting composite, instead rather transform the individual steps
@@ -276,7 +318,8 @@ public class Ejb3TransformersTestCase extends AbstractSubsystemBaseTest {
                     /*EJB3SubsystemRootResourceDefinition.DEFAULT_SFSB_PASSIVATION_DISABLED_CACHE,*/ EJB3SubsystemRootResourceDefinition.DISABLE_DEFAULT_EJB_PERMISSIONS)
                     .addConfig(new FailedOperationTransformationConfig.NewAttributesConfig(
                             /*EJB3SubsystemRootResourceDefinition.DEFAULT_SFSB_PASSIVATION_DISABLED_CACHE,*/ EJB3SubsystemRootResourceDefinition.LOG_EJB_EXCEPTIONS,
-                            EJB3SubsystemRootResourceDefinition.ALLOW_EJB_NAME_REGEX, EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN))
+                            EJB3SubsystemRootResourceDefinition.ALLOW_EJB_NAME_REGEX, EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN,
+                            EJB3SubsystemRootResourceDefinition.SINGLETON_BEAN_STRIPED_LOCK))
                     .addConfig(new CorrectFalseToTrue(EJB3SubsystemRootResourceDefinition.DISABLE_DEFAULT_EJB_PERMISSIONS))
                     .build();
 
@@ -307,6 +350,50 @@ public class Ejb3TransformersTestCase extends AbstractSubsystemBaseTest {
 
             // reject the resource /subsystem=ejb3/service=identity
             config.addFailedAttribute(subsystemAddress.append(EJB3SubsystemModel.IDENTITY_PATH), FailedOperationTransformationConfig.REJECTED_RESOURCE);
+
+            // reject the resource /subsystem=ejb3/striped-max-bean-instance-pool=*
+            config.addFailedAttribute(stripedMaxPoolAddress, FailedOperationTransformationConfig.REJECTED_RESOURCE);
+
+            // reject non-default prefill attributes of /subsystem=ejb3/strict-max-bean-instance-pool=*
+            config.addFailedAttribute(prefilledStrictMaxPoolAddress, new FailedOperationTransformationConfig.NewAttributesConfig(StrictMaxPoolResourceDefinition.MIN_POOL_SIZE, StrictMaxPoolResourceDefinition.AWAIT_PREFILL));
+
+            // reject non-default shards of /subsystem=ejb3/cache=*
+            config.addFailedAttribute(shardedCacheAddress, new FailedOperationTransformationConfig.NewAttributesConfig(CacheFactoryResourceDefinition.SHARDS));
+
+            // reject the compression attributes of /subsystem=ejb3/passivation-store=*
+            config.addFailedAttribute(passivationStoreAddress, new FailedOperationTransformationConfig.NewAttributesConfig(PassivationStoreResourceDefinition.COMPRESSION, PassivationStoreResourceDefinition.COMPRESSION_THRESHOLD));
+
+            // reject the scheduler threads of /subsystem=ejb3/service=timer-service
+            config.addFailedAttribute(subsystemAddress.append(EJB3SubsystemModel.TIMER_SERVICE_PATH), new FailedOperationTransformationConfig.NewAttributesConfig(TimerServiceResourceDefinition.SCHEDULER_THREADS));
+
+            // reject the non-default format of /subsystem=ejb3/service=timer-service/file-data-store=file-data-store-rejected
+            config.addFailedAttribute(journalFileStoreAddress, new FailedOperationTransformationConfig.NewAttributesConfig(FileDataStoreResourceDefinition.FORMAT));
+        }
+
+        if (EJB3Model.VERSION_5_0_0.matches(version)) {
+            // reject the striped singleton lock of /subsystem=ejb3
+            config.addFailedAttribute(subsystemAddress, new FailedOperationTransformationConfig.NewAttributesConfig(EJB3SubsystemRootResourceDefinition.SINGLETON_BEAN_STRIPED_LOCK));
+
+            // reject the resource /subsystem=ejb3/striped-max-bean-instance-pool=*
+            config.addFailedAttribute(stripedMaxPoolAddress, FailedOperationTransformationConfig.REJECTED_RESOURCE);
+
+            // reject non-default prefill attributes of /subsystem=ejb3/strict-max-bean-instance-pool=*
+            config.addFailedAttribute(prefilledStrictMaxPoolAddress, new FailedOperationTransformationConfig.NewAttributesConfig(StrictMaxPoolResourceDefinition.MIN_POOL_SIZE, StrictMaxPoolResourceDefinition.AWAIT_PREFILL));
+
+            // reject non-default shards of /subsystem=ejb3/cache=*
+            config.addFailedAttribute(shardedCacheAddress, new FailedOperationTransformationConfig.NewAttributesConfig(CacheFactoryResourceDefinition.SHARDS));
+
+            // reject the compression attributes of /subsystem=ejb3/passivation-store=*
+            config.addFailedAttribute(passivationStoreAddress, new FailedOperationTransformationConfig.NewAttributesConfig(PassivationStoreResourceDefinition.COMPRESSION, PassivationStoreResourceDefinition.COMPRESSION_THRESHOLD));
+
+            // reject the scheduler threads of /subsystem=ejb3/service=timer-service
+            config.addFailedAttribute(subsystemAddress.append(EJB3SubsystemModel.TIMER_SERVICE_PATH), new FailedOperationTransformationConfig.NewAttributesConfig(TimerServiceResourceDefinition.SCHEDULER_THREADS));
+
+            // reject the non-default format of /subsystem=ejb3/service=timer-service/file-data-store=file-data-store-rejected
+            config.addFailedAttribute(journalFileStoreAddress, new FailedOperationTransformationConfig.NewAttributesConfig(FileDataStoreResourceDefinition.FORMAT));
+
+            // reject the incremental refresh of /subsystem=ejb3/service=timer-service/database-data-store=*
+            config.addFailedAttribute(subsystemAddress.append(EJB3SubsystemModel.TIMER_SERVICE_PATH, EJB3SubsystemModel.DATABASE_DATA_STORE_PATH), new FailedOperationTransformationConfig.NewAttributesConfig(DatabaseDataStoreResourceDefinition.INCREMENTAL_REFRESH));
         }
 
         return config;
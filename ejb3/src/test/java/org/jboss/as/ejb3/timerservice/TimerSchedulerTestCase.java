@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TimerSchedulerTestCase {
+
+    @Test
+    public void lateness() {
+        TimerScheduler scheduler = new TimerScheduler(1, Executors.defaultThreadFactory());
+        try {
+            assertEquals(0L, scheduler.getTimeoutCount());
+            assertEquals(0L, scheduler.getAverageLateness());
+
+            scheduler.timeout(10L);
+            scheduler.timeout(30L);
+            // Early timeouts count as on time
+            scheduler.timeout(-5L);
+
+            assertEquals(3L, scheduler.getTimeoutCount());
+            assertEquals(13L, scheduler.getAverageLateness());
+            assertEquals(30L, scheduler.getMaxLateness());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void slowTaskDoesNotDelayOthers() throws InterruptedException {
+        TimerScheduler scheduler = new TimerScheduler(2, Executors.defaultThreadFactory());
+        try {
+            CountDownLatch blocked = new CountDownLatch(1);
+            CountDownLatch fired = new CountDownLatch(1);
+            scheduler.schedule(() -> {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, 0, TimeUnit.MILLISECONDS);
+            scheduler.schedule(fired::countDown, 10, TimeUnit.MILLISECONDS);
+            assertTrue(fired.await(5, TimeUnit.SECONDS));
+            blocked.countDown();
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void cancelledTasksAreRemoved() {
+        TimerScheduler scheduler = new TimerScheduler(1, Executors.defaultThreadFactory());
+        try {
+            ScheduledFuture<?> future = scheduler.schedule(() -> { }, 1, TimeUnit.HOURS);
+            assertEquals(1, scheduler.getQueue().size());
+            future.cancel(false);
+            assertEquals(0, scheduler.getQueue().size());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+}
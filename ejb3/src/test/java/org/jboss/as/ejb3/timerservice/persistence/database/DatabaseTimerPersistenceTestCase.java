@@ -1,12 +1,51 @@
 package org.jboss.as.ejb3.timerservice.persistence.database;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
+import org.jboss.msc.service.ServiceName;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 
 public class DatabaseTimerPersistenceTestCase {
 
@@ -144,4 +183,335 @@ public class DatabaseTimerPersistenceTestCase {
         Assert.assertEquals("sybase", field.get(object));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void commit() throws Exception {
+        Persistence persistence = new Persistence(false);
+        persistence.loadActiveTimers();
+        TimerImpl timer = persistence.createTimer("timer");
+        TimerImpl other = persistence.createTimer("other");
+
+        persistence.object.addTimer(timer);
+        persistence.object.addTimer(other);
+        timer.setTimerState(TimerState.CANCELED);
+        persistence.object.persistTimer(timer);
+
+        // Batched on the connection enlisted in the transaction of the caller
+        verify(persistence.statement("create-timer"), times(2)).addBatch();
+        verify(persistence.statement("delete-timer")).addBatch();
+        verify(persistence.statement("create-timer"), never()).execute();
+        verify(persistence.statement("create-timer"), never()).executeBatch();
+        verify(persistence.dataSource, times(1)).getConnection();
+        Assert.assertFalse(persistence.knownTimerIds().contains("timer"));
+        Assert.assertTrue(persistence.knownTimerIds().contains("other"));
+
+        persistence.beforeCompletion();
+
+        InOrder order = inOrder(persistence.statement("create-timer"), persistence.statement("delete-timer"), persistence.connection);
+        order.verify(persistence.statement("create-timer")).executeBatch();
+        order.verify(persistence.statement("delete-timer")).executeBatch();
+        order.verify(persistence.connection).close();
+        verify(persistence.statement("cancel-timer"), never()).addBatch();
+
+        persistence.afterCompletion(Status.STATUS_COMMITTED);
+        verify(persistence.connection).close();
+        Assert.assertFalse(persistence.knownTimerIds().contains("timer"));
+        Assert.assertTrue(persistence.knownTimerIds().contains("other"));
+    }
+
+    @Test
+    public void rollback() throws Exception {
+        Persistence persistence = new Persistence(false);
+        persistence.loadActiveTimers();
+        TimerImpl timer = persistence.createTimer("timer");
+
+        persistence.object.addTimer(timer);
+        Assert.assertTrue(persistence.knownTimerIds().contains("timer"));
+
+        persistence.afterCompletion(Status.STATUS_ROLLEDBACK);
+        verify(persistence.statement("create-timer"), never()).executeBatch();
+        verify(persistence.connection).close();
+        Assert.assertFalse(persistence.knownTimerIds().contains("timer"));
+    }
+
+    @Test
+    public void failure() throws Exception {
+        Persistence persistence = new Persistence(false);
+        persistence.loadActiveTimers();
+        SQLException exception = new SQLException();
+        when(persistence.statement("create-timer").executeBatch()).thenThrow(exception);
+
+        persistence.object.addTimer(persistence.createTimer("timer"));
+        try {
+            persistence.beforeCompletion();
+            Assert.fail("Failure of create-timer batch should roll back the transaction");
+        } catch (RuntimeException e) {
+            Assert.assertSame(exception, e.getCause());
+        }
+        verify(persistence.connection).close();
+        persistence.afterCompletion(Status.STATUS_ROLLEDBACK);
+        verify(persistence.connection).close();
+        Assert.assertFalse(persistence.knownTimerIds().contains("timer"));
+    }
+
+    @Test
+    public void failureOutsideTransaction() throws Exception {
+        Persistence persistence = new Persistence(false);
+        persistence.loadActiveTimers();
+        when(persistence.registry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+        SQLException exception = new SQLException();
+        when(persistence.statement("create-timer").execute()).thenThrow(exception);
+
+        try {
+            persistence.object.addTimer(persistence.createTimer("timer"));
+            Assert.fail("Failure of create-timer statement should propagate to the caller");
+        } catch (RuntimeException e) {
+            Assert.assertSame(exception, e.getCause());
+        }
+        verify(persistence.connection).close();
+        verify(persistence.registry, never()).registerInterposedSynchronization(any());
+        Assert.assertFalse(persistence.knownTimerIds().contains("timer"));
+    }
+
+    @Test
+    public void refresh() throws Exception {
+        Persistence persistence = new Persistence(false);
+        persistence.loadActiveTimers();
+        when(persistence.registry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+        persistence.object.addTimer(persistence.createTimer("timer"));
+        TimerPersistence.TimerChangeListener listener = persistence.listener();
+        ResultSet ids = resultSet(new String[][] { { "other", "bean", "ACTIVE" } });
+        when(persistence.statement("load-timer-ids").executeQuery()).thenReturn(ids);
+        ResultSet timers = resultSet(new String[][] { { "other", "bean", "ACTIVE" } });
+        when(persistence.statement("load-timer").executeQuery()).thenReturn(timers);
+
+        persistence.refresh();
+
+        // Only the timers unknown to this node are loaded
+        verify(persistence.statement("load-timer")).setString(2, "other");
+        verify(persistence.connection, never()).prepareStatement("load-changed-timers");
+        verify(persistence.connection, never()).prepareStatement("load-change");
+        ArgumentCaptor<TimerImpl> added = ArgumentCaptor.forClass(TimerImpl.class);
+        verify(listener).timerAdded(added.capture());
+        Assert.assertEquals("other", added.getValue().getId());
+        verify(listener).timerRemoved("timer");
+        Assert.assertTrue(persistence.knownTimerIds().contains("other"));
+        Assert.assertFalse(persistence.knownTimerIds().contains("timer"));
+    }
+
+    @Test
+    public void incrementalRefresh() throws Exception {
+        Persistence persistence = new Persistence(true);
+        persistence.change(7, 0);
+        persistence.loadActiveTimers();
+        when(persistence.registry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+        persistence.object.addTimer(persistence.createTimer("timer"));
+
+        // The change counter is incremented atomically with the creation of the timer
+        InOrder order = inOrder(persistence.connection, persistence.statement("increment-change"), persistence.statement("create-tracked-timer"));
+        order.verify(persistence.connection).setAutoCommit(false);
+        order.verify(persistence.statement("increment-change")).executeUpdate();
+        order.verify(persistence.statement("create-tracked-timer")).execute();
+        order.verify(persistence.connection).commit();
+        order.verify(persistence.connection).setAutoCommit(true);
+
+        TimerPersistence.TimerChangeListener listener = persistence.listener();
+        persistence.change(9, 0);
+        ResultSet changes = resultSet(new String[][] { { "other", "bean", "ACTIVE" }, { "timer", "bean", "CANCELED" } });
+        when(persistence.statement("load-changed-timers").executeQuery()).thenReturn(changes);
+
+        persistence.refresh();
+
+        // A single query yields both the timers created and cancelled by other nodes since the change counter read by the load
+        verify(persistence.statement("load-changed-timers")).setLong(3, 7);
+        verify(persistence.connection, never()).prepareStatement("load-timer-ids");
+        verify(persistence.connection, never()).prepareStatement("load-timer");
+        ArgumentCaptor<TimerImpl> added = ArgumentCaptor.forClass(TimerImpl.class);
+        verify(listener).timerAdded(added.capture());
+        Assert.assertEquals("other", added.getValue().getId());
+        verify(listener).timerRemoved("timer");
+        Assert.assertTrue(persistence.knownTimerIds().contains("other"));
+        Assert.assertFalse(persistence.knownTimerIds().contains("timer"));
+
+        clearInvocations(persistence.statement("load-changed-timers"));
+        ResultSet noChanges = resultSet(new String[0][]);
+        when(persistence.statement("load-changed-timers").executeQuery()).thenReturn(noChanges);
+
+        persistence.refresh();
+
+        verify(persistence.statement("load-changed-timers")).setLong(3, 9);
+    }
+
+    @Test
+    public void incrementalRefreshAfterPurge() throws Exception {
+        Persistence persistence = new Persistence(true);
+        persistence.change(7, 0);
+        persistence.loadActiveTimers();
+        persistence.listener();
+        // Tombstones of changes not yet seen by this node were purged by another node
+        persistence.change(12, 8);
+
+        persistence.refresh();
+
+        verify(persistence.connection).prepareStatement("load-timer-ids");
+        verify(persistence.connection, never()).prepareStatement("load-changed-timers");
+    }
+
+    @Test
+    public void incrementalBatch() throws Exception {
+        Persistence persistence = new Persistence(true);
+        persistence.change(7, 0);
+        persistence.loadActiveTimers();
+        TimerImpl timer = persistence.createTimer("timer");
+        persistence.object.addTimer(timer);
+        timer.setTimerState(TimerState.CANCELED);
+        persistence.object.persistTimer(timer);
+
+        verify(persistence.statement("increment-change"), never()).executeUpdate();
+
+        persistence.beforeCompletion();
+
+        // The change counter row is locked only once the transaction is about to complete
+        InOrder order = inOrder(persistence.statement("increment-change"), persistence.statement("create-tracked-timer"), persistence.statement("cancel-timer"));
+        order.verify(persistence.statement("increment-change")).executeUpdate();
+        order.verify(persistence.statement("create-tracked-timer")).executeBatch();
+        order.verify(persistence.statement("cancel-timer")).executeBatch();
+        verify(persistence.statement("delete-timer"), never()).addBatch();
+    }
+
+    /**
+     * Mocks a result set of the given rows of the ID, TIMED_OBJECT_ID and TIMER_STATE columns.
+     */
+    private static ResultSet resultSet(String[][] rows) throws SQLException {
+        AtomicInteger row = new AtomicInteger(-1);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenAnswer(invocation -> row.incrementAndGet() < rows.length);
+        when(resultSet.getString(anyInt())).thenAnswer(invocation -> {
+            switch (invocation.<Integer>getArgument(0)) {
+                case 1:
+                    return rows[row.get()][0];
+                case 2:
+                    return rows[row.get()][1];
+                case 9:
+                    return rows[row.get()][2];
+                default:
+                    return null;
+            }
+        });
+        return resultSet;
+    }
+
+    private static class Persistence {
+        final DatabaseTimerPersistence object;
+        final DataSource dataSource = mock(DataSource.class);
+        final Connection connection = mock(Connection.class);
+        final TransactionSynchronizationRegistry registry = mock(TransactionSynchronizationRegistry.class);
+        final TimerServiceImpl service = mock(TimerServiceImpl.class);
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+        private final Map<Object, Object> resources = new HashMap<>();
+
+        Persistence(boolean incrementalRefresh) throws Exception {
+            this.object = new DatabaseTimerPersistence(null, "part", "nodeA", 1000, true, incrementalRefresh);
+            DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+            when(metaData.supportsBatchUpdates()).thenReturn(true);
+            when(this.dataSource.getConnection()).thenReturn(this.connection);
+            when(this.connection.getMetaData()).thenReturn(metaData);
+            when(this.connection.prepareStatement(anyString())).thenAnswer(invocation -> this.statement(invocation.getArgument(0)));
+            when(this.registry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+            when(this.registry.getResource(any())).thenAnswer(invocation -> this.resources.get(invocation.getArgument(0)));
+            doAnswer(invocation -> this.resources.put(invocation.getArgument(0), invocation.getArgument(1))).when(this.registry).putResource(any(), any());
+            TimedObjectInvoker invoker = mock(TimedObjectInvoker.class);
+            when(invoker.getTimedObjectId()).thenReturn("bean");
+            when(this.service.getInvoker()).thenReturn(invoker);
+            when(this.service.getServiceName()).thenReturn(ServiceName.of("timer-service"));
+            // Each statement is identified by its key
+            Properties sql = new Properties();
+            for (String key : new String[] { "create-timer", "create-tracked-timer", "update-timer", "cancel-timer", "delete-timer", "purge-timers", "load-all-timers", "load-timer", "load-timer-ids", "load-changed-timers",
+                    "load-change", "insert-change", "increment-change", "update-purged-change" }) {
+                sql.setProperty(key, key);
+            }
+            this.object.getTransactionSynchronizationRegistry().inject(this.registry);
+            this.set("dataSource", dataSource);
+            this.set("sql", sql);
+        }
+
+        PreparedStatement statement(String key) {
+            return this.statements.computeIfAbsent(key, k -> {
+                PreparedStatement statement = mock(PreparedStatement.class);
+                try {
+                    when(statement.executeQuery()).thenAnswer(invocation -> resultSet(new String[0][]));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+                return statement;
+            });
+        }
+
+        /**
+         * Sets the change counter of the partition returned by load-change.
+         */
+        void change(long current, long purged) throws SQLException {
+            when(this.statement("load-change").executeQuery()).thenAnswer(invocation -> {
+                ResultSet resultSet = mock(ResultSet.class);
+                when(resultSet.next()).thenReturn(true, false);
+                when(resultSet.getLong(1)).thenReturn(current);
+                when(resultSet.getLong(2)).thenReturn(purged);
+                return resultSet;
+            });
+        }
+
+        void loadActiveTimers() {
+            Assert.assertTrue(this.object.loadActiveTimers("bean", this.service).isEmpty());
+            clearInvocations(this.dataSource, this.connection);
+            clearInvocations(this.statements.values().toArray());
+        }
+
+        TimerImpl createTimer(String id) {
+            return TimerImpl.builder().setId(id).setTimedObjectId("bean").setInitialDate(new Date()).setTimerState(TimerState.CREATED).setPersistent(true).setNewTimer(true).build(this.service);
+        }
+
+        TimerPersistence.TimerChangeListener listener() {
+            TimerPersistence.TimerChangeListener listener = mock(TimerPersistence.TimerChangeListener.class);
+            when(listener.getTimerService()).thenReturn(this.service);
+            this.object.registerChangeListener("bean", listener);
+            return listener;
+        }
+
+        void refresh() throws Exception {
+            Class<?> taskClass = Class.forName(DatabaseTimerPersistence.class.getName() + "$RefreshTask");
+            Constructor<?> constructor = taskClass.getDeclaredConstructor(DatabaseTimerPersistence.class);
+            constructor.setAccessible(true);
+            ((Runnable) constructor.newInstance(this.object)).run();
+        }
+
+        List<Synchronization> synchronizations() {
+            ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+            verify(this.registry, atLeastOnce()).registerInterposedSynchronization(synchronization.capture());
+            return synchronization.getAllValues();
+        }
+
+        void beforeCompletion() {
+            for (Synchronization synchronization : this.synchronizations()) {
+                synchronization.beforeCompletion();
+            }
+        }
+
+        void afterCompletion(int status) {
+            for (Synchronization synchronization : this.synchronizations()) {
+                synchronization.afterCompletion(status);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<String> knownTimerIds() throws Exception {
+            Field field = DatabaseTimerPersistence.class.getDeclaredField("knownTimerIds");
+            field.setAccessible(true);
+            return ((Map<String, Set<String>>) field.get(this.object)).get("bean");
+        }
+
+        private void set(String name, Object value) throws Exception {
+            Field field = DatabaseTimerPersistence.class.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(this.object, value);
+        }
+    }
+}
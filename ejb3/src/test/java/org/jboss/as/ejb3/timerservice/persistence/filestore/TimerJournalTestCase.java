@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TimerJournalTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void recover() throws IOException {
+        File directory = folder.newFolder();
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            journal.put("a", state("a1"));
+            journal.put("b", state("b1"));
+            journal.put("a", state("a2"));
+            journal.put("c", state("c1"));
+            assertTrue(journal.remove("b"));
+            assertFalse(journal.remove("b"));
+            assertEquals(2, journal.size());
+        }
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            assertEquals(2, journal.size());
+            assertFalse(journal.contains("b"));
+            Map<String, byte[]> states = journal.readAll();
+            assertArrayEquals(state("a2"), states.get("a"));
+            assertArrayEquals(state("c1"), states.get("c"));
+            // Appends to a recovered journal are recovered as well
+            journal.put("d", state("d1"));
+        }
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            assertEquals(3, journal.size());
+            assertArrayEquals(state("d1"), journal.readAll().get("d"));
+        }
+    }
+
+    @Test
+    public void roll() throws IOException {
+        File directory = folder.newFolder();
+        try (TimerJournal journal = new TimerJournal(directory, 64, Integer.MAX_VALUE)) {
+            for (int i = 0; i < 10; ++i) {
+                journal.put(Integer.toString(i), state("state-" + i));
+            }
+            assertTrue(journal.getSegments().size() > 1);
+        }
+        try (TimerJournal journal = new TimerJournal(directory, 64, Integer.MAX_VALUE)) {
+            Map<String, byte[]> states = journal.readAll();
+            assertEquals(10, states.size());
+            for (int i = 0; i < 10; ++i) {
+                assertArrayEquals(state("state-" + i), states.get(Integer.toString(i)));
+            }
+        }
+    }
+
+    @Test
+    public void compact() throws IOException {
+        File directory = folder.newFolder();
+        try (TimerJournal journal = new TimerJournal(directory, 256, 10)) {
+            journal.put("live", state("live"));
+            for (int i = 0; i < 100; ++i) {
+                journal.put("updated", state("updated-" + i));
+            }
+            // Compaction leaves only a few segments behind
+            assertTrue(journal.getSegments().size() < 5);
+        }
+        String[] files = directory.list();
+        for (String file : files) {
+            assertTrue(file, TimerJournal.isJournalFile(file));
+            assertFalse(file, file.endsWith(TimerJournal.TEMPORARY_SUFFIX));
+        }
+        try (TimerJournal journal = new TimerJournal(directory, 256, 10)) {
+            Map<String, byte[]> states = journal.readAll();
+            assertEquals(2, states.size());
+            assertArrayEquals(state("live"), states.get("live"));
+            assertArrayEquals(state("updated-99"), states.get("updated"));
+        }
+    }
+
+    @Test
+    public void truncateTornRecord() throws IOException {
+        File directory = folder.newFolder();
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            journal.put("a", state("a1"));
+            journal.put("b", state("b1"));
+        }
+        File segment = directory.listFiles()[0];
+        long length = segment.length();
+        // Simulate a crash in the middle of writing the last record
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.setLength(length - 2);
+        }
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            assertEquals(1, journal.size());
+            assertArrayEquals(state("a1"), journal.readAll().get("a"));
+            journal.put("c", state("c1"));
+        }
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            assertEquals(2, journal.size());
+            assertArrayEquals(state("c1"), journal.readAll().get("c"));
+        }
+    }
+
+    @Test
+    public void corruptSegment() throws IOException {
+        File directory = folder.newFolder();
+        try (TimerJournal journal = new TimerJournal(directory, 64, Integer.MAX_VALUE)) {
+            for (int i = 0; i < 10; ++i) {
+                journal.put(Integer.toString(i), state("state-" + i));
+            }
+            assertTrue(journal.getSegments().size() > 1);
+        }
+        // Segment names sort by sequence
+        String[] names = directory.list();
+        Arrays.sort(names);
+        File first = new File(directory, names[0]);
+        long length = first.length();
+        // Corrupt the checksum of the last record of a segment that is not the last one
+        try (RandomAccessFile file = new RandomAccessFile(first, "rw")) {
+            file.seek(length - 1);
+            int value = file.read();
+            file.seek(length - 1);
+            file.write(value ^ 0xFF);
+        }
+        try (TimerJournal journal = new TimerJournal(directory, 64, Integer.MAX_VALUE)) {
+            fail("Recovered journal with corrupt segment");
+        } catch (IOException e) {
+            // Expected
+        }
+        // Corrupt segment must not have been truncated
+        assertEquals(length, first.length());
+    }
+
+    @Test
+    public void load() throws IOException {
+        int count = 20000;
+        File directory = folder.newFolder();
+        byte[] state = new byte[200];
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            for (int i = 0; i < count; ++i) {
+                journal.put(Integer.toString(i), state);
+            }
+        }
+        try (TimerJournal journal = new TimerJournal(directory)) {
+            assertEquals(count, journal.readAll().size());
+        }
+    }
+
+    private static byte[] state(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
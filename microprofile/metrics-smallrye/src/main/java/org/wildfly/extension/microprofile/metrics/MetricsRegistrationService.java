@@ -25,10 +25,6 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATT
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
@@ -40,6 +36,7 @@ import static org.wildfly.extension.microprofile.metrics.MicroProfileMetricsSubs
 import static org.wildfly.extension.microprofile.metrics._private.MicroProfileMetricsLogger.LOGGER;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -65,7 +62,6 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
-import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
@@ -207,6 +203,9 @@ public class MetricsRegistrationService implements Service<MetricsRegistrationSe
 
         for (Map.Entry<PathAddress, Map<String, ModelNode>> entry : metrics.entrySet()) {
             PathAddress resourceAddress = resourceAddressResolver.apply(entry.getKey());
+            List<String> attributeNames = new ArrayList<>(entry.getValue().size());
+            List<Metadata> metadatas = new ArrayList<>(entry.getValue().size());
+            List<ModelType> types = new ArrayList<>(entry.getValue().size());
             for (Map.Entry<String, ModelNode> wildflyMetric : entry.getValue().entrySet()) {
                 String attributeName = wildflyMetric.getKey();
                 ModelNode attributeDescription = wildflyMetric.getValue();
@@ -249,18 +248,28 @@ public class MetricsRegistrationService implements Service<MetricsRegistrationSe
                         LOGGER.debugf("Type %s is not supported for MicroProfile Metrics, the attribute %s on %s will not be registered.", type, attributeName, resourceAddress);
                         continue;
                 }
+                attributeNames.add(attributeName);
+                metadatas.add(metadata);
+                types.add(type);
+            }
+            if (attributeNames.isEmpty()) continue;
+
+            // All metrics of this resource are read together, by a single management operation per scrape
+            ResourceMetrics resourceMetrics = new ResourceMetrics(modelControllerClient, resourceAddress, attributeNames);
+            for (int i = 0; i < attributeNames.size(); ++i) {
+                int index = i;
+                String attributeName = attributeNames.get(i);
+                Metadata metadata = metadatas.get(i);
+                String metricName = metadata.getName();
+                ModelType type = types.get(i);
                 Metric metric = new Gauge() {
                     @Override
                     public Number getValue() {
-                        final ModelNode readAttributeOp = new ModelNode();
-                        readAttributeOp.get(OP).set(READ_ATTRIBUTE_OPERATION);
-                        readAttributeOp.get(OP_ADDR).set(resourceAddress.toModelNode());
-                        readAttributeOp.get(ModelDescriptionConstants.INCLUDE_UNDEFINED_METRIC_VALUES).set(true);
-                        readAttributeOp.get(NAME).set(attributeName);
-                        ModelNode response = modelControllerClient.execute(readAttributeOp);
+                        ModelNode response = resourceMetrics.read(index);
                         String error = getFailureDescription(response);
                         if (error != null) {
                             registry.remove(metricName);
+                            resourceMetrics.remove(index);
                             throw LOGGER.unableToReadAttribute(attributeName, resourceAddress, error);
                         }
                         ModelNode result = response.get(RESULT);
@@ -280,6 +289,7 @@ public class MetricsRegistrationService implements Service<MetricsRegistrationSe
                             }
                         } else {
                             registry.remove(metricName);
+                            resourceMetrics.remove(index);
                             throw LOGGER.undefinedMetric(attributeName, resourceAddress);
                         }
                     }
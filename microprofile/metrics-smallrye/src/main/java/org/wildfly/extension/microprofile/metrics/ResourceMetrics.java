@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.microprofile.metrics;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_UNDEFINED_METRIC_VALUES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.LocalModelControllerClient;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Reads all metrics of a single resource in one management operation.
+ * <p>
+ * A scrape reads each registered gauge once, so the values read by a single composite operation are retained until either
+ * one of them is read again, i.e. by the next scrape, or they exceed a maximum age.
+ * Thus a scrape executes one management operation per resource, rather than one per metric.
+ */
+class ResourceMetrics {
+
+    static final long DEFAULT_MAX_AGE = TimeUnit.SECONDS.toNanos(1);
+
+    private final LocalModelControllerClient client;
+    private final PathAddress address;
+    private final List<String> attributeNames;
+    private final long maxAge;
+
+    // Guarded by this
+    private final boolean[] removed;
+    private ModelNode[] snapshot;
+    private boolean[] consumed;
+    private long timestamp;
+
+    ResourceMetrics(LocalModelControllerClient client, PathAddress address, List<String> attributeNames) {
+        this(client, address, attributeNames, DEFAULT_MAX_AGE);
+    }
+
+    ResourceMetrics(LocalModelControllerClient client, PathAddress address, List<String> attributeNames, long maxAge) {
+        this.client = client;
+        this.address = address;
+        this.attributeNames = attributeNames;
+        this.maxAge = maxAge;
+        this.removed = new boolean[attributeNames.size()];
+    }
+
+    PathAddress getAddress() {
+        return this.address;
+    }
+
+    /**
+     * Returns the response of the read-attribute step for the specified metric of this resource.
+     * @param index the index of a metric within the attribute names of this resource
+     * @return a step response, containing either a result or a failure description
+     */
+    synchronized ModelNode read(int index) {
+        long now = System.nanoTime();
+        if ((this.snapshot == null) || this.consumed[index] || (now - this.timestamp > this.maxAge)) {
+            this.snapshot = this.readAll();
+            this.consumed = new boolean[this.snapshot.length];
+            this.timestamp = now;
+        }
+        this.consumed[index] = true;
+        return this.snapshot[index];
+    }
+
+    /**
+     * Excludes the specified metric, e.g. one that was unregistered, from subsequent reads of this resource.
+     * @param index the index of a metric within the attribute names of this resource
+     */
+    synchronized void remove(int index) {
+        this.removed[index] = true;
+    }
+
+    private ModelNode[] readAll() {
+        ModelNode[] snapshot = new ModelNode[this.attributeNames.size()];
+        ModelNode operation = Util.createEmptyOperation(COMPOSITE, PathAddress.EMPTY_ADDRESS);
+        // Read the remaining metrics even if one of them fails
+        operation.get(OPERATION_HEADERS, ROLLBACK_ON_RUNTIME_FAILURE).set(false);
+        ModelNode steps = operation.get(STEPS).setEmptyList();
+        // Step number of each metric, or 0 if the metric was removed
+        int[] stepNumbers = new int[snapshot.length];
+        int stepCount = 0;
+        for (int i = 0; i < snapshot.length; ++i) {
+            if (this.removed[i]) continue;
+            ModelNode step = Util.createEmptyOperation(READ_ATTRIBUTE_OPERATION, this.address);
+            step.get(NAME).set(this.attributeNames.get(i));
+            step.get(INCLUDE_UNDEFINED_METRIC_VALUES).set(true);
+            steps.add(step);
+            stepNumbers[i] = ++stepCount;
+        }
+        if (stepCount == 0) {
+            for (int i = 0; i < snapshot.length; ++i) {
+                snapshot[i] = new ModelNode();
+            }
+            return snapshot;
+        }
+        ModelNode response = this.client.execute(operation);
+        ModelNode result = response.get(RESULT);
+        for (int i = 0; i < snapshot.length; ++i) {
+            if (stepNumbers[i] == 0) {
+                snapshot[i] = new ModelNode();
+                continue;
+            }
+            String step = "step-" + stepNumbers[i];
+            if (result.hasDefined(step)) {
+                snapshot[i] = result.get(step);
+            } else {
+                // e.g. resource was removed
+                snapshot[i] = new ModelNode();
+                snapshot[i].get(FAILURE_DESCRIPTION).set(response.get(FAILURE_DESCRIPTION));
+            }
+        }
+        return snapshot;
+    }
+}
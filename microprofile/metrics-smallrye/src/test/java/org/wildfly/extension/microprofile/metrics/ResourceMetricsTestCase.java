@@ -0,0 +1,188 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.microprofile.metrics;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.LocalModelControllerClient;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ResourceMetrics}.
+ */
+public class ResourceMetricsTestCase {
+
+    private final AtomicInteger operations = new AtomicInteger();
+    private final AtomicInteger reads = new AtomicInteger();
+
+    private final LocalModelControllerClient client = new LocalModelControllerClient() {
+        @Override
+        public OperationResponse executeOperation(Operation operation, OperationMessageHandler handler) {
+            ResourceMetricsTestCase.this.operations.incrementAndGet();
+            ModelNode result = new ModelNode();
+            int index = 1;
+            for (ModelNode step : operation.getOperation().get(STEPS).asList()) {
+                ResourceMetricsTestCase.this.reads.incrementAndGet();
+                ModelNode stepResult = result.get("step-" + index++);
+                String name = step.get(NAME).asString();
+                if (name.equals("failing")) {
+                    stepResult.get(FAILURE_DESCRIPTION).set("failed");
+                } else {
+                    stepResult.get(OUTCOME).set(SUCCESS);
+                    stepResult.get(RESULT).set(ResourceMetricsTestCase.this.reads.get());
+                }
+            }
+            ModelNode response = new ModelNode();
+            response.get(OUTCOME).set(SUCCESS);
+            response.get(RESULT).set(result);
+            return OperationResponse.Factory.createSimple(response);
+        }
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(Operation operation, OperationMessageHandler handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AsyncFuture<OperationResponse> executeOperationAsync(Operation operation, OperationMessageHandler handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Test
+    public void scrape() {
+        List<String> attributes = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            attributes.add("metric-" + i);
+        }
+        attributes.add("failing");
+        ResourceMetrics metrics = new ResourceMetrics(this.client, PathAddress.pathAddress("subsystem", "test"), attributes, TimeUnit.MINUTES.toNanos(1));
+
+        // First scrape
+        for (int i = 0; i < attributes.size() - 1; ++i) {
+            assertTrue(metrics.read(i).hasDefined(RESULT));
+        }
+        assertTrue(metrics.read(attributes.size() - 1).hasDefined(FAILURE_DESCRIPTION));
+        assertEquals(1, this.operations.get());
+
+        // Second scrape reads fresh values
+        long previous = metrics.read(0).get(RESULT).asLong();
+        assertEquals(2, this.operations.get());
+        for (int i = 1; i < attributes.size() - 1; ++i) {
+            assertFalse(metrics.read(i).get(RESULT).asLong() == previous);
+        }
+        assertEquals(2, this.operations.get());
+    }
+
+    @Test
+    public void maxAge() throws InterruptedException {
+        List<String> attributes = new ArrayList<>();
+        attributes.add("foo");
+        attributes.add("bar");
+        ResourceMetrics metrics = new ResourceMetrics(this.client, PathAddress.pathAddress("subsystem", "test"), attributes, TimeUnit.MILLISECONDS.toNanos(1));
+
+        metrics.read(0);
+        Thread.sleep(10);
+        // Stale snapshot is not used
+        metrics.read(1);
+        assertEquals(2, this.operations.get());
+    }
+
+    @Test
+    public void remove() {
+        List<String> attributes = new ArrayList<>();
+        attributes.add("failing");
+        attributes.add("foo");
+        attributes.add("bar");
+        ResourceMetrics metrics = new ResourceMetrics(this.client, PathAddress.pathAddress("subsystem", "test"), attributes, TimeUnit.MINUTES.toNanos(1));
+
+        assertTrue(metrics.read(0).hasDefined(FAILURE_DESCRIPTION));
+        assertEquals(3, this.reads.get());
+
+        assertTrue(metrics.read(1).hasDefined(RESULT));
+        assertTrue(metrics.read(2).hasDefined(RESULT));
+        assertEquals(1, this.operations.get());
+
+        // Next scrape no longer reads the unregistered metric
+        metrics.remove(0);
+        assertTrue(metrics.read(1).hasDefined(RESULT));
+        assertTrue(metrics.read(2).hasDefined(RESULT));
+        assertEquals(2, this.operations.get());
+        assertEquals(5, this.reads.get());
+
+        // No operation if all metrics were removed
+        metrics.remove(1);
+        metrics.remove(2);
+        assertFalse(metrics.read(1).isDefined());
+        assertEquals(2, this.operations.get());
+    }
+
+    /**
+     * Verifies the number of management operations of a scrape of 2000 metrics, spread over 100 resources.
+     */
+    @Test
+    public void operationsPerScrape() {
+        int resources = 100;
+        int metricsPerResource = 20;
+        List<ResourceMetrics> list = new ArrayList<>(resources);
+        for (int i = 0; i < resources; ++i) {
+            List<String> attributes = new ArrayList<>(metricsPerResource);
+            for (int j = 0; j < metricsPerResource; ++j) {
+                attributes.add("metric-" + j);
+            }
+            list.add(new ResourceMetrics(this.client, PathAddress.pathAddress("subsystem", "test").append("resource", Integer.toString(i)), attributes));
+        }
+        int scrapes = 20;
+        for (int scrape = 0; scrape < scrapes; ++scrape) {
+            for (ResourceMetrics metrics : list) {
+                for (int j = 0; j < metricsPerResource; ++j) {
+                    metrics.read(j);
+                }
+            }
+        }
+        assertEquals(resources * scrapes, this.operations.get());
+        assertEquals(resources * metricsPerResource * scrapes, this.reads.get());
+    }
+}
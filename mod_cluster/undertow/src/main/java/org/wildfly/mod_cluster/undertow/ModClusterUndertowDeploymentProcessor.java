@@ -37,6 +37,8 @@ import org.wildfly.extension.undertow.deployment.UndertowAttachments;
 import org.wildfly.mod_cluster.undertow.metric.BytesReceivedHttpHandler;
 import org.wildfly.mod_cluster.undertow.metric.BytesSentHttpHandler;
 import org.wildfly.mod_cluster.undertow.metric.RequestCountHttpHandler;
+import org.wildfly.mod_cluster.undertow.metric.ResponseTimeHttpHandler;
+import org.wildfly.mod_cluster.undertow.metric.ResponseTimeLoadMetric;
 import org.wildfly.mod_cluster.undertow.metric.RunningRequestsHttpHandler;
 
 /**
@@ -48,6 +50,7 @@ import org.wildfly.mod_cluster.undertow.metric.RunningRequestsHttpHandler;
  * <li>{@link org.wildfly.mod_cluster.undertow.metric.RunningRequestsHttpHandler}</li>
  * <li>{@link org.wildfly.mod_cluster.undertow.metric.BytesReceivedHttpHandler}</li>
  * <li>{@link org.wildfly.mod_cluster.undertow.metric.BytesSentHttpHandler}</li>
+ * <li>{@link org.wildfly.mod_cluster.undertow.metric.ResponseTimeHttpHandler}</li>
  * </ul>
  *
  * @author Radoslav Husar
@@ -92,6 +95,11 @@ public class ModClusterUndertowDeploymentProcessor implements DeploymentUnitProc
             deploymentUnit.addToAttachmentList(UndertowAttachments.UNDERTOW_OUTER_HANDLER_CHAIN_WRAPPERS, RunningRequestsHttpHandler::new);
         }
 
+        // Response time measurement
+        if (isMetricEnabled(ResponseTimeLoadMetric.class)) {
+            deploymentUnit.addToAttachmentList(UndertowAttachments.UNDERTOW_OUTER_HANDLER_CHAIN_WRAPPERS, ResponseTimeHttpHandler::new);
+        }
+
     }
 
     @Override
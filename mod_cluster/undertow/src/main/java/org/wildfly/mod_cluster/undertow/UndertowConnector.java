@@ -27,11 +27,13 @@ import java.net.InetAddress;
 import org.jboss.modcluster.container.Connector;
 import org.wildfly.extension.undertow.AjpListenerService;
 import org.wildfly.extension.undertow.HttpListenerService;
+import org.wildfly.extension.undertow.ListenerService;
 import org.wildfly.extension.undertow.UndertowListener;
 import org.wildfly.mod_cluster.undertow.metric.BytesReceivedStreamSourceConduit;
 import org.wildfly.mod_cluster.undertow.metric.BytesSentStreamSinkConduit;
 import org.wildfly.mod_cluster.undertow.metric.RequestCountHttpHandler;
 import org.wildfly.mod_cluster.undertow.metric.RunningRequestsHttpHandler;
+import org.xnio.XnioWorker;
 
 /**
  * Adapts {@link UndertowListener} to a {@link Connector}.
@@ -128,6 +130,13 @@ public class UndertowConnector implements Connector {
         return RequestCountHttpHandler.getRequestCount();
     }
 
+    /**
+     * @return the XNIO worker servicing this listener, or null if not available
+     */
+    public XnioWorker getWorker() {
+        return (this.listener instanceof ListenerService) ? ((ListenerService) this.listener).getWorker().getOptionalValue() : null;
+    }
+
     @Override
     public String toString() {
         return this.listener.getName();
@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.mod_cluster.undertow.metric;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+
+/**
+ * {@link HttpHandler} implementation that measures the service time of requests on all listeners, for use by the
+ * {@link ResponseTimeLoadMetric}.
+ */
+public class ResponseTimeHttpHandler implements HttpHandler {
+
+    private static final LongAdder completedCount = new LongAdder();
+    private static final LongAdder completedTime = new LongAdder();
+    private static final Set<RunningRequest> running = ConcurrentHashMap.newKeySet();
+
+    private final HttpHandler wrappedHandler;
+
+    public ResponseTimeHttpHandler(final HttpHandler handler) {
+        this.wrappedHandler = handler;
+    }
+
+    /**
+     * Records the start of the request and registers a listener to record its service time upon exchange complete event.
+     */
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        final RunningRequest request = requestStarted(System.nanoTime());
+
+        exchange.addExchangeCompleteListener(new ExchangeCompletionListener() {
+            @Override
+            public void exchangeEvent(HttpServerExchange exchange, NextListener nextListener) {
+                requestCompleted(request);
+
+                // Proceed to next listener must be called!
+                nextListener.proceed();
+            }
+        });
+
+        wrappedHandler.handleRequest(exchange);
+    }
+
+    static RunningRequest requestStarted(long start) {
+        RunningRequest request = new RunningRequest(start);
+        running.add(request);
+        return request;
+    }
+
+    static void requestCompleted(RunningRequest request) {
+        long time = System.nanoTime() - request.start;
+        running.remove(request);
+        completedTime.add(time);
+        completedCount.increment();
+    }
+
+    /**
+     * @return number of requests completed on all listeners
+     */
+    public static long getCompletedRequestCount() {
+        return completedCount.sum();
+    }
+
+    /**
+     * @return total service time of requests completed on all listeners, in nanoseconds
+     */
+    public static long getCompletedRequestTime() {
+        return completedTime.sum();
+    }
+
+    /**
+     * @return time for which the oldest request currently running on any listener has been running, in nanoseconds, or 0 if no request is running
+     */
+    public static long getLongestRunningRequestTime() {
+        long now = System.nanoTime();
+        long time = 0;
+        for (RunningRequest request : running) {
+            time = Math.max(time, now - request.start);
+        }
+        return time;
+    }
+
+    // Identifies a running request, since concurrent requests may share the same start time
+    static class RunningRequest {
+        final long start;
+
+        RunningRequest(long start) {
+            this.start = start;
+        }
+    }
+}
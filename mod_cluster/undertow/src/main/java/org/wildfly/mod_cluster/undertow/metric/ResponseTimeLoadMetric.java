@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.mod_cluster.undertow.metric;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.modcluster.container.Connector;
+import org.jboss.modcluster.container.Engine;
+import org.jboss.modcluster.load.metric.impl.AbstractLoadMetric;
+import org.wildfly.mod_cluster.undertow.UndertowConnector;
+import org.xnio.XnioWorker;
+import org.xnio.management.XnioWorkerMXBean;
+
+/**
+ * Load metric reporting the average service time, in milliseconds, of the requests completed on all listeners since the
+ * previous status report. Smoothing across reports is left to the history and decay factor of the dynamic load provider.
+ * If requests are running but none completed since the previous report, e.g. during a long GC pause or while a database is
+ * stalled, the time for which the oldest running request has been running is taken as the service time. Optionally, when the {@code workerQueue} property is enabled, the
+ * time that tasks queued in the XNIO worker will have to wait is estimated and added.
+ * Requires an explicit capacity, i.e. the service time at which the node is considered fully loaded.
+ * <p>
+ * Configured as a {@code custom-load-metric} with class {@code org.wildfly.mod_cluster.undertow.metric.ResponseTimeLoadMetric}
+ * and module {@code org.wildfly.mod_cluster.undertow}.
+ */
+public class ResponseTimeLoadMetric extends AbstractLoadMetric {
+
+    private volatile boolean workerQueue = false;
+
+    private long lastCompletedCount = ResponseTimeHttpHandler.getCompletedRequestCount();
+    private long lastCompletedTime = ResponseTimeHttpHandler.getCompletedRequestTime();
+
+    @Override
+    public synchronized double getLoad(Engine engine) throws Exception {
+        long completedCount = ResponseTimeHttpHandler.getCompletedRequestCount();
+        long completedTime = ResponseTimeHttpHandler.getCompletedRequestTime();
+        long count = completedCount - this.lastCompletedCount;
+        long time = completedTime - this.lastCompletedTime;
+        this.lastCompletedCount = completedCount;
+        this.lastCompletedTime = completedTime;
+
+        double serviceTime = (count > 0) ? (double) Math.max(time, 0L) / count : ResponseTimeHttpHandler.getLongestRunningRequestTime();
+        if (serviceTime == 0) {
+            // Idle
+            return 0;
+        }
+
+        if (this.workerQueue) {
+            // Per Little's law, a queued task waits for the queue length divided by the number of workers times the service time
+            serviceTime += serviceTime * getWorkerQueueRatio(engine);
+        }
+        return serviceTime / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static double getWorkerQueueRatio(Engine engine) {
+        double ratio = 0;
+        for (Connector connector : engine.getConnectors()) {
+            XnioWorker worker = (connector instanceof UndertowConnector) ? ((UndertowConnector) connector).getWorker() : null;
+            if (worker != null) {
+                XnioWorkerMXBean bean = worker.getMXBean();
+                int threads = bean.getMaxWorkerPoolSize();
+                if (threads > 0) {
+                    // Listeners may share a worker, so do not sum
+                    ratio = Math.max(ratio, (double) bean.getWorkerQueueSize() / threads);
+                }
+            }
+        }
+        return ratio;
+    }
+
+    public boolean isWorkerQueue() {
+        return this.workerQueue;
+    }
+
+    /**
+     * @param workerQueue whether to account for tasks queued in the XNIO worker
+     */
+    public void setWorkerQueue(boolean workerQueue) {
+        this.workerQueue = workerQueue;
+    }
+}
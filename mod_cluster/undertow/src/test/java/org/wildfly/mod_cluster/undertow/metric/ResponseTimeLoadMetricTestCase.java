@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.mod_cluster.undertow.metric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.modcluster.container.Connector;
+import org.jboss.modcluster.container.Engine;
+import org.junit.Test;
+import org.wildfly.mod_cluster.undertow.UndertowConnector;
+import org.xnio.XnioWorker;
+import org.xnio.management.XnioWorkerMXBean;
+
+public class ResponseTimeLoadMetricTestCase {
+
+    private final Engine engine = mock(Engine.class);
+
+    @Test
+    public void getLoad() throws Exception {
+        ResponseTimeLoadMetric metric = new ResponseTimeLoadMetric();
+        when(this.engine.getConnectors()).thenReturn(Collections.emptyList());
+
+        // Idle
+        assertEquals(0, metric.getLoad(this.engine), 0);
+
+        complete(50);
+        complete(150);
+        double load = metric.getLoad(this.engine);
+        assertTrue(String.valueOf(load), load >= 100 && load < 150);
+
+        // Nothing completed since the previous report
+        assertEquals(0, metric.getLoad(this.engine), 0);
+
+        // A request is stuck for the whole report interval
+        ResponseTimeHttpHandler.RunningRequest request = ResponseTimeHttpHandler.requestStarted(System.nanoTime());
+        try {
+            Thread.sleep(20);
+            load = metric.getLoad(this.engine);
+            assertTrue(String.valueOf(load), load >= 20);
+        } finally {
+            ResponseTimeHttpHandler.requestCompleted(request);
+        }
+
+        // A request has been stuck since well before the previous report
+        request = ResponseTimeHttpHandler.requestStarted(System.nanoTime() - TimeUnit.SECONDS.toNanos(1));
+        ResponseTimeHttpHandler.RunningRequest recent = ResponseTimeHttpHandler.requestStarted(System.nanoTime());
+        try {
+            metric.getLoad(this.engine);
+            load = metric.getLoad(this.engine);
+            assertTrue(String.valueOf(load), load >= 1000);
+        } finally {
+            ResponseTimeHttpHandler.requestCompleted(recent);
+            ResponseTimeHttpHandler.requestCompleted(request);
+        }
+    }
+
+    @Test
+    public void getLoadWithWorkerQueue() throws Exception {
+        UndertowConnector connector = mock(UndertowConnector.class);
+        XnioWorker worker = mock(XnioWorker.class);
+        XnioWorkerMXBean bean = mock(XnioWorkerMXBean.class);
+        when(this.engine.getConnectors()).thenReturn(Collections.<Connector>singletonList(connector));
+        when(connector.getWorker()).thenReturn(worker);
+        when(worker.getMXBean()).thenReturn(bean);
+        when(bean.getMaxWorkerPoolSize()).thenReturn(10);
+        when(bean.getWorkerQueueSize()).thenReturn(10);
+
+        ResponseTimeLoadMetric metric = new ResponseTimeLoadMetric();
+        metric.setWorkerQueue(true);
+
+        complete(100);
+        double load = metric.getLoad(this.engine);
+        // As many queued tasks as workers doubles the response time
+        assertTrue(String.valueOf(load), load >= 200 && load < 250);
+    }
+
+    private static void complete(long millis) {
+        ResponseTimeHttpHandler.requestCompleted(ResponseTimeHttpHandler.requestStarted(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(millis)));
+    }
+}
@@ -21,8 +21,7 @@
  */
 package org.jboss.as.txn.service.internal.tsr;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import javax.transaction.Status;
 import javax.transaction.Synchronization;
@@ -47,8 +46,22 @@ import org.wildfly.transaction.client.ContextTransactionSynchronizationRegistry;
  * "Resources can be closed but no transactional work can be performed with them"
  */
 public class JCAOrderedLastSynchronizationList implements Synchronization {
-    private final List<Synchronization> preJcaSyncs = new ArrayList<Synchronization>();
-    private final List<Synchronization> jcaSyncs = new ArrayList<Synchronization>();
+    private static final Synchronization[] NO_SYNCS = new Synchronization[0];
+    private static final int INITIAL_CAPACITY = 4;
+
+    // Caches whether a synchronization class belongs to JCA, rather than comparing its class name on every registration
+    private static final ClassValue<Boolean> JCA_SYNC = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return type.getName().startsWith("org.jboss.jca");
+        }
+    };
+
+    // Arrays are only allocated once the first synchronization of their kind is registered
+    private Synchronization[] preJcaSyncs = NO_SYNCS;
+    private int preJcaSyncCount = 0;
+    private Synchronization[] jcaSyncs = NO_SYNCS;
+    private int jcaSyncCount = 0;
 
     public JCAOrderedLastSynchronizationList() {
     }
@@ -72,22 +85,32 @@ public class JCAOrderedLastSynchronizationList implements Synchronization {
             default:
                 throw TransactionLogger.ROOT_LOGGER.syncsnotallowed(status);
         }
-        if (synchronization.getClass().getName().startsWith("org.jboss.jca")) {
+        if (JCA_SYNC.get(synchronization.getClass())) {
             if (TransactionLogger.ROOT_LOGGER.isTraceEnabled()) {
                 TransactionLogger.ROOT_LOGGER.trace("JCAOrderedLastSynchronizationList.jcaSyncs.add - Class: " + synchronization.getClass() + " HashCode: "
                     + synchronization.hashCode() + " toString: " + synchronization);
             }
-            jcaSyncs.add(synchronization);
+            if (jcaSyncCount == jcaSyncs.length) {
+                jcaSyncs = grow(jcaSyncs);
+            }
+            jcaSyncs[jcaSyncCount++] = synchronization;
 
         } else {
             if (TransactionLogger.ROOT_LOGGER.isTraceEnabled()) {
                 TransactionLogger.ROOT_LOGGER.trace("JCAOrderedLastSynchronizationList.preJcaSyncs.add - Class: " + synchronization.getClass() + " HashCode: "
                     + synchronization.hashCode() + " toString: " + synchronization);
             }
-            preJcaSyncs.add(synchronization);
+            if (preJcaSyncCount == preJcaSyncs.length) {
+                preJcaSyncs = grow(preJcaSyncs);
+            }
+            preJcaSyncs[preJcaSyncCount++] = synchronization;
         }
     }
 
+    private static Synchronization[] grow(Synchronization[] syncs) {
+        return (syncs.length == 0) ? new Synchronization[INITIAL_CAPACITY] : Arrays.copyOf(syncs, syncs.length << 1);
+    }
+
     /**
      * Exceptions from Synchronizations that are registered with this TSR are not trapped for before completion. This is because
      * an error in a Sync here should result in the transaction rolling back.
@@ -102,8 +125,8 @@ public class JCAOrderedLastSynchronizationList implements Synchronization {
     public void beforeCompletion() {
         // This is needed to guard against syncs being registered during the run, otherwise we could have used an iterator
         int lastIndexProcessed = 0;
-        while ((lastIndexProcessed < preJcaSyncs.size())) {
-            Synchronization preJcaSync = preJcaSyncs.get(lastIndexProcessed);
+        while ((lastIndexProcessed < preJcaSyncCount)) {
+            Synchronization preJcaSync = preJcaSyncs[lastIndexProcessed];
             if (TransactionLogger.ROOT_LOGGER.isTraceEnabled()) {
                 TransactionLogger.ROOT_LOGGER.trace("JCAOrderedLastSynchronizationList.preJcaSyncs.before_completion - Class: " + preJcaSync.getClass() + " HashCode: "
                     + preJcaSync.hashCode()
@@ -116,8 +139,8 @@ public class JCAOrderedLastSynchronizationList implements Synchronization {
 
         // Do the same for the jca syncs
         lastIndexProcessed = 0;
-        while ((lastIndexProcessed < jcaSyncs.size())) {
-            Synchronization jcaSync = jcaSyncs.get(lastIndexProcessed);
+        while ((lastIndexProcessed < jcaSyncCount)) {
+            Synchronization jcaSync = jcaSyncs[lastIndexProcessed];
             if (TransactionLogger.ROOT_LOGGER.isTraceEnabled()) {
                 TransactionLogger.ROOT_LOGGER.trace("JCAOrderedLastSynchronizationList.jcaSyncs.before_completion - Class: " + jcaSync.getClass() + " HashCode: "
                     + jcaSync.hashCode()
@@ -133,8 +156,8 @@ public class JCAOrderedLastSynchronizationList implements Synchronization {
     public void afterCompletion(int status) {
         // The list should be iterated in reverse order - has issues with EJB3 if not
         // https://github.com/jbosstm/narayana/blob/master/ArjunaCore/arjuna/classes/com/arjuna/ats/arjuna/coordinator/TwoPhaseCoordinator.java#L509
-        for (int i = preJcaSyncs.size() - 1; i>= 0; --i) {
-            Synchronization preJcaSync = preJcaSyncs.get(i);
+        for (int i = preJcaSyncCount - 1; i>= 0; --i) {
+            Synchronization preJcaSync = preJcaSyncs[i];
             if (TransactionLogger.ROOT_LOGGER.isTraceEnabled()) {
                 TransactionLogger.ROOT_LOGGER.trace("JCAOrderedLastSynchronizationList.preJcaSyncs.afterCompletion - Class: " + preJcaSync.getClass() + " HashCode: "
                     + preJcaSync.hashCode()
@@ -148,8 +171,8 @@ public class JCAOrderedLastSynchronizationList implements Synchronization {
                 TransactionLogger.ROOT_LOGGER.preJcaSyncAfterCompletionFailed(preJcaSync, ContextTransactionManager.getInstance().getTransaction(), e);
             }
         }
-        for (int i = jcaSyncs.size() - 1; i>= 0; --i) {
-            Synchronization jcaSync = jcaSyncs.get(i);
+        for (int i = jcaSyncCount - 1; i>= 0; --i) {
+            Synchronization jcaSync = jcaSyncs[i];
             if (TransactionLogger.ROOT_LOGGER.isTraceEnabled()) {
                 TransactionLogger.ROOT_LOGGER.trace("JCAOrderedLastSynchronizationList.jcaSyncs.afterCompletion - Class: " + jcaSync.getClass() + " HashCode: "
                     + jcaSync.hashCode()
@@ -63,14 +63,12 @@ public class TransactionSynchronizationRegistryWrapper implements TransactionSyn
             AbstractTransaction tx = ContextTransactionManager.getInstance().getTransaction();
             JCAOrderedLastSynchronizationList jcaOrderedLastSynchronization = (JCAOrderedLastSynchronizationList) tx.getResource(key);
             if (jcaOrderedLastSynchronization == null) {
-                final ContextTransactionSynchronizationRegistry tsr = ContextTransactionSynchronizationRegistry.getInstance();
-                synchronized (key) {
-                    jcaOrderedLastSynchronization = (JCAOrderedLastSynchronizationList) tx.getResource(key);
-                    if (jcaOrderedLastSynchronization == null) {
-                        jcaOrderedLastSynchronization = new JCAOrderedLastSynchronizationList();
-                        tx.putResource(key, jcaOrderedLastSynchronization);
-                        tsr.registerInterposedSynchronization(jcaOrderedLastSynchronization);
-                    }
+                // Atomic put-if-absent on the transaction itself, so that registrations for distinct transactions never contend
+                JCAOrderedLastSynchronizationList newList = new JCAOrderedLastSynchronizationList();
+                jcaOrderedLastSynchronization = (JCAOrderedLastSynchronizationList) tx.putResourceIfAbsent(key, newList);
+                if (jcaOrderedLastSynchronization == null) {
+                    jcaOrderedLastSynchronization = newList;
+                    ContextTransactionSynchronizationRegistry.getInstance().registerInterposedSynchronization(jcaOrderedLastSynchronization);
                 }
             }
             jcaOrderedLastSynchronization.registerInterposedSynchronization(sync);
@@ -0,0 +1,154 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.txn.service.internal.tsr;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import com.arjuna.ats.internal.jta.transaction.arjunacore.jca.XATerminatorImple;
+import com.arjuna.ats.jta.common.jtaPropertyManager;
+import org.jboss.tm.XAResourceRecovery;
+import org.jboss.tm.XAResourceRecoveryRegistry;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.wildfly.transaction.client.ContextTransactionManager;
+import org.wildfly.transaction.client.LocalTransactionContext;
+import org.wildfly.transaction.client.provider.jboss.JBossLocalTransactionProvider;
+
+/**
+ * Unit test for {@link TransactionSynchronizationRegistryWrapper}, including a multi-threaded measurement of begin/register/commit throughput.
+ */
+public class TransactionSynchronizationRegistryWrapperTestCase {
+
+    @BeforeClass
+    public static void init() {
+        jtaPropertyManager.getJTAEnvironmentBean().setTransactionManagerClassName("com.arjuna.ats.internal.jta.transaction.arjunacore.TransactionManagerImple");
+        final JBossLocalTransactionProvider.Builder builder = JBossLocalTransactionProvider.builder();
+        builder.setTransactionManager(com.arjuna.ats.jta.TransactionManager.transactionManager());
+        builder.setExtendedJBossXATerminator(new XATerminatorImple());
+        builder.setXAResourceRecoveryRegistry(new XAResourceRecoveryRegistry() {
+            @Override
+            public void addXAResourceRecovery(XAResourceRecovery xaResourceRecovery) {}
+
+            @Override
+            public void removeXAResourceRecovery(XAResourceRecovery xaResourceRecovery) {}
+        });
+        LocalTransactionContext.getContextManager().setGlobalDefault(new LocalTransactionContext(builder.build()));
+    }
+
+    @Test
+    public void order() throws Exception {
+        TransactionSynchronizationRegistry tsr = new TransactionSynchronizationRegistryWrapper();
+        TransactionManager tm = ContextTransactionManager.getInstance();
+        List<String> before = new ArrayList<>();
+        List<String> after = new ArrayList<>();
+
+        tm.begin();
+        for (int i = 0; i < 10; ++i) {
+            tsr.registerInterposedSynchronization(new TestSynchronization(Integer.toString(i), before, after));
+        }
+        tm.commit();
+
+        // Synchronizations run in order of registration, and in reverse order on afterCompletion
+        assertEquals(10, before.size());
+        assertEquals(10, after.size());
+        for (int i = 0; i < 10; ++i) {
+            assertEquals(Integer.toString(i), before.get(i));
+            assertEquals(Integer.toString(9 - i), after.get(i));
+        }
+    }
+
+    @Test
+    public void throughput() throws Exception {
+        TransactionSynchronizationRegistry tsr = new TransactionSynchronizationRegistryWrapper();
+        TransactionManager tm = ContextTransactionManager.getInstance();
+        Synchronization sync = new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+            }
+        };
+        int threads = Math.max(Runtime.getRuntime().availableProcessors(), 4);
+        int transactions = 20000;
+        Callable<Void> task = () -> {
+            for (int i = 0; i < transactions; ++i) {
+                tm.begin();
+                // e.g. JPA and JCA
+                tsr.registerInterposedSynchronization(sync);
+                tsr.registerInterposedSynchronization(sync);
+                tm.commit();
+            }
+            return null;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<Void>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; ++i) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.println(String.format("%d threads: %d transactions/s", threads, threads * transactions * TimeUnit.SECONDS.toNanos(1) / elapsed));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    static class TestSynchronization implements Synchronization {
+        private final String name;
+        private final List<String> before;
+        private final List<String> after;
+
+        TestSynchronization(String name, List<String> before, List<String> after) {
+            this.name = name;
+            this.before = before;
+            this.after = after;
+        }
+
+        @Override
+        public void beforeCompletion() {
+            this.before.add(this.name);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            this.after.add(this.name);
+        }
+    }
+}
@@ -21,6 +21,7 @@
  */
 package org.wildfly.extension.undertow;
 
+import io.undertow.server.session.SessionListener;
 import io.undertow.servlet.UndertowServletLogger;
 import io.undertow.servlet.api.SessionPersistenceManager;
 import org.jboss.marshalling.ByteBufferInput;
@@ -72,11 +73,7 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
                     Map<String, byte[]> data = new HashMap<String, byte[]>();
                     for (Map.Entry<String, Object> sessionAttribute : sessionEntry.getValue().getSessionData().entrySet()) {
                         try {
-                            final ByteArrayOutputStream out = new ByteArrayOutputStream();
-                            marshaller.start(new OutputStreamByteOutput(out));
-                            marshaller.writeObject(sessionAttribute.getValue());
-                            marshaller.finish();
-                            data.put(sessionAttribute.getKey(), out.toByteArray());
+                            data.put(sessionAttribute.getKey(), marshal(marshaller, sessionAttribute.getValue()));
                         } catch (Exception e) {
                             UndertowLogger.ROOT_LOGGER.failedToPersistSessionAttribute(sessionAttribute.getKey(), sessionAttribute.getValue(), sessionEntry.getKey(), e);
                         }
@@ -93,6 +90,14 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
 
     }
 
+    static byte[] marshal(Marshaller marshaller, Object value) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        marshaller.start(new OutputStreamByteOutput(out));
+        marshaller.writeObject(value);
+        marshaller.finish();
+        return out.toByteArray();
+    }
+
     protected abstract void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException;
 
     protected abstract Map<String, SessionEntry> loadSerializedSessions(final String deploymentName) throws IOException;
@@ -140,6 +145,15 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
     public void clear(String deploymentName) {
     }
 
+    /**
+     * Creates a listener that tracks changes to the sessions of the specified deployment, if supported by this persistence manager.
+     * @param deploymentName a deployment name
+     * @return a session listener, or null, if changes to sessions are only persisted on undeploy
+     */
+    public SessionListener createSessionListener(String deploymentName) {
+        return null;
+    }
+
     @Override
     public synchronized void start(StartContext startContext) throws StartException {
         final RiverMarshallerFactory factory = new RiverMarshallerFactory();
@@ -166,7 +180,7 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
         private final Date expiry;
         private final Map<String, byte[]> data;
 
-        private SessionEntry(Date expiry, Map<String, byte[]> data) {
+        SessionEntry(Date expiry, Map<String, byte[]> data) {
             this.expiry = expiry;
             this.data = data;
         }
@@ -125,6 +125,8 @@ public interface Constants {
     String ALLOW_NON_STANDARD_WRAPPERS = "allow-non-standard-wrappers";
 
     String PERSISTENT_SESSIONS = "persistent-sessions";
+    String WRITE_BEHIND_INTERVAL = "write-behind-interval";
+    String COMPACTION_THRESHOLD = "compaction-threshold";
     String DEFAULT_BUFFER_CACHE = "default-buffer-cache";
 
     String RELATIVE_TO = "relative-to";
@@ -22,6 +22,7 @@
 
 package org.wildfly.extension.undertow;
 
+import static org.jboss.as.controller.client.helpers.MeasurementUnit.BYTES;
 import static org.jboss.as.controller.client.helpers.MeasurementUnit.SECONDS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
@@ -46,6 +47,7 @@ import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleMapAttributeDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
@@ -58,6 +60,8 @@ import org.jboss.dmr.Property;
 import org.jboss.msc.service.ServiceController;
 import org.wildfly.extension.undertow.deployment.UndertowDeploymentService;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.wildfly.extension.undertow.session.SessionMarshallingStatistics;
+import org.wildfly.extension.undertow.session.SessionReplicationStatistics;
 
 /**
  * @author Tomaz Cerar
@@ -364,6 +368,58 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
                             result.set((int) sms.getHighestSessionCount());
                         }
                         break;
+                    case REPLICATION_COUNT:
+                        if (sms instanceof SessionReplicationStatistics) {
+                            result.set(((SessionReplicationStatistics) sms).getReplicationCount());
+                        } else {
+                            result.set(0L);
+                        }
+                        break;
+                    case REPLICATED_BYTES:
+                        if (sms instanceof SessionReplicationStatistics) {
+                            result.set(((SessionReplicationStatistics) sms).getReplicatedBytes());
+                        } else {
+                            result.set(0L);
+                        }
+                        break;
+                    case AVERAGE_REPLICATED_BYTES:
+                        if (sms instanceof SessionReplicationStatistics) {
+                            result.set(((SessionReplicationStatistics) sms).getMeanReplicatedBytes());
+                        } else {
+                            result.set(0L);
+                        }
+                        break;
+                    case MARSHALLED_VALUE_COUNT:
+                        if (sms instanceof SessionMarshallingStatistics) {
+                            result.set(((SessionMarshallingStatistics) sms).getMarshalledCount());
+                        } else {
+                            result.set(0L);
+                        }
+                        break;
+                    case AVERAGE_MARSHALLED_VALUE_SIZE:
+                        if (sms instanceof SessionMarshallingStatistics) {
+                            SessionMarshallingStatistics statistics = (SessionMarshallingStatistics) sms;
+                            long count = statistics.getMarshalledCount();
+                            result.set((count > 0) ? statistics.getMarshalledBytes() / count : 0L);
+                        } else {
+                            result.set(0L);
+                        }
+                        break;
+                    case AVERAGE_STORED_VALUE_SIZE:
+                        if (sms instanceof SessionMarshallingStatistics) {
+                            SessionMarshallingStatistics statistics = (SessionMarshallingStatistics) sms;
+                            long count = statistics.getMarshalledCount();
+                            result.set((count > 0) ? statistics.getStoredBytes() / count : 0L);
+                        } else {
+                            result.set(0L);
+                        }
+                        break;
+                    case MARSHALLED_VALUE_SIZE_HISTOGRAM:
+                        setSizeHistogram(result, (sms instanceof SessionMarshallingStatistics) ? ((SessionMarshallingStatistics) sms).getMarshalledSizeHistogram() : new long[0]);
+                        break;
+                    case STORED_VALUE_SIZE_HISTOGRAM:
+                        setSizeHistogram(result, (sms instanceof SessionMarshallingStatistics) ? ((SessionMarshallingStatistics) sms).getStoredSizeHistogram() : new long[0]);
+                        break;
                     default:
                         throw new IllegalStateException(UndertowLogger.ROOT_LOGGER.unknownMetric(stat));
                 }
@@ -372,6 +428,16 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
         }
     }
 
+    // Keyed by the exclusive upper bound of each bucket, in bytes, omitting empty buckets
+    private static void setSizeHistogram(ModelNode result, long[] histogram) {
+        result.setEmptyObject();
+        for (int i = 0; i < histogram.length; ++i) {
+            if (histogram[i] > 0) {
+                result.get(Long.toString(1L << i)).set(histogram[i]);
+            }
+        }
+    }
+
     private static SessionManager getSessionManager(OperationContext context, ModelNode operation) throws OperationFailedException {
         final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR));
         final Resource web = context.readResourceFromRoot(address.subAddress(0, address.size()), false);
@@ -417,7 +483,35 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
         MAX_ACTIVE_SESSIONS(new SimpleAttributeDefinitionBuilder("max-active-sessions", ModelType.INT)
                 .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build()),
         HIGHEST_SESSION_COUNT(new SimpleAttributeDefinitionBuilder("highest-session-count", ModelType.INT)
-                .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build());
+                .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build()),
+        REPLICATION_COUNT(new SimpleAttributeDefinitionBuilder("replication-count", ModelType.LONG)
+                .setUndefinedMetricValue(new ModelNode(0L)).setStorageRuntime().build()),
+        REPLICATED_BYTES(new SimpleAttributeDefinitionBuilder("replicated-bytes", ModelType.LONG)
+                .setUndefinedMetricValue(new ModelNode(0L))
+                .setMeasurementUnit(BYTES)
+                .setStorageRuntime()
+                .build()),
+        AVERAGE_REPLICATED_BYTES(new SimpleAttributeDefinitionBuilder("average-replicated-bytes", ModelType.LONG)
+                .setUndefinedMetricValue(new ModelNode(0L))
+                .setMeasurementUnit(BYTES)
+                .setStorageRuntime()
+                .build()),
+        MARSHALLED_VALUE_COUNT(new SimpleAttributeDefinitionBuilder("marshalled-value-count", ModelType.LONG)
+                .setUndefinedMetricValue(new ModelNode(0L)).setStorageRuntime().build()),
+        AVERAGE_MARSHALLED_VALUE_SIZE(new SimpleAttributeDefinitionBuilder("average-marshalled-value-size", ModelType.LONG)
+                .setUndefinedMetricValue(new ModelNode(0L))
+                .setMeasurementUnit(BYTES)
+                .setStorageRuntime()
+                .build()),
+        AVERAGE_STORED_VALUE_SIZE(new SimpleAttributeDefinitionBuilder("average-stored-value-size", ModelType.LONG)
+                .setUndefinedMetricValue(new ModelNode(0L))
+                .setMeasurementUnit(BYTES)
+                .setStorageRuntime()
+                .build()),
+        MARSHALLED_VALUE_SIZE_HISTOGRAM(new SimpleMapAttributeDefinition.Builder("marshalled-value-size-histogram", ModelType.LONG, true)
+                .setStorageRuntime().build()),
+        STORED_VALUE_SIZE_HISTOGRAM(new SimpleMapAttributeDefinition.Builder("stored-value-size-histogram", ModelType.LONG, true)
+                .setStorageRuntime().build());
 
         private static final Map<String, SessionStat> MAP = new HashMap<>();
 
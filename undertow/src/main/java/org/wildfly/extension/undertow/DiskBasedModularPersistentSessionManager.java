@@ -21,40 +21,62 @@
  */
 package org.wildfly.extension.undertow;
 
+import io.undertow.server.session.SessionListener;
+import io.undertow.servlet.UndertowServletLogger;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.marshalling.InputStreamByteInput;
 import org.jboss.marshalling.Marshaller;
-import org.jboss.marshalling.OutputStreamByteOutput;
 import org.jboss.marshalling.Unmarshaller;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.jboss.threads.JBossThreadFactory;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
 import org.xnio.IoUtils;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.security.PrivilegedAction;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 
 /**
- * Persistent session manager that stores persistent session information to disk
+ * Persistent session manager that stores persistent session information to disk.
+ * The sessions of each deployment are stored in a {@link PersistentSessionJournal}, to which changes are written behind
+ * by a {@link WriteBehindSessionListener} while the deployment is running, and which is replaced by a snapshot on undeploy.
  *
  * @author Stuart Douglas
  */
 public class DiskBasedModularPersistentSessionManager extends AbstractPersistentSessionManager {
+
+    static final String JOURNAL_SUFFIX = ".sessions";
+
     private final String path;
     private final String pathRelativeTo;
     private File baseDir;
     private PathManager.Callback.Handle callbackHandle;
 
     private final InjectedValue<PathManager> pathManager = new InjectedValue<PathManager>();
+    private final Map<String, PersistentSessionJournal> journals = new HashMap<>();
+    private final Map<String, WriteBehindSessionListener> listeners = new HashMap<>();
+    // Interval, in milliseconds, at which session changes are written to the journal; zero disables write-behind
+    private final long writeBehindInterval;
+    // Size, in bytes, of the logged session changes that triggers compaction of the journal
+    private final long compactionThreshold;
+    private ScheduledExecutorService executor;
 
-    public DiskBasedModularPersistentSessionManager(String path, String pathRelativeTo) {
+    public DiskBasedModularPersistentSessionManager(String path, String pathRelativeTo, long writeBehindInterval, long compactionThreshold) {
         this.path = path;
         this.pathRelativeTo = pathRelativeTo;
+        this.writeBehindInterval = writeBehindInterval;
+        this.compactionThreshold = compactionThreshold;
     }
 
     @Override
@@ -63,6 +85,23 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
         if (callbackHandle != null) {
             callbackHandle.remove();
         }
+        for (WriteBehindSessionListener listener : listeners.values()) {
+            listener.close();
+        }
+        listeners.clear();
+        for (PersistentSessionJournal journal : journals.values()) {
+            IoUtils.safeClose(journal);
+        }
+        journals.clear();
+        if (executor != null) {
+            ScheduledExecutorService executor = this.executor;
+            PrivilegedAction<Void> action = () -> {
+                executor.shutdownNow();
+                return null;
+            };
+            WildFlySecurityManager.doUnchecked(action);
+            this.executor = null;
+        }
     }
 
     @Override
@@ -80,29 +119,127 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
         if (!baseDir.isDirectory()) {
             throw UndertowLogger.ROOT_LOGGER.invalidPersistentSessionDir(baseDir);
         }
+        if (writeBehindInterval > 0) {
+            PrivilegedAction<ThreadFactory> action = () -> new JBossThreadFactory(new ThreadGroup(DiskBasedModularPersistentSessionManager.class.getSimpleName()), Boolean.TRUE, null, "%G - %t", null, null);
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, WildFlySecurityManager.doUnchecked(action));
+            executor.setRemoveOnCancelPolicy(true);
+            executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            this.executor = executor;
+        }
     }
 
+    @Override
+    public synchronized SessionListener createSessionListener(String deploymentName) {
+        if (executor == null) {
+            return null;
+        }
+        try {
+            WriteBehindSessionListener listener = new WriteBehindSessionListener(deploymentName, getJournal(deploymentName), this, executor, writeBehindInterval, compactionThreshold);
+            WriteBehindSessionListener previous = listeners.put(deploymentName, listener);
+            if (previous != null) {
+                previous.close();
+            }
+            return listener;
+        } catch (IOException e) {
+            UndertowLogger.ROOT_LOGGER.failedToWritePersistentSessions(e, deploymentName);
+            return null;
+        }
+    }
 
     @Override
-    protected void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException {
-        File file = new File(baseDir, deploymentName);
-        FileOutputStream out = new FileOutputStream(file, false);
+    public void persistSessions(String deploymentName, Map<String, PersistentSession> sessionData) {
         try {
-            Marshaller marshaller = createMarshaller();
+            final Marshaller marshaller = createMarshaller();
             try {
-                marshaller.start(new OutputStreamByteOutput(out));
-                marshaller.writeObject(serializedData);
-                marshaller.finish();
+                PersistentSessionJournal journal;
+                synchronized (this) {
+                    WriteBehindSessionListener listener = listeners.remove(deploymentName);
+                    if (listener != null) {
+                        // Pending changes are superseded by the snapshot
+                        listener.close();
+                    }
+                    journal = getJournal(deploymentName);
+                }
+                // Marshal each session directly into the snapshot, rather than collecting all serialized sessions first
+                journal.snapshot(handler -> {
+                    for (Map.Entry<String, PersistentSession> sessionEntry : sessionData.entrySet()) {
+                        String id = sessionEntry.getKey();
+                        handler.session(id, sessionEntry.getValue().getExpiration().getTime());
+                        for (Map.Entry<String, Object> sessionAttribute : sessionEntry.getValue().getSessionData().entrySet()) {
+                            byte[] value;
+                            try {
+                                value = marshal(marshaller, sessionAttribute.getValue());
+                            } catch (Exception e) {
+                                UndertowLogger.ROOT_LOGGER.failedToPersistSessionAttribute(sessionAttribute.getKey(), sessionAttribute.getValue(), id, e);
+                                continue;
+                            }
+                            handler.attribute(id, sessionAttribute.getKey(), value);
+                        }
+                    }
+                });
             } finally {
                 marshaller.close();
+                closeJournal(deploymentName);
             }
-        } finally {
-            IoUtils.safeClose(out);
+        } catch (Exception e) {
+            UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(e);
         }
     }
 
+    private synchronized PersistentSessionJournal getJournal(String deploymentName) throws IOException {
+        PersistentSessionJournal journal = journals.get(deploymentName);
+        if (journal == null) {
+            journal = new PersistentSessionJournal(new File(baseDir, deploymentName + JOURNAL_SUFFIX));
+            journals.put(deploymentName, journal);
+        }
+        return journal;
+    }
+
+    private synchronized void closeJournal(String deploymentName) {
+        PersistentSessionJournal journal = journals.remove(deploymentName);
+        if (journal != null) {
+            IoUtils.safeClose(journal);
+        }
+    }
+
+
+    @Override
+    protected void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException {
+        getJournal(deploymentName).snapshot(handler -> {
+            for (Map.Entry<String, SessionEntry> sessionEntry : serializedData.entrySet()) {
+                String id = sessionEntry.getKey();
+                handler.session(id, sessionEntry.getValue().getExpiry().getTime());
+                for (Map.Entry<String, byte[]> sessionAttribute : sessionEntry.getValue().getData().entrySet()) {
+                    handler.attribute(id, sessionAttribute.getKey(), sessionAttribute.getValue());
+                }
+            }
+        });
+    }
+
     @Override
     protected Map<String, SessionEntry> loadSerializedSessions(String deploymentName) throws IOException {
+        PersistentSessionJournal.Sessions sessions = new PersistentSessionJournal.Sessions();
+        getJournal(deploymentName).replay(sessions);
+        if (sessions.getSessions().isEmpty()) {
+            // Migrate sessions persisted to a single file by previous releases
+            Map<String, SessionEntry> legacy = loadLegacySessions(deploymentName);
+            if (legacy != null) {
+                persistSerializedSessions(deploymentName, legacy);
+                File file = new File(baseDir, deploymentName);
+                if (!file.delete()) {
+                    UndertowLogger.ROOT_LOGGER.failedToDeletePersistentSessionFile(file);
+                }
+            }
+            return legacy;
+        }
+        Map<String, SessionEntry> result = new HashMap<>();
+        for (Map.Entry<String, PersistentSessionJournal.SessionState> entry : sessions.getSessions().entrySet()) {
+            result.put(entry.getKey(), new SessionEntry(new Date(entry.getValue().getExpiration()), entry.getValue().getAttributes()));
+        }
+        return result;
+    }
+
+    private Map<String, SessionEntry> loadLegacySessions(String deploymentName) throws IOException {
         File file = new File(baseDir, deploymentName);
         if (!file.exists()) {
             return null;
@@ -0,0 +1,618 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+/**
+ * Segmented, append-only journal of the serialized persistent sessions of a single deployment.
+ * <p>
+ * A journal consists of a snapshot segment, containing the state of all sessions at some point in time,
+ * followed by any number of log segments, containing subsequent changes to individual sessions.
+ * Each record is prefixed by its length and CRC32 checksum, so that a record torn by a crash is detected and skipped on replay.
+ * Snapshots are written to a temporary file and renamed once complete, after which all previous segments are deleted.
+ * Records are never appended to a segment that existed when the journal was opened.
+ * <p>
+ * Compaction seals the current log segment and copies the latest record of each live session and attribute from the sealed segments
+ * into a new snapshot segment, while subsequent records are appended to a new log segment.
+ * Only the position of the latest record of each session and attribute is retained in memory, never their values.
+ */
+class PersistentSessionJournal implements Closeable {
+
+    static final String SNAPSHOT_SUFFIX = ".snapshot";
+    static final String LOG_SUFFIX = ".log";
+    static final String TEMPORARY_SUFFIX = ".tmp";
+    static final long DEFAULT_MAX_SEGMENT_SIZE = 16L << 20;
+
+    private static final byte SESSION = 1;
+    private static final byte ATTRIBUTE = 2;
+    private static final byte REMOVE_ATTRIBUTE = 3;
+    private static final byte REMOVE_SESSION = 4;
+    // length + checksum
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    /**
+     * Receives the records of a journal.
+     */
+    interface Handler {
+        void session(String id, long expiration) throws IOException;
+
+        void attribute(String id, String name, byte[] value) throws IOException;
+
+        void removeAttribute(String id, String name) throws IOException;
+
+        void removeSession(String id) throws IOException;
+    }
+
+    /**
+     * Writes the complete state of all sessions to a snapshot.
+     */
+    interface Snapshot {
+        void writeTo(Handler handler) throws IOException;
+    }
+
+    private final File directory;
+    private final long maxSegmentSize;
+    private final NavigableMap<Long, File> segments = new TreeMap<>();
+    private final Handler appender = new Appender();
+    private long sequence = 0;
+    private FileOutputStream activeFile;
+    private DataOutputStream active;
+    private long activeSize;
+    private long logSize;
+    private boolean compacting = false;
+
+    PersistentSessionJournal(File directory) throws IOException {
+        this(directory, DEFAULT_MAX_SEGMENT_SIZE);
+    }
+
+    PersistentSessionJournal(File directory, long maxSegmentSize) throws IOException {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException(directory.getPath());
+        }
+        this.recover();
+    }
+
+    /**
+     * Returns a handler that appends records to the current log segment of this journal.
+     * Callers must synchronize on this journal while using the returned handler.
+     * @return a record handler
+     */
+    Handler getAppender() {
+        return this.appender;
+    }
+
+    /**
+     * Returns the total size of the log segments written since the last snapshot.
+     * @return a number of bytes
+     */
+    synchronized long getLogSize() {
+        return this.logSize;
+    }
+
+    /**
+     * Replays all records of this journal, in the order in which they were written.
+     * @param handler the handler of each record
+     * @throws IOException if a segment could not be read
+     */
+    synchronized void replay(Handler handler) throws IOException {
+        this.flush();
+        read(this.segments.values(), body -> apply(body, handler));
+    }
+
+    /**
+     * Replaces all segments of this journal with a snapshot.
+     * @param snapshot writes the state of all sessions
+     * @throws IOException if the snapshot could not be written
+     */
+    synchronized void snapshot(Snapshot snapshot) throws IOException {
+        long sequence = this.sequence + 1;
+        File segment = this.segmentFile(sequence, SNAPSHOT_SUFFIX);
+        File temporary = new File(this.directory, segment.getName() + TEMPORARY_SUFFIX);
+        try (FileOutputStream file = new FileOutputStream(temporary)) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(file));
+            snapshot.writeTo(new Writer(output));
+            output.flush();
+            file.getFD().sync();
+        }
+        Files.move(temporary.toPath(), segment.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        this.closeActive();
+        for (File obsolete : this.segments.values()) {
+            delete(obsolete);
+        }
+        this.segments.clear();
+        this.segments.put(sequence, segment);
+        this.sequence = sequence;
+        this.logSize = 0;
+    }
+
+    /**
+     * Replaces all segments of this journal with a snapshot of its current state, discarding any expired sessions.
+     * @throws IOException if the journal could not be compacted
+     */
+    void compact() throws IOException {
+        NavigableMap<Long, File> sealed;
+        long sequence;
+        synchronized (this) {
+            if (this.compacting || this.segments.isEmpty()) return;
+            // Subsequent records are appended to a new log segment following the snapshot
+            this.closeActive();
+            sealed = new TreeMap<>(this.segments);
+            sequence = ++this.sequence;
+            this.compacting = true;
+        }
+        File segment = this.segmentFile(sequence, SNAPSHOT_SUFFIX);
+        File temporary = new File(this.directory, segment.getName() + TEMPORARY_SUFFIX);
+        try {
+            Index index = new Index();
+            read(sealed.values(), index::add);
+            index.removeExpired(System.currentTimeMillis());
+            try (FileOutputStream file = new FileOutputStream(temporary)) {
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(file));
+                read(sealed.values(), body -> {
+                    if (index.retains(body)) {
+                        writeRecord(output, body);
+                    }
+                });
+                output.flush();
+                file.getFD().sync();
+            }
+            synchronized (this) {
+                if (!this.segments.keySet().containsAll(sealed.keySet())) {
+                    // Superseded by a concurrent snapshot
+                    delete(temporary);
+                    return;
+                }
+                Files.move(temporary.toPath(), segment.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                for (Map.Entry<Long, File> entry : sealed.entrySet()) {
+                    File obsolete = entry.getValue();
+                    if (obsolete.getName().endsWith(LOG_SUFFIX)) {
+                        this.logSize -= obsolete.length();
+                    }
+                    delete(obsolete);
+                    this.segments.remove(entry.getKey());
+                }
+                this.segments.put(sequence, segment);
+            }
+        } catch (IOException e) {
+            delete(temporary);
+            synchronized (this) {
+                // A concurrent snapshot may have deleted the sealed segments
+                if (this.segments.keySet().containsAll(sealed.keySet())) {
+                    throw e;
+                }
+            }
+        } finally {
+            synchronized (this) {
+                this.compacting = false;
+            }
+        }
+    }
+
+    /**
+     * Flushes any buffered records to the file system, and forces them to the storage device.
+     * @throws IOException if the records could not be written
+     */
+    synchronized void flush() throws IOException {
+        if (this.active != null) {
+            this.active.flush();
+            this.activeFile.getFD().sync();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.closeActive();
+    }
+
+    private void closeActive() throws IOException {
+        if (this.active != null) {
+            try {
+                this.active.flush();
+                this.activeFile.getFD().sync();
+                this.active.close();
+            } finally {
+                this.active = null;
+                this.activeFile = null;
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        File[] files = this.directory.listFiles();
+        if (files == null) {
+            throw new IOException(this.directory.getPath());
+        }
+        NavigableMap<Long, File> snapshots = new TreeMap<>();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(TEMPORARY_SUFFIX)) {
+                // Incomplete snapshot
+                delete(file);
+            } else if (name.endsWith(SNAPSHOT_SUFFIX)) {
+                snapshots.put(parseSequence(name, SNAPSHOT_SUFFIX), file);
+            } else if (name.endsWith(LOG_SUFFIX)) {
+                this.segments.put(parseSequence(name, LOG_SUFFIX), file);
+            }
+        }
+        if (!snapshots.isEmpty()) {
+            Map.Entry<Long, File> latest = snapshots.lastEntry();
+            // Everything preceding the latest snapshot is obsolete
+            for (File obsolete : snapshots.headMap(latest.getKey()).values()) {
+                delete(obsolete);
+            }
+            NavigableMap<Long, File> obsoleteLogs = this.segments.headMap(latest.getKey(), false);
+            for (File obsolete : obsoleteLogs.values()) {
+                delete(obsolete);
+            }
+            obsoleteLogs.clear();
+            this.segments.put(latest.getKey(), latest.getValue());
+        }
+        for (Map.Entry<Long, File> entry : this.segments.entrySet()) {
+            if (entry.getValue().getName().endsWith(LOG_SUFFIX)) {
+                this.logSize += entry.getValue().length();
+            }
+        }
+        this.sequence = this.segments.isEmpty() ? 0 : this.segments.lastKey();
+    }
+
+    private void append(byte[] body) throws IOException {
+        if ((this.active == null) || (this.activeSize >= this.maxSegmentSize)) {
+            this.roll();
+        }
+        writeRecord(this.active, body);
+        long size = RECORD_HEADER_SIZE + body.length;
+        this.activeSize += size;
+        this.logSize += size;
+    }
+
+    private void roll() throws IOException {
+        this.closeActive();
+        long sequence = this.sequence + 1;
+        File segment = this.segmentFile(sequence, LOG_SUFFIX);
+        this.activeFile = new FileOutputStream(segment);
+        this.active = new DataOutputStream(new BufferedOutputStream(this.activeFile));
+        this.activeSize = 0;
+        this.segments.put(sequence, segment);
+        this.sequence = sequence;
+    }
+
+    private File segmentFile(long sequence, String suffix) {
+        return new File(this.directory, String.format("%019d%s", sequence, suffix));
+    }
+
+    private static long parseSequence(String name, String suffix) throws IOException {
+        try {
+            return Long.parseLong(name.substring(0, name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            throw new IOException(name, e);
+        }
+    }
+
+    private static void delete(File file) {
+        if (!file.delete() && file.exists()) {
+            UndertowLogger.ROOT_LOGGER.failedToDeletePersistentSessionFile(file);
+        }
+    }
+
+    /**
+     * Reads the records of the specified segments, in order, stopping at the first torn or corrupt record of each segment.
+     */
+    private static void read(Iterable<File> segments, RecordConsumer consumer) throws IOException {
+        for (File segment : segments) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)))) {
+                long position = 0;
+                while (position < segment.length()) {
+                    byte[] body = readRecord(input, segment.length() - position);
+                    if (body == null) {
+                        // Torn or corrupt record, e.g. following a crash
+                        UndertowLogger.ROOT_LOGGER.truncatedPersistentSessionSegment(segment, position);
+                        break;
+                    }
+                    consumer.accept(body);
+                    position += RECORD_HEADER_SIZE + body.length;
+                }
+            }
+        }
+    }
+
+    private static void writeRecord(DataOutputStream output, byte[] body) throws IOException {
+        CRC32 checksum = new CRC32();
+        checksum.update(body);
+        output.writeInt(body.length);
+        output.writeInt((int) checksum.getValue());
+        output.write(body);
+    }
+
+    private static byte[] readRecord(DataInputStream input, long remaining) throws IOException {
+        if (remaining < RECORD_HEADER_SIZE) return null;
+        int length = input.readInt();
+        int crc = input.readInt();
+        if ((length <= 0) || (length > remaining - RECORD_HEADER_SIZE)) return null;
+        byte[] body = new byte[length];
+        try {
+            input.readFully(body);
+        } catch (EOFException e) {
+            return null;
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(body);
+        return ((int) checksum.getValue() == crc) ? body : null;
+    }
+
+    private interface RecordConsumer {
+        void accept(byte[] body) throws IOException;
+    }
+
+    private static void apply(byte[] body, Handler handler) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(body));
+        byte operation = input.readByte();
+        String id = input.readUTF();
+        switch (operation) {
+            case SESSION: {
+                handler.session(id, input.readLong());
+                break;
+            }
+            case ATTRIBUTE: {
+                String name = input.readUTF();
+                byte[] value = new byte[input.available()];
+                input.readFully(value);
+                handler.attribute(id, name, value);
+                break;
+            }
+            case REMOVE_ATTRIBUTE: {
+                handler.removeAttribute(id, input.readUTF());
+                break;
+            }
+            case REMOVE_SESSION: {
+                handler.removeSession(id);
+                break;
+            }
+            default: {
+                throw new IOException(Byte.toString(operation));
+            }
+        }
+    }
+
+    /**
+     * Identifies the latest record of each session and attribute, by its ordinal within a sequence of segments.
+     * The same sequence of segments must be read to add and to retain records.
+     */
+    private static class Index implements Handler {
+        private final Map<String, SessionIndex> sessions = new HashMap<>();
+        private long added = 0;
+        private long retained = 0;
+
+        void add(byte[] body) throws IOException {
+            apply(body, this);
+            this.added += 1;
+        }
+
+        void removeExpired(long time) {
+            this.sessions.values().removeIf(session -> session.expiration <= time);
+        }
+
+        /**
+         * Indicates whether the next record of the sequence is the latest record of a live session or attribute.
+         */
+        boolean retains(byte[] body) throws IOException {
+            long record = this.retained++;
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(body));
+            byte operation = input.readByte();
+            SessionIndex session = this.sessions.get(input.readUTF());
+            if (session == null) return false;
+            switch (operation) {
+                case SESSION: {
+                    return session.record == record;
+                }
+                case ATTRIBUTE: {
+                    Long attribute = session.attributes.get(input.readUTF());
+                    return (attribute != null) && (attribute == record);
+                }
+                default: {
+                    // Removals are implied by the absence of the retained records
+                    return false;
+                }
+            }
+        }
+
+        @Override
+        public void session(String id, long expiration) {
+            SessionIndex session = this.sessions.computeIfAbsent(id, key -> new SessionIndex());
+            session.expiration = expiration;
+            session.record = this.added;
+        }
+
+        @Override
+        public void attribute(String id, String name, byte[] value) {
+            this.sessions.computeIfAbsent(id, key -> new SessionIndex()).attributes.put(name, this.added);
+        }
+
+        @Override
+        public void removeAttribute(String id, String name) {
+            SessionIndex session = this.sessions.get(id);
+            if (session != null) {
+                session.attributes.remove(name);
+            }
+        }
+
+        @Override
+        public void removeSession(String id) {
+            this.sessions.remove(id);
+        }
+    }
+
+    private static class SessionIndex {
+        // Sessions whose session record was lost never expire
+        long expiration = Long.MAX_VALUE;
+        long record = -1;
+        final Map<String, Long> attributes = new HashMap<>();
+    }
+
+    private static class Writer implements Handler {
+        private final DataOutputStream output;
+
+        Writer(DataOutputStream output) {
+            this.output = output;
+        }
+
+        void write(byte[] body) throws IOException {
+            writeRecord(this.output, body);
+        }
+
+        @Override
+        public void session(String id, long expiration) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(id.length() + 16);
+            DataOutputStream body = new DataOutputStream(bytes);
+            body.writeByte(SESSION);
+            body.writeUTF(id);
+            body.writeLong(expiration);
+            this.write(bytes.toByteArray());
+        }
+
+        @Override
+        public void attribute(String id, String name, byte[] value) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(id.length() + name.length() + value.length + 8);
+            DataOutputStream body = new DataOutputStream(bytes);
+            body.writeByte(ATTRIBUTE);
+            body.writeUTF(id);
+            body.writeUTF(name);
+            body.write(value);
+            this.write(bytes.toByteArray());
+        }
+
+        @Override
+        public void removeAttribute(String id, String name) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(id.length() + name.length() + 8);
+            DataOutputStream body = new DataOutputStream(bytes);
+            body.writeByte(REMOVE_ATTRIBUTE);
+            body.writeUTF(id);
+            body.writeUTF(name);
+            this.write(bytes.toByteArray());
+        }
+
+        @Override
+        public void removeSession(String id) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(id.length() + 8);
+            DataOutputStream body = new DataOutputStream(bytes);
+            body.writeByte(REMOVE_SESSION);
+            body.writeUTF(id);
+            this.write(bytes.toByteArray());
+        }
+    }
+
+    private class Appender extends Writer {
+        Appender() {
+            super(null);
+        }
+
+        @Override
+        void write(byte[] body) throws IOException {
+            PersistentSessionJournal.this.append(body);
+        }
+    }
+
+    /**
+     * The serialized state of the sessions of a journal.
+     */
+    static class Sessions implements Handler, Snapshot {
+        private final Map<String, SessionState> sessions = new HashMap<>();
+
+        Map<String, SessionState> getSessions() {
+            return Collections.unmodifiableMap(this.sessions);
+        }
+
+        @Override
+        public void session(String id, long expiration) {
+            this.sessions.computeIfAbsent(id, key -> new SessionState()).expiration = expiration;
+        }
+
+        @Override
+        public void attribute(String id, String name, byte[] value) {
+            this.sessions.computeIfAbsent(id, key -> new SessionState()).attributes.put(name, value);
+        }
+
+        @Override
+        public void removeAttribute(String id, String name) {
+            SessionState session = this.sessions.get(id);
+            if (session != null) {
+                session.attributes.remove(name);
+            }
+        }
+
+        @Override
+        public void removeSession(String id) {
+            this.sessions.remove(id);
+        }
+
+        @Override
+        public void writeTo(Handler handler) throws IOException {
+            for (Map.Entry<String, SessionState> entry : this.sessions.entrySet()) {
+                String id = entry.getKey();
+                SessionState session = entry.getValue();
+                handler.session(id, session.expiration);
+                for (Map.Entry<String, byte[]> attribute : session.attributes.entrySet()) {
+                    handler.attribute(id, attribute.getKey(), attribute.getValue());
+                }
+            }
+        }
+    }
+
+    static class SessionState {
+        // Sessions whose session record was lost never expire
+        long expiration = Long.MAX_VALUE;
+        final Map<String, byte[]> attributes = new LinkedHashMap<>();
+
+        long getExpiration() {
+            return this.expiration;
+        }
+
+        Map<String, byte[]> getAttributes() {
+            return this.attributes;
+        }
+    }
+}
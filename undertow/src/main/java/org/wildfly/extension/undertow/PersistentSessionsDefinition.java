@@ -33,6 +33,8 @@ import org.jboss.as.controller.RestartParentResourceAddHandler;
 import org.jboss.as.controller.RestartParentResourceRemoveHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.as.controller.services.path.PathManagerService;
 import org.jboss.as.server.Services;
@@ -67,9 +69,29 @@ class PersistentSessionsDefinition extends PersistentResourceDefinition {
                     .setAllowExpression(true)
                     .build();
 
+    protected static final SimpleAttributeDefinition WRITE_BEHIND_INTERVAL =
+            new SimpleAttributeDefinitionBuilder(Constants.WRITE_BEHIND_INTERVAL, ModelType.LONG, true)
+                    .setRestartAllServices()
+                    .setAllowExpression(true)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setValidator(new LongRangeValidator(0, true))
+                    .setDefaultValue(new ModelNode(1000L))
+                    .build();
+
+    protected static final SimpleAttributeDefinition COMPACTION_THRESHOLD =
+            new SimpleAttributeDefinitionBuilder(Constants.COMPACTION_THRESHOLD, ModelType.LONG, true)
+                    .setRestartAllServices()
+                    .setAllowExpression(true)
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setValidator(new LongRangeValidator(1, true))
+                    .setDefaultValue(new ModelNode(PersistentSessionJournal.DEFAULT_MAX_SEGMENT_SIZE))
+                    .build();
+
     protected static final SimpleAttributeDefinition[] ATTRIBUTES = {
             PATH,
-            RELATIVE_TO
+            RELATIVE_TO,
+            WRITE_BEHIND_INTERVAL,
+            COMPACTION_THRESHOLD
     };
     static final Map<String, AttributeDefinition> ATTRIBUTES_MAP = new HashMap<>();
 
@@ -129,7 +151,9 @@ class PersistentSessionsDefinition extends PersistentResourceDefinition {
                     String path = pathValue.asString();
                     ModelNode relativeToValue = RELATIVE_TO.resolveModelAttribute(context, model);
                     String relativeTo = relativeToValue.isDefined() ? relativeToValue.asString() : null;
-                    final DiskBasedModularPersistentSessionManager service = new DiskBasedModularPersistentSessionManager(path, relativeTo);
+                    long writeBehindInterval = WRITE_BEHIND_INTERVAL.resolveModelAttribute(context, model).asLong();
+                    long compactionThreshold = COMPACTION_THRESHOLD.resolveModelAttribute(context, model).asLong();
+                    final DiskBasedModularPersistentSessionManager service = new DiskBasedModularPersistentSessionManager(path, relativeTo, writeBehindInterval, compactionThreshold);
                     builder = context.getServiceTarget().addService(AbstractPersistentSessionManager.SERVICE_NAME, service)
                             .addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ModuleLoader.class, service.getModuleLoaderInjectedValue())
                             .addDependency(PathManagerService.SERVICE_NAME, PathManager.class, service.getPathManager());
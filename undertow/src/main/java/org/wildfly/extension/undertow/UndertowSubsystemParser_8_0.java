@@ -214,7 +214,9 @@ public class UndertowSubsystemParser_8_0 extends PersistentResourceXMLParser {
                                         builder(PersistentSessionsDefinition.INSTANCE.getPathElement())
                                                 .addAttributes(
                                                         PersistentSessionsDefinition.PATH,
-                                                        PersistentSessionsDefinition.RELATIVE_TO
+                                                        PersistentSessionsDefinition.RELATIVE_TO,
+                                                        PersistentSessionsDefinition.WRITE_BEHIND_INTERVAL,
+                                                        PersistentSessionsDefinition.COMPACTION_THRESHOLD
                                                 )
                                 )
                                 .addChild(
@@ -103,6 +103,15 @@ public class UndertowTransformers implements ExtensionTransformerRegistration {
                     .addRejectCheck(RejectAttributeChecker.DEFINED, ENABLE_JASPI, INTEGRATED_JASPI)
                     .setDiscard(DiscardAttributeChecker.ALWAYS, ENABLE_JASPI, INTEGRATED_JASPI) // Discard so we don't send over the defaults.
                 .end();
+
+        subsystemBuilder
+                .addChildResource(UndertowExtension.PATH_SERVLET_CONTAINER)
+                .addChildResource(UndertowExtension.PATH_PERSISTENT_SESSIONS)
+                .getAttributeBuilder()
+                    .setDiscard(new DiscardAttributeValueChecker(PersistentSessionsDefinition.WRITE_BEHIND_INTERVAL.getDefaultValue()), PersistentSessionsDefinition.WRITE_BEHIND_INTERVAL)
+                    .setDiscard(new DiscardAttributeValueChecker(PersistentSessionsDefinition.COMPACTION_THRESHOLD.getDefaultValue()), PersistentSessionsDefinition.COMPACTION_THRESHOLD)
+                    .addRejectCheck(RejectAttributeChecker.DEFINED, PersistentSessionsDefinition.WRITE_BEHIND_INTERVAL, PersistentSessionsDefinition.COMPACTION_THRESHOLD)
+                .end();
     }
 
     private static void registerTransformers_EAP_7_1_0(ResourceTransformationDescriptionBuilder subsystemBuilder) {
@@ -0,0 +1,228 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.session.Session;
+import io.undertow.server.session.SessionListener;
+import org.jboss.marshalling.Marshaller;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+/**
+ * Session listener that records changes to the sessions of a deployment and periodically appends them to its {@link PersistentSessionJournal}.
+ * Only the names of changed attributes are recorded on the thread that changed them; their values are read from the session and marshalled
+ * by the flush thread, so that request threads never pay the cost of marshalling, and an attribute changed repeatedly between flushes
+ * is marshalled once. Consequently, the journal records the value of an attribute as of the flush that follows its change.
+ * Thus the state of a session survives an abrupt termination of the server, subject to the flush interval.
+ * Compaction of the journal runs on the flush thread, but does not prevent the journal from accepting records.
+ */
+class WriteBehindSessionListener implements SessionListener, Runnable, AutoCloseable {
+
+    private final String deploymentName;
+    private final PersistentSessionJournal journal;
+    private final AbstractPersistentSessionManager manager;
+    private final long compactionThreshold;
+    private final ConcurrentMap<String, PendingSession> pending = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> future;
+
+    WriteBehindSessionListener(String deploymentName, PersistentSessionJournal journal, AbstractPersistentSessionManager manager, ScheduledExecutorService executor, long interval, long compactionThreshold) {
+        this.deploymentName = deploymentName;
+        this.journal = journal;
+        this.manager = manager;
+        this.compactionThreshold = compactionThreshold;
+        this.future = executor.scheduleWithFixedDelay(this, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void sessionCreated(Session session, HttpServerExchange exchange) {
+        this.update(session, session.getId(), null);
+    }
+
+    @Override
+    public void sessionDestroyed(Session session, HttpServerExchange exchange, SessionDestroyedReason reason) {
+        // Sessions destroyed on undeploy were already persisted by the persistence manager
+        if (reason != SessionDestroyedReason.UNDEPLOY) {
+            this.remove(session.getId());
+        }
+    }
+
+    @Override
+    public void attributeAdded(Session session, String name, Object value) {
+        this.update(session, session.getId(), name);
+    }
+
+    @Override
+    public void attributeUpdated(Session session, String name, Object newValue, Object oldValue) {
+        this.update(session, session.getId(), name);
+    }
+
+    @Override
+    public void attributeRemoved(Session session, String name, Object oldValue) {
+        this.update(session, session.getId(), name);
+    }
+
+    @Override
+    public void sessionIdChanged(Session session, String oldSessionId) {
+        this.remove(oldSessionId);
+        String id = session.getId();
+        this.update(session, id, null);
+        for (String name : session.getAttributeNames()) {
+            this.update(session, id, name);
+        }
+    }
+
+    private void update(Session session, String id, String name) {
+        PendingSession pending = this.pending.computeIfAbsent(id, key -> new PendingSession(session));
+        // Retry if our pending session was concurrently drained by a flush
+        while (!pending.update(session, name)) {
+            this.pending.remove(id, pending);
+            pending = this.pending.computeIfAbsent(id, key -> new PendingSession(session));
+        }
+    }
+
+    private void remove(String id) {
+        PendingSession pending = this.pending.computeIfAbsent(id, key -> new PendingSession(null));
+        while (!pending.update(null, null)) {
+            this.pending.remove(id, pending);
+            pending = this.pending.computeIfAbsent(id, key -> new PendingSession(null));
+        }
+    }
+
+    /**
+     * Appends all pending changes to the journal.
+     */
+    @Override
+    public void run() {
+        try {
+            this.flush();
+        } catch (Throwable e) {
+            UndertowLogger.ROOT_LOGGER.failedToWritePersistentSessions(e, this.deploymentName);
+        }
+    }
+
+    void flush() throws IOException {
+        if (this.pending.isEmpty()) return;
+        synchronized (this.journal) {
+            PersistentSessionJournal.Handler appender = this.journal.getAppender();
+            Marshaller marshaller = this.manager.createMarshaller();
+            try {
+                for (String id : this.pending.keySet()) {
+                    PendingSession pending = this.pending.remove(id);
+                    if (pending == null) continue;
+                    Set<String> names = pending.drain();
+                    Session session = pending.getSession();
+                    if (session == null) {
+                        appender.removeSession(id);
+                        continue;
+                    }
+                    try {
+                        long expiration = session.getLastAccessedTime() + (session.getMaxInactiveInterval() * 1000L);
+                        appender.session(id, expiration);
+                        for (String name : names) {
+                            Object value = session.getAttribute(name);
+                            if (value == null) {
+                                appender.removeAttribute(id, name);
+                                continue;
+                            }
+                            byte[] bytes;
+                            try {
+                                bytes = AbstractPersistentSessionManager.marshal(marshaller, value);
+                            } catch (IOException | RuntimeException e) {
+                                UndertowLogger.ROOT_LOGGER.failedToPersistSessionAttribute(name, value, id, e);
+                                continue;
+                            }
+                            appender.attribute(id, name, bytes);
+                        }
+                    } catch (IllegalStateException e) {
+                        // Session was invalidated, its removal will follow
+                    }
+                }
+            } finally {
+                marshaller.close();
+            }
+            this.journal.flush();
+        }
+        // Compaction does not block appending to the journal
+        if (this.journal.getLogSize() > this.compactionThreshold) {
+            this.journal.compact();
+        }
+    }
+
+    /**
+     * Stops flushing this listener, discarding any pending changes.
+     */
+    @Override
+    public void close() {
+        this.future.cancel(false);
+        // Wait for any in-progress flush
+        synchronized (this.journal) {
+            this.pending.clear();
+        }
+    }
+
+    private static class PendingSession {
+        // Null if this session was removed
+        private Session session;
+        private Set<String> names = new LinkedHashSet<>();
+        private boolean drained = false;
+
+        PendingSession(Session session) {
+            this.session = session;
+        }
+
+        /**
+         * Records a change to the named attribute, or the removal of this session if the specified session is null.
+         * @return false, if this pending session was already drained, true otherwise
+         */
+        synchronized boolean update(Session session, String name) {
+            if (this.drained) return false;
+            this.session = session;
+            if (session == null) {
+                this.names.clear();
+            } else if (name != null) {
+                this.names.add(name);
+            }
+            return true;
+        }
+
+        synchronized Set<String> drain() {
+            this.drained = true;
+            Set<String> names = this.names;
+            this.names = Collections.emptySet();
+            return names;
+        }
+
+        synchronized Session getSession() {
+            return this.session;
+        }
+    }
+}
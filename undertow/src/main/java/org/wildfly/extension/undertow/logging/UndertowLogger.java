@@ -410,4 +410,16 @@ public interface UndertowLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 101, value = "Duplicate servlet mapping %s found")
     void duplicateServletMapping(String mapping);
+
+    @LogMessage(level = WARN)
+    @Message(id = 102, value = "Persistent session journal segment %s is truncated or corrupt at offset %d, skipping remainder of segment")
+    void truncatedPersistentSessionSegment(File segment, long offset);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 103, value = "Failed to write persistent sessions of deployment %s")
+    void failedToWritePersistentSessions(@Cause Throwable cause, String deploymentName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 104, value = "Failed to delete obsolete persistent session file %s")
+    void failedToDeletePersistentSessionFile(File file);
 }
@@ -25,6 +25,12 @@ import org.jboss.metadata.web.jboss.ReplicationGranularity;
 import org.jboss.modules.Module;
 
 public interface DistributableSessionManagerConfiguration {
+    /** Name of the context parameter specifying the codec used to compress marshalled sessions, e.g. "deflate" or "deflate-fast" */
+    String COMPRESSION_PARAMETER = "org.wildfly.clustering.web.session.compression";
+    /** Name of the context parameter specifying the minimum size, in bytes, of marshalled sessions eligible for compression */
+    String COMPRESSION_THRESHOLD_PARAMETER = "org.wildfly.clustering.web.session.compression-threshold";
+    int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
     int getMaxActiveSessions();
 
     ReplicationGranularity getGranularity();
@@ -36,4 +42,20 @@ public interface DistributableSessionManagerConfiguration {
     Module getModule();
 
     String getCacheName();
+
+    /**
+     * Returns the codec used to compress marshalled sessions.
+     * @return the name of a compression codec, or null, if marshalled sessions are not compressed
+     */
+    default String getCompression() {
+        return null;
+    }
+
+    /**
+     * Returns the minimum size of marshalled sessions eligible for compression.
+     * @return a number of bytes
+     */
+    default int getCompressionThreshold() {
+        return DEFAULT_COMPRESSION_THRESHOLD;
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.session;
+
+/**
+ * Statistics for the marshalling of sessions, exposed by the {@link io.undertow.server.session.SessionManagerStatistics}
+ * of a distributable session manager.
+ */
+public interface SessionMarshallingStatistics {
+
+    /**
+     * @return The number of times a session, or session attribute, was marshalled
+     */
+    long getMarshalledCount();
+
+    /**
+     * @return The total number of marshalled bytes, prior to compression
+     */
+    long getMarshalledBytes();
+
+    /**
+     * @return The total number of marshalled bytes, as stored, i.e. following any compression
+     */
+    long getStoredBytes();
+
+    /**
+     * @return The number of marshalled forms per size prior to compression, where the element at index i counts the forms whose size, in bytes, is at least 2<sup>i-1</sup>, but less than 2<sup>i</sup>
+     */
+    long[] getMarshalledSizeHistogram();
+
+    /**
+     * @return The number of marshalled forms per size as stored, using the buckets of {@link #getMarshalledSizeHistogram()}
+     */
+    long[] getStoredSizeHistogram();
+}
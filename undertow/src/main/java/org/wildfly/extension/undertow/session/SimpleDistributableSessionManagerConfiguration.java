@@ -21,6 +21,9 @@
  */
 package org.wildfly.extension.undertow.session;
 
+import java.util.List;
+
+import org.jboss.metadata.javaee.spec.ParamValueMetaData;
 import org.jboss.metadata.web.jboss.JBossWebMetaData;
 import org.jboss.metadata.web.jboss.ReplicationConfig;
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
@@ -37,9 +40,15 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
     private final String serverName;
     private final String deploymentName;
     private final Module module;
+    private final String compression;
+    private final int compressionThreshold;
 
     public SimpleDistributableSessionManagerConfiguration(JBossWebMetaData metaData, String serverName, String deploymentName, Module module) {
-        this(metaData.getMaxActiveSessions(), metaData.getReplicationConfig(), serverName, deploymentName, module);
+        this(metaData, metaData.getMaxActiveSessions(), serverName, deploymentName, module);
+    }
+
+    public SimpleDistributableSessionManagerConfiguration(JBossWebMetaData metaData, Integer maxActiveSessions, String serverName, String deploymentName, Module module) {
+        this(maxActiveSessions, metaData.getReplicationConfig(), serverName, deploymentName, module, getContextParameter(metaData, COMPRESSION_PARAMETER), parseCompressionThreshold(getContextParameter(metaData, COMPRESSION_THRESHOLD_PARAMETER)));
     }
 
     public SimpleDistributableSessionManagerConfiguration(SharedSessionManagerConfig config, String serverName, String deploymentName, Module module) {
@@ -47,11 +56,39 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
     }
 
     public SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, String serverName, String deploymentName, Module module) {
+        this(maxActiveSessions, replicationConfig, serverName, deploymentName, module, null, DEFAULT_COMPRESSION_THRESHOLD);
+    }
+
+    private SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, String serverName, String deploymentName, Module module, String compression, int compressionThreshold) {
         this.maxActiveSessions = maxActiveSessions;
         this.replicationConfig = replicationConfig;
         this.serverName = serverName;
         this.deploymentName = deploymentName;
         this.module = module;
+        this.compression = compression;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    private static String getContextParameter(JBossWebMetaData metaData, String name) {
+        List<ParamValueMetaData> params = metaData.getContextParams();
+        if (params != null) {
+            for (ParamValueMetaData param : params) {
+                if (name.equals(param.getParamName())) {
+                    String value = param.getParamValue();
+                    return ((value != null) && !value.trim().isEmpty()) ? value.trim() : null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int parseCompressionThreshold(String value) {
+        if (value == null) return DEFAULT_COMPRESSION_THRESHOLD;
+        int threshold = Integer.parseInt(value);
+        if (threshold < 0) {
+            throw new IllegalArgumentException(value);
+        }
+        return threshold;
     }
 
     @Override
@@ -83,4 +120,14 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
     public String getCacheName() {
         return (this.replicationConfig != null) ? this.replicationConfig.getCacheName() : null;
     }
+
+    @Override
+    public String getCompression() {
+        return this.compression;
+    }
+
+    @Override
+    public int getCompressionThreshold() {
+        return this.compressionThreshold;
+    }
 }
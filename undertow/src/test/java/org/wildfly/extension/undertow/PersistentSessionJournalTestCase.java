@@ -0,0 +1,219 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test for {@link PersistentSessionJournal}.
+ */
+public class PersistentSessionJournalTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void recover() throws IOException {
+        File directory = this.folder.newFolder();
+        try (PersistentSessionJournal journal = new PersistentSessionJournal(directory)) {
+            synchronized (journal) {
+                PersistentSessionJournal.Handler appender = journal.getAppender();
+                appender.session("a", Long.MAX_VALUE);
+                appender.attribute("a", "foo", bytes("1"));
+                appender.attribute("a", "bar", bytes("2"));
+                appender.session("b", Long.MAX_VALUE);
+                appender.attribute("b", "foo", bytes("3"));
+                appender.attribute("a", "foo", bytes("4"));
+                appender.removeAttribute("a", "bar");
+                appender.removeSession("b");
+            }
+            journal.flush();
+        }
+
+        Map<String, PersistentSessionJournal.SessionState> sessions = replay(directory);
+        assertEquals(1, sessions.size());
+        Map<String, byte[]> attributes = sessions.get("a").getAttributes();
+        assertEquals(1, attributes.size());
+        assertArrayEquals(bytes("4"), attributes.get("foo"));
+    }
+
+    @Test
+    public void snapshot() throws IOException {
+        File directory = this.folder.newFolder();
+        try (PersistentSessionJournal journal = new PersistentSessionJournal(directory)) {
+            synchronized (journal) {
+                journal.getAppender().session("a", Long.MAX_VALUE);
+            }
+            assertTrue(journal.getLogSize() > 0);
+            journal.snapshot(handler -> {
+                handler.session("b", Long.MAX_VALUE);
+                handler.attribute("b", "foo", bytes("1"));
+            });
+            assertEquals(0, journal.getLogSize());
+            synchronized (journal) {
+                journal.getAppender().attribute("b", "bar", bytes("2"));
+            }
+        }
+
+        // Previous log segment was replaced by the snapshot
+        assertEquals(2, directory.listFiles().length);
+
+        Map<String, PersistentSessionJournal.SessionState> sessions = replay(directory);
+        assertEquals(1, sessions.size());
+        assertEquals(2, sessions.get("b").getAttributes().size());
+    }
+
+    @Test
+    public void compact() throws IOException {
+        File directory = this.folder.newFolder();
+        try (PersistentSessionJournal journal = new PersistentSessionJournal(directory, 64)) {
+            synchronized (journal) {
+                PersistentSessionJournal.Handler appender = journal.getAppender();
+                for (int i = 0; i < 100; ++i) {
+                    appender.session("a", Long.MAX_VALUE);
+                    appender.attribute("a", "foo", bytes(Integer.toString(i)));
+                }
+                appender.session("expired", System.currentTimeMillis() - 1);
+            }
+            // Small segment size forces rolling of log segments
+            assertTrue(directory.listFiles().length > 1);
+
+            journal.compact();
+
+            assertEquals(0, journal.getLogSize());
+            assertEquals(1, directory.listFiles().length);
+        }
+
+        Map<String, PersistentSessionJournal.SessionState> sessions = replay(directory);
+        assertEquals(1, sessions.size());
+        assertArrayEquals(bytes("99"), sessions.get("a").getAttributes().get("foo"));
+    }
+
+    @Test
+    public void compactRetainsSubsequentRecords() throws IOException {
+        File directory = this.folder.newFolder();
+        try (PersistentSessionJournal journal = new PersistentSessionJournal(directory)) {
+            synchronized (journal) {
+                PersistentSessionJournal.Handler appender = journal.getAppender();
+                appender.session("a", Long.MAX_VALUE);
+                appender.attribute("a", "foo", bytes("1"));
+                appender.attribute("a", "bar", bytes("2"));
+                appender.session("b", Long.MAX_VALUE);
+                appender.attribute("b", "foo", bytes("3"));
+                appender.removeAttribute("a", "bar");
+                appender.removeSession("b");
+                // Recreated session must not inherit the attributes of its predecessor
+                appender.session("b", Long.MAX_VALUE);
+            }
+            journal.compact();
+            synchronized (journal) {
+                journal.getAppender().attribute("b", "bar", bytes("4"));
+            }
+            journal.flush();
+            // Snapshot followed by a new log segment
+            assertEquals(2, directory.listFiles().length);
+            assertTrue(journal.getLogSize() > 0);
+
+            journal.compact();
+            assertEquals(0, journal.getLogSize());
+            assertEquals(1, directory.listFiles().length);
+        }
+
+        Map<String, PersistentSessionJournal.SessionState> sessions = replay(directory);
+        assertEquals(2, sessions.size());
+        Map<String, byte[]> attributes = sessions.get("a").getAttributes();
+        assertEquals(1, attributes.size());
+        assertArrayEquals(bytes("1"), attributes.get("foo"));
+        attributes = sessions.get("b").getAttributes();
+        assertEquals(1, attributes.size());
+        assertArrayEquals(bytes("4"), attributes.get("bar"));
+    }
+
+    @Test
+    public void tornRecord() throws IOException {
+        File directory = this.folder.newFolder();
+        try (PersistentSessionJournal journal = new PersistentSessionJournal(directory)) {
+            synchronized (journal) {
+                PersistentSessionJournal.Handler appender = journal.getAppender();
+                appender.session("a", Long.MAX_VALUE);
+                appender.attribute("a", "foo", bytes("1"));
+                appender.attribute("a", "bar", bytes("2"));
+            }
+        }
+        File[] files = directory.listFiles();
+        assertEquals(1, files.length);
+        // Simulate a crash during the write of the last record
+        try (RandomAccessFile file = new RandomAccessFile(files[0], "rw")) {
+            file.setLength(file.length() - 1);
+        }
+        // Subsequent changes are appended to a new segment
+        try (PersistentSessionJournal journal = new PersistentSessionJournal(directory)) {
+            synchronized (journal) {
+                journal.getAppender().attribute("a", "baz", bytes("3"));
+            }
+        }
+
+        Map<String, PersistentSessionJournal.SessionState> sessions = replay(directory);
+        Map<String, byte[]> attributes = sessions.get("a").getAttributes();
+        assertEquals(2, attributes.size());
+        assertArrayEquals(bytes("1"), attributes.get("foo"));
+        assertArrayEquals(bytes("3"), attributes.get("baz"));
+    }
+
+    @Test
+    public void incompleteSnapshot() throws IOException {
+        File directory = this.folder.newFolder();
+        try (PersistentSessionJournal journal = new PersistentSessionJournal(directory)) {
+            synchronized (journal) {
+                journal.getAppender().session("a", Long.MAX_VALUE);
+            }
+        }
+        File temporary = new File(directory, String.format("%019d%s%s", 2, PersistentSessionJournal.SNAPSHOT_SUFFIX, PersistentSessionJournal.TEMPORARY_SUFFIX));
+        assertTrue(temporary.createNewFile());
+
+        Map<String, PersistentSessionJournal.SessionState> sessions = replay(directory);
+        assertFalse(temporary.exists());
+        assertTrue(sessions.containsKey("a"));
+    }
+
+    private static Map<String, PersistentSessionJournal.SessionState> replay(File directory) throws IOException {
+        PersistentSessionJournal.Sessions sessions = new PersistentSessionJournal.Sessions();
+        try (PersistentSessionJournal journal = new PersistentSessionJournal(directory)) {
+            journal.replay(sessions);
+        }
+        return sessions.getSessions();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2019, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import io.undertow.server.session.Session;
+import org.jboss.marshalling.Marshaller;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test for {@link WriteBehindSessionListener}.
+ */
+public class WriteBehindSessionListenerTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1);
+    private final AbstractPersistentSessionManager manager = mock(AbstractPersistentSessionManager.class);
+    private File directory;
+
+    @Before
+    public void init() throws IOException {
+        this.directory = this.folder.newFolder();
+        when(this.manager.createMarshaller()).thenAnswer(invocation -> mock(Marshaller.class));
+    }
+
+    @After
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void marshalOnFlush() throws IOException {
+        Session session = mock(Session.class);
+        when(session.getId()).thenReturn("a");
+        when(session.getLastAccessedTime()).thenReturn(System.currentTimeMillis());
+        when(session.getMaxInactiveInterval()).thenReturn(60);
+        when(session.getAttribute("foo")).thenReturn("1");
+
+        try (PersistentSessionJournal journal = new PersistentSessionJournal(this.directory)) {
+            WriteBehindSessionListener listener = new WriteBehindSessionListener("test", journal, this.manager, this.executor, Long.MAX_VALUE, Long.MAX_VALUE);
+            try {
+                listener.sessionCreated(session, null);
+                listener.attributeAdded(session, "foo", "1");
+                listener.attributeUpdated(session, "foo", "1", "0");
+                listener.attributeAdded(session, "bar", "2");
+                listener.attributeRemoved(session, "bar", "2");
+
+                // Request threads never marshal
+                verify(this.manager, never()).createMarshaller();
+                verify(session, never()).getAttribute(anyString());
+
+                listener.flush();
+
+                verify(this.manager).createMarshaller();
+                // Attribute changed repeatedly between flushes is read once
+                verify(session).getAttribute("foo");
+                verify(session).getAttribute("bar");
+            } finally {
+                listener.close();
+            }
+
+            PersistentSessionJournal.Sessions sessions = new PersistentSessionJournal.Sessions();
+            journal.replay(sessions);
+            Map<String, PersistentSessionJournal.SessionState> states = sessions.getSessions();
+            assertEquals(Collections.singleton("a"), states.keySet());
+            assertEquals(Collections.singleton("foo"), states.get("a").getAttributes().keySet());
+        }
+    }
+
+    @Test
+    public void invalidatedSession() throws IOException {
+        Session session = mock(Session.class);
+        when(session.getId()).thenReturn("a");
+        when(session.getLastAccessedTime()).thenThrow(new IllegalStateException());
+
+        try (PersistentSessionJournal journal = new PersistentSessionJournal(this.directory)) {
+            WriteBehindSessionListener listener = new WriteBehindSessionListener("test", journal, this.manager, this.executor, Long.MAX_VALUE, Long.MAX_VALUE);
+            try {
+                listener.attributeAdded(session, "foo", "1");
+                listener.flush();
+            } finally {
+                listener.close();
+            }
+            assertEquals(0, journal.getLogSize());
+        }
+    }
+}